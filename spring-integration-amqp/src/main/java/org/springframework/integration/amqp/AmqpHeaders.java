@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -87,6 +87,13 @@ public abstract class AmqpHeaders {
 
 	public static final String RETURN_ROUTING_KEY = PREFIX + "returnRoutingKey";
 
+	/**
+	 * A list of the mapped headers of each AMQP message in a batch
+	 * emitted by an inbound channel adapter in batch mode.
+	 * @since 3.0
+	 */
+	public static final String BATCHED_HEADERS = PREFIX + "batchedHeaders";
+
 	/**
 	 * Compatibility with Spring-AMQP 1.1
 	 * This was previously in RabbitTemplate
@@ -129,6 +129,11 @@ abstract class AbstractAmqpInboundAdapterParser extends AbstractSingleBeanDefini
 		for (String attributeName : CONTAINER_REFERENCE_ATTRIBUTES) {
 			IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, attributeName);
 		}
+		String batchSize = element.getAttribute("batch-size");
+		if (StringUtils.hasText(batchSize) && !element.hasAttribute("prefetch-count")) {
+			// a batch is only acknowledged when complete, so the consumer must be able to prefetch it
+			builder.addPropertyValue("prefetchCount", batchSize);
+		}
 		return builder.getBeanDefinition();
 	}
 
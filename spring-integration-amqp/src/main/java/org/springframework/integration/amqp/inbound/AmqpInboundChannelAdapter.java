@@ -16,13 +16,22 @@
 
 package org.springframework.integration.amqp.inbound;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
 import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.integration.amqp.AmqpHeaders;
 import org.springframework.integration.amqp.support.AmqpHeaderMapper;
 import org.springframework.integration.amqp.support.DefaultAmqpHeaderMapper;
 import org.springframework.integration.context.OrderlyShutdownCapable;
@@ -30,6 +39,8 @@ import org.springframework.integration.endpoint.MessageProducerSupport;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.util.Assert;
 
+import com.rabbitmq.client.Channel;
+
 /**
  * Adapter that receives Messages from an AMQP Queue, converts them into
  * Spring Integration Messages, and sends the results to a Message Channel.
@@ -41,12 +52,28 @@ import org.springframework.util.Assert;
 public class AmqpInboundChannelAdapter extends MessageProducerSupport implements
 		OrderlyShutdownCapable {
 
+	public static final long DEFAULT_BATCH_TIMEOUT = 1000;
+
 	private final AbstractMessageListenerContainer messageListenerContainer;
 
 	private volatile MessageConverter messageConverter = new SimpleMessageConverter();
 
 	private volatile AmqpHeaderMapper headerMapper = new DefaultAmqpHeaderMapper();
 
+	private volatile int batchSize = 1;
+
+	private volatile long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+
+	private volatile boolean manualAcks;
+
+	private volatile List<Delivery> pendingDeliveries = new ArrayList<Delivery>();
+
+	private final Object batchMonitor = new Object();
+
+	private final Object flushMonitor = new Object();
+
+	private volatile ScheduledFuture<?> batchFlushTask;
+
 
 	public AmqpInboundChannelAdapter(AbstractMessageListenerContainer listenerContainer) {
 		Assert.notNull(listenerContainer, "listenerContainer must not be null");
@@ -67,15 +94,71 @@ public class AmqpInboundChannelAdapter extends MessageProducerSupport implements
 		this.headerMapper = headerMapper;
 	}
 
+	/**
+	 * Set the number of AMQP messages to collect and emit as a single message
+	 * whose payload is the {@link List} of converted payloads; the mapped headers
+	 * of each AMQP message are provided, in the same order, in the
+	 * {@link AmqpHeaders#BATCHED_HEADERS} header. A batch is emitted when full, or
+	 * when the 'batchTimeout' elapses. Note that batching modifies the listener
+	 * container: unless it uses {@link AcknowledgeMode#NONE}, its acknowledge mode
+	 * is changed to {@link AcknowledgeMode#MANUAL} (a warning is logged if another
+	 * mode was configured) and each batch is acknowledged with a single 'multiple'
+	 * ack per consumer channel once the batch has been sent (or rejected, and
+	 * requeued, if sending fails). Since unacknowledged messages count against the
+	 * prefetch limit, the container's 'prefetchCount' should be at least the batch
+	 * size; otherwise batches are only emitted when the 'batchTimeout' elapses (the
+	 * namespace sets it to the batch size unless 'prefetch-count' is provided).
+	 * Default 1 (no batching).
+	 * @param batchSize the batch size.
+	 * @since 3.0
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum time (milliseconds) a message waits in an incomplete batch
+	 * before the batch is emitted; 0 or less disables the timer (a batch is only
+	 * emitted when full). Default 1000.
+	 * @param batchTimeout the timeout.
+	 * @since 3.0
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
 	@Override
 	protected void onInit() {
-		this.messageListenerContainer.setMessageListener(new MessageListener() {
-			public void onMessage(Message message) {
-				Object payload = messageConverter.fromMessage(message);
-				Map<String, ?> headers = headerMapper.toHeadersFromRequest(message.getMessageProperties());
-				sendMessage(MessageBuilder.withPayload(payload).copyHeaders(headers).build());
+		if (this.batchSize > 1) {
+			Assert.state(this.messageListenerContainer.isExposeListenerChannel(),
+					"Batching requires the listener channel to be exposed");
+			if (AcknowledgeMode.NONE.equals(this.messageListenerContainer.getAcknowledgeMode())) {
+				this.manualAcks = false;
 			}
-		});
+			else {
+				AcknowledgeMode acknowledgeMode = this.messageListenerContainer.getAcknowledgeMode();
+				if (!AcknowledgeMode.MANUAL.equals(acknowledgeMode) && logger.isWarnEnabled()) {
+					logger.warn("Changing the listener container's acknowledge mode from " + acknowledgeMode
+							+ " to MANUAL; batches are acknowledged by the adapter");
+				}
+				this.messageListenerContainer.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+				this.manualAcks = true;
+			}
+			this.messageListenerContainer.setMessageListener(new ChannelAwareMessageListener() {
+				public void onMessage(Message message, Channel channel) throws Exception {
+					addToBatch(message, channel);
+				}
+			});
+		}
+		else {
+			this.messageListenerContainer.setMessageListener(new MessageListener() {
+				public void onMessage(Message message) {
+					Object payload = messageConverter.fromMessage(message);
+					Map<String, ?> headers = headerMapper.toHeadersFromRequest(message.getMessageProperties());
+					sendMessage(MessageBuilder.withPayload(payload).copyHeaders(headers).build());
+				}
+			});
+		}
 		this.messageListenerContainer.afterPropertiesSet();
 		super.onInit();
 	}
@@ -83,13 +166,128 @@ public class AmqpInboundChannelAdapter extends MessageProducerSupport implements
 	@Override
 	protected void doStart() {
 		this.messageListenerContainer.start();
+		if (this.batchSize > 1 && this.batchTimeout > 0) {
+			this.batchFlushTask = this.getTaskScheduler().scheduleWithFixedDelay(new Runnable() {
+				public void run() {
+					try {
+						flush();
+					}
+					catch (Exception e) {
+						logger.error("Failed to emit batch", e);
+					}
+				}
+			}, new Date(System.currentTimeMillis() + this.batchTimeout), this.batchTimeout);
+		}
 	}
 
+	/**
+	 * Emits any buffered messages, then stops the listener container. Messages
+	 * delivered while the container is stopping are discarded without being
+	 * acknowledged, so the broker redelivers them, unless the container uses
+	 * {@link AcknowledgeMode#NONE}; in that case the broker has already
+	 * discarded them, so they are emitted as a final batch.
+	 */
 	@Override
 	protected void doStop() {
+		ScheduledFuture<?> batchFlushTask = this.batchFlushTask;
+		if (batchFlushTask != null) {
+			batchFlushTask.cancel(false);
+			this.batchFlushTask = null;
+		}
+		if (this.batchSize > 1) {
+			try {
+				this.flush();
+			}
+			catch (Exception e) {
+				logger.error("Failed to emit batch", e);
+			}
+		}
 		this.messageListenerContainer.stop();
+		if (this.batchSize > 1) {
+			if (this.manualAcks) {
+				synchronized (this.batchMonitor) {
+					this.pendingDeliveries = new ArrayList<Delivery>();
+				}
+			}
+			else {
+				try {
+					this.flush();
+				}
+				catch (Exception e) {
+					logger.error("Failed to emit batch", e);
+				}
+			}
+		}
+	}
+
+	private void addToBatch(Message message, Channel channel) {
+		boolean full;
+		synchronized (this.batchMonitor) {
+			this.pendingDeliveries.add(new Delivery(message, channel));
+			full = this.pendingDeliveries.size() >= this.batchSize;
+		}
+		if (full) {
+			this.flush();
+		}
+	}
+
+	/**
+	 * Emit the messages buffered so far (if any) as a batch.
+	 */
+	private void flush() {
+		synchronized (this.flushMonitor) {
+			List<Delivery> batch;
+			synchronized (this.batchMonitor) {
+				if (this.pendingDeliveries.isEmpty()) {
+					return;
+				}
+				batch = this.pendingDeliveries;
+				this.pendingDeliveries = new ArrayList<Delivery>(this.batchSize);
+			}
+			List<Object> payloads = new ArrayList<Object>(batch.size());
+			List<Map<String, ?>> batchedHeaders = new ArrayList<Map<String, ?>>(batch.size());
+			// delivery tags are per channel; ack the last one on each, with 'multiple'
+			Map<Channel, Long> lastDeliveryTags = new LinkedHashMap<Channel, Long>();
+			for (Delivery delivery : batch) {
+				lastDeliveryTags.put(delivery.channel, delivery.message.getMessageProperties().getDeliveryTag());
+			}
+			try {
+				for (Delivery delivery : batch) {
+					payloads.add(this.messageConverter.fromMessage(delivery.message));
+					batchedHeaders.add(this.headerMapper.toHeadersFromRequest(delivery.message.getMessageProperties()));
+				}
+				this.sendMessage(MessageBuilder.withPayload(payloads)
+						.setHeader(AmqpHeaders.BATCHED_HEADERS, batchedHeaders)
+						.build());
+			}
+			catch (RuntimeException e) {
+				this.acknowledge(lastDeliveryTags, false);
+				throw e;
+			}
+			this.acknowledge(lastDeliveryTags, true);
+		}
 	}
 
+	private void acknowledge(Map<Channel, Long> lastDeliveryTags, boolean ack) {
+		if (!this.manualAcks) {
+			return;
+		}
+		for (Map.Entry<Channel, Long> entry : lastDeliveryTags.entrySet()) {
+			try {
+				if (ack) {
+					entry.getKey().basicAck(entry.getValue(), true);
+				}
+				else {
+					entry.getKey().basicNack(entry.getValue(), true, true);
+				}
+			}
+			catch (IOException e) {
+				// the broker redelivers unacknowledged messages when the channel is closed
+				logger.error("Failed to " + (ack ? "ack" : "nack") + " batch up to delivery tag "
+						+ entry.getValue(), e);
+			}
+		}
+	}
 
 	/**
 	 * {@inheritDoc}
@@ -110,4 +308,18 @@ public class AmqpInboundChannelAdapter extends MessageProducerSupport implements
 		return 0;
 	}
 
+
+	private static class Delivery {
+
+		private final Message message;
+
+		private final Channel channel;
+
+		Delivery(Message message, Channel channel) {
+			this.message = message;
+			this.channel = channel;
+		}
+
+	}
+
 }
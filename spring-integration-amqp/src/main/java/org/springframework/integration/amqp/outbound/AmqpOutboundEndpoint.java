@@ -13,29 +13,55 @@
 
 package org.springframework.integration.amqp.outbound;
 
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 
 import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.MessageListener;
 import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.RabbitUtils;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate.ReturnCallback;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
 import org.springframework.amqp.rabbit.support.CorrelationData;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.RabbitExceptionTranslator;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessageChannel;
+import org.springframework.integration.MessageHandlingException;
+import org.springframework.integration.MessageTimeoutException;
 import org.springframework.integration.amqp.AmqpHeaders;
 import org.springframework.integration.amqp.support.AmqpHeaderMapper;
 import org.springframework.integration.amqp.support.DefaultAmqpHeaderMapper;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.handler.ExpressionEvaluatingMessageProcessor;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.util.WriteBehindBuffer;
 import org.springframework.util.Assert;
 
 /**
@@ -48,7 +74,13 @@ import org.springframework.util.Assert;
  * @since 2.1
  */
 public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
-	implements RabbitTemplate.ConfirmCallback, ReturnCallback {
+	implements RabbitTemplate.ConfirmCallback, ReturnCallback, DisposableBean {
+
+	public static final long DEFAULT_ASYNC_REPLY_TIMEOUT = 5000;
+
+	public static final long DEFAULT_BATCH_TIMEOUT = 1000;
+
+	public static final long DEFAULT_CONFIRM_TIMEOUT = 5000;
 
 	private static final ExpressionParser expressionParser = new SpelExpressionParser(new SpelParserConfiguration(true, true));
 
@@ -81,6 +113,34 @@ public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
 
 	private volatile MessageChannel returnChannel;
 
+	private volatile AbstractMessageListenerContainer asyncReplyContainer;
+
+	private volatile long asyncReplyTimeout = DEFAULT_ASYNC_REPLY_TIMEOUT;
+
+	private volatile String asyncReplyQueueName;
+
+	private final String asyncCorrelationPrefix = UUID.randomUUID().toString();
+
+	private final AtomicLong asyncCorrelationSequence = new AtomicLong();
+
+	private final Map<String, AsyncRequest> asyncRequests = new ConcurrentHashMap<String, AsyncRequest>();
+
+	private volatile int batchSize = 1;
+
+	private volatile long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+
+	private volatile long confirmTimeout = DEFAULT_CONFIRM_TIMEOUT;
+
+	private volatile MessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+
+	private volatile WriteBehindBuffer<PendingPublish> batchBuffer;
+
+	private final Object confirmChannelMonitor = new Object();
+
+	private Connection confirmConnection;
+
+	private Channel confirmChannel;
+
 	@Override
 	protected void doInit() {
 		Assert.state(exchangeNameExpression == null || exchangeName == null,
@@ -108,7 +168,10 @@ public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
 			Expression expression = expressionParser.parseExpression(this.confirmCorrelationExpression);
 			this.correlationDataGenerator = new ExpressionEvaluatingMessageProcessor<Object>(expression, Object.class);
 			Assert.isTrue(amqpTemplate instanceof RabbitTemplate, "RabbitTemplate implementation is required for publisher confirms");
-			((RabbitTemplate) this.amqpTemplate).setConfirmCallback(this);
+			if (this.batchSize <= 1) {
+				// when batching, confirms are correlated by the endpoint
+				((RabbitTemplate) this.amqpTemplate).setConfirmCallback(this);
+			}
 			if (beanFactory != null) {
 				this.correlationDataGenerator.setBeanFactory(beanFactory);
 			}
@@ -117,6 +180,42 @@ public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
 			Assert.isTrue(amqpTemplate instanceof RabbitTemplate, "RabbitTemplate implementation is required for publisher returns");
 			((RabbitTemplate) this.amqpTemplate).setReturnCallback(this);
 		}
+		if (this.asyncReplyContainer != null) {
+			Assert.state(this.expectReply, "An async reply container only applies to a gateway");
+			Assert.isTrue(amqpTemplate instanceof RabbitTemplate, "RabbitTemplate implementation is required for async replies");
+			String[] queueNames = this.asyncReplyContainer.getQueueNames();
+			Assert.isTrue(queueNames.length == 1, "The async reply container must listen to exactly one queue");
+			this.asyncReplyQueueName = queueNames[0];
+			this.asyncReplyContainer.setMessageListener(new AsyncReplyListener());
+		}
+		if (this.batchSize > 1) {
+			Assert.state(!this.expectReply, "Batching only applies to an outbound channel adapter");
+			Assert.isTrue(amqpTemplate instanceof RabbitTemplate, "RabbitTemplate implementation is required for batching");
+			Assert.state(this.returnChannel == null, "Publisher returns are not supported when batching");
+			// batches bypass the template, so its default exchange and routing key cannot be used
+			Assert.state(this.exchangeName != null || this.exchangeNameExpression != null,
+					"An exchangeName or exchangeNameExpression is required for batching");
+			Assert.state(this.routingKey != null || this.routingKeyExpression != null,
+					"A routingKey or routingKeyExpression is required for batching");
+			this.batchBuffer = new WriteBehindBuffer<PendingPublish>(this.batchSize,
+					new WriteBehindBuffer.Writer<PendingPublish>() {
+
+						public void write(List<PendingPublish> batch) {
+							publishBatch(batch);
+						}
+
+					});
+			this.batchBuffer.setFailureCallback(new WriteBehindBuffer.FailureCallback<PendingPublish>() {
+
+				public void onFailure(List<PendingPublish> batch, RuntimeException exception) {
+					batchFailed(batch, exception);
+				}
+
+			});
+			if (this.batchTimeout > 0) {
+				this.batchBuffer.start(this.getTaskScheduler(), this.batchTimeout);
+			}
+		}
 	}
 
 	public AmqpOutboundEndpoint(AmqpTemplate amqpTemplate) {
@@ -167,6 +266,87 @@ public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
 		this.returnChannel = returnChannel;
 	}
 
+	/**
+	 * Set the number of messages an outbound channel adapter publishes on one channel,
+	 * waiting for the publisher confirms of the batch in bulk, instead of publishing
+	 * (and correlating confirms for) each message individually. Messages are buffered
+	 * until the batch is full (and published on the thread sending the last message), or
+	 * until the 'batchTimeout' elapses. Acks and nacks are routed to the
+	 * 'confirmAckChannel' and 'confirmNackChannel' using the correlation data from the
+	 * 'confirmCorrelationExpression', if provided; messages that are not confirmed within
+	 * the 'confirmTimeout', or that are in a batch that could not be published, are
+	 * treated as nacked. Batches are published on a channel dedicated to this endpoint,
+	 * which is put into confirm mode and is never returned to the connection factory's
+	 * channel cache. The template's default exchange and routing key are not used and
+	 * publisher returns are not supported when batching. Default 1 (no batching).
+	 * @param batchSize the batch size.
+	 * @since 3.0
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum time (milliseconds) a message waits in an incomplete batch before
+	 * the batch is published; 0 or less disables the timer (the batch is only published
+	 * when full, or on {@link #flush()} or {@link #destroy()}). Default 1000.
+	 * @param batchTimeout the timeout.
+	 * @since 3.0
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * Set the {@link MessagePropertiesConverter} used to convert the properties of
+	 * messages published in batches; it should match the template's converter, if
+	 * that has been customized. Default {@link DefaultMessagePropertiesConverter}.
+	 * @param messagePropertiesConverter the converter.
+	 * @since 3.0
+	 */
+	public void setMessagePropertiesConverter(MessagePropertiesConverter messagePropertiesConverter) {
+		Assert.notNull(messagePropertiesConverter, "messagePropertiesConverter must not be null");
+		this.messagePropertiesConverter = messagePropertiesConverter;
+	}
+
+	/**
+	 * Set the time (milliseconds) to wait for the publisher confirms of a batch;
+	 * 0 or less means wait indefinitely. Default 5000.
+	 * @param confirmTimeout the timeout.
+	 * @since 3.0
+	 */
+	public void setConfirmTimeout(long confirmTimeout) {
+		this.confirmTimeout = confirmTimeout;
+	}
+
+	/**
+	 * Set a listener container to receive replies, enabling asynchronous request/reply
+	 * for a gateway. The calling thread is released as soon as the request is sent (with
+	 * the container's queue as the 'replyTo' and a generated 'correlationId', which the
+	 * replying system must return); the reply is sent to the output channel (or
+	 * 'replyChannel' header) on the container thread when it arrives. The container
+	 * must listen to exactly one queue; its message listener is set by this endpoint
+	 * and its lifecycle is not managed by this endpoint.
+	 * @param asyncReplyContainer the container.
+	 * @since 3.0
+	 */
+	public void setAsyncReplyContainer(AbstractMessageListenerContainer asyncReplyContainer) {
+		this.asyncReplyContainer = asyncReplyContainer;
+	}
+
+	/**
+	 * Set the time to wait for an asynchronous reply; if none is received, an
+	 * {@link org.springframework.integration.message.ErrorMessage} with a
+	 * {@link MessageTimeoutException} is sent to the request's 'errorChannel'
+	 * header (or the 'errorChannel' bean). A negative value means wait
+	 * indefinitely. Default 5 seconds.
+	 * @param asyncReplyTimeout the timeout in milliseconds.
+	 * @since 3.0
+	 */
+	public void setAsyncReplyTimeout(long asyncReplyTimeout) {
+		this.asyncReplyTimeout = asyncReplyTimeout;
+	}
+
 	@Override
 	public String getComponentType() {
 		return expectReply ? "amqp:outbound-gateway" : "amqp:outbound-channel-adapter";
@@ -196,14 +376,166 @@ public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
 			routingKey = this.routingKeyGenerator.processMessage(requestMessage);
 		}
 		if (this.expectReply) {
+			if (this.asyncReplyContainer != null) {
+				this.sendAsync(exchangeName, routingKey, requestMessage);
+				return null;
+			}
 			return this.sendAndReceive(exchangeName, routingKey, requestMessage);
 		}
+		else if (this.batchSize > 1) {
+			this.addToBatch(exchangeName, routingKey, requestMessage, correlationData);
+			return null;
+		}
 		else {
 			this.send(exchangeName, routingKey, requestMessage, correlationData);
 			return null;
 		}
 	}
 
+	private void addToBatch(String exchangeName, String routingKey, Message<?> requestMessage,
+			CorrelationData correlationData) {
+		Assert.state(exchangeName != null, "The exchangeNameExpression evaluated to null");
+		Assert.state(routingKey != null, "The routingKeyExpression evaluated to null");
+		MessageConverter converter = ((RabbitTemplate) this.amqpTemplate).getMessageConverter();
+		MessageProperties amqpMessageProperties = new MessageProperties();
+		org.springframework.amqp.core.Message amqpMessage = converter.toMessage(requestMessage.getPayload(), amqpMessageProperties);
+		this.headerMapper.fromHeadersToRequest(requestMessage.getHeaders(), amqpMessageProperties);
+		this.batchBuffer.add(new PendingPublish(exchangeName, routingKey, amqpMessage, correlationData));
+	}
+
+	/**
+	 * Publish any buffered messages and wait for their confirms.
+	 * @since 3.0
+	 */
+	public void flush() {
+		WriteBehindBuffer<PendingPublish> batchBuffer = this.batchBuffer;
+		if (batchBuffer != null) {
+			batchBuffer.flush();
+		}
+	}
+
+	private void publishBatch(List<PendingPublish> batch) {
+		synchronized (this.confirmChannelMonitor) {
+			try {
+				Channel channel = this.getConfirmChannel();
+				BatchConfirmListener confirmListener = new BatchConfirmListener();
+				channel.addConfirmListener(confirmListener);
+				try {
+					for (PendingPublish pending : batch) {
+						confirmListener.register(channel.getNextPublishSeqNo(), pending);
+						org.springframework.amqp.core.Message message = pending.getMessage();
+						channel.basicPublish(pending.getExchangeName(), pending.getRoutingKey(),
+								this.messagePropertiesConverter.fromMessageProperties(message.getMessageProperties(),
+										"UTF-8"),
+								message.getBody());
+					}
+					if (this.confirmTimeout > 0) {
+						try {
+							channel.waitForConfirms(this.confirmTimeout);
+						}
+						catch (TimeoutException e) {
+							if (logger.isWarnEnabled()) {
+								logger.warn("Timed out waiting for publisher confirms; unconfirmed messages are treated as nacked");
+							}
+						}
+					}
+					else {
+						channel.waitForConfirms();
+					}
+					confirmListener.nackOutstanding();
+				}
+				finally {
+					channel.removeConfirmListener(confirmListener);
+				}
+			}
+			catch (Exception e) {
+				if (e instanceof InterruptedException) {
+					Thread.currentThread().interrupt();
+				}
+				// the channel is probably unusable; a new one is opened for the next batch
+				this.closeConfirmChannel();
+				throw RabbitExceptionTranslator.convertRabbitAccessException(e);
+			}
+		}
+	}
+
+	/**
+	 * Nacks all the messages of a failed batch that have not already been confirmed,
+	 * including those that were never published.
+	 */
+	private void batchFailed(List<PendingPublish> batch, RuntimeException exception) {
+		int nacked = 0;
+		for (PendingPublish pending : batch) {
+			if (this.routeConfirm(pending, false)) {
+				nacked++;
+			}
+		}
+		if (logger.isErrorEnabled()) {
+			logger.error("Failed to publish a batch of " + batch.size() + " message(s); " + nacked
+					+ " unconfirmed message(s) treated as nacked", exception);
+		}
+	}
+
+	private Channel getConfirmChannel() throws Exception {
+		if (this.confirmChannel == null || !this.confirmChannel.isOpen()) {
+			this.closeConfirmChannel();
+			this.confirmConnection = ((RabbitTemplate) this.amqpTemplate).getConnectionFactory().createConnection();
+			this.confirmChannel = this.confirmConnection.createChannel(false);
+			this.confirmChannel.confirmSelect();
+		}
+		return this.confirmChannel;
+	}
+
+	private void closeConfirmChannel() {
+		if (this.confirmChannel != null) {
+			// a channel in confirm mode must not be returned to a channel cache
+			RabbitUtils.setPhysicalCloseRequired(true);
+			try {
+				RabbitUtils.closeChannel(this.confirmChannel);
+			}
+			finally {
+				RabbitUtils.setPhysicalCloseRequired(false);
+			}
+			this.confirmChannel = null;
+		}
+		if (this.confirmConnection != null) {
+			RabbitUtils.closeConnection(this.confirmConnection);
+			this.confirmConnection = null;
+		}
+	}
+
+	/**
+	 * Routes the confirm for a message, unless it has already been routed.
+	 * @return true if the confirm was routed.
+	 */
+	private boolean routeConfirm(PendingPublish pending, boolean ack) {
+		if (!pending.markConfirmed()) {
+			return false;
+		}
+		CorrelationData correlationData = pending.getCorrelationData();
+		if (correlationData != null) {
+			this.confirm(correlationData, ack);
+		}
+		else if (!ack && logger.isErrorEnabled()) {
+			logger.error("Publish was not confirmed by the broker and no correlation data is available");
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels the batch timer, publishes any buffered messages and closes the
+	 * channel used for batches.
+	 */
+	public void destroy() throws Exception {
+		WriteBehindBuffer<PendingPublish> batchBuffer = this.batchBuffer;
+		if (batchBuffer != null) {
+			batchBuffer.stop();
+			synchronized (this.confirmChannelMonitor) {
+				this.closeConfirmChannel();
+			}
+		}
+	}
+
 	private void send(String exchangeName, String routingKey,
 			final Message<?> requestMessage, CorrelationData correlationData) {
 		if (this.amqpTemplate instanceof RabbitTemplate) {
@@ -239,15 +571,77 @@ public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
 		if (amqpReplyMessage == null) {
 			return null;
 		}
+		return this.buildReply(converter, amqpReplyMessage, false);
+	}
+
+	private Message<?> buildReply(MessageConverter converter, org.springframework.amqp.core.Message amqpReplyMessage,
+			boolean removeCorrelationId) {
 		Object replyObject = converter.fromMessage(amqpReplyMessage);
 		MessageBuilder<?> builder = (replyObject instanceof Message)
 				? MessageBuilder.fromMessage((Message<?>) replyObject)
 				: MessageBuilder.withPayload(replyObject);
 		Map<String, ?> headers = this.headerMapper.toHeadersFromReply(amqpReplyMessage.getMessageProperties());
+		if (removeCorrelationId) {
+			// do not propagate the endpoint's internal correlation id
+			headers.remove(AmqpHeaders.CORRELATION_ID);
+		}
 		builder.copyHeadersIfAbsent(headers);
 		return builder.build();
 	}
 
+	private void sendAsync(String exchangeName, String routingKey, final Message<?> requestMessage) {
+		MessageConverter converter = ((RabbitTemplate) this.amqpTemplate).getMessageConverter();
+		MessageProperties amqpMessageProperties = new MessageProperties();
+		org.springframework.amqp.core.Message amqpMessage = converter.toMessage(requestMessage.getPayload(), amqpMessageProperties);
+		this.headerMapper.fromHeadersToRequest(requestMessage.getHeaders(), amqpMessageProperties);
+		final String correlationId = this.asyncCorrelationPrefix + "_" + this.asyncCorrelationSequence.incrementAndGet();
+		amqpMessageProperties.setReplyTo(this.asyncReplyQueueName);
+		amqpMessageProperties.setCorrelationId(this.toBytes(correlationId));
+		AsyncRequest asyncRequest = new AsyncRequest(requestMessage);
+		this.asyncRequests.put(correlationId, asyncRequest);
+		try {
+			this.amqpTemplate.send(exchangeName, routingKey, amqpMessage);
+		}
+		catch (AmqpException e) {
+			this.asyncRequests.remove(correlationId);
+			throw e;
+		}
+		if (this.asyncReplyTimeout >= 0) {
+			asyncRequest.setTimeoutFuture(this.getTaskScheduler().schedule(new Runnable() {
+
+				public void run() {
+					asyncTimeout(correlationId);
+				}
+
+			}, new Date(System.currentTimeMillis() + this.asyncReplyTimeout)));
+		}
+	}
+
+	private void asyncTimeout(String correlationId) {
+		AsyncRequest asyncRequest = this.asyncRequests.remove(correlationId);
+		if (asyncRequest != null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Timed out waiting for reply with correlationId " + correlationId);
+			}
+			this.sendAsyncFailure(new MessageTimeoutException(asyncRequest.getRequestMessage(),
+					"failed to receive AMQP response within timeout of: " + this.asyncReplyTimeout + "ms"));
+		}
+	}
+
+	private byte[] toBytes(String correlationId) {
+		try {
+			return correlationId.getBytes("UTF-8");
+		}
+		catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	protected boolean isAsync() {
+		return this.expectReply && this.asyncReplyContainer != null;
+	}
+
 	public void confirm(CorrelationData correlationData, boolean ack) {
 		Object userCorrelationData = correlationData;
 		if (correlationData instanceof CorrelationDataWrapper) {
@@ -271,6 +665,163 @@ public class AmqpOutboundEndpoint extends AbstractReplyProducingMessageHandler
 		}
 	}
 
+	private class AsyncReplyListener implements MessageListener {
+
+		public void onMessage(org.springframework.amqp.core.Message message) {
+			byte[] correlation = message.getMessageProperties().getCorrelationId();
+			String correlationId = null;
+			try {
+				correlationId = correlation == null ? null : new String(correlation, "UTF-8");
+			}
+			catch (UnsupportedEncodingException e) {
+				throw new IllegalStateException(e);
+			}
+			AsyncRequest asyncRequest = correlationId == null ? null : asyncRequests.remove(correlationId);
+			if (asyncRequest == null) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("No request waiting for reply with correlationId " + correlationId
+							+ " (late reply?); discarded");
+				}
+				return;
+			}
+			asyncRequest.cancelTimeout();
+			Message<?> reply;
+			try {
+				reply = buildReply(((RabbitTemplate) amqpTemplate).getMessageConverter(), message, true);
+			}
+			catch (Exception e) {
+				sendAsyncFailure(new MessageHandlingException(asyncRequest.getRequestMessage(),
+						"Failed to convert AMQP reply", e));
+				return;
+			}
+			sendAsyncReply(reply, asyncRequest.getRequestMessage());
+		}
+
+	}
+
+	private static class PendingPublish {
+
+		private final String exchangeName;
+
+		private final String routingKey;
+
+		private final org.springframework.amqp.core.Message message;
+
+		private final CorrelationData correlationData;
+
+		private final AtomicBoolean confirmed = new AtomicBoolean();
+
+		public PendingPublish(String exchangeName, String routingKey, org.springframework.amqp.core.Message message,
+				CorrelationData correlationData) {
+			this.exchangeName = exchangeName;
+			this.routingKey = routingKey;
+			this.message = message;
+			this.correlationData = correlationData;
+		}
+
+		public String getExchangeName() {
+			return exchangeName;
+		}
+
+		public String getRoutingKey() {
+			return routingKey;
+		}
+
+		public org.springframework.amqp.core.Message getMessage() {
+			return message;
+		}
+
+		public CorrelationData getCorrelationData() {
+			return correlationData;
+		}
+
+		public boolean markConfirmed() {
+			return this.confirmed.compareAndSet(false, true);
+		}
+
+	}
+
+	/**
+	 * Tracks the publish sequence numbers of a batch; handles single and
+	 * multiple (cumulative) acks and nacks.
+	 */
+	private class BatchConfirmListener implements ConfirmListener {
+
+		private final SortedMap<Long, PendingPublish> outstanding = new TreeMap<Long, PendingPublish>();
+
+		public synchronized void register(long sequence, PendingPublish pending) {
+			this.outstanding.put(sequence, pending);
+		}
+
+		public void handleAck(long deliveryTag, boolean multiple) {
+			this.confirmed(deliveryTag, multiple, true);
+		}
+
+		public void handleNack(long deliveryTag, boolean multiple) {
+			this.confirmed(deliveryTag, multiple, false);
+		}
+
+		private void confirmed(long deliveryTag, boolean multiple, boolean ack) {
+			List<PendingPublish> confirmed;
+			synchronized (this) {
+				if (multiple) {
+					SortedMap<Long, PendingPublish> head = this.outstanding.headMap(deliveryTag + 1);
+					confirmed = new ArrayList<PendingPublish>(head.values());
+					head.clear();
+				}
+				else if (this.outstanding.containsKey(deliveryTag)) {
+					confirmed = new ArrayList<PendingPublish>(1);
+					confirmed.add(this.outstanding.remove(deliveryTag));
+				}
+				else {
+					return;
+				}
+			}
+			for (PendingPublish pending : confirmed) {
+				routeConfirm(pending, ack);
+			}
+		}
+
+		public void nackOutstanding() {
+			List<PendingPublish> unconfirmed;
+			synchronized (this) {
+				unconfirmed = new ArrayList<PendingPublish>(this.outstanding.values());
+				this.outstanding.clear();
+			}
+			for (PendingPublish pending : unconfirmed) {
+				routeConfirm(pending, false);
+			}
+		}
+
+	}
+
+	private static class AsyncRequest {
+
+		private final Message<?> requestMessage;
+
+		private volatile ScheduledFuture<?> timeoutFuture;
+
+		public AsyncRequest(Message<?> requestMessage) {
+			this.requestMessage = requestMessage;
+		}
+
+		public Message<?> getRequestMessage() {
+			return requestMessage;
+		}
+
+		public void setTimeoutFuture(ScheduledFuture<?> timeoutFuture) {
+			this.timeoutFuture = timeoutFuture;
+		}
+
+		public void cancelTimeout() {
+			ScheduledFuture<?> timeoutFuture = this.timeoutFuture;
+			if (timeoutFuture != null) {
+				timeoutFuture.cancel(false);
+			}
+		}
+
+	}
+
 	private static class CorrelationDataWrapper extends CorrelationData {
 
 		private final Object userData;
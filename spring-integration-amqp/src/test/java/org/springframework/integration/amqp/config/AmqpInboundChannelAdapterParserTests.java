@@ -18,9 +18,11 @@ package org.springframework.integration.amqp.config;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageListener;
 import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
 import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -178,6 +180,25 @@ public class AmqpInboundChannelAdapterParserTests {
 		assertNotNull(siMessage.getHeaders().get(AmqpHeaders.CONTENT_TYPE));
 	}
 
+	@Test
+	public void withBatching() {
+		AmqpInboundChannelAdapter adapter = context.getBean("withBatching", AmqpInboundChannelAdapter.class);
+		assertEquals(50, TestUtils.getPropertyValue(adapter, "batchSize"));
+		assertEquals(500L, TestUtils.getPropertyValue(adapter, "batchTimeout"));
+		AbstractMessageListenerContainer mlc =
+				TestUtils.getPropertyValue(adapter, "messageListenerContainer", AbstractMessageListenerContainer.class);
+		assertEquals(AcknowledgeMode.MANUAL, mlc.getAcknowledgeMode());
+		assertTrue(mlc.getMessageListener() instanceof ChannelAwareMessageListener);
+	}
+
+	@Test
+	public void withBatchingDefaultPrefetch() {
+		AmqpInboundChannelAdapter adapter = context.getBean("withBatchingDefaultPrefetch", AmqpInboundChannelAdapter.class);
+		AbstractMessageListenerContainer mlc =
+				TestUtils.getPropertyValue(adapter, "messageListenerContainer", AbstractMessageListenerContainer.class);
+		assertEquals(20, TestUtils.getPropertyValue(mlc, "prefetchCount"));
+	}
+
 	@Test
 	public void testInt2971HeaderMapperAndMappedHeadersExclusivity() {
 		try {
@@ -22,14 +22,18 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -71,6 +75,7 @@ import org.springframework.util.ReflectionUtils;
 
 import com.rabbitmq.client.AMQP.BasicProperties;
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 
 /**
  * @author Mark Fisher
@@ -172,7 +177,124 @@ public class AmqpOutboundChannelAdapterParserTests {
 		assertEquals(Boolean.TRUE, ack.getHeaders().get(AmqpHeaders.PUBLISH_CONFIRM));
 	}
 
+	@Test
+	public void withBatching() throws Exception {
+		ConnectionFactory connectionFactory = context.getBean(ConnectionFactory.class);
+		Connection mockConnection = mock(Connection.class);
+		Channel mockChannel = mock(Channel.class);
+		when(connectionFactory.createConnection()).thenReturn(mockConnection);
+		when(mockConnection.createChannel(false)).thenReturn(mockChannel);
+		final AtomicLong sequence = new AtomicLong(1);
+		when(mockChannel.getNextPublishSeqNo()).thenAnswer(new Answer<Long>() {
+
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				return sequence.get();
+			}
+		});
+		final List<String> published = new ArrayList<String>();
+		doAnswer(new Answer<Object>() {
+
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				published.add(new String((byte[]) invocation.getArguments()[3]));
+				sequence.incrementAndGet();
+				return null;
+			}
+		}).when(mockChannel).basicPublish(Mockito.anyString(), Mockito.anyString(),
+				Mockito.any(BasicProperties.class), Mockito.any(byte[].class));
+		final AtomicReference<ConfirmListener> confirmListener = new AtomicReference<ConfirmListener>();
+		doAnswer(new Answer<Object>() {
+
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				confirmListener.set((ConfirmListener) invocation.getArguments()[0]);
+				return null;
+			}
+		}).when(mockChannel).addConfirmListener(Mockito.any(ConfirmListener.class));
+		when(mockChannel.waitForConfirms(1000)).thenAnswer(new Answer<Boolean>() {
+
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				// one multiple ack for the first two, a nack for the third
+				confirmListener.get().handleAck(2, true);
+				confirmListener.get().handleNack(3, false);
+				return false;
+			}
+		});
+
+		MessageChannel requestChannel = context.getBean("batchRequestChannel", MessageChannel.class);
+		requestChannel.send(new GenericMessage<String>("foo"));
+		requestChannel.send(new GenericMessage<String>("bar"));
+		assertEquals(0, published.size());
+		requestChannel.send(new GenericMessage<String>("baz"));
+		assertEquals(3, published.size());
+		assertEquals("foo", published.get(0));
+		assertEquals("baz", published.get(2));
+		Mockito.verify(mockChannel).confirmSelect();
+		Mockito.verify(mockChannel).removeConfirmListener(confirmListener.get());
+
+		PollableChannel ackChannel = context.getBean("batchAckChannel", PollableChannel.class);
+		PollableChannel nackChannel = context.getBean("batchNackChannel", PollableChannel.class);
+		Message<?> ack = ackChannel.receive(0);
+		assertNotNull(ack);
+		assertEquals("foo", ack.getPayload());
+		assertEquals(Boolean.TRUE, ack.getHeaders().get(AmqpHeaders.PUBLISH_CONFIRM));
+		ack = ackChannel.receive(0);
+		assertNotNull(ack);
+		assertEquals("bar", ack.getPayload());
+		assertNull(ackChannel.receive(0));
+		Message<?> nack = nackChannel.receive(0);
+		assertNotNull(nack);
+		assertEquals("baz", nack.getPayload());
+		assertEquals(Boolean.FALSE, nack.getHeaders().get(AmqpHeaders.PUBLISH_CONFIRM));
+	}
+
 	@SuppressWarnings("rawtypes")
+	@Test
+	public void withBatchingPublishFailure() throws Exception {
+		ConnectionFactory connectionFactory = context.getBean(ConnectionFactory.class);
+		Connection mockConnection = mock(Connection.class);
+		Channel mockChannel = mock(Channel.class);
+		when(connectionFactory.createConnection()).thenReturn(mockConnection);
+		when(mockConnection.createChannel(false)).thenReturn(mockChannel);
+		final AtomicLong sequence = new AtomicLong(1);
+		when(mockChannel.getNextPublishSeqNo()).thenAnswer(new Answer<Long>() {
+
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				return sequence.get();
+			}
+		});
+		doAnswer(new Answer<Object>() {
+
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				if (sequence.getAndIncrement() == 2) {
+					throw new IOException("connection lost");
+				}
+				return null;
+			}
+		}).when(mockChannel).basicPublish(Mockito.anyString(), Mockito.anyString(),
+				Mockito.any(BasicProperties.class), Mockito.any(byte[].class));
+
+		MessageChannel requestChannel = context.getBean("batchRequestChannel", MessageChannel.class);
+		requestChannel.send(new GenericMessage<String>("foo"));
+		requestChannel.send(new GenericMessage<String>("bar"));
+		requestChannel.send(new GenericMessage<String>("baz"));
+		Mockito.verify(mockChannel, Mockito.times(2)).basicPublish(Mockito.anyString(), Mockito.anyString(),
+				Mockito.any(BasicProperties.class), Mockito.any(byte[].class));
+
+		// the published, the failed and the unpublished messages are all nacked
+		PollableChannel ackChannel = context.getBean("batchAckChannel", PollableChannel.class);
+		PollableChannel nackChannel = context.getBean("batchNackChannel", PollableChannel.class);
+		assertNull(ackChannel.receive(0));
+		Message<?> nack = nackChannel.receive(0);
+		assertNotNull(nack);
+		assertEquals("foo", nack.getPayload());
+		nack = nackChannel.receive(0);
+		assertNotNull(nack);
+		assertEquals("bar", nack.getPayload());
+		nack = nackChannel.receive(0);
+		assertNotNull(nack);
+		assertEquals("baz", nack.getPayload());
+		assertNull(nackChannel.receive(0));
+	}
+
 	@Test
 	public void amqpOutboundChannelAdapterWithinChain() {
 		Object eventDrivernConsumer = context.getBean("chainWithRabbitOutbound");
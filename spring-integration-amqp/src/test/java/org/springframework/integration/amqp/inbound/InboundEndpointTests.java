@@ -17,25 +17,42 @@
 package org.springframework.integration.amqp.inbound;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.MessageListener;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.connection.Connection;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.JsonMessageConverter;
 import org.springframework.amqp.support.converter.SimpleMessageConverter;
 import org.springframework.integration.Message;
+import org.springframework.integration.MessageDeliveryException;
+import org.springframework.integration.amqp.AmqpHeaders;
 import org.springframework.integration.amqp.support.DefaultAmqpHeaderMapper;
+import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.core.MessageHandler;
 import org.springframework.integration.core.PollableChannel;
 import org.springframework.integration.json.JsonToObjectTransformer;
 import org.springframework.integration.json.ObjectToJsonTransformer;
@@ -123,7 +140,107 @@ public class InboundEndpointTests {
 		assertEquals(payload, result.getPayload());
 	}
 
+	@Test
+	public void testBatching() throws Exception {
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer();
+		container.setConnectionFactory(mock(ConnectionFactory.class));
+
+		AmqpInboundChannelAdapter adapter = new AmqpInboundChannelAdapter(container);
+		adapter.setBatchSize(3);
+		adapter.setBatchTimeout(0);
+		PollableChannel channel = new QueueChannel();
+		adapter.setOutputChannel(channel);
+		adapter.afterPropertiesSet();
+
+		assertEquals(AcknowledgeMode.MANUAL, container.getAcknowledgeMode());
+		ChannelAwareMessageListener listener = (ChannelAwareMessageListener) container.getMessageListener();
+		Channel channel1 = mock(Channel.class);
+		Channel channel2 = mock(Channel.class);
+		listener.onMessage(amqpMessage("foo", 1), channel1);
+		listener.onMessage(amqpMessage("bar", 1), channel2);
+		assertNull(channel.receive(0));
+		listener.onMessage(amqpMessage("baz", 2), channel1);
+
+		Message<?> result = channel.receive(0);
+		assertEquals(Arrays.asList("foo", "bar", "baz"), result.getPayload());
+		List<?> batchedHeaders = result.getHeaders().get(AmqpHeaders.BATCHED_HEADERS, List.class);
+		assertEquals(3, batchedHeaders.size());
+		assertEquals(2L, ((Map<?, ?>) batchedHeaders.get(2)).get(AmqpHeaders.DELIVERY_TAG));
+		verify(channel1).basicAck(2L, true);
+		verify(channel2).basicAck(1L, true);
+		verify(channel1, never()).basicAck(1L, true);
+	}
+
+	@Test
+	public void testBatchingRequeuesOnFailure() throws Exception {
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer();
+		container.setConnectionFactory(mock(ConnectionFactory.class));
+
+		AmqpInboundChannelAdapter adapter = new AmqpInboundChannelAdapter(container);
+		adapter.setBatchSize(2);
+		adapter.setBatchTimeout(0);
+		DirectChannel channel = new DirectChannel();
+		channel.subscribe(new MessageHandler() {
+			public void handleMessage(Message<?> message) {
+				throw new MessageDeliveryException(message, "failed");
+			}
+		});
+		adapter.setOutputChannel(channel);
+		adapter.afterPropertiesSet();
+
+		ChannelAwareMessageListener listener = (ChannelAwareMessageListener) container.getMessageListener();
+		Channel amqpChannel = mock(Channel.class);
+		listener.onMessage(amqpMessage("foo", 1), amqpChannel);
+		try {
+			listener.onMessage(amqpMessage("bar", 2), amqpChannel);
+			fail("Expected exception");
+		}
+		catch (MessageDeliveryException e) {
+			assertEquals("failed", e.getMessage());
+		}
+		verify(amqpChannel).basicNack(2L, true, true);
+		verify(amqpChannel, never()).basicAck(anyLong(), anyBoolean());
+	}
+
+	@Test
+	public void testBatchingWithoutAcksEmitsMessagesDeliveredWhileStopping() throws Exception {
+		SimpleMessageListenerContainer container = spy(new SimpleMessageListenerContainer());
+		container.setConnectionFactory(mock(ConnectionFactory.class));
+		container.setAcknowledgeMode(AcknowledgeMode.NONE);
+		doNothing().when(container).start();
+
+		AmqpInboundChannelAdapter adapter = new AmqpInboundChannelAdapter(container);
+		adapter.setBatchSize(3);
+		adapter.setBatchTimeout(0);
+		PollableChannel channel = new QueueChannel();
+		adapter.setOutputChannel(channel);
+		adapter.afterPropertiesSet();
+		assertEquals(AcknowledgeMode.NONE, container.getAcknowledgeMode());
+
+		final ChannelAwareMessageListener listener = (ChannelAwareMessageListener) container.getMessageListener();
+		final Channel amqpChannel = mock(Channel.class);
+		doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				// a delivery the broker has already discarded
+				listener.onMessage(amqpMessage("baz", 3), amqpChannel);
+				return null;
+			}
+		}).when(container).stop();
+		adapter.start();
+		listener.onMessage(amqpMessage("foo", 1), amqpChannel);
+		listener.onMessage(amqpMessage("bar", 2), amqpChannel);
+		adapter.stop();
+
+		assertEquals(Arrays.asList("foo", "bar"), channel.receive(0).getPayload());
+		assertEquals(Arrays.asList("baz"), channel.receive(0).getPayload());
+		verify(amqpChannel, never()).basicAck(anyLong(), anyBoolean());
+	}
 
+	private org.springframework.amqp.core.Message amqpMessage(String payload, long deliveryTag) {
+		MessageProperties messageProperties = new MessageProperties();
+		messageProperties.setDeliveryTag(deliveryTag);
+		return new SimpleMessageConverter().toMessage(payload, messageProperties);
+	}
 
 	public static class Foo {
 
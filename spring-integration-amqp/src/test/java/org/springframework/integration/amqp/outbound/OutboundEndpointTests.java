@@ -18,12 +18,17 @@ package org.springframework.integration.amqp.outbound;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
@@ -31,11 +36,20 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.rabbit.support.CorrelationData;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.integration.MessageHeaders;
+import org.springframework.integration.MessageTimeoutException;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.message.ErrorMessage;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * @author Gary Russell
@@ -91,6 +105,85 @@ public class OutboundEndpointTests {
 		assertEquals("bar", amqpMessage.get().getMessageProperties().getContentType());
 	}
 
+	@Test
+	public void testAsyncGateway() throws Exception {
+		ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+		RabbitTemplate amqpTemplate = spy(new RabbitTemplate(connectionFactory));
+		final List<Message> sent = new CopyOnWriteArrayList<Message>();
+		doAnswer(new Answer<Object>() {
+
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				sent.add((Message) invocation.getArguments()[2]);
+				return null;
+			}
+		}).when(amqpTemplate).send(anyString(), anyString(), any(Message.class),
+				any(CorrelationData.class));
+		SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+		container.setQueueNames("replies");
+		AmqpOutboundEndpoint endpoint = new AmqpOutboundEndpoint(amqpTemplate);
+		endpoint.setExpectReply(true);
+		endpoint.setRequiresReply(true);
+		endpoint.setExchangeName("foo");
+		endpoint.setRoutingKey("bar");
+		endpoint.setAsyncReplyContainer(container);
+		endpoint.setAsyncReplyTimeout(200);
+		QueueChannel replies = new QueueChannel();
+		endpoint.setOutputChannel(replies);
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.initialize();
+		beanFactory.registerSingleton("taskScheduler", taskScheduler);
+		endpoint.setBeanFactory(beanFactory);
+		endpoint.afterPropertiesSet();
+
+		QueueChannel errors = new QueueChannel();
+		endpoint.handleMessage(MessageBuilder.withPayload("foo").setErrorChannel(errors).build());
+		endpoint.handleMessage(MessageBuilder.withPayload("bar").setErrorChannel(errors).build());
+		assertEquals(2, sent.size());
+		assertNull(replies.receive(0));
+		assertEquals("replies", sent.get(0).getMessageProperties().getReplyTo());
+
+		// reply to the second request only
+		MessageProperties replyProperties = new MessageProperties();
+		replyProperties.setCorrelationId(sent.get(1).getMessageProperties().getCorrelationId());
+		Message amqpReply = amqpTemplate.getMessageConverter().toMessage("BAR", replyProperties);
+		((MessageListener) container.getMessageListener()).onMessage(amqpReply);
+		org.springframework.integration.Message<?> reply = replies.receive(0);
+		assertNotNull(reply);
+		assertEquals("BAR", reply.getPayload());
+
+		org.springframework.integration.Message<?> error = errors.receive(10000);
+		assertNotNull(error);
+		assertTrue(error instanceof ErrorMessage);
+		assertTrue(error.getPayload() instanceof MessageTimeoutException);
+		assertEquals("foo", ((MessageTimeoutException) error.getPayload()).getFailedMessage().getPayload());
+
+		// late reply is discarded
+		replyProperties = new MessageProperties();
+		replyProperties.setCorrelationId(sent.get(0).getMessageProperties().getCorrelationId());
+		amqpReply = amqpTemplate.getMessageConverter().toMessage("FOO", replyProperties);
+		((MessageListener) container.getMessageListener()).onMessage(amqpReply);
+		assertNull(replies.receive(0));
+		taskScheduler.destroy();
+	}
+
+	@Test
+	public void testBatchingRequiresExchangeAndRoutingKey() {
+		ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+		AmqpOutboundEndpoint endpoint = new AmqpOutboundEndpoint(new RabbitTemplate(connectionFactory));
+		endpoint.setBatchSize(3);
+		endpoint.setBeanFactory(mock(BeanFactory.class));
+		endpoint.setRoutingKey("bar");
+		try {
+			endpoint.afterPropertiesSet();
+			fail("Expected exception");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("An exchangeName or exchangeNameExpression is required for batching", e.getMessage());
+		}
+	}
+
 	/**
 	 * Increase method visibility
 	 */
@@ -30,11 +30,11 @@ import org.springframework.integration.channel.NullChannel;
 import org.springframework.integration.core.MessageProducer;
 import org.springframework.integration.core.MessagingTemplate;
 import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageGroupStore.MessageGroupCallback;
 import org.springframework.integration.store.MessageStore;
-import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.util.DefaultLockRegistry;
 import org.springframework.integration.util.LockRegistry;
@@ -323,6 +323,17 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 		messageStore.removeMessageGroup(correlationKey);
 	}
 
+	void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messages) {
+		if (this.messageStore instanceof AbstractMessageGroupStore) {
+			((AbstractMessageGroupStore) this.messageStore).removeMessagesFromGroup(groupId, messages);
+		}
+		else {
+			for (Message<?> message : messages) {
+				this.messageStore.removeMessageFromGroup(groupId, message);
+			}
+		}
+	}
+
 	protected int findLastReleasedSequenceNumber(Object groupId, Collection<Message<?>> partialSequence){
 		List<Message<?>> sorted = new ArrayList<Message<?>>(partialSequence);
 		Collections.sort(sorted, new SequenceNumberComparator());
@@ -433,10 +444,16 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 		return false;
 	}
 
-	private static class SequenceAwareMessageGroup extends SimpleMessageGroup {
+	/**
+	 * Delegates to the store's group rather than copying it, so that (lazily loaded)
+	 * messages are only read when the sequence details require it.
+	 */
+	private static class SequenceAwareMessageGroup implements MessageGroup {
+
+		private final MessageGroup delegate;
 
 		public SequenceAwareMessageGroup(MessageGroup messageGroup) {
-			super(messageGroup);
+			this.delegate = messageGroup;
 		}
 
 		/**
@@ -471,5 +488,51 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 			}
 			return false;
 		}
+
+		public Collection<Message<?>> getMessages() {
+			return this.delegate.getMessages();
+		}
+
+		public Object getGroupId() {
+			return this.delegate.getGroupId();
+		}
+
+		public int getLastReleasedMessageSequenceNumber() {
+			return this.delegate.getLastReleasedMessageSequenceNumber();
+		}
+
+		public boolean isComplete() {
+			return this.delegate.isComplete();
+		}
+
+		public void complete() {
+			this.delegate.complete();
+		}
+
+		public int getSequenceSize() {
+			return this.delegate.getSequenceSize();
+		}
+
+		public int size() {
+			return this.delegate.size();
+		}
+
+		public Message<?> getOne() {
+			return this.delegate.getOne();
+		}
+
+		public long getTimestamp() {
+			return this.delegate.getTimestamp();
+		}
+
+		public long getLastModified() {
+			return this.delegate.getLastModified();
+		}
+
+		@Override
+		public String toString() {
+			return this.delegate.toString();
+		}
+
 	}
 }
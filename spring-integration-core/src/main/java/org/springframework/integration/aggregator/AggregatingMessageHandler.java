@@ -62,9 +62,7 @@ public class AggregatingMessageHandler extends AbstractCorrelatingMessageHandler
 			remove(messageGroup);
 		}
 		else {
-			for (Message<?> message : messageGroup.getMessages()) {
-				this.messageStore.removeMessageFromGroup(messageGroup.getGroupId(), message);
-			}
+			this.removeMessagesFromGroup(messageGroup.getGroupId(), messageGroup.getMessages());
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,13 +67,12 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 
 		boolean canRelease = false;
 		
-		Collection<Message<?>> messages = messageGroup.getMessages();
-		
-		if (releasePartialSequences && !messages.isEmpty()) {
+		if (releasePartialSequences && messageGroup.size() > 0) {
 			
 			if (logger.isTraceEnabled()) {
 				logger.trace("Considering partial release of group [" + messageGroup + "]");
 			}
+			Collection<Message<?>> messages = messageGroup.getMessages();
 			List<Message<?>> sorted = new ArrayList<Message<?>>(messages);
 			Collections.sort(sorted, comparator);
 			
@@ -85,7 +84,11 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 			}	
 		}
 		else {
-			int size = messages.size();
+			/*
+			 * Only the size and one message are needed here, so a lazily loaded
+			 * group is not fully read.
+			 */
+			int size = messageGroup.size();
 			
 			if (size == 0){
 				canRelease = true;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2009 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -107,12 +107,11 @@ public class MessagePublishingErrorHandler implements ErrorHandler, BeanFactoryA
 	private MessageChannel resolveErrorChannel(Throwable t) {
 		Message<?> failedMessage = (t instanceof MessagingException) ?
 				((MessagingException) t).getFailedMessage() : null;
-		if (this.defaultErrorChannel == null && this.channelResolver != null) {
-			this.defaultErrorChannel = this.channelResolver.resolveChannelName(
-					IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME);
-		}
-		
 		if (failedMessage == null || failedMessage.getHeaders().getErrorChannel() == null) {
+			if (this.defaultErrorChannel == null && this.channelResolver != null) {
+				this.defaultErrorChannel = this.channelResolver.resolveChannelName(
+						IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME);
+			}
 			return this.defaultErrorChannel;
 		}
 		Object errorChannelHeader = failedMessage.getHeaders().getErrorChannel();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,9 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.integration.Message;
 import org.springframework.integration.MessageHeaders;
+import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.integration.util.UpperBound;
+import org.springframework.util.Assert;
 
 /**
  * A message channel that prioritizes messages based on a {@link Comparator}.
@@ -37,6 +39,8 @@ public class PriorityChannel extends QueueChannel {
 	
 	private final AtomicLong sequenceCounter = new AtomicLong();
 
+	private final boolean useMessageStore;
+
 	/**
 	 * Create a channel with the specified queue capacity. If the capacity
 	 * is a non-positive value, the queue will be unbounded. Message priority
@@ -47,6 +51,24 @@ public class PriorityChannel extends QueueChannel {
 	public PriorityChannel(int capacity, Comparator<Message<?>> comparator) {
 		super(new PriorityBlockingQueue<Message<?>>(11, new SequenceFallbackComparator(comparator)));
 		this.upperBound = new UpperBound(capacity);
+		this.useMessageStore = false;
+	}
+
+	/**
+	 * Create a channel based on the provided {@link MessageGroupQueue}, whose
+	 * store orders the messages by the value of {@link MessageHeaders#getPriority()}
+	 * (see {@link org.springframework.integration.store.PriorityCapableChannelMessageStore}),
+	 * so the messages survive a restart without the whole backlog being held (and
+	 * sorted) in memory. The capacity is that of the queue.
+	 * @param messageGroupQueue the message group queue.
+	 * @since 3.0
+	 */
+	public PriorityChannel(MessageGroupQueue messageGroupQueue) {
+		super(messageGroupQueue);
+		Assert.isTrue(messageGroupQueue.isPriority(),
+				"The message store must be a PriorityCapableChannelMessageStore with priority enabled");
+		this.upperBound = new UpperBound(0);
+		this.useMessageStore = true;
 	}
 
 	/**
@@ -77,6 +99,9 @@ public class PriorityChannel extends QueueChannel {
 
 	@Override
 	protected boolean doSend(Message<?> message, long timeout) {
+		if (this.useMessageStore) {
+			return super.doSend(message, timeout);
+		}
 		if (!upperBound.tryAcquire(timeout)) {
 			return false;
 		}
@@ -87,7 +112,7 @@ public class PriorityChannel extends QueueChannel {
 	@Override
 	protected Message<?> doReceive(long timeout) {
 		Message<?> message = super.doReceive(timeout);
-		if (message != null) {
+		if (message != null && !this.useMessageStore) {
 			message = ((MessageWrapper)message).getRootMessage();
 			upperBound.release();
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -69,10 +69,22 @@ public class PointToPointChannelParser extends AbstractChannelParser {
 		}
 		else if ((queueElement = DomUtils.getChildElementByTagName(element, "priority-queue")) != null) {
 			builder = BeanDefinitionBuilder.genericBeanDefinition(PriorityChannel.class);
-			this.parseQueueCapacity(builder, queueElement);
+			boolean hasComparator = false;
 			String comparatorRef = queueElement.getAttribute("comparator");
 			if (StringUtils.hasText(comparatorRef)) {
-				builder.addConstructorArgReference(comparatorRef);
+				hasComparator = true;
+			}
+			boolean hasStoreRef = this.parseStoreRef(builder, queueElement, element.getAttribute(ID_ATTRIBUTE));
+			if (hasStoreRef && hasComparator) {
+				parserContext.getReaderContext().error(
+						"The 'message-store' attribute is not allowed" + " when providing a 'comparator'; "
+								+ "the store determines the order of the messages.", element);
+			}
+			if (!hasStoreRef) {
+				this.parseQueueCapacity(builder, queueElement);
+				if (hasComparator) {
+					builder.addConstructorArgReference(comparatorRef);
+				}
 			}
 		}
 		else if ((queueElement = DomUtils.getChildElementByTagName(element, "rendezvous-queue")) != null) {
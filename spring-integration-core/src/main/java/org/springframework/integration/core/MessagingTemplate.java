@@ -375,6 +375,17 @@ public class MessagingTemplate implements MessagingOperations, BeanFactoryAware,
 		return getRequiredChannelResolver().resolveChannelName(channelName);
 	}
 
+	/**
+	 * Determine whether the given reply channel is the temporary channel created by
+	 * {@link #sendAndReceive(MessageChannel, Message)}, which accepts a single reply.
+	 * @param replyChannel the reply channel (e.g. a 'replyChannel' header value).
+	 * @return true if it is a temporary reply channel.
+	 * @since 3.0
+	 */
+	public static boolean isTemporaryReplyChannel(Object replyChannel) {
+		return replyChannel instanceof TemporaryReplyChannel;
+	}
+
 
 	private static class TemporaryReplyChannel implements PollableChannel {
 
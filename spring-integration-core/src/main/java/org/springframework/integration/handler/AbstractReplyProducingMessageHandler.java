@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,10 @@ import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessageChannel;
 import org.springframework.integration.MessageDeliveryException;
+import org.springframework.integration.MessageHandlingException;
 import org.springframework.integration.MessageHeaders;
+import org.springframework.integration.MessagingException;
+import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.core.MessageProducer;
 import org.springframework.integration.core.MessagingTemplate;
 import org.springframework.integration.support.MessageBuilder;
@@ -58,6 +61,8 @@ public abstract class AbstractReplyProducingMessageHandler extends AbstractMessa
 
 	private volatile ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
 
+	private final MessagePublishingErrorHandler asyncErrorHandler = new MessagePublishingErrorHandler();
+
 
 
 	public AbstractReplyProducingMessageHandler() {
@@ -118,6 +123,7 @@ public abstract class AbstractReplyProducingMessageHandler extends AbstractMessa
 	protected final void onInit() {
 		if (this.getBeanFactory() != null) {
 			this.messagingTemplate.setBeanFactory(getBeanFactory());
+			this.asyncErrorHandler.setBeanFactory(getBeanFactory());
 		}
 		if (!CollectionUtils.isEmpty(this.adviceChain)) {
 			ProxyFactory proxyFactory = new ProxyFactory(new AdvisedRequestHandler());
@@ -148,7 +154,7 @@ public abstract class AbstractReplyProducingMessageHandler extends AbstractMessa
 			MessageHeaders requestHeaders = message.getHeaders();
 			this.handleResult(result, requestHeaders);
 		}
-		else if (this.requiresReply) {
+		else if (this.requiresReply && !this.isAsync()) {
 			throw new ReplyRequiredException(message, "No reply produced by handler '" +
 					this.getComponentName() + "', and its 'requiresReply' property is set to true.");
 		}
@@ -236,6 +242,71 @@ public abstract class AbstractReplyProducingMessageHandler extends AbstractMessa
 		}
 	}
 
+	/**
+	 * Subclasses that return null from {@link #handleRequestMessage(Message)} and later
+	 * produce the reply on another thread return true; a null result then does not
+	 * violate 'requiresReply'. False by default.
+	 * @since 3.0
+	 */
+	protected boolean isAsync() {
+		return false;
+	}
+
+	/**
+	 * Send a reply that was produced asynchronously, applying the same output channel,
+	 * 'replyChannel' header and header propagation rules as a synchronous reply. Any
+	 * exception while sending is passed to {@link #sendAsyncFailure(MessagingException)}.
+	 * Note that an advice chain does not apply to asynchronous replies.
+	 * @param reply the reply; a Message, a MessageBuilder, or any plain Object.
+	 * @param requestMessage the request message.
+	 * @since 3.0
+	 */
+	protected void sendAsyncReply(Object reply, Message<?> requestMessage) {
+		try {
+			this.handleResult(reply, requestMessage.getHeaders());
+		}
+		catch (MessagingException e) {
+			this.sendAsyncFailure(e);
+		}
+		catch (Exception e) {
+			this.sendAsyncFailure(new MessageHandlingException(requestMessage, e));
+		}
+	}
+
+	/**
+	 * Send one of several replies to a request on the calling thread, before
+	 * {@link #handleRequestMessage(Message)} returns (which then typically returns the
+	 * final reply); for example, when a result is streamed in chunks. The same output
+	 * channel, 'replyChannel' header and header propagation rules as for the returned
+	 * reply apply, and any exception is propagated to the caller. Since a messaging
+	 * gateway only accepts a single reply, a {@link MessageHandlingException} is thrown
+	 * if there is no output channel and the request came from a gateway.
+	 * @param reply the reply; a Message, a MessageBuilder, or any plain Object.
+	 * @param requestMessage the request message.
+	 * @since 3.0
+	 */
+	protected void sendIntermediateReply(Object reply, Message<?> requestMessage) {
+		MessageHeaders requestHeaders = requestMessage.getHeaders();
+		Object replyChannel = requestHeaders.getReplyChannel();
+		if (this.outputChannel == null && MessagingTemplate.isTemporaryReplyChannel(replyChannel)) {
+			throw new MessageHandlingException(requestMessage, "Handler '" + this.getComponentName()
+					+ "' can not send several replies to a messaging gateway, which only accepts a single reply; "
+					+ "an output channel is required");
+		}
+		this.handleResult(reply, requestHeaders);
+	}
+
+	/**
+	 * Report the failure of an asynchronous request (e.g. a timeout) by sending an
+	 * {@link org.springframework.integration.message.ErrorMessage} to the failed message's
+	 * 'errorChannel' header or, if there is none, to the 'errorChannel' bean.
+	 * @param exception the exception; its failed message should be the request message.
+	 * @since 3.0
+	 */
+	protected void sendAsyncFailure(MessagingException exception) {
+		this.asyncErrorHandler.handleError(exception);
+	}
+
 	private boolean shouldSplitReply(Iterable<?> reply) {
 		for (Object next : reply) {
 			if (next instanceof Message<?> || next instanceof MessageBuilder<?>) {
@@ -65,10 +65,16 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 
 	private volatile List<String> replyHeaderNames = new ArrayList<String>();
 
+	private volatile CachingHeaderMatcher requestHeaderMatcher;
+
+	private volatile CachingHeaderMatcher replyHeaderMatcher;
+
 	protected AbstractHeaderMapper() {
 		this.standardHeaderPrefix = this.getStandardHeaderPrefix();
 		this.requestHeaderNames.addAll(this.getStandardRequestHeaderNames());
 		this.replyHeaderNames.addAll(this.getStandardReplyHeaderNames());
+		this.requestHeaderMatcher = this.createHeaderMatcher(this.requestHeaderNames);
+		this.replyHeaderMatcher = this.createHeaderMatcher(this.replyHeaderNames);
 	}
 
 	/**
@@ -82,6 +88,7 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	public void setRequestHeaderNames(String[] requestHeaderNames) {
 		Assert.notNull(requestHeaderNames, "'requestHeaderNames' must not be null");
 		this.requestHeaderNames = Arrays.asList(requestHeaderNames);
+		this.requestHeaderMatcher = this.createHeaderMatcher(this.requestHeaderNames);
 	}
 
 	/**
@@ -94,6 +101,7 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	public void setReplyHeaderNames(String[] replyHeaderNames) {
 		Assert.notNull(replyHeaderNames, "'replyHeaderNames' must not be null");
 		this.replyHeaderNames = Arrays.asList(replyHeaderNames);
+		this.replyHeaderMatcher = this.createHeaderMatcher(this.replyHeaderNames);
 	}
 
 	/**
@@ -113,35 +121,35 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	 * matching on the set of REQUEST headers (if different).
 	 */
 	public void fromHeadersToRequest(MessageHeaders headers, T target) {
-		this.fromHeaders(headers, target, this.requestHeaderNames);
+		this.fromHeaders(headers, target, this.requestHeaderMatcher);
 	}
 	/**
 	 * Maps headers from a Spring Integration MessageHeaders instance to the target instance
 	 * matching on the set of REPLY headers (if different).
 	 */
 	public void fromHeadersToReply(MessageHeaders headers, T target) {
-		this.fromHeaders(headers, target, this.replyHeaderNames);
+		this.fromHeaders(headers, target, this.replyHeaderMatcher);
 	}
 	/**
 	 * Maps headers/properties of the target object to Map of MessageHeaders
 	 * matching on the set of REQUEST headers
 	 */
 	public Map<String, Object> toHeadersFromRequest(T source) {
-		return this.toHeaders(source, this.requestHeaderNames);
+		return this.toHeaders(source, this.requestHeaderMatcher);
 	}
 	/**
 	 * Maps headers/properties of the target object to Map of MessageHeaders
 	 * matching on the set of REPLY headers
 	 */
 	public Map<String, Object> toHeadersFromReply(T source) {
-		return this.toHeaders(source, this.replyHeaderNames);
+		return this.toHeaders(source, this.replyHeaderMatcher);
 	}
 
-	private void fromHeaders(MessageHeaders headers, T target, List<String> headerPatterns){
+	private void fromHeaders(MessageHeaders headers, T target, CachingHeaderMatcher headerMatcher){
 		try {
 			Map<String, Object> subset = new HashMap<String, Object>();
 			for (String headerName : headers.keySet()) {
-				if (this.shouldMapHeader(headerName, headerPatterns)){
+				if (headerMatcher.matches(headerName)){
 					subset.put(headerName, headers.get(headerName));
 				}
 			}
@@ -178,21 +186,22 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	 * Maps headers from a source instance to the MessageHeaders of a
 	 * Spring Integration Message.
 	 */
-	private Map<String, Object> toHeaders(T source, List<String> headerPatterns) {
+	private Map<String, Object> toHeaders(T source, CachingHeaderMatcher headerMatcher) {
 		Map<String, Object> headers = new HashMap<String, Object>();
 		Map<String, Object> standardHeaders = this.extractStandardHeaders(source);
-		this.copyHeaders(this.standardHeaderPrefix, standardHeaders, headers, headerPatterns);
+		this.copyHeaders(this.standardHeaderPrefix, standardHeaders, headers, headerMatcher);
 		Map<String, Object> userDefinedHeaders = this.extractUserDefinedHeaders(source);
-		this.copyHeaders(this.userDefinedHeaderPrefix, userDefinedHeaders, headers, headerPatterns);
+		this.copyHeaders(this.userDefinedHeaderPrefix, userDefinedHeaders, headers, headerMatcher);
 		return headers;
 	}
 
-	private <V> void copyHeaders(String prefix, Map<String, Object> source, Map<String, Object> target, List<String> headerPatterns) {
+	private <V> void copyHeaders(String prefix, Map<String, Object> source, Map<String, Object> target,
+			CachingHeaderMatcher headerMatcher) {
 		if (!CollectionUtils.isEmpty(source)) {
 			for (Map.Entry<String, Object> entry : source.entrySet()) {
 				try {
 					String headerName = this.addPrefixIfNecessary(prefix, entry.getKey());
-					if (this.shouldMapHeader(headerName, headerPatterns)){
+					if (headerMatcher.matches(headerName)){
 						target.put(headerName, entry.getValue());
 					}
 				}
@@ -206,6 +215,21 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 		}
 	}
 
+	/**
+	 * Create a matcher that memoizes the {@link #shouldMapHeader(String, List)} decision
+	 * for each header name, so the patterns are only evaluated once per distinct name.
+	 */
+	private CachingHeaderMatcher createHeaderMatcher(final List<String> patterns) {
+		return new CachingHeaderMatcher() {
+
+			@Override
+			protected boolean doMatch(String headerName) {
+				return shouldMapHeader(headerName, patterns);
+			}
+
+		};
+	}
+
 	private boolean shouldMapHeader(String headerName, List<String> patterns) {
 		if (!StringUtils.hasText(headerName)
 				|| ObjectUtils.containsElement(TRANSIENT_HEADER_NAMES, headerName)) {
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.mapping;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * Memoizes the decision of whether a header name should be mapped, for one
+ * fixed set of header name patterns. Header mappers see the same, small, set
+ * of header names on every message, so the pattern matching is performed once
+ * per distinct name and subsequent decisions are a map lookup. A header mapper
+ * creates a new instance whenever its patterns change.
+ * <p>
+ * The number of remembered decisions is bounded (by default 1000) so that
+ * arbitrary (e.g. generated) header names cannot grow the cache without limit;
+ * once full, decisions for new names are computed on each call.
+ *
+ * @since 3.0
+ */
+public abstract class CachingHeaderMatcher {
+
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private final ConcurrentMap<String, Boolean> decisions = new ConcurrentHashMap<String, Boolean>();
+
+	private final int capacity;
+
+	public CachingHeaderMatcher() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public CachingHeaderMatcher(int capacity) {
+		Assert.isTrue(capacity >= 0, "'capacity' must not be negative");
+		this.capacity = capacity;
+	}
+
+	/**
+	 * @param headerName the header name.
+	 * @return true if the header should be mapped.
+	 */
+	public final boolean matches(String headerName) {
+		if (headerName == null) {
+			return this.doMatch(null);
+		}
+		Boolean decision = this.decisions.get(headerName);
+		if (decision == null) {
+			decision = this.doMatch(headerName);
+			if (this.decisions.size() < this.capacity) {
+				this.decisions.putIfAbsent(headerName, decision);
+			}
+		}
+		return decision;
+	}
+
+	/**
+	 * Perform the (uncached) match; invoked once per distinct header name
+	 * while the cache has capacity.
+	 * @param headerName the header name.
+	 * @return true if the header should be mapped.
+	 */
+	protected abstract boolean doMatch(String headerName);
+
+}
@@ -18,8 +18,10 @@ package org.springframework.integration.store;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -85,10 +87,13 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	// MessageGroupStore methods
 
 	/**
-	 * Will create a new instance of SimpleMessageGroup if necessary.
+	 * Will create a new instance of SimpleMessageGroup if necessary. Unless
+	 * {@link #setLazyLoadMessageGroups(boolean) lazyLoadMessageGroups} is false, an existing
+	 * group is returned as a {@link PersistentMessageGroup}, built from the group metadata only.
 	 */
 	public MessageGroup getMessageGroup(Object groupId) {
-		return this.buildMessageGroup(groupId, false);
+		Assert.notNull(groupId, "'groupId' must not be null");
+		return this.getMessageGroup(groupId, this.getGroupMetadata(groupId));
 	}
 
 
@@ -99,26 +104,20 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(message, "'message' must not be null");
 
-		// add message as is to the MG accessible by the caller
-		SimpleMessageGroup messageGroup = this.getSimpleMessageGroup(this.getMessageGroup(groupId));
-
-		messageGroup.add(message);
-
 		// enrich Message with additional headers and add it to MS
 		Message<?> enrichedMessage = this.enrichMessage(message);
+		this.doStore(MESSAGE_KEY_PREFIX + enrichedMessage.getHeaders().getId(), enrichedMessage);
 
-		this.addMessage(enrichedMessage);
-
-		// build raw MessageGroup and add enriched Message to it
-		SimpleMessageGroup rawGroup = this.buildMessageGroup(groupId, true);
-		rawGroup.setLastModified(System.currentTimeMillis());
-		rawGroup.add(enrichedMessage);
-
-		// store MessageGroupMetadata built from enriched MG
-		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, new MessageGroupMetadata(rawGroup));
+		MessageGroupMetadata metadata = this.getOrCreateGroupMetadata(groupId);
+		// the time of the change, not of the (possibly remote) membership update;
+		// a group created by this add was modified when it was created
+		long lastModified = metadata.getLastModified() == 0 ? metadata.getTimestamp() : System.currentTimeMillis();
+		this.doAddMessageIdToGroup(groupId, metadata, enrichedMessage.getHeaders().getId());
+		metadata.setLastModified(lastModified);
+		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, metadata);
 
 		// return clean MG
-		return this.getMessageGroup(groupId);
+		return this.getMessageGroup(groupId, metadata);
 	}
 
 	/**
@@ -128,33 +127,49 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(messageToRemove, "'messageToRemove' must not be null");
 
-		// build raw MG
-		SimpleMessageGroup rawGroup = this.buildMessageGroup(groupId, true);
+		UUID messageId = messageToRemove.getHeaders().getId();
+		MessageGroupMetadata metadata = this.getOrCreateGroupMetadata(groupId);
+		this.doRemoveMessageIdFromGroup(groupId, metadata, messageId);
+		this.removeMessage(messageId);
+		metadata.setLastModified(System.currentTimeMillis());
+		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, metadata);
 
-		// create a clean instance of
-		SimpleMessageGroup messageGroup = this.normalizeSimpleMessageGroup(rawGroup);
+		return this.getMessageGroup(groupId, metadata);
+	}
 
-		for (Message<?> message : rawGroup.getMessages()) {
-			if (message.getHeaders().getId().equals(messageToRemove.getHeaders().getId())){
-				rawGroup.remove(message);
-			}
-		}
-		this.removeMessage(messageToRemove.getHeaders().getId());
-		rawGroup.setLastModified(System.currentTimeMillis());
 
-		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, new MessageGroupMetadata(rawGroup));
-		messageGroup = this.getSimpleMessageGroup(this.getMessageGroup(groupId));
+	/**
+	 * Remove the Messages from the group with the provided group ID, reading and
+	 * storing the group metadata once.
+	 */
+	@Override
+	public MessageGroup removeMessagesFromGroup(Object groupId, Collection<Message<?>> messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+
+		List<UUID> messageIds = new ArrayList<UUID>(messages.size());
+		List<Object> messageKeys = new ArrayList<Object>(messages.size());
+		for (Message<?> message : messages) {
+			UUID messageId = message.getHeaders().getId();
+			messageIds.add(messageId);
+			messageKeys.add(MESSAGE_KEY_PREFIX + messageId);
+		}
+		MessageGroupMetadata metadata = this.getOrCreateGroupMetadata(groupId);
+		this.doRemoveMessageIdsFromGroup(groupId, metadata, messageIds);
+		this.doRemoveAll(messageKeys);
+		metadata.setLastModified(System.currentTimeMillis());
+		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, metadata);
 
-		return messageGroup;
+		return this.getMessageGroup(groupId, metadata);
 	}
 
 
 	public void completeGroup(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
-		SimpleMessageGroup messageGroup = this.buildMessageGroup(groupId, true);
-		messageGroup.complete();
-		messageGroup.setLastModified(System.currentTimeMillis());
-		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, new MessageGroupMetadata(messageGroup));
+		MessageGroupMetadata metadata = this.getOrCreateGroupMetadata(groupId);
+		metadata.complete();
+		metadata.setLastModified(System.currentTimeMillis());
+		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, metadata);
 	}
 
 	/**
@@ -167,33 +182,31 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
 			MessageGroupMetadata messageGroupMetadata = (MessageGroupMetadata) mgm;
 
-			Iterator<UUID> messageIds = messageGroupMetadata.messageIdIterator();
-			while (messageIds.hasNext()){
-				this.removeMessage(messageIds.next());
+			List<Object> messageKeys = new ArrayList<Object>();
+			for (UUID messageId : this.doListMessageIdsInGroup(groupId, messageGroupMetadata)) {
+				messageKeys.add(MESSAGE_KEY_PREFIX + messageId);
 			}
+			this.doRemoveAll(messageKeys);
+			this.doRemoveGroupMembership(groupId);
 		}
 	}
 
 	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
 		Assert.notNull(groupId, "'groupId' must not be null");
-		SimpleMessageGroup messageGroup = this.buildMessageGroup(groupId, true);
-		messageGroup.setLastReleasedMessageSequenceNumber(sequenceNumber);
-		messageGroup.setLastModified(System.currentTimeMillis());
-		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, new MessageGroupMetadata(messageGroup));
+		MessageGroupMetadata metadata = this.getOrCreateGroupMetadata(groupId);
+		metadata.setLastReleasedMessageSequenceNumber(sequenceNumber);
+		metadata.setLastModified(System.currentTimeMillis());
+		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, metadata);
 	}
 
 	public Message<?> pollMessageFromGroup(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
-		Object mgm = this.doRetrieve(MESSAGE_GROUP_KEY_PREFIX + groupId);
-		if (mgm != null) {
-			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
-			MessageGroupMetadata messageGroupMetadata = (MessageGroupMetadata) mgm;
-
-			UUID firstId = messageGroupMetadata.firstId();
+		MessageGroupMetadata metadata = this.getGroupMetadata(groupId);
+		if (metadata != null) {
+			UUID firstId = this.doPollMessageIdFromGroup(groupId, metadata);
 			if (firstId != null){
-				messageGroupMetadata.remove(firstId);
-				messageGroupMetadata.setLastModified(System.currentTimeMillis());
-				this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, messageGroupMetadata);
+				metadata.setLastModified(System.currentTimeMillis());
+				this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, metadata);
 				return this.removeMessage(firstId);
 			}
 		}
@@ -224,21 +237,171 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	}
 
 	public int messageGroupSize(Object groupId) {
-		Object mgm = this.doRetrieve(MESSAGE_GROUP_KEY_PREFIX + groupId);
-		if (mgm != null) {
-			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
-			MessageGroupMetadata messageGroupMetadata = (MessageGroupMetadata) mgm;
-			return messageGroupMetadata.size();
+		MessageGroupMetadata metadata = this.getGroupMetadata(groupId);
+		if (metadata != null) {
+			return this.doGetGroupSize(groupId, metadata);
 		}
 		return 0;
 	}
 
+	@Override
+	protected Collection<Message<?>> getMessagesForGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		return this.buildMessageGroup(groupId, this.getGroupMetadata(groupId), false).getMessages();
+	}
+
+	@Override
+	protected Message<?> getOneMessageFromGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		MessageGroupMetadata metadata = this.getGroupMetadata(groupId);
+		if (metadata != null) {
+			UUID firstId = this.doGetFirstMessageIdInGroup(groupId, metadata);
+			if (firstId != null) {
+				return this.getMessage(firstId);
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Group membership. The default implementations maintain the message ids in the
+	 * MessageGroupMetadata, which is stored after each change. Subclasses may override
+	 * these methods (all of them) to keep the ids in a separate structure that can be
+	 * updated incrementally, in which case the stored MessageGroupMetadata contains no ids.
+	 */
+
+	/**
+	 * Append the message id to the group membership.
+	 * @param groupId the group id.
+	 * @param metadata the group metadata, which will be stored after this method returns.
+	 * @param messageId the message id.
+	 * @since 3.0
+	 */
+	protected void doAddMessageIdToGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+		metadata.add(messageId);
+	}
+
+	/**
+	 * Remove the message id from the group membership.
+	 * @param groupId the group id.
+	 * @param metadata the group metadata, which will be stored after this method returns.
+	 * @param messageId the message id.
+	 * @since 3.0
+	 */
+	protected void doRemoveMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+		metadata.remove(messageId);
+	}
+
+	/**
+	 * Remove the message ids from the group membership; the default implementation
+	 * invokes {@link #doRemoveMessageIdFromGroup(Object, MessageGroupMetadata, UUID)}
+	 * for each id.
+	 * @param groupId the group id.
+	 * @param metadata the group metadata, which will be stored after this method returns.
+	 * @param messageIds the message ids.
+	 * @since 3.0
+	 */
+	protected void doRemoveMessageIdsFromGroup(Object groupId, MessageGroupMetadata metadata,
+			Collection<UUID> messageIds) {
+		for (UUID messageId : messageIds) {
+			this.doRemoveMessageIdFromGroup(groupId, metadata, messageId);
+		}
+	}
+
+	/**
+	 * Remove and return the first message id of the group membership.
+	 * @param groupId the group id.
+	 * @param metadata the group metadata, which will be stored after this method returns
+	 * a non-null id.
+	 * @return the id, or null if the group is empty.
+	 * @since 3.0
+	 */
+	protected UUID doPollMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata) {
+		UUID firstId = metadata.firstId();
+		if (firstId != null) {
+			metadata.remove(firstId);
+		}
+		return firstId;
+	}
+
+	/**
+	 * @param groupId the group id.
+	 * @param metadata the group metadata.
+	 * @return the id of the first message of the group, or null if the group is empty.
+	 * @since 3.0
+	 */
+	protected UUID doGetFirstMessageIdInGroup(Object groupId, MessageGroupMetadata metadata) {
+		return metadata.firstId();
+	}
+
+	/**
+	 * @param groupId the group id.
+	 * @param metadata the group metadata.
+	 * @return the ids of the messages in the group, in the order they were added.
+	 * @since 3.0
+	 */
+	protected List<UUID> doListMessageIdsInGroup(Object groupId, MessageGroupMetadata metadata) {
+		List<UUID> messageIds = new ArrayList<UUID>(metadata.size());
+		Iterator<UUID> iterator = metadata.messageIdIterator();
+		while (iterator.hasNext()) {
+			messageIds.add(iterator.next());
+		}
+		return messageIds;
+	}
+
+	/**
+	 * @param groupId the group id.
+	 * @param metadata the group metadata.
+	 * @return the number of messages in the group.
+	 * @since 3.0
+	 */
+	protected int doGetGroupSize(Object groupId, MessageGroupMetadata metadata) {
+		return metadata.size();
+	}
+
+	/**
+	 * Remove the group membership, after the group metadata has been removed.
+	 * @param groupId the group id.
+	 * @since 3.0
+	 */
+	protected void doRemoveGroupMembership(Object groupId) {
+	}
+
 	protected abstract Object doRetrieve(Object id);
 
+	/**
+	 * Retrieve the objects stored under the ids; the default implementation invokes
+	 * {@link #doRetrieve(Object)} for each id. Subclasses should override this method
+	 * if the store can fetch multiple keys in one operation.
+	 * @param ids the ids.
+	 * @return the objects, in the same order as the ids, with null for missing ids.
+	 * @since 3.0
+	 */
+	protected List<?> doRetrieveAll(Collection<Object> ids) {
+		List<Object> objects = new ArrayList<Object>(ids.size());
+		for (Object id : ids) {
+			objects.add(this.doRetrieve(id));
+		}
+		return objects;
+	}
+
 	protected abstract void doStore(Object id, Object objectToStore);
 
 	protected abstract Object doRemove(Object id);
 
+	/**
+	 * Remove the objects stored under the ids; the default implementation invokes
+	 * {@link #doRemove(Object)} for each id. Subclasses should override this method
+	 * if the store can remove multiple keys in one operation.
+	 * @param ids the ids.
+	 * @since 3.0
+	 */
+	protected void doRemoveAll(Collection<Object> ids) {
+		for (Object id : ids) {
+			this.doRemove(id);
+		}
+	}
+
 	protected abstract Collection<?> doListKeys(String keyPattern);
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -262,21 +425,42 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		return enrichedMessage;
 	}
 
-	private SimpleMessageGroup buildMessageGroup(Object groupId, boolean raw){
-		Assert.notNull(groupId, "'groupId' must not be null");
-		Object mgm = this.doRetrieve(MESSAGE_GROUP_KEY_PREFIX + groupId);
-		if (mgm != null) {
-			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
-			MessageGroupMetadata messageGroupMetadata = (MessageGroupMetadata) mgm;
+	/**
+	 * Return the group described by the metadata, without loading its messages when the
+	 * groups are loaded lazily.
+	 */
+	private MessageGroup getMessageGroup(Object groupId, MessageGroupMetadata messageGroupMetadata) {
+		if (!this.isLazyLoadMessageGroups()) {
+			return this.buildMessageGroup(groupId, messageGroupMetadata, false);
+		}
+		if (messageGroupMetadata == null) {
+			return new SimpleMessageGroup(groupId);
+		}
+		SimpleMessageGroup messageGroup = new SimpleMessageGroup(Collections.<Message<?>>emptyList(),
+				groupId, messageGroupMetadata.getTimestamp(), messageGroupMetadata.isComplete());
+		messageGroup.setLastModified(messageGroupMetadata.getLastModified());
+		messageGroup.setLastReleasedMessageSequenceNumber(messageGroupMetadata.getLastReleasedMessageSequenceNumber());
+		return new PersistentMessageGroup(this, messageGroup);
+	}
+
+	private SimpleMessageGroup buildMessageGroup(Object groupId, MessageGroupMetadata messageGroupMetadata, boolean raw){
+		if (messageGroupMetadata != null) {
 			ArrayList<Message<?>> messages = new ArrayList<Message<?>>();
 
-			Iterator<UUID> messageIds = messageGroupMetadata.messageIdIterator();
-			while (messageIds.hasNext()){
-				if (raw){
-					messages.add(this.getRawMessage(messageIds.next()));
-				}
-				else {
-					messages.add(this.getMessage(messageIds.next()));
+			List<Object> messageKeys = new ArrayList<Object>();
+			for (UUID messageId : this.doListMessageIdsInGroup(groupId, messageGroupMetadata)) {
+				messageKeys.add(MESSAGE_KEY_PREFIX + messageId);
+			}
+			for (Object message : this.doRetrieveAll(messageKeys)) {
+				// skip messages removed concurrently
+				if (message != null) {
+					Assert.isInstanceOf(Message.class, message);
+					if (raw){
+						messages.add((Message<?>) message);
+					}
+					else {
+						messages.add(this.normalizeMessage((Message<?>) message));
+					}
 				}
 			}
 
@@ -291,22 +475,21 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		}
 	}
 
-	private SimpleMessageGroup getSimpleMessageGroup(MessageGroup messageGroup){
-		if (messageGroup instanceof SimpleMessageGroup){
-			return (SimpleMessageGroup) messageGroup;
-		}
-		else {
-			return new SimpleMessageGroup(messageGroup);
+	private MessageGroupMetadata getGroupMetadata(Object groupId) {
+		Object mgm = this.doRetrieve(MESSAGE_GROUP_KEY_PREFIX + groupId);
+		if (mgm != null) {
+			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
+			return (MessageGroupMetadata) mgm;
 		}
+		return null;
 	}
 
-	private SimpleMessageGroup normalizeSimpleMessageGroup(SimpleMessageGroup messageGroup){
-		SimpleMessageGroup normalizedGroup = new SimpleMessageGroup(messageGroup.getGroupId());
-		for (Message<?> message : messageGroup.getMessages()) {
-			Message<?> normailizedMessage = this.normalizeMessage(message);
-			normalizedGroup.add(normailizedMessage);
+	private MessageGroupMetadata getOrCreateGroupMetadata(Object groupId) {
+		MessageGroupMetadata metadata = this.getGroupMetadata(groupId);
+		if (metadata == null) {
+			metadata = new MessageGroupMetadata(new SimpleMessageGroup(groupId));
 		}
-		return normalizedGroup;
+		return metadata;
 	}
 
 	private Message<?> getRawMessage(UUID id) {
@@ -1,131 +1,208 @@
-/*
- * Copyright 2002-2011 the original author or authors.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
- * the License. You may obtain a copy of the License at
- * 
- * http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
- * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
- * specific language governing permissions and limitations under the License.
- */
-
-package org.springframework.integration.store;
-
-import java.util.Collection;
-import java.util.LinkedHashSet;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-import org.springframework.jmx.export.annotation.ManagedAttribute;
-
-/**
- * @author Dave Syer
- * @author Oleg Zhurakousky
- * 
- * @since 2.0
- *
- */
-public abstract class AbstractMessageGroupStore implements MessageGroupStore, Iterable<MessageGroup> {
-
-	protected final Log logger = LogFactory.getLog(getClass());
-
-	private Collection<MessageGroupCallback> expiryCallbacks = new LinkedHashSet<MessageGroupCallback>();
-	
-	private volatile boolean timeoutOnIdle;
-
-	/**
-	 * 
-	 */
-	public AbstractMessageGroupStore() {
-		super();
-	}
-
-	/**
-	 * Convenient injection point for expiry callbacks in the message store. Each of the callbacks provided will simply
-	 * be registered with the store using {@link #registerMessageGroupExpiryCallback(MessageGroupCallback)}.
-	 * 
-	 * @param expiryCallbacks the expiry callbacks to add
-	 */
-	public void setExpiryCallbacks(Collection<MessageGroupCallback> expiryCallbacks) {
-		for (MessageGroupCallback callback : expiryCallbacks) {
-			registerMessageGroupExpiryCallback(callback);
-		}
-	}
-	
-	public boolean isTimeoutOnIdle() {
-		return timeoutOnIdle;
-	}
-
-	/**
-	 * Allows you to override the rule for the timeout calculation. Typical timeout is based from the time
-	 * the {@link MessageGroup} was created. If you want the timeout to be based on the time 
-	 * the {@link MessageGroup} was idling (e.g., inactive from the last update) invoke this method with 'true'.
-	 * Default is 'false'.
-	 */
-	public void setTimeoutOnIdle(boolean timeoutOnIdle) {
-		this.timeoutOnIdle = timeoutOnIdle;
-	}
-
-	public void registerMessageGroupExpiryCallback(MessageGroupCallback callback) {
-		expiryCallbacks.add(callback);
-	}
-
-	public int expireMessageGroups(long timeout) {
-		int count = 0;
-		long threshold = System.currentTimeMillis() - timeout;
-		for (MessageGroup group : this) {
-
-			long timestamp = group.getTimestamp();
-			if (this.isTimeoutOnIdle() && group.getLastModified() > 0) {
-			    timestamp = group.getLastModified();
-			}
-			
-			if (timestamp <= threshold) {
-				count++;
-				expire(group);
-			}
-		}
-		return count;
-	}
-
-	@ManagedAttribute
-	public int getMessageCountForAllMessageGroups() {
-		int count = 0;
-		for (MessageGroup group : this) {
-			count += group.size();
-		}
-		return count;
-	}
-
-	@ManagedAttribute
-	public int getMessageGroupCount() {
-		int count = 0;
-		for (@SuppressWarnings("unused") MessageGroup group : this) {
-			count ++;
-		}
-		return count;
-	}
-
-	private void expire(MessageGroup group) {
-	
-		RuntimeException exception = null;
-	
-		for (MessageGroupCallback callback : expiryCallbacks) {
-			try {
-				callback.execute(this, group);
-			} catch (RuntimeException e) {
-				if (exception == null) {
-					exception = e;
-				}
-				logger.error("Exception in expiry callback", e);
-			}
-		}
-	
-		if (exception != null) {
-			throw exception;
-		}
-	}
-
+/*
+ * Copyright 2002-2013 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.integration.Message;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+
+/**
+ * @author Dave Syer
+ * @author Oleg Zhurakousky
+ * 
+ * @since 2.0
+ *
+ */
+public abstract class AbstractMessageGroupStore implements MessageGroupStore, Iterable<MessageGroup> {
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private Collection<MessageGroupCallback> expiryCallbacks = new LinkedHashSet<MessageGroupCallback>();
+	
+	private volatile boolean timeoutOnIdle;
+
+	private volatile boolean lazyLoadMessageGroups = true;
+
+	/**
+	 * 
+	 */
+	public AbstractMessageGroupStore() {
+		super();
+	}
+
+	/**
+	 * Convenient injection point for expiry callbacks in the message store. Each of the callbacks provided will simply
+	 * be registered with the store using {@link #registerMessageGroupExpiryCallback(MessageGroupCallback)}.
+	 * 
+	 * @param expiryCallbacks the expiry callbacks to add
+	 */
+	public void setExpiryCallbacks(Collection<MessageGroupCallback> expiryCallbacks) {
+		for (MessageGroupCallback callback : expiryCallbacks) {
+			registerMessageGroupExpiryCallback(callback);
+		}
+	}
+	
+	public boolean isTimeoutOnIdle() {
+		return timeoutOnIdle;
+	}
+
+	/**
+	 * Allows you to override the rule for the timeout calculation. Typical timeout is based from the time
+	 * the {@link MessageGroup} was created. If you want the timeout to be based on the time 
+	 * the {@link MessageGroup} was idling (e.g., inactive from the last update) invoke this method with 'true'.
+	 * Default is 'false'.
+	 */
+	public void setTimeoutOnIdle(boolean timeoutOnIdle) {
+		this.timeoutOnIdle = timeoutOnIdle;
+	}
+
+	public boolean isLazyLoadMessageGroups() {
+		return lazyLoadMessageGroups;
+	}
+
+	/**
+	 * Persistent stores that support it return a {@link PersistentMessageGroup} from
+	 * {@link #getMessageGroup(Object)}; only the group's metadata is read and the
+	 * messages are loaded when they are first needed. Set to 'false' to always load
+	 * the messages with the group. Default is 'true'.
+	 * @param lazyLoadMessageGroups false to load the messages eagerly.
+	 * @since 3.0
+	 */
+	public void setLazyLoadMessageGroups(boolean lazyLoadMessageGroups) {
+		this.lazyLoadMessageGroups = lazyLoadMessageGroups;
+	}
+
+	/**
+	 * Persist the deletion of messages from the group. This implementation removes the
+	 * messages one at a time; subclasses may override it to remove the messages with
+	 * fewer round trips.
+	 * @param key the groupId for the group containing the messages
+	 * @param messages the messages to be removed
+	 * @return the group after the removal
+	 * @since 3.0
+	 */
+	public MessageGroup removeMessagesFromGroup(Object key, Collection<Message<?>> messages) {
+		MessageGroup group = null;
+		for (Message<?> message : messages) {
+			group = this.removeMessageFromGroup(key, message);
+		}
+		return group != null ? group : this.getMessageGroup(key);
+	}
+
+	public void registerMessageGroupExpiryCallback(MessageGroupCallback callback) {
+		expiryCallbacks.add(callback);
+	}
+
+	public int expireMessageGroups(long timeout) {
+		int count = 0;
+		long threshold = System.currentTimeMillis() - timeout;
+		for (MessageGroup group : this.getExpiryCandidates(threshold)) {
+
+			long timestamp = group.getTimestamp();
+			if (this.isTimeoutOnIdle() && group.getLastModified() > 0) {
+			    timestamp = group.getLastModified();
+			}
+			
+			if (timestamp <= threshold) {
+				count++;
+				expire(group);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return the groups that may have expired at the given threshold; that is, groups
+	 * created (or, with 'timeoutOnIdle', last modified) at or before that time.
+	 * {@link #expireMessageGroups(long)} checks each candidate's timestamps again, so
+	 * the result may include groups that have not expired, but it must not omit any
+	 * that have. This implementation returns all groups; stores that can locate the
+	 * candidates without loading every group (e.g. using an index or a query) should
+	 * override it.
+	 * @param threshold the expiry threshold (milliseconds since the epoch).
+	 * @return the candidate groups.
+	 * @since 3.0
+	 */
+	protected Iterable<MessageGroup> getExpiryCandidates(long threshold) {
+		return this;
+	}
+
+	/**
+	 * Return the messages of the group; used by {@link PersistentMessageGroup} to
+	 * load the messages. Stores that return a {@link PersistentMessageGroup} from
+	 * {@link #getMessageGroup(Object)} must override this method.
+	 * @param groupId the group id.
+	 * @return the messages.
+	 * @since 3.0
+	 */
+	protected Collection<Message<?>> getMessagesForGroup(Object groupId) {
+		return this.getMessageGroup(groupId).getMessages();
+	}
+
+	/**
+	 * Return a single message of the group (or null if it is empty), without loading
+	 * the other messages where the store allows it. Stores that return a
+	 * {@link PersistentMessageGroup} from {@link #getMessageGroup(Object)} must
+	 * override this method.
+	 * @param groupId the group id.
+	 * @return the message.
+	 * @since 3.0
+	 */
+	protected Message<?> getOneMessageFromGroup(Object groupId) {
+		return this.getMessageGroup(groupId).getOne();
+	}
+
+	@ManagedAttribute
+	public int getMessageCountForAllMessageGroups() {
+		int count = 0;
+		for (MessageGroup group : this) {
+			count += group.size();
+		}
+		return count;
+	}
+
+	@ManagedAttribute
+	public int getMessageGroupCount() {
+		int count = 0;
+		for (@SuppressWarnings("unused") MessageGroup group : this) {
+			count ++;
+		}
+		return count;
+	}
+
+	private void expire(MessageGroup group) {
+	
+		RuntimeException exception = null;
+	
+		for (MessageGroupCallback callback : expiryCallbacks) {
+			try {
+				callback.execute(this, group);
+			} catch (RuntimeException e) {
+				if (exception == null) {
+					exception = e;
+				}
+				logger.error("Exception in expiry callback", e);
+			}
+		}
+	
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
 }
\ No newline at end of file
@@ -26,7 +26,10 @@ import org.springframework.integration.Message;
 import org.springframework.util.Assert;
 
 /**
- * Immutable Value Object holding metadata about a MessageGroup.
+ * Value Object holding metadata about a MessageGroup.
+ * <p>
+ * Stores that keep the group membership in a separate structure (so that it can be
+ * updated incrementally) store this object without message ids.
  * 
  * @author Oleg Zhurakousky
  * @since 2.1
@@ -39,13 +42,13 @@ public class MessageGroupMetadata implements Serializable{
 	
 	private final List<UUID> messageIds = new LinkedList<UUID>();
 
-	private final boolean complete;
+	private volatile boolean complete;
 
 	private final long timestamp;
 	
 	private volatile long lastModified;
 
-	private final int lastReleasedMessageSequenceNumber;
+	private volatile int lastReleasedMessageSequenceNumber;
 
 	public MessageGroupMetadata(MessageGroup messageGroup) {
 		
@@ -63,6 +66,30 @@ public class MessageGroupMetadata implements Serializable{
 	public void remove(UUID messageId){
 		this.messageIds.remove(messageId);
 	}
+
+	/**
+	 * @param messageId the id to add to the end of the group.
+	 * @since 3.0
+	 */
+	public void add(UUID messageId) {
+		this.messageIds.add(messageId);
+	}
+
+	/**
+	 * Mark the group as complete.
+	 * @since 3.0
+	 */
+	public void complete() {
+		this.complete = true;
+	}
+
+	/**
+	 * @param lastReleasedMessageSequenceNumber the sequence number.
+	 * @since 3.0
+	 */
+	public void setLastReleasedMessageSequenceNumber(int lastReleasedMessageSequenceNumber) {
+		this.lastReleasedMessageSequenceNumber = lastReleasedMessageSequenceNumber;
+	}
 	
 	public void setLastModified(long lastModified) {
 		this.lastModified = lastModified;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -88,6 +88,16 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		this.capacity = capacity;
 	}
 
+	/**
+	 * @return true if the messages are polled in priority order, because the
+	 * store is a {@link PriorityCapableChannelMessageStore} with priority enabled.
+	 * @since 3.0
+	 */
+	public boolean isPriority() {
+		return this.messageGroupStore instanceof PriorityCapableChannelMessageStore
+				&& ((PriorityCapableChannelMessageStore) this.messageGroupStore).isPriorityEnabled();
+	}
+
 	public Iterator<Message<?>> iterator() {
 		return getMessages().iterator();
 	}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.springframework.integration.Message;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MessageGroup} view for persistent stores that is created from the group's
+ * metadata only (id, timestamps, completion and last released sequence). The size and
+ * a single message are fetched from the store when first requested and the messages
+ * themselves are only loaded (and deserialized) when {@link #getMessages()} is invoked,
+ * for example when the group is released. Each is fetched at most once per instance,
+ * so the view reflects the state of the store at the time of that first access.
+ * <p>
+ * Release strategies that only need the size and sequence details of a group (such as
+ * the {@code MessageCountReleaseStrategy} and the {@code SequenceSizeReleaseStrategy})
+ * can therefore be evaluated without loading the whole group on each message.
+ *
+ * @since 3.0
+ */
+public class PersistentMessageGroup implements MessageGroup {
+
+	private final AbstractMessageGroupStore messageGroupStore;
+
+	private final SimpleMessageGroup original;
+
+	private volatile Collection<Message<?>> messages;
+
+	private volatile Integer size;
+
+	private volatile Message<?> one;
+
+	/**
+	 * @param messageGroupStore the store that the messages are loaded from.
+	 * @param original a group containing the metadata (but no messages) of the group.
+	 */
+	public PersistentMessageGroup(AbstractMessageGroupStore messageGroupStore, SimpleMessageGroup original) {
+		Assert.notNull(messageGroupStore, "'messageGroupStore' must not be null");
+		Assert.notNull(original, "'original' must not be null");
+		this.messageGroupStore = messageGroupStore;
+		this.original = original;
+	}
+
+	public boolean canAdd(Message<?> message) {
+		return this.original.canAdd(message);
+	}
+
+	public Collection<Message<?>> getMessages() {
+		if (this.messages == null) {
+			this.messages = Collections.unmodifiableCollection(
+					this.messageGroupStore.getMessagesForGroup(this.original.getGroupId()));
+		}
+		return this.messages;
+	}
+
+	/**
+	 * @return true if the messages have been loaded from the store.
+	 */
+	public boolean isLoaded() {
+		return this.messages != null;
+	}
+
+	public Object getGroupId() {
+		return this.original.getGroupId();
+	}
+
+	public int getLastReleasedMessageSequenceNumber() {
+		return this.original.getLastReleasedMessageSequenceNumber();
+	}
+
+	public boolean isComplete() {
+		return this.original.isComplete();
+	}
+
+	public void complete() {
+		this.original.complete();
+	}
+
+	public int getSequenceSize() {
+		if (this.size() == 0) {
+			return 0;
+		}
+		Message<?> one = this.getOne();
+		return one == null ? 0 : one.getHeaders().getSequenceSize();
+	}
+
+	public int size() {
+		Collection<Message<?>> messages = this.messages;
+		if (messages != null) {
+			return messages.size();
+		}
+		if (this.size == null) {
+			this.size = this.messageGroupStore.messageGroupSize(this.original.getGroupId());
+		}
+		return this.size;
+	}
+
+	public Message<?> getOne() {
+		Collection<Message<?>> messages = this.messages;
+		if (messages != null) {
+			Iterator<Message<?>> iterator = messages.iterator();
+			return iterator.hasNext() ? iterator.next() : null;
+		}
+		if (this.one == null) {
+			this.one = this.messageGroupStore.getOneMessageFromGroup(this.original.getGroupId());
+		}
+		return this.one;
+	}
+
+	public long getTimestamp() {
+		return this.original.getTimestamp();
+	}
+
+	public long getLastModified() {
+		return this.original.getLastModified();
+	}
+
+	@Override
+	public String toString() {
+		return "PersistentMessageGroup{" +
+				"groupId=" + this.original.getGroupId() +
+				", loaded=" + this.isLoaded() +
+				", timestamp=" + this.original.getTimestamp() +
+				", lastModified=" + this.original.getLastModified() +
+				'}';
+	}
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+/**
+ * A {@link MessageGroupStore} backing message channels that can, itself, return
+ * the messages of a group in priority order (highest
+ * {@link org.springframework.integration.MessageHeaders#PRIORITY} first, then in
+ * the order they were added); such a store can back a
+ * {@link org.springframework.integration.channel.PriorityChannel}.
+ *
+ * @since 3.0
+ */
+public interface PriorityCapableChannelMessageStore extends MessageGroupStore {
+
+	/**
+	 * @return true if messages are polled in priority order.
+	 */
+	boolean isPriorityEnabled();
+
+}
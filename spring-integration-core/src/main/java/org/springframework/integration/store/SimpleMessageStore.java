@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -13,12 +13,18 @@
 
 package org.springframework.integration.store;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 
 import org.springframework.integration.Message;
@@ -52,6 +58,16 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 
 	private final ConcurrentMap<Object, SimpleMessageGroup> groupIdToMessageGroup;
 
+	/*
+	 * Expiry index - groups ordered by the time used by the reaper (creation time, or
+	 * last modified time with 'timeoutOnIdle'), so expiry need only visit the head.
+	 */
+	private final ConcurrentSkipListSet<ExpiryKey> expiryIndex = new ConcurrentSkipListSet<ExpiryKey>();
+
+	private final ConcurrentMap<Object, ExpiryKey> groupIdToExpiryKey = new ConcurrentHashMap<Object, ExpiryKey>();
+
+	private final AtomicLong expiryKeySequence = new AtomicLong();
+
 	private final UpperBound individualUpperBound;
 
 	private final UpperBound groupUpperBound;
@@ -158,7 +174,8 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 					this.groupIdToMessageGroup.putIfAbsent(groupId, group);
 				}
 				group.add(message);
-				this.groupIdToMessageGroup.get(groupId).setLastModified(System.currentTimeMillis());
+				group.setLastModified(System.currentTimeMillis());
+				this.updateExpiryIndex(group);
 				return group;
 			}
 			finally {
@@ -182,6 +199,10 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 
 				groupUpperBound.release(groupIdToMessageGroup.get(groupId).size());
 				groupIdToMessageGroup.remove(groupId);
+				ExpiryKey expiryKey = this.groupIdToExpiryKey.remove(groupId);
+				if (expiryKey != null) {
+					this.expiryIndex.remove(expiryKey);
+				}
 			}
 			finally {
 				lock.unlock();
@@ -203,6 +224,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 						"can not be located while attempting to remove Message from the MessageGroup");
 				group.remove(messageToRemove);
 				group.setLastModified(System.currentTimeMillis());
+				this.updateExpiryIndex(group);
 				return group;
 			}
 			finally {
@@ -229,6 +251,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 						"can not be located while attempting to set 'lastReleasedSequenceNumber'");
 				group.setLastReleasedMessageSequenceNumber(sequenceNumber);
 				group.setLastModified(System.currentTimeMillis());
+				this.updateExpiryIndex(group);
 			}
 			finally {
 				lock.unlock();
@@ -250,6 +273,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 						"can not be located while attempting to complete the MessageGroup");
 				group.complete();
 				group.setLastModified(System.currentTimeMillis());
+				this.updateExpiryIndex(group);
 			}
 			finally {
 				lock.unlock();
@@ -261,6 +285,57 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 		}
 	}
 
+	@Override
+	public void setTimeoutOnIdle(boolean timeoutOnIdle) {
+		super.setTimeoutOnIdle(timeoutOnIdle);
+		for (SimpleMessageGroup group : this.groupIdToMessageGroup.values()) {
+			this.updateExpiryIndex(group);
+		}
+	}
+
+	/**
+	 * Uses the expiry index so that only groups that have reached the threshold
+	 * are visited.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getExpiryCandidates(long threshold) {
+		ExpiryKey probe = new ExpiryKey(threshold, Long.MAX_VALUE, null);
+		Set<Object> groupIds = new LinkedHashSet<Object>();
+		for (ExpiryKey expiryKey : this.expiryIndex.headSet(probe, true)) {
+			groupIds.add(expiryKey.groupId);
+		}
+		List<MessageGroup> candidates = new ArrayList<MessageGroup>(groupIds.size());
+		for (Object groupId : groupIds) {
+			SimpleMessageGroup group = this.groupIdToMessageGroup.get(groupId);
+			if (group != null) {
+				candidates.add(group);
+			}
+		}
+		return candidates;
+	}
+
+	/*
+	 * Must be called while holding the group's lock. The new key is added before
+	 * the old one is removed so a concurrent expiry scan never misses the group.
+	 */
+	private void updateExpiryIndex(SimpleMessageGroup group) {
+		long time = group.getTimestamp();
+		if (this.isTimeoutOnIdle() && group.getLastModified() > 0) {
+			time = group.getLastModified();
+		}
+		Object groupId = group.getGroupId();
+		ExpiryKey oldKey = this.groupIdToExpiryKey.get(groupId);
+		if (oldKey != null && oldKey.time == time) {
+			return;
+		}
+		ExpiryKey newKey = new ExpiryKey(time, this.expiryKeySequence.incrementAndGet(), groupId);
+		this.groupIdToExpiryKey.put(groupId, newKey);
+		this.expiryIndex.add(newKey);
+		if (oldKey != null) {
+			this.expiryIndex.remove(oldKey);
+		}
+	}
+
 	public Message<?> pollMessageFromGroup(Object groupId) {
 		Collection<Message<?>> messageList = this.getMessageGroup(groupId).getMessages();
 		Message<?> message = null;
@@ -276,4 +351,31 @@ public class SimpleMessageStore extends AbstractMessageGroupStore implements Mes
 	public int messageGroupSize(Object groupId) {
 		return this.getMessageGroup(groupId).size();
 	}
+
+	private static class ExpiryKey implements Comparable<ExpiryKey> {
+
+		private final long time;
+
+		private final long sequence;
+
+		private final Object groupId;
+
+		private ExpiryKey(long time, long sequence, Object groupId) {
+			this.time = time;
+			this.sequence = sequence;
+			this.groupId = groupId;
+		}
+
+		public int compareTo(ExpiryKey other) {
+			if (this.time != other.time) {
+				return this.time < other.time ? -1 : 1;
+			}
+			if (this.sequence != other.sequence) {
+				return this.sequence < other.sequence ? -1 : 1;
+			}
+			return 0;
+		}
+
+	}
+
 }
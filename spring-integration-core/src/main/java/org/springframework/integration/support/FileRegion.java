@@ -0,0 +1,202 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+
+import org.springframework.util.Assert;
+
+/**
+ * A payload that refers to a region of a file instead of holding its contents,
+ * allowing large files to pass through a flow without being copied to the heap.
+ * Handlers that support this payload type transfer the region directly to their
+ * target with {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ * <p>
+ * The file is opened only for the duration of each transfer, so the file must
+ * not be deleted or modified until the message has been handled.
+ *
+ * @since 3.0
+ *
+ */
+public class FileRegion implements Serializable {
+
+	private static final long serialVersionUID = 5238263917355471290L;
+
+	private static final int MAX_YIELDS = 10;
+
+	private static final long MAX_BACK_OFF = 100;
+
+	private final File file;
+
+	private final long position;
+
+	private final long count;
+
+	/**
+	 * Create a region covering the current contents of the file.
+	 * @param file the file.
+	 */
+	public FileRegion(File file) {
+		this(file, 0, file.length());
+	}
+
+	/**
+	 * Create a region covering {@code count} bytes of the file, starting at
+	 * {@code position}.
+	 * @param file the file.
+	 * @param position the offset of the first byte of the region.
+	 * @param count the number of bytes in the region.
+	 */
+	public FileRegion(File file, long position, long count) {
+		Assert.notNull(file, "'file' cannot be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(count >= 0, "'count' must be >= 0");
+		this.file = file;
+		this.position = position;
+		this.count = count;
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	public long getPosition() {
+		return this.position;
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Transfer the region to the target channel. If the target accepts no bytes
+	 * (a non-blocking channel whose buffer is full), the transfer yields, then backs
+	 * off for up to 100 milliseconds between attempts, until the target accepts them.
+	 * @param target the target.
+	 * @return the number of bytes transferred.
+	 * @throws IOException if the file is shorter than the region, or on any other I/O error.
+	 */
+	public long transferTo(WritableByteChannel target) throws IOException {
+		FileInputStream inputStream = new FileInputStream(this.file);
+		try {
+			FileChannel channel = inputStream.getChannel();
+			long transferred = 0;
+			int emptyTransfers = 0;
+			while (transferred < this.count) {
+				long n = channel.transferTo(this.position + transferred, this.count - transferred, target);
+				if (n > 0) {
+					transferred += n;
+					emptyTransfers = 0;
+				}
+				else if (this.position + transferred >= channel.size()) {
+					throw new IOException("File '" + this.file.getAbsolutePath() + "' is shorter than " + this);
+				}
+				else {
+					// a non-blocking target (e.g. a socket with a full send buffer) accepts no bytes for now
+					backOff(++emptyTransfers);
+				}
+			}
+			return transferred;
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	private static void backOff(int emptyTransfers) throws InterruptedIOException {
+		if (emptyTransfers <= MAX_YIELDS) {
+			Thread.yield();
+		}
+		else {
+			try {
+				Thread.sleep(Math.min(emptyTransfers - MAX_YIELDS, MAX_BACK_OFF));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the target to accept the region");
+			}
+		}
+	}
+
+	/**
+	 * Write the region to the output stream; if the stream is a {@link FileOutputStream}
+	 * with a channel, or is itself a {@link WritableByteChannel}, the region is transferred
+	 * directly to the underlying channel. The stream is not flushed or closed.
+	 * @param outputStream the stream.
+	 * @return the number of bytes written.
+	 * @throws IOException on any I/O error.
+	 */
+	public long writeTo(OutputStream outputStream) throws IOException {
+		WritableByteChannel target = null;
+		if (outputStream instanceof FileOutputStream) {
+			// null for a socket stream
+			target = ((FileOutputStream) outputStream).getChannel();
+		}
+		else if (outputStream instanceof WritableByteChannel) {
+			target = (WritableByteChannel) outputStream;
+		}
+		if (target == null) {
+			target = Channels.newChannel(outputStream);
+		}
+		return this.transferTo(target);
+	}
+
+	/**
+	 * Read the contents of the region; for targets that need them as a byte array.
+	 * @return the contents.
+	 * @throws IOException if the file is shorter than the region, or on any other I/O error.
+	 */
+	public byte[] toByteArray() throws IOException {
+		Assert.isTrue(this.count <= Integer.MAX_VALUE, "Region is too large for a byte array: " + this);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) this.count);
+		this.transferTo(Channels.newChannel(outputStream));
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Map the region into memory; the returned buffer is read-only.
+	 * @return the buffer.
+	 * @throws IOException on any I/O error.
+	 */
+	public MappedByteBuffer map() throws IOException {
+		FileInputStream inputStream = new FileInputStream(this.file);
+		try {
+			return inputStream.getChannel().map(MapMode.READ_ONLY, this.position, this.count);
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FileRegion [file=" + this.file.getAbsolutePath() + ", position=" + this.position
+				+ ", count=" + this.count + "]";
+	}
+
+}
@@ -17,12 +17,16 @@ package org.springframework.integration.util;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -34,12 +38,23 @@ import org.springframework.util.Assert;
  * Implementation of {@link Pool} supporting dynamic resizing and a variable
  * timeout when attempting to obtain an item from the pool. Pool grows on
  * demand up to the limit.
+ * <p>
+ * Since 3.0, the pool can be pre-filled with {@link #setMinIdle(int) idle items},
+ * idle items can be evicted based on their idle time and age by periodically
+ * invoking {@link #evictIdleItems()}, and statistics about the time spent waiting
+ * for items are maintained.
  * @author Gary Russell
  * @since 2.2
  *
  */
 public class SimplePool<T> implements Pool<T> {
 
+	/**
+	 * The upper bounds (exclusive, in milliseconds) of the wait time histogram buckets;
+	 * the last bucket counts waits of at least the last bound.
+	 */
+	private static final long[] WAIT_TIME_HISTOGRAM_BOUNDS = new long[] {1, 10, 100, 1000, 10000};
+
 	protected final Log logger = LogFactory.getLog(this.getClass());
 
 	private final Semaphore permits = new Semaphore(0);
@@ -58,6 +73,24 @@ public class SimplePool<T> implements Pool<T> {
 
 	private final PoolItemCallback<T> callback;
 
+	private final Map<T, Long> createdTimes = new ConcurrentHashMap<T, Long>();
+
+	private final Map<T, Long> idleSinceTimes = new ConcurrentHashMap<T, Long>();
+
+	private volatile int minIdle;
+
+	private volatile long maxIdleTime;
+
+	private volatile long maxAge;
+
+	private final AtomicLong waitCount = new AtomicLong();
+
+	private final AtomicLong totalWaitTime = new AtomicLong();
+
+	private final AtomicLong maxWaitTime = new AtomicLong();
+
+	private final AtomicLongArray waitTimeHistogram = new AtomicLongArray(WAIT_TIME_HISTOGRAM_BOUNDS.length + 1);
+
 	/**
 	 * Creates a SimplePool with a specific limit.
 	 * @param poolSize The maximum number of items the pool supports.
@@ -147,11 +180,116 @@ public class SimplePool<T> implements Pool<T> {
 		this.waitTimeout = waitTimeout;
 	}
 
+	/**
+	 * Set the minimum number of idle items; the pool is filled to this number when
+	 * {@link #fillToMinIdle()} is invoked, as long as the pool size permits.
+	 * Default 0.
+	 * @param minIdle the minimum number of idle items.
+	 * @since 3.0
+	 */
+	public void setMinIdle(int minIdle) {
+		Assert.isTrue(minIdle >= 0, "'minIdle' must be >= 0");
+		this.minIdle = minIdle;
+	}
+
+	/**
+	 * Set the time after which an idle item is removed by {@link #evictIdleItems()}.
+	 * Default 0 (idle items are not removed).
+	 * @param maxIdleTime the time in milliseconds.
+	 * @since 3.0
+	 */
+	public void setMaxIdleTime(long maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	/**
+	 * Set the time after its creation when an item is removed by {@link #evictIdleItems()}
+	 * (when idle) or when it is released. Default 0 (no maximum age).
+	 * @param maxAge the time in milliseconds.
+	 * @since 3.0
+	 */
+	public void setMaxAge(long maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * @return the number of times an item was obtained from the pool.
+	 * @since 3.0
+	 */
+	public long getWaitCount() {
+		return this.waitCount.get();
+	}
+
+	/**
+	 * @return the mean time, in milliseconds, spent waiting for an item to become available.
+	 * @since 3.0
+	 */
+	public double getMeanWaitTime() {
+		long count = this.waitCount.get();
+		return count > 0 ? this.totalWaitTime.get() / 1000000d / count : 0;
+	}
+
+	/**
+	 * @return the maximum time, in milliseconds, spent waiting for an item to become available.
+	 * @since 3.0
+	 */
+	public double getMaxWaitTime() {
+		return this.maxWaitTime.get() / 1000000d;
+	}
+
+	/**
+	 * @return the upper bounds (exclusive, in milliseconds) of the buckets returned by
+	 * {@link #getWaitTimeHistogram()}; the last bucket has no upper bound.
+	 * @since 3.0
+	 */
+	public long[] getWaitTimeHistogramBounds() {
+		return WAIT_TIME_HISTOGRAM_BOUNDS.clone();
+	}
+
+	/**
+	 * @return the number of waits for an item in each bucket, including the time taken
+	 * to create a new item, if necessary.
+	 * @see #getWaitTimeHistogramBounds()
+	 * @since 3.0
+	 */
+	public long[] getWaitTimeHistogram() {
+		long[] histogram = new long[this.waitTimeHistogram.length()];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = this.waitTimeHistogram.get(i);
+		}
+		return histogram;
+	}
+
 	/**
 	 * Obtains an item from the pool; waits up to waitTime milliseconds (default infinity).
 	 * @throws MessagingException if no items become available in time.
 	 */
 	public T getItem() {
+		long start = System.nanoTime();
+		try {
+			return this.doGetItemWithPermit();
+		}
+		finally {
+			this.recordWaitTime(System.nanoTime() - start);
+		}
+	}
+
+	private void recordWaitTime(long waitTime) {
+		this.waitCount.incrementAndGet();
+		this.totalWaitTime.addAndGet(waitTime);
+		long max = this.maxWaitTime.get();
+		while (waitTime > max && !this.maxWaitTime.compareAndSet(max, waitTime)) {
+			max = this.maxWaitTime.get();
+		}
+		long millis = TimeUnit.NANOSECONDS.toMillis(waitTime);
+		int bucket = 0;
+		while (bucket < WAIT_TIME_HISTOGRAM_BOUNDS.length && millis >= WAIT_TIME_HISTOGRAM_BOUNDS[bucket]) {
+			bucket++;
+		}
+		this.waitTimeHistogram.incrementAndGet(bucket);
+	}
+
+	private T doGetItemWithPermit() {
 		boolean permitted = false;
 		try {
 			try {
@@ -189,14 +327,16 @@ public class SimplePool<T> implements Pool<T> {
 				logger.debug("Obtained new " + item + ".");
 			}
 			allocated.add(item);
+			this.createdTimes.put(item, System.currentTimeMillis());
 		}
-		else if (this.callback.isStale(item)) {
+		else if (this.callback.isStale(item) || this.isTooOld(item, System.currentTimeMillis())) {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Received a stale item, will attempt to get a new one.");
 			}
 			doRemoveItem(item);
 			item = doGetItem();
 		}
+		this.idleSinceTimes.remove(item);
 		this.inUse.add(item);
 		return item;
 	}
@@ -220,8 +360,14 @@ public class SimplePool<T> implements Pool<T> {
 					logger.debug("Releasing " + item + " back to the pool");
 				}
 				if (item != null) {
-					this.available.add(item);
-					this.inUse.remove(item);
+					if (this.isTooOld(item, System.currentTimeMillis())) {
+						doRemoveItem(item);
+					}
+					else {
+						this.idleSinceTimes.put(item, System.currentTimeMillis());
+						this.available.add(item);
+						this.inUse.remove(item);
+					}
 				}
 				permits.release();
 			}
@@ -240,9 +386,88 @@ public class SimplePool<T> implements Pool<T> {
 		}
 	}
 
+	/**
+	 * Create idle items until there are at least {@link #setMinIdle(int) minIdle} idle
+	 * items, or the pool is full.
+	 * @return the number of items created.
+	 * @since 3.0
+	 */
+	public synchronized int fillToMinIdle() {
+		int created = 0;
+		while (this.available.size() < Math.min(this.minIdle, this.poolSize.get() - this.inUse.size())
+				&& this.permits.tryAcquire()) {
+			try {
+				T item = this.callback.createForPool();
+				this.allocated.add(item);
+				long now = System.currentTimeMillis();
+				this.createdTimes.put(item, now);
+				this.idleSinceTimes.put(item, now);
+				this.available.add(item);
+				created++;
+			}
+			finally {
+				this.permits.release();
+			}
+		}
+		if (created > 0 && logger.isDebugEnabled()) {
+			logger.debug("Created " + created + " idle item(s)");
+		}
+		return created;
+	}
+
+	/**
+	 * Remove idle items that are stale, have been idle longer than
+	 * {@link #setMaxIdleTime(long) maxIdleTime} or are older than
+	 * {@link #setMaxAge(long) maxAge}; items are not removed for being idle if that
+	 * would leave fewer than {@link #setMinIdle(int) minIdle} idle items. Intended to be
+	 * invoked periodically.
+	 * @return the number of items removed.
+	 * @since 3.0
+	 */
+	public int evictIdleItems() {
+		int removed = 0;
+		int count = this.available.size();
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < count; i++) {
+			if (!this.permits.tryAcquire()) {
+				break;
+			}
+			try {
+				T item = this.available.poll();
+				if (item == null) {
+					break;
+				}
+				Long idleSince = this.idleSinceTimes.get(item);
+				boolean idleTooLong = this.maxIdleTime > 0 && idleSince != null
+						&& now - idleSince > this.maxIdleTime && this.available.size() >= this.minIdle;
+				if (idleTooLong || this.isTooOld(item, now) || this.callback.isStale(item)) {
+					doRemoveItem(item);
+					removed++;
+				}
+				else {
+					this.available.add(item);
+				}
+			}
+			finally {
+				this.permits.release();
+			}
+		}
+		if (removed > 0 && logger.isDebugEnabled()) {
+			logger.debug("Evicted " + removed + " idle item(s)");
+		}
+		return removed;
+	}
+
+	private boolean isTooOld(T item, long now) {
+		Long created = this.createdTimes.get(item);
+		return this.maxAge > 0 && created != null && now - created > this.maxAge;
+	}
+
 	private void doRemoveItem(T item) {
 		this.allocated.remove(item);
 		this.inUse.remove(item);
+		this.createdTimes.remove(item);
+		this.idleSinceTimes.remove(item);
 		this.callback.removedFromPool(item);
 	}
 
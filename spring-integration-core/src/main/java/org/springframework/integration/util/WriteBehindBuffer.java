@@ -0,0 +1,191 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * Accumulates items and hands them to a {@link Writer} in batches, either when
+ * {@code batchSize} items are pending (on the thread adding the last item), or
+ * when the flush interval elapses (on a scheduler thread). Batches are written
+ * one at a time, in the order the items were added.
+ * <p>
+ * When a batch cannot be written, its items are passed to the
+ * {@link #setFailureCallback(FailureCallback) failure callback}, whichever thread
+ * performed the write. Without a callback, the failure is logged and, when the
+ * write was triggered by {@link #add(Object)} or {@link #flush()}, rethrown to
+ * that caller; either way, the items of the failed batch are discarded.
+ *
+ * @since 3.0
+ *
+ */
+public class WriteBehindBuffer<T> {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	private final Object flushMonitor = new Object();
+
+	private final int batchSize;
+
+	private final Writer<T> writer;
+
+	private List<T> items;
+
+	private volatile ScheduledFuture<?> flushTask;
+
+	private volatile ThreadPoolTaskScheduler internalTaskScheduler;
+
+	private volatile FailureCallback<T> failureCallback;
+
+	public WriteBehindBuffer(int batchSize, Writer<T> writer) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0");
+		Assert.notNull(writer, "'writer' must not be null");
+		this.batchSize = batchSize;
+		this.writer = writer;
+		this.items = new ArrayList<T>(batchSize);
+	}
+
+	/**
+	 * Set a callback to receive the items of batches that could not be written.
+	 * @param failureCallback the callback.
+	 */
+	public void setFailureCallback(FailureCallback<T> failureCallback) {
+		this.failureCallback = failureCallback;
+	}
+
+	/**
+	 * Schedule periodic flushes.
+	 * @param taskScheduler the scheduler; if null, an internal daemon scheduler is used.
+	 * @param flushInterval the interval in milliseconds.
+	 */
+	public void start(TaskScheduler taskScheduler, long flushInterval) {
+		Assert.isTrue(flushInterval > 0, "'flushInterval' must be > 0");
+		TaskScheduler scheduler = taskScheduler;
+		if (scheduler == null) {
+			this.internalTaskScheduler = new ThreadPoolTaskScheduler();
+			this.internalTaskScheduler.setThreadNamePrefix("writeBehind-");
+			this.internalTaskScheduler.setDaemon(true);
+			this.internalTaskScheduler.afterPropertiesSet();
+			scheduler = this.internalTaskScheduler;
+		}
+		this.flushTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+
+			public void run() {
+				try {
+					flush();
+				}
+				catch (Exception e) {
+					// without a callback, the failure has already been logged
+					if (failureCallback != null) {
+						logger.error("Failed to handle a write failure", e);
+					}
+				}
+			}
+
+		}, new Date(System.currentTimeMillis() + flushInterval), flushInterval);
+	}
+
+	/**
+	 * Add an item, writing the pending items if the batch is full.
+	 * @param item the item.
+	 */
+	public void add(T item) {
+		boolean full;
+		synchronized (this) {
+			this.items.add(item);
+			full = this.items.size() >= this.batchSize;
+		}
+		if (full) {
+			this.flush();
+		}
+	}
+
+	/**
+	 * Write the pending items, if any.
+	 */
+	public void flush() {
+		synchronized (this.flushMonitor) {
+			List<T> batch;
+			synchronized (this) {
+				if (this.items.isEmpty()) {
+					return;
+				}
+				batch = this.items;
+				this.items = new ArrayList<T>(this.batchSize);
+			}
+			try {
+				this.writer.write(batch);
+			}
+			catch (RuntimeException e) {
+				FailureCallback<T> failureCallback = this.failureCallback;
+				if (failureCallback == null) {
+					this.logger.error("Failed to write a batch of " + batch.size() + " item(s)", e);
+					throw e;
+				}
+				failureCallback.onFailure(batch, e);
+			}
+		}
+	}
+
+	public synchronized int getPendingCount() {
+		return this.items.size();
+	}
+
+	/**
+	 * Cancel the periodic flushes and write the pending items.
+	 */
+	public void stop() {
+		ScheduledFuture<?> flushTask = this.flushTask;
+		if (flushTask != null) {
+			flushTask.cancel(false);
+			this.flushTask = null;
+		}
+		if (this.internalTaskScheduler != null) {
+			this.internalTaskScheduler.shutdown();
+			this.internalTaskScheduler = null;
+		}
+		this.flush();
+	}
+
+	public interface Writer<T> {
+
+		void write(List<T> items);
+
+	}
+
+	public interface FailureCallback<T> {
+
+		/**
+		 * Invoked when a batch could not be written.
+		 * @param items the items of the batch.
+		 * @param exception the exception thrown by the {@link Writer}.
+		 */
+		void onFailure(List<T> items, RuntimeException exception);
+
+	}
+
+}
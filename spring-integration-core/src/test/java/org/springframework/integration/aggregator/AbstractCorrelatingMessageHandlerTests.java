@@ -19,9 +19,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +51,23 @@ import org.springframework.integration.test.util.TestUtils;
  */
 public class AbstractCorrelatingMessageHandlerTests {
 
+	@Test
+	public void testRemoveMessagesFromGroupOfAnyStore() {
+		MessageGroupStore groupStore = mock(MessageGroupStore.class);
+		AbstractCorrelatingMessageHandler handler = new AbstractCorrelatingMessageHandler(
+				new DefaultAggregatingMessageGroupProcessor(), groupStore) {
+
+			@Override
+			protected void afterRelease(MessageGroup group, Collection<Message<?>> completedMessages) {
+			}
+		};
+		Message<?> message1 = new GenericMessage<String>("foo");
+		Message<?> message2 = new GenericMessage<String>("bar");
+		handler.removeMessagesFromGroup("baz", Arrays.<Message<?>>asList(message1, message2));
+		verify(groupStore).removeMessageFromGroup("baz", message1);
+		verify(groupStore).removeMessageFromGroup("baz", message2);
+	}
+
 	@Test // INT-2751
 	public void testReaperDoesntReapAProcessingGroup() throws Exception {
 		final MessageGroupStore groupStore = new SimpleMessageStore();
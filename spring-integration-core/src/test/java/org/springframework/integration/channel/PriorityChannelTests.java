@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,9 @@ import org.junit.Test;
 
 import org.springframework.integration.Message;
 import org.springframework.integration.message.GenericMessage;
+import org.springframework.integration.store.MessageGroupQueue;
+import org.springframework.integration.store.PriorityCapableChannelMessageStore;
+import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.MessageBuilder;
 
 import static org.junit.Assert.assertEquals;
@@ -304,6 +307,25 @@ public class PriorityChannelTests {
 	}
 
 
+	@Test
+	public void testMessageStoreBacked() {
+		PriorityChannel channel = new PriorityChannel(new MessageGroupQueue(new PriorityMessageStore(), "foo", 3));
+		assertTrue(channel.send(createPriorityMessage(1), 0));
+		assertTrue(channel.send(MessageBuilder.withPayload("test:none").build(), 0));
+		assertTrue(channel.send(createPriorityMessage(5), 0));
+		assertFalse(channel.send(createPriorityMessage(9), 0));
+		assertEquals("test:5", channel.receive(0).getPayload());
+		assertEquals("test:1", channel.receive(0).getPayload());
+		assertEquals("test:none", channel.receive(0).getPayload());
+		assertNull(channel.receive(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMessageStoreMustBePriorityCapable() {
+		new PriorityChannel(new MessageGroupQueue(new SimpleMessageStore(), "foo"));
+	}
+
+
 	private static Message<String> createPriorityMessage(int priority) {
 		return MessageBuilder.withPayload("test:" + priority).setPriority(priority).build(); 
 	}
@@ -318,6 +340,35 @@ public class PriorityChannelTests {
 		}	
 	}
 	
+	/**
+	 * Polls the message with the highest priority; first added wins for equal priorities.
+	 */
+	public static class PriorityMessageStore extends SimpleMessageStore implements PriorityCapableChannelMessageStore {
+
+		public boolean isPriorityEnabled() {
+			return true;
+		}
+
+		@Override
+		public Message<?> pollMessageFromGroup(Object groupId) {
+			Message<?> polled = null;
+			int polledPriority = 0;
+			for (Message<?> message : this.getMessageGroup(groupId).getMessages()) {
+				Integer priority = message.getHeaders().getPriority();
+				int value = priority != null ? priority : 0;
+				if (polled == null || value > polledPriority) {
+					polled = message;
+					polledPriority = value;
+				}
+			}
+			if (polled != null) {
+				this.removeMessageFromGroup(groupId, polled);
+			}
+			return polled;
+		}
+
+	}
+
 	public static class FooHeaderComparator implements Comparator<Message<?>> {
 		public int compare(Message<?> message1, Message<?> message2) {
 			Integer foo1 = (Integer) message1.getHeaders().get("foo");
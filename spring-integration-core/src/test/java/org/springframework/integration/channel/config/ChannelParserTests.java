@@ -44,7 +44,9 @@ import org.springframework.integration.core.PollableChannel;
 import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.UnicastingDispatcher;
 import org.springframework.integration.message.GenericMessage;
+import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.integration.util.ErrorHandlingTaskExecutor;
 
 /**
@@ -237,6 +239,21 @@ public class ChannelParserTests {
 		assertEquals("D", reply4.getPayload());
 	}
 
+	@Test
+	public void testPriorityChannelWithMessageStore() {
+		ApplicationContext context = new ClassPathXmlApplicationContext("priorityChannelParserTests.xml", this
+				.getClass());
+		PollableChannel channel = (PollableChannel) context.getBean("priorityChannelWithMessageStore");
+		assertThat(TestUtils.getPropertyValue(channel, "queue"), instanceOf(MessageGroupQueue.class));
+		assertEquals(10, TestUtils.getPropertyValue(channel, "queue.capacity"));
+		channel.send(MessageBuilder.withPayload("low").setPriority(-14).build());
+		channel.send(MessageBuilder.withPayload("high").setPriority(99).build());
+		channel.send(MessageBuilder.withPayload("mid").build());
+		assertEquals("high", channel.receive(0).getPayload());
+		assertEquals("mid", channel.receive(0).getPayload());
+		assertEquals("low", channel.receive(0).getPayload());
+	}
+
 	@Test
 	public void testPriorityChannelWithIntegerDatatypeEnforced() {
 		ApplicationContext context = new ClassPathXmlApplicationContext("priorityChannelParserTests.xml", this
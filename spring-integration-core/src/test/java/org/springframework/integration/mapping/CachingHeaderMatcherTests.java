@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * @since 3.0
+ */
+public class CachingHeaderMatcherTests {
+
+	@Test
+	public void decisionsAreMemoized() {
+		final AtomicInteger evaluations = new AtomicInteger();
+		CachingHeaderMatcher matcher = new CachingHeaderMatcher() {
+
+			@Override
+			protected boolean doMatch(String headerName) {
+				evaluations.incrementAndGet();
+				return PatternMatchUtils.simpleMatch("foo*", headerName);
+			}
+
+		};
+		for (int i = 0; i < 10; i++) {
+			assertTrue(matcher.matches("foobar"));
+			assertFalse(matcher.matches("bar"));
+		}
+		assertEquals(2, evaluations.get());
+	}
+
+	@Test
+	public void capacityIsBounded() {
+		final AtomicInteger evaluations = new AtomicInteger();
+		CachingHeaderMatcher matcher = new CachingHeaderMatcher(1) {
+
+			@Override
+			protected boolean doMatch(String headerName) {
+				evaluations.incrementAndGet();
+				return true;
+			}
+
+		};
+		assertTrue(matcher.matches("foo"));
+		assertTrue(matcher.matches("foo"));
+		assertEquals(1, evaluations.get());
+		assertTrue(matcher.matches("bar"));
+		assertTrue(matcher.matches("bar"));
+		assertEquals(3, evaluations.get());
+	}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.support.MessageBuilder;
+
+/**
+ * @since 3.0
+ *
+ */
+public class AbstractKeyValueMessageStoreTests {
+
+	@Test
+	public void testGroupMembershipInMetadata() {
+		MapMessageStore store = new MapMessageStore();
+		this.exerciseGroup(store);
+	}
+
+	@Test
+	public void testGroupMembershipInSeparateStructure() {
+		MembersMessageStore store = new MembersMessageStore();
+		this.exerciseGroup(store);
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("bar").build());
+		MessageGroupMetadata metadata = (MessageGroupMetadata) store.map.get("MESSAGE_GROUP_foo");
+		assertEquals(0, metadata.size());
+		assertEquals(1, store.messageGroupSize("foo"));
+	}
+
+	@Test
+	public void testMetadataOnlyUpdates() {
+		MapMessageStore store = new MapMessageStore();
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("bar").build());
+		store.retrieves = 0;
+		store.completeGroup("foo");
+		store.setLastReleasedSequenceNumberForGroup("foo", 3);
+		// no messages are read
+		assertEquals(2, store.retrieves);
+		MessageGroup group = store.getMessageGroup("foo");
+		assertTrue(group.isComplete());
+		assertEquals(3, group.getLastReleasedMessageSequenceNumber());
+		assertEquals(1, group.size());
+	}
+
+	@Test
+	public void testBatchRetrieveAndRemove() {
+		MapMessageStore store = new MapMessageStore();
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 4; i++) {
+			Message<String> message = MessageBuilder.withPayload("m" + i).build();
+			messages.add(message);
+			store.addMessageToGroup("foo", message);
+		}
+		store.retrieves = 0;
+		store.batchRetrieves = 0;
+		assertEquals(4, store.getMessageGroup("foo").getMessages().size());
+		// metadata (for the group, then for loading it) plus one batch for the messages
+		assertEquals(2, store.retrieves);
+		assertEquals(1, store.batchRetrieves);
+
+		MessageGroup group = store.removeMessagesFromGroup("foo", messages.subList(0, 3));
+		assertEquals(1, group.size());
+		assertEquals("m3", group.getOne().getPayload());
+		assertEquals(1, store.batchRemoves);
+		assertFalse(store.map.containsKey("MESSAGE_" + messages.get(0).getHeaders().getId()));
+
+		store.removeMessageGroup("foo");
+		assertEquals(2, store.batchRemoves);
+		assertTrue(store.map.isEmpty());
+	}
+
+	@Test
+	public void testMembersNotFetchedOnAdd() {
+		MapMessageStore store = new MapMessageStore();
+		for (int i = 0; i < 10; i++) {
+			store.addMessageToGroup("foo", MessageBuilder.withPayload("m" + i).setSequenceSize(20).build());
+		}
+		store.retrieves = 0;
+		MessageGroup group = store.addMessageToGroup("foo",
+				MessageBuilder.withPayload("m10").setSequenceSize(20).build());
+		assertTrue(group instanceof PersistentMessageGroup);
+		// what a SequenceSizeReleaseStrategy needs
+		assertEquals(11, group.size());
+		assertEquals(20, group.getSequenceSize());
+		assertEquals("m0", group.getOne().getPayload());
+		assertFalse(((PersistentMessageGroup) group).isLoaded());
+		// the metadata on add, size and getOne, plus the first message; no other member is read
+		assertEquals(4, store.retrieves);
+		assertEquals(0, store.batchRetrieves);
+
+		group = store.removeMessageFromGroup("foo", group.getOne());
+		assertEquals(0, store.batchRetrieves);
+		assertEquals(10, group.getMessages().size());
+		assertEquals(1, store.batchRetrieves);
+
+		store.setLazyLoadMessageGroups(false);
+		group = store.addMessageToGroup("foo", MessageBuilder.withPayload("m11").build());
+		assertTrue(group instanceof SimpleMessageGroup);
+		assertEquals(2, store.batchRetrieves);
+	}
+
+	private void exerciseGroup(MapMessageStore store) {
+		Message<String> m1 = MessageBuilder.withPayload("one").build();
+		Message<String> m2 = MessageBuilder.withPayload("two").build();
+		Message<String> m3 = MessageBuilder.withPayload("three").build();
+		store.addMessageToGroup("foo", m1);
+		store.addMessageToGroup("foo", m2);
+		MessageGroup group = store.addMessageToGroup("foo", m3);
+		assertEquals(3, group.size());
+		assertEquals(3, store.messageGroupSize("foo"));
+		assertEquals(0, store.messageGroupSize("bar"));
+
+		group = store.removeMessageFromGroup("foo", m2);
+		assertEquals(2, group.size());
+		assertFalse(store.map.containsKey("MESSAGE_" + m2.getHeaders().getId()));
+		assertEquals("one", store.pollMessageFromGroup("foo").getPayload());
+		assertEquals(1, store.messageGroupSize("foo"));
+		assertEquals("three", store.getMessageGroup("foo").getOne().getPayload());
+
+		store.removeMessageGroup("foo");
+		assertEquals(0, store.messageGroupSize("foo"));
+		assertNull(store.pollMessageFromGroup("foo"));
+		assertTrue(store.map.isEmpty());
+	}
+
+	private static class MapMessageStore extends AbstractKeyValueMessageStore {
+
+		protected final Map<Object, Object> map = new HashMap<Object, Object>();
+
+		protected int retrieves;
+
+		protected int batchRetrieves;
+
+		protected int batchRemoves;
+
+		@Override
+		protected Object doRetrieve(Object id) {
+			this.retrieves++;
+			return this.map.get(id);
+		}
+
+		@Override
+		protected List<?> doRetrieveAll(Collection<Object> ids) {
+			this.batchRetrieves++;
+			List<Object> objects = new ArrayList<Object>();
+			for (Object id : ids) {
+				objects.add(this.map.get(id));
+			}
+			return objects;
+		}
+
+		@Override
+		protected void doRemoveAll(Collection<Object> ids) {
+			this.batchRemoves++;
+			this.map.keySet().removeAll(ids);
+		}
+
+		@Override
+		protected void doStore(Object id, Object objectToStore) {
+			this.map.put(id, objectToStore);
+		}
+
+		@Override
+		protected Object doRemove(Object id) {
+			return this.map.remove(id);
+		}
+
+		@Override
+		protected Collection<?> doListKeys(String keyPattern) {
+			List<Object> keys = new ArrayList<Object>();
+			String prefix = keyPattern.replace("*", "");
+			for (Object key : this.map.keySet()) {
+				if (((String) key).startsWith(prefix)) {
+					keys.add(key);
+				}
+			}
+			return keys;
+		}
+
+	}
+
+	private static class MembersMessageStore extends MapMessageStore {
+
+		@SuppressWarnings("unchecked")
+		private LinkedList<UUID> members(Object groupId) {
+			LinkedList<UUID> members = (LinkedList<UUID>) this.map.get("MEMBERS_" + groupId);
+			if (members == null) {
+				members = new LinkedList<UUID>();
+				this.map.put("MEMBERS_" + groupId, members);
+			}
+			return members;
+		}
+
+		@Override
+		protected void doAddMessageIdToGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+			this.members(groupId).add(messageId);
+		}
+
+		@Override
+		protected void doRemoveMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+			this.members(groupId).remove(messageId);
+		}
+
+		@Override
+		protected UUID doPollMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata) {
+			return this.members(groupId).poll();
+		}
+
+		@Override
+		protected UUID doGetFirstMessageIdInGroup(Object groupId, MessageGroupMetadata metadata) {
+			return this.members(groupId).peek();
+		}
+
+		@Override
+		protected List<UUID> doListMessageIdsInGroup(Object groupId, MessageGroupMetadata metadata) {
+			return new ArrayList<UUID>(this.members(groupId));
+		}
+
+		@Override
+		protected int doGetGroupSize(Object groupId, MessageGroupMetadata metadata) {
+			return this.members(groupId).size();
+		}
+
+		@Override
+		protected void doRemoveGroupMembership(Object groupId) {
+			this.map.remove("MEMBERS_" + groupId);
+		}
+
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.aggregator.SequenceSizeReleaseStrategy;
+import org.springframework.integration.support.MessageBuilder;
+
+/**
+ * @since 3.0
+ */
+public class PersistentMessageGroupTests {
+
+	@Test
+	public void messagesAreLoadedOnlyWhenNeeded() {
+		final AtomicInteger loads = new AtomicInteger();
+		final AtomicInteger sizes = new AtomicInteger();
+		final AtomicInteger ones = new AtomicInteger();
+		SimpleMessageStore store = new SimpleMessageStore() {
+
+			@Override
+			protected Collection<Message<?>> getMessagesForGroup(Object groupId) {
+				loads.incrementAndGet();
+				return super.getMessagesForGroup(groupId);
+			}
+
+			@Override
+			public int messageGroupSize(Object groupId) {
+				sizes.incrementAndGet();
+				return super.messageGroupSize(groupId);
+			}
+
+			@Override
+			protected Message<?> getOneMessageFromGroup(Object groupId) {
+				ones.incrementAndGet();
+				return super.getOneMessageFromGroup(groupId);
+			}
+
+		};
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("foo").setSequenceNumber(1).setSequenceSize(2).build());
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("bar").setSequenceNumber(2).setSequenceSize(2).build());
+		SimpleMessageGroup metadata = new SimpleMessageGroup(Collections.<Message<?>>emptyList(), "foo", 123, false);
+		metadata.setLastModified(456);
+		PersistentMessageGroup group = new PersistentMessageGroup(store, metadata);
+
+		assertTrue(new SequenceSizeReleaseStrategy().canRelease(group));
+		assertEquals(2, group.size());
+		assertEquals(2, group.getSequenceSize());
+		assertEquals(123, group.getTimestamp());
+		assertEquals(456, group.getLastModified());
+		assertFalse(group.isLoaded());
+		assertEquals(0, loads.get());
+		assertEquals(1, sizes.get());
+		assertEquals(1, ones.get());
+
+		assertEquals(2, group.getMessages().size());
+		assertEquals(2, group.getMessages().size());
+		assertTrue(group.isLoaded());
+		assertEquals(1, loads.get());
+		assertEquals(1, sizes.get());
+	}
+
+}
@@ -24,15 +24,17 @@ public class SimpleMessageGroupTests {
 
 	private final Object key = new Object();
 
-	private SimpleMessageGroup group = new SimpleMessageGroup(Collections.<Message<?>> emptyList(), key);
+	private final SimpleMessageGroup group = new SimpleMessageGroup(Collections.<Message<?>> emptyList(), key);
+
+	private MessageGroup sequenceAwareGroup;
 
 	@SuppressWarnings("unchecked")
 	public void prepareForSequenceAwareMessageGroup() throws Exception{
-		Class<SimpleMessageGroup> clazz =
-				(Class<SimpleMessageGroup>)Class.forName("org.springframework.integration.aggregator.AbstractCorrelatingMessageHandler$SequenceAwareMessageGroup");
-		Constructor<SimpleMessageGroup> ctr = clazz.getDeclaredConstructor(MessageGroup.class);
+		Class<MessageGroup> clazz =
+				(Class<MessageGroup>)Class.forName("org.springframework.integration.aggregator.AbstractCorrelatingMessageHandler$SequenceAwareMessageGroup");
+		Constructor<MessageGroup> ctr = clazz.getDeclaredConstructor(MessageGroup.class);
 		ctr.setAccessible(true);
-		group = ctr.newInstance(group);
+		sequenceAwareGroup = ctr.newInstance(group);
 	}
 
 	@Test
@@ -40,10 +42,10 @@ public class SimpleMessageGroupTests {
 		this.prepareForSequenceAwareMessageGroup();
 		final Message<?> message1 = MessageBuilder.withPayload("test").setSequenceNumber(1).build();
 		final Message<?> message2 = MessageBuilder.fromMessage(message1).setSequenceNumber(1).build();
-		assertThat(group.canAdd(message1), is(true));
+		assertThat(sequenceAwareGroup.canAdd(message1), is(true));
 		group.add(message1);
 		group.add(message2);
-		assertThat(group.canAdd(message1), is(false));
+		assertThat(sequenceAwareGroup.canAdd(message1), is(false));
 	}
 
 	@Test
@@ -51,10 +53,10 @@ public class SimpleMessageGroupTests {
 		this.prepareForSequenceAwareMessageGroup();
 		final Message<?> message1 = MessageBuilder.withPayload("test").build();
 		final Message<?> message2 = MessageBuilder.fromMessage(message1).build();
-		assertThat(group.canAdd(message1), is(true));
+		assertThat(sequenceAwareGroup.canAdd(message1), is(true));
 		group.add(message1);
 		group.add(message2);
-		assertThat(group.canAdd(message1), is(true));
+		assertThat(sequenceAwareGroup.canAdd(message1), is(true));
 	}
 
 	@Test // shoudl not fail with NPE (see INT-2666)
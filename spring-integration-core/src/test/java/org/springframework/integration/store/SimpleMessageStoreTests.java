@@ -147,4 +147,55 @@ public class SimpleMessageStoreTests {
 
 	}
 
+	@Test
+	public void expiryCandidatesAreIndexedByCreationTime() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.addMessageToGroup("old", MessageBuilder.withPayload("foo").build());
+		Thread.sleep(10);
+		long threshold = System.currentTimeMillis();
+		Thread.sleep(10);
+		store.addMessageToGroup("new", MessageBuilder.withPayload("bar").build());
+		store.addMessageToGroup("old", MessageBuilder.withPayload("baz").build());
+		assertEquals("[old]", groupIds(store.getExpiryCandidates(threshold)).toString());
+		assertEquals(0, groupIds(store.getExpiryCandidates(threshold - 1000)).size());
+		store.removeMessageGroup("old");
+		assertEquals(0, groupIds(store.getExpiryCandidates(threshold)).size());
+		assertEquals(1, groupIds(store.getExpiryCandidates(System.currentTimeMillis())).size());
+	}
+
+	@Test
+	public void expiryCandidatesAreIndexedByLastModifiedWhenTimeoutOnIdle() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("foo").build());
+		store.addMessageToGroup("bar", MessageBuilder.withPayload("bar").build());
+		Thread.sleep(10);
+		long threshold = System.currentTimeMillis();
+		Thread.sleep(10);
+		store.setTimeoutOnIdle(true);
+		store.addMessageToGroup("foo", MessageBuilder.withPayload("baz").build());
+		assertEquals("[bar]", groupIds(store.getExpiryCandidates(threshold)).toString());
+		store.setTimeoutOnIdle(false);
+		assertEquals(2, groupIds(store.getExpiryCandidates(threshold)).size());
+
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new MessageGroupCallback() {
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				expired.add(group.getGroupId());
+				messageGroupStore.removeMessageGroup(group.getGroupId());
+			}
+		});
+		store.setTimeoutOnIdle(true);
+		store.expireMessageGroups(System.currentTimeMillis() - threshold);
+		assertEquals("[bar]", expired.toString());
+		assertEquals(2, store.getMessageGroup("foo").size());
+	}
+
+	private List<Object> groupIds(Iterable<MessageGroup> groups) {
+		List<Object> groupIds = new ArrayList<Object>();
+		for (MessageGroup group : groups) {
+			groupIds.add(group.getGroupId());
+		}
+		return groupIds;
+	}
+
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.support;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * @since 3.0
+ */
+public class FileRegionTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void testTransferToTargetThatIsTemporarilyFull() throws Exception {
+		File file = temp.newFile("foo.txt");
+		FileCopyUtils.copy("xxfoobarxx".getBytes(), file);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		WritableByteChannel target = new WritableByteChannel() {
+
+			private int writes;
+
+			public boolean isOpen() {
+				return true;
+			}
+
+			public void close() throws IOException {
+			}
+
+			public int write(ByteBuffer src) throws IOException {
+				// accept nothing on most attempts, then one byte, like a non-blocking socket
+				if (++this.writes % 15 != 0) {
+					return 0;
+				}
+				out.write(src.get());
+				return 1;
+			}
+
+		};
+		assertEquals(6, new FileRegion(file, 2, 6).transferTo(target));
+		assertEquals("foobar", new String(out.toByteArray()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testTransferBeyondEndOfFile() throws Exception {
+		File file = temp.newFile("foo.txt");
+		FileCopyUtils.copy("foo".getBytes(), file);
+		new FileRegion(file, 1, 5).toByteArray();
+	}
+
+}
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.HashSet;
@@ -147,6 +148,105 @@ public class SimplePoolTests {
 		assertEquals(2, permits.availablePermits());
 	}
 
+	@Test
+	public void testMinIdleAndEviction() throws Exception {
+		final Set<String> strings = new HashSet<String>();
+		final AtomicBoolean stale = new AtomicBoolean();
+		SimplePool<String> pool = stringPool(4, strings, stale);
+		pool.setMinIdle(2);
+		assertEquals(2, pool.fillToMinIdle());
+		assertEquals(2, pool.getIdleCount());
+		assertEquals(0, pool.fillToMinIdle());
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		String s3 = pool.getItem();
+		assertEquals(3, strings.size());
+		pool.releaseItem(s1);
+		pool.releaseItem(s2);
+		pool.releaseItem(s3);
+		assertEquals(3, pool.getIdleCount());
+		pool.setMaxIdleTime(10);
+		Thread.sleep(50);
+		// keeps minIdle items
+		assertEquals(1, pool.evictIdleItems());
+		assertEquals(2, pool.getIdleCount());
+		assertEquals(2, strings.size());
+		stale.set(true);
+		assertEquals(2, pool.evictIdleItems());
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(0, pool.getAllocatedCount());
+	}
+
+	@Test
+	public void testFillToMinIdleBoundedByPoolSize() throws Exception {
+		final Set<String> strings = new HashSet<String>();
+		SimplePool<String> pool = stringPool(2, strings, new AtomicBoolean());
+		pool.setMinIdle(2);
+		String s1 = pool.getItem();
+		assertEquals(1, pool.fillToMinIdle());
+		assertEquals(1, pool.getIdleCount());
+		assertEquals(2, pool.getAllocatedCount());
+		assertEquals(0, pool.fillToMinIdle());
+		pool.releaseItem(s1);
+		assertEquals(2, pool.getIdleCount());
+		assertEquals(2, strings.size());
+	}
+
+	@Test
+	public void testMaxAge() throws Exception {
+		final Set<String> strings = new HashSet<String>();
+		final AtomicBoolean stale = new AtomicBoolean();
+		SimplePool<String> pool = stringPool(2, strings, stale);
+		pool.setMaxAge(20);
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		pool.releaseItem(s1);
+		assertSame(s1, pool.getItem());
+		Thread.sleep(50);
+		pool.releaseItem(s1);
+		assertEquals(0, pool.getIdleCount());
+		assertFalse(strings.contains(s1));
+		assertEquals(1, pool.getActiveCount());
+		pool.setMaxAge(0);
+		pool.releaseItem(s2);
+		pool.setMaxAge(20);
+		assertEquals(1, pool.evictIdleItems());
+		assertEquals(0, pool.getAllocatedCount());
+	}
+
+	@Test
+	public void testWaitStatistics() throws Exception {
+		final Set<String> strings = new HashSet<String>();
+		final AtomicBoolean stale = new AtomicBoolean();
+		final SimplePool<String> pool = stringPool(1, strings, stale);
+		final String s1 = pool.getItem();
+		new Thread(new Runnable() {
+
+			public void run() {
+				try {
+					Thread.sleep(200);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				pool.releaseItem(s1);
+			}
+
+		}).start();
+		assertSame(s1, pool.getItem());
+		assertEquals(2, pool.getWaitCount());
+		assertTrue(pool.getMaxWaitTime() >= 100);
+		assertTrue(pool.getMeanWaitTime() >= 50);
+		long[] histogram = pool.getWaitTimeHistogram();
+		assertEquals(pool.getWaitTimeHistogramBounds().length + 1, histogram.length);
+		assertEquals(1, histogram[3]);
+		long total = 0;
+		for (long count : histogram) {
+			total += count;
+		}
+		assertEquals(2, total);
+	}
+
 
 	private SimplePool<String> stringPool(int size, final Set<String> strings,
 			final AtomicBoolean stale) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @since 3.0
+ *
+ */
+public class WriteBehindBufferTests {
+
+	private final BlockingQueue<List<String>> batches = new LinkedBlockingQueue<List<String>>();
+
+	private final List<String> written = Collections.synchronizedList(new ArrayList<String>());
+
+	private volatile boolean fail;
+
+	private final WriteBehindBuffer.Writer<String> writer = new WriteBehindBuffer.Writer<String>() {
+
+		public void write(List<String> items) {
+			if (fail) {
+				throw new RuntimeException("planned");
+			}
+			written.addAll(items);
+			batches.add(items);
+		}
+
+	};
+
+	@Test
+	public void testSizeTriggeredFlush() {
+		WriteBehindBuffer<String> buffer = new WriteBehindBuffer<String>(3, this.writer);
+		buffer.add("a");
+		buffer.add("b");
+		assertEquals(0, this.batches.size());
+		assertEquals(2, buffer.getPendingCount());
+		buffer.add("c");
+		assertEquals(1, this.batches.size());
+		assertEquals(Arrays.asList("a", "b", "c"), this.batches.poll());
+		assertEquals(0, buffer.getPendingCount());
+		buffer.add("d");
+		buffer.stop();
+		assertEquals(Arrays.asList("d"), this.batches.poll());
+	}
+
+	@Test
+	public void testTimeTriggeredFlush() throws Exception {
+		WriteBehindBuffer<String> buffer = new WriteBehindBuffer<String>(100, this.writer);
+		buffer.start(null, 50);
+		try {
+			buffer.add("a");
+			buffer.add("b");
+			List<String> batch = this.batches.poll(10, TimeUnit.SECONDS);
+			assertNotNull(batch);
+			assertEquals(Arrays.asList("a", "b"), batch);
+			assertEquals(0, buffer.getPendingCount());
+			buffer.add("c");
+			assertEquals(Arrays.asList("c"), this.batches.poll(10, TimeUnit.SECONDS));
+		}
+		finally {
+			buffer.stop();
+		}
+	}
+
+	@Test
+	public void testFailureWithoutCallbackIsThrownToSender() {
+		WriteBehindBuffer<String> buffer = new WriteBehindBuffer<String>(2, this.writer);
+		this.fail = true;
+		buffer.add("a");
+		try {
+			buffer.add("b");
+			fail("Expected exception");
+		}
+		catch (RuntimeException e) {
+			assertEquals("planned", e.getMessage());
+		}
+		assertEquals(0, buffer.getPendingCount());
+	}
+
+	@Test
+	public void testFailureCallbackReceivesWholeBatch() throws Exception {
+		final BlockingQueue<List<String>> failed = new LinkedBlockingQueue<List<String>>();
+		final BlockingQueue<RuntimeException> exceptions = new LinkedBlockingQueue<RuntimeException>();
+		WriteBehindBuffer<String> buffer = new WriteBehindBuffer<String>(2, this.writer);
+		buffer.setFailureCallback(new WriteBehindBuffer.FailureCallback<String>() {
+
+			public void onFailure(List<String> items, RuntimeException exception) {
+				failed.add(items);
+				exceptions.add(exception);
+			}
+
+		});
+		buffer.start(null, 50);
+		try {
+			this.fail = true;
+			// size triggered, on the sender's thread; the sender is not affected
+			buffer.add("a");
+			buffer.add("b");
+			assertEquals(Arrays.asList("a", "b"), failed.poll());
+			assertEquals("planned", exceptions.poll().getMessage());
+			// time triggered, on a scheduler thread
+			buffer.add("c");
+			List<String> items = failed.poll(10, TimeUnit.SECONDS);
+			assertEquals(Arrays.asList("c"), items);
+			RuntimeException exception = exceptions.poll();
+			assertSame(RuntimeException.class, exception.getClass());
+			this.fail = false;
+			buffer.add("d");
+			assertEquals(Arrays.asList("d"), this.batches.poll(10, TimeUnit.SECONDS));
+			assertTrue(failed.isEmpty());
+		}
+		finally {
+			buffer.stop();
+		}
+	}
+
+}
@@ -16,11 +16,9 @@
 
 package org.springframework.integration.file;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
@@ -40,6 +38,7 @@ import org.springframework.integration.core.MessageHandler;
 import org.springframework.integration.expression.ExpressionUtils;
 import org.springframework.integration.file.support.FileExistsMode;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.util.DefaultLockRegistry;
 import org.springframework.integration.util.LockRegistry;
@@ -52,8 +51,9 @@ import org.springframework.util.StringUtils;
 /**
  * A {@link MessageHandler} implementation that writes the Message payload to a
  * file. If the payload is a File object, it will copy the File to the specified
- * destination directory. If the payload is a byte array or String, it will write
- * it directly. Otherwise, the payload type is unsupported, and an Exception
+ * destination directory. If the payload is a {@link FileRegion}, the region is
+ * transferred from its file without being copied to the heap. If the payload is
+ * a byte array or String, it will write it directly. Otherwise, the payload type is unsupported, and an Exception
  * will be thrown.
  * <p>
  * If the 'deleteSourceFiles' flag is set to true, the original Files will be
@@ -282,6 +282,10 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 				if (payload instanceof File) {
 					resultFile = this.handleFileMessage((File) payload, tempFile, resultFile);
 				}
+				else if (payload instanceof FileRegion) {
+					resultFile = this.handleFileRegionMessage(
+							(FileRegion) payload, originalFileFromHeader, tempFile, resultFile);
+				}
 				else if (payload instanceof byte[]) {
 					resultFile = this.handleByteArrayMessage(
 							(byte[]) payload, originalFileFromHeader, tempFile, resultFile);
@@ -331,34 +335,40 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 	}
 
 	private File handleFileMessage(final File sourceFile, File tempFile, final File resultFile) throws IOException {
-		if (FileExistsMode.APPEND.equals(this.fileExistsMode)){
-			File fileToWriteTo = this.determineFileToWrite(resultFile, tempFile);
-			final BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(fileToWriteTo, true));
-			final BufferedInputStream bis = new BufferedInputStream(new FileInputStream(sourceFile));
-			WhileLockedProcessor whileLockedProcessor = new WhileLockedProcessor(this.lockRegistry, fileToWriteTo.getAbsolutePath()){
-				@Override
-				protected void whileLocked() throws IOException {
-					FileCopyUtils.copy(bis, bos);
-				}
-			};
-			whileLockedProcessor.doWhileLocked();
-			this.cleanUpAfterCopy(fileToWriteTo, resultFile, sourceFile);
-			return resultFile;
+		if (!FileExistsMode.APPEND.equals(this.fileExistsMode) && this.deleteSourceFiles) {
+			if (sourceFile.renameTo(resultFile)) {
+				return resultFile;
+			}
+			if (logger.isInfoEnabled()) {
+				logger.info(String.format("Failed to move file '%s'. Using copy and delete fallback.",
+						sourceFile.getAbsolutePath()));
+			}
 		}
-		else {
-			if (this.deleteSourceFiles) {
-				if (sourceFile.renameTo(resultFile)) {
-					return resultFile;
+		return this.handleFileRegionMessage(new FileRegion(sourceFile), sourceFile, tempFile, resultFile);
+	}
+
+	private File handleFileRegionMessage(final FileRegion region, File originalFile, File tempFile,
+			final File resultFile) throws IOException {
+		File fileToWriteTo = this.determineFileToWrite(resultFile, tempFile);
+
+		final boolean append = FileExistsMode.APPEND.equals(this.fileExistsMode);
+
+		final FileOutputStream fos = new FileOutputStream(fileToWriteTo, append);
+		WhileLockedProcessor whileLockedProcessor = new WhileLockedProcessor(this.lockRegistry, fileToWriteTo.getAbsolutePath()){
+			@Override
+			protected void whileLocked() throws IOException {
+				try {
+					region.writeTo(fos);
 				}
-				if (logger.isInfoEnabled()) {
-					logger.info(String.format("Failed to move file '%s'. Using copy and delete fallback.",
-							sourceFile.getAbsolutePath()));
+				finally {
+					fos.close();
 				}
 			}
-			FileCopyUtils.copy(sourceFile, tempFile);
-			this.cleanUpAfterCopy(tempFile, resultFile, sourceFile);
-			return resultFile;
-		}
+
+		};
+		whileLockedProcessor.doWhileLocked();
+		this.cleanUpAfterCopy(fileToWriteTo, resultFile, originalFile);
+		return resultFile;
 	}
 
 	private File handleByteArrayMessage(final byte[] bytes, File originalFile, File tempFile, final File resultFile) throws IOException {
@@ -47,6 +47,9 @@ public abstract class AbstractRemoteFileInboundChannelAdapterParser extends Abst
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(synchronizerBuilder, element, "remote-directory");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(synchronizerBuilder, element, "delete-remote-files");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(synchronizerBuilder, element, "preserve-timestamp");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(synchronizerBuilder, element, "parallelism");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(synchronizerBuilder, element, "max-fetch-size");
+		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(synchronizerBuilder, element, "task-executor");
 
 		String remoteFileSeparator = element.getAttribute("remote-file-separator");
 		synchronizerBuilder.addPropertyValue("remoteFileSeparator", remoteFileSeparator);
@@ -26,7 +26,9 @@ import org.springframework.core.task.TaskExecutor;
 import org.springframework.integration.MessageChannel;
 import org.springframework.integration.file.tail.ApacheCommonsFileTailingMessageProducer;
 import org.springframework.integration.file.tail.FileTailingMessageProducerSupport;
+import org.springframework.integration.file.tail.NioFileTailingMessageProducer;
 import org.springframework.integration.file.tail.OSDelegatingFileTailingMessageProducer;
+import org.springframework.integration.store.metadata.MetadataStore;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.StringUtils;
 
@@ -54,6 +56,10 @@ public class FileTailInboundChannelAdapterFactoryBean extends AbstractFactoryBea
 
 	private volatile Boolean reopen;
 
+	private volatile Integer batchSize;
+
+	private volatile MetadataStore metadataStore;
+
 	private volatile FileTailingMessageProducerSupport adapter;
 
 	private volatile String beanName;
@@ -98,6 +104,14 @@ public class FileTailInboundChannelAdapterFactoryBean extends AbstractFactoryBea
 		this.reopen = reopen;
 	}
 
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public void setMetadataStore(MetadataStore metadataStore) {
+		this.metadataStore = metadataStore;
+	}
+
 	@Override
 	public void setBeanName(String name) {
 		this.beanName = name;
@@ -173,7 +187,28 @@ public class FileTailInboundChannelAdapterFactoryBean extends AbstractFactoryBea
 	@Override
 	protected FileTailingMessageProducerSupport createInstance() throws Exception {
 		FileTailingMessageProducerSupport adapter;
-		if (this.delay == null && this.end == null && this.reopen == null) {
+		if (this.batchSize != null || this.metadataStore != null) {
+			if (this.nativeOptions != null && StringUtils.hasText(this.nativeOptions) && logger.isWarnEnabled()) {
+				logger.warn("'native-options' are ignored with an NIO adapter");
+			}
+			if (this.reopen != null && logger.isWarnEnabled()) {
+				logger.warn("'reopen' is ignored with an NIO adapter");
+			}
+			adapter = new NioFileTailingMessageProducer();
+			if (this.delay != null) {
+				((NioFileTailingMessageProducer) adapter).setPollingDelay(this.delay);
+			}
+			if (this.end != null) {
+				((NioFileTailingMessageProducer) adapter).setEnd(this.end);
+			}
+			if (this.batchSize != null) {
+				((NioFileTailingMessageProducer) adapter).setBatchSize(this.batchSize);
+			}
+			if (this.metadataStore != null) {
+				((NioFileTailingMessageProducer) adapter).setMetadataStore(this.metadataStore);
+			}
+		}
+		else if (this.delay == null && this.end == null && this.reopen == null) {
 			adapter = new OSDelegatingFileTailingMessageProducer();
 			if (this.nativeOptions != null) {
 				((OSDelegatingFileTailingMessageProducer) adapter).setOptions(this.nativeOptions);
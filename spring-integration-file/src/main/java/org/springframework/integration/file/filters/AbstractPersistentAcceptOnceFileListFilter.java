@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.filters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.integration.store.metadata.MetadataStore;
+import org.springframework.util.Assert;
+
+/**
+ * Stores "seen" files in a {@link MetadataStore} so that they survive application
+ * restarts. The key is the prefix plus the file name, the value is the size and
+ * modified time of the file; a file is passed again if either of them changes.
+ * <p>
+ * The values are also cached locally, so that files that have already been seen by
+ * this instance, and have not changed, are rejected without accessing the store.
+ * The cache holds the most recently used {@link #setCacheSize(int) cacheSize} entries
+ * (default {@value #DEFAULT_CACHE_SIZE}); older entries are simply looked up in the
+ * store again.
+ * The prefix should identify the directory (and server) being scanned, when the
+ * store is shared.
+ *
+ * @since 3.0
+ *
+ */
+public abstract class AbstractPersistentAcceptOnceFileListFilter<F> implements ReversibleFileListFilter<F> {
+
+	/**
+	 * Stored in place of the previous value when a file that had not been seen before
+	 * is rolled back, since the {@link MetadataStore} does not support removal.
+	 */
+	private static final String NOT_SEEN = "";
+
+	public static final int DEFAULT_CACHE_SIZE = 10000;
+
+	private final MetadataStore store;
+
+	private final String prefix;
+
+	private volatile int cacheSize = DEFAULT_CACHE_SIZE;
+
+	private final Map<String, String> cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return this.size() > cacheSize;
+		}
+
+	};
+
+	private final Map<String, String> previousValues = new HashMap<String, String>();
+
+	public AbstractPersistentAcceptOnceFileListFilter(MetadataStore store, String prefix) {
+		Assert.notNull(store, "'store' cannot be null");
+		Assert.notNull(prefix, "'prefix' cannot be null");
+		this.store = store;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Set the maximum number of file values cached locally; 0 disables the cache.
+	 * Default {@value #DEFAULT_CACHE_SIZE}.
+	 * @param cacheSize the cache size.
+	 */
+	public void setCacheSize(int cacheSize) {
+		Assert.isTrue(cacheSize >= 0, "'cacheSize' cannot be negative");
+		this.cacheSize = cacheSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only the files returned by the most recent invocation can be rolled back.
+	 */
+	public synchronized List<F> filterFiles(F[] files) {
+		this.previousValues.clear();
+		List<F> accepted = new ArrayList<F>();
+		if (files != null) {
+			for (F file : files) {
+				if (file != null && this.accept(file)) {
+					accepted.add(file);
+				}
+			}
+		}
+		return accepted;
+	}
+
+	private boolean accept(F file) {
+		String key = this.buildKey(file);
+		String newValue = this.value(file);
+		if (newValue.equals(this.cache.get(key))) {
+			return false;
+		}
+		String oldValue = this.store.get(key);
+		this.cache.put(key, newValue);
+		if (newValue.equals(oldValue)) {
+			return false;
+		}
+		this.store.put(key, newValue);
+		this.previousValues.put(key, oldValue == null ? NOT_SEEN : oldValue);
+		return true;
+	}
+
+	public synchronized void rollback(F file, List<F> files) {
+		boolean rollingBack = false;
+		for (F fileToRollback : files) {
+			if (fileToRollback.equals(file)) {
+				rollingBack = true;
+			}
+			if (rollingBack) {
+				String key = this.buildKey(fileToRollback);
+				String previousValue = this.previousValues.remove(key);
+				if (previousValue != null) {
+					this.cache.remove(key);
+					this.store.put(key, previousValue);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The default value is the size and modified time of the file, separated by ':'.
+	 * @param file the file.
+	 * @return the value.
+	 */
+	protected String value(F file) {
+		return this.fileSize(file) + ":" + this.modified(file);
+	}
+
+	protected String buildKey(F file) {
+		return this.prefix + this.fileName(file);
+	}
+
+	protected abstract String fileName(F file);
+
+	protected abstract long fileSize(F file);
+
+	protected abstract long modified(F file);
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.integration.file.filters;
 
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -30,7 +31,7 @@ import java.util.concurrent.LinkedBlockingQueue;
  * @author Josh Long
  * @since 1.0.0
  */
-public class AcceptOnceFileListFilter<F> extends AbstractFileListFilter<F> {
+public class AcceptOnceFileListFilter<F> extends AbstractFileListFilter<F> implements ReversibleFileListFilter<F> {
 
 	private final Queue<F> seen;
 
@@ -69,4 +70,22 @@ public class AcceptOnceFileListFilter<F> extends AbstractFileListFilter<F> {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * @since 3.0
+	 */
+	public void rollback(F file, List<F> files) {
+		synchronized (this.monitor) {
+			boolean rollingBack = false;
+			for (F fileToRollback : files) {
+				if (fileToRollback.equals(file)) {
+					rollingBack = true;
+				}
+				if (rollingBack) {
+					this.seen.remove(fileToRollback);
+				}
+			}
+		}
+	}
+
 }
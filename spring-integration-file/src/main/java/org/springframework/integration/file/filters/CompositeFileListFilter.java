@@ -29,13 +29,14 @@ import org.springframework.util.Assert;
 
 /**
  * Simple {@link FileListFilter} that predicates its matches against any of many
- * configured {@link FileListFilter}.
+ * configured {@link FileListFilter}. A {@link #rollback(Object, List)} is delegated
+ * to each {@link ReversibleFileListFilter} member.
  *
  * @author Iwein Fuld
  * @author Josh Long
  * @param <F>
  */
-public class CompositeFileListFilter<F> implements FileListFilter<F> {
+public class CompositeFileListFilter<F> implements ReversibleFileListFilter<F> {
 
 	private final Set<FileListFilter<F>> fileFilters;
 
@@ -97,4 +98,16 @@ public class CompositeFileListFilter<F> implements FileListFilter<F> {
 		return results;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * @since 3.0
+	 */
+	public void rollback(F file, List<F> files) {
+		for (FileListFilter<F> fileFilter : this.fileFilters) {
+			if (fileFilter instanceof ReversibleFileListFilter) {
+				((ReversibleFileListFilter<F>) fileFilter).rollback(file, files);
+			}
+		}
+	}
+
 }
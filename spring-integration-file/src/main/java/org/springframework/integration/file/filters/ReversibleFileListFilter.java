@@ -0,0 +1,39 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.filters;
+
+import java.util.List;
+
+/**
+ * A {@link FileListFilter} that allows the caller to reset the state of files that
+ * were accepted but not processed, so that they will be accepted again by a
+ * subsequent invocation of {@link #filterFiles(Object[])}.
+ *
+ * @since 3.0
+ *
+ */
+public interface ReversibleFileListFilter<F> extends FileListFilter<F> {
+
+	/**
+	 * Indicate that the file, and all the files after it in the list that was
+	 * returned by {@link #filterFiles(Object[])}, have not been processed.
+	 * @param file the first file that was not processed.
+	 * @param files the list of files returned by the filter.
+	 */
+	void rollback(F file, List<F> files);
+
+}
@@ -19,17 +19,28 @@ package org.springframework.integration.file.remote.session;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.ScheduledFuture;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.integration.util.SimplePool;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * A {@link SessionFactory} implementation that caches Sessions for reuse without
  * requiring reconnection each time the Session is retrieved from the factory.
  * This implementation wraps and delegates to a target SessionFactory instance.
+ * <p>
+ * Since 3.0, the cache can be pre-filled with a minimum number of idle sessions
+ * when the factory is initialized, and idle sessions can be periodically checked
+ * and removed when they are closed, have been idle too long, or are too old.
+ * Session pool statistics are exposed as managed attributes.
  *
  * @author Josh Long
  * @author Oleg Zhurakousky
@@ -37,7 +48,8 @@ import org.springframework.integration.util.SimplePool;
  * @author Gary Russell
  * @since 2.0
  */
-public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBean {
+@ManagedResource
+public class CachingSessionFactory<F> implements SessionFactory<F>, InitializingBean, DisposableBean {
 
 	private static final Log logger = LogFactory.getLog(CachingSessionFactory.class);
 
@@ -45,6 +57,14 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 
 	private final SimplePool<Session<F>> pool;
 
+	private volatile long evictionInterval;
+
+	private volatile TaskScheduler taskScheduler;
+
+	private volatile ThreadPoolTaskScheduler internalTaskScheduler;
+
+	private volatile ScheduledFuture<?> evictionTask;
+
 	/**
 	 * Create a CachingSessionFactory with an unlimited number of sessions.
 	 * @param sessionFactory the underlying session factory.
@@ -97,6 +117,102 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 		this.pool.setPoolSize(poolSize);
 	}
 
+	/**
+	 * Set the minimum number of idle sessions; the cache is filled to this number
+	 * when the factory is initialized, and after each eviction run.
+	 * @param minIdle the minimum number of idle sessions.
+	 * @since 3.0
+	 */
+	public void setMinIdle(int minIdle) {
+		this.pool.setMinIdle(minIdle);
+	}
+
+	/**
+	 * Set the time after which an idle session is closed by an eviction run.
+	 * @param maxIdleTime the time in milliseconds.
+	 * @see #setEvictionInterval(long)
+	 * @since 3.0
+	 */
+	public void setMaxIdleTime(long maxIdleTime) {
+		this.pool.setMaxIdleTime(maxIdleTime);
+	}
+
+	/**
+	 * Set the time after which a session is closed, instead of being reused; checked
+	 * when the session is retrieved and returned, as well as by eviction runs.
+	 * @param maxSessionAge the time in milliseconds.
+	 * @since 3.0
+	 */
+	public void setMaxSessionAge(long maxSessionAge) {
+		this.pool.setMaxAge(maxSessionAge);
+	}
+
+	/**
+	 * Set the interval between eviction runs, which close idle sessions that are no
+	 * longer open, or have exceeded the maximum idle time or age, and then restore the
+	 * minimum number of idle sessions. Default 0 (no eviction runs).
+	 * @param evictionInterval the interval in milliseconds.
+	 * @since 3.0
+	 */
+	public void setEvictionInterval(long evictionInterval) {
+		this.evictionInterval = evictionInterval;
+	}
+
+	/**
+	 * Set the scheduler used for eviction runs; if not provided, an internal
+	 * single-threaded scheduler is used.
+	 * @param taskScheduler the scheduler.
+	 * @since 3.0
+	 */
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+	}
+
+	public void afterPropertiesSet() {
+		this.fillToMinIdle();
+		if (this.evictionInterval > 0) {
+			TaskScheduler scheduler = this.taskScheduler;
+			if (scheduler == null) {
+				this.internalTaskScheduler = new ThreadPoolTaskScheduler();
+				this.internalTaskScheduler.setThreadNamePrefix("sessionEvictor-");
+				this.internalTaskScheduler.setDaemon(true);
+				this.internalTaskScheduler.afterPropertiesSet();
+				scheduler = this.internalTaskScheduler;
+			}
+			this.evictionTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+
+				public void run() {
+					evict();
+				}
+
+			}, this.evictionInterval);
+		}
+	}
+
+	/**
+	 * Close idle sessions that are no longer open or have exceeded the maximum idle time
+	 * or age, then restore the minimum number of idle sessions.
+	 * @since 3.0
+	 */
+	public void evict() {
+		try {
+			this.pool.evictIdleItems();
+		}
+		catch (Exception e) {
+			logger.error("Failed to evict idle sessions", e);
+		}
+		this.fillToMinIdle();
+	}
+
+	private void fillToMinIdle() {
+		try {
+			this.pool.fillToMinIdle();
+		}
+		catch (Exception e) {
+			logger.warn("Failed to create idle sessions", e);
+		}
+	}
+
 	/**
 	 * Get a session from the pool (or block if none available).
 	 */
@@ -104,10 +220,61 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 		return new CachedSession(this.pool.getItem());
 	}
 
+	@ManagedAttribute
+	public int getPoolSize() {
+		return this.pool.getPoolSize();
+	}
+
+	@ManagedAttribute
+	public int getActiveCount() {
+		return this.pool.getActiveCount();
+	}
+
+	@ManagedAttribute
+	public int getIdleCount() {
+		return this.pool.getIdleCount();
+	}
+
+	@ManagedAttribute
+	public int getAllocatedCount() {
+		return this.pool.getAllocatedCount();
+	}
+
+	@ManagedAttribute
+	public long getSessionWaitCount() {
+		return this.pool.getWaitCount();
+	}
+
+	@ManagedAttribute
+	public double getMeanSessionWaitTime() {
+		return this.pool.getMeanWaitTime();
+	}
+
+	@ManagedAttribute
+	public double getMaxSessionWaitTime() {
+		return this.pool.getMaxWaitTime();
+	}
+
+	@ManagedAttribute(description = "Upper bounds (ms) of the session wait time histogram buckets")
+	public long[] getSessionWaitTimeHistogramBounds() {
+		return this.pool.getWaitTimeHistogramBounds();
+	}
+
+	@ManagedAttribute(description = "Session wait time histogram; the last bucket has no upper bound")
+	public long[] getSessionWaitTimeHistogram() {
+		return this.pool.getWaitTimeHistogram();
+	}
+
 	/**
 	 * Remove (close) any unused sessions in the pool.
 	 */
 	public void destroy() {
+		if (this.evictionTask != null) {
+			this.evictionTask.cancel(false);
+		}
+		if (this.internalTaskScheduler != null) {
+			this.internalTaskScheduler.shutdown();
+		}
 		this.pool.removeAllIdleItems();
 	}
 
@@ -19,23 +19,34 @@ package org.springframework.integration.file.remote.synchronizer;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.integration.MessagingException;
 import org.springframework.integration.expression.IntegrationEvaluationContextAware;
 import org.springframework.integration.file.filters.FileListFilter;
+import org.springframework.integration.file.filters.ReversibleFileListFilter;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.integration.file.remote.session.SessionFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
@@ -46,6 +57,10 @@ import org.springframework.util.ObjectUtils;
  * The implementation should run through any configured
  * {@link org.springframework.integration.file.filters.FileListFilter}s to
  * ensure the file entry is acceptable.
+ * <p>
+ * When the {@link #setParallelism(int) parallelism} is greater than 1, files are
+ * downloaded concurrently, each worker using its own {@link Session}; a failure to
+ * download one file does not prevent the others from being downloaded.
  *
  * @author Josh Long
  * @author Mark Fisher
@@ -55,7 +70,7 @@ import org.springframework.util.ObjectUtils;
  * @since 2.0
  */
 public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileSynchronizer,
-		InitializingBean, IntegrationEvaluationContextAware {
+		InitializingBean, DisposableBean, IntegrationEvaluationContextAware {
 
 	protected final Log logger = LogFactory.getLog(this.getClass());
 
@@ -97,6 +112,24 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 	 */
 	private volatile boolean  preserveTimestamp;
 
+	/**
+	 * The maximum number of files downloaded concurrently; 1 by default.
+	 */
+	private volatile int parallelism = 1;
+
+	private volatile Executor taskExecutor;
+
+	private volatile ThreadPoolTaskExecutor defaultTaskExecutor;
+
+	/**
+	 * The maximum number of files copied by each synchronization; unlimited by default.
+	 */
+	private volatile int maxFetchSize = Integer.MIN_VALUE;
+
+	private final AtomicLong bytesTransferred = new AtomicLong();
+
+	private final AtomicLong transferTime = new AtomicLong();
+
 	/**
 	 * Create a synchronizer with the {@link SessionFactory} used to acquire {@link Session} instances.
 	 */
@@ -139,6 +172,46 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 		this.preserveTimestamp = preserveTimestamp;
 	}
 
+	/**
+	 * Set the maximum number of files to download concurrently. Each concurrent
+	 * download uses its own {@link Session}, so a {@link SessionFactory} that caches
+	 * sessions (such as a {@code CachingSessionFactory} with a session cache size at
+	 * least this large) should be used. Default 1 (sequential downloads over a single
+	 * session).
+	 * @param parallelism the parallelism.
+	 * @since 3.0
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "'parallelism' must be > 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Set the executor used to run the download workers when the parallelism is
+	 * greater than 1. The calling thread always acts as one of the workers, so at
+	 * most {@code parallelism - 1} tasks are submitted per synchronization. By
+	 * default, a {@link ThreadPoolTaskExecutor} with {@code parallelism - 1} threads
+	 * is used (and shut down when this synchronizer is destroyed).
+	 * @param taskExecutor the executor.
+	 * @since 3.0
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set the maximum number of files copied by each synchronization; the remaining
+	 * files are copied by subsequent synchronizations. If the filter is a
+	 * {@link ReversibleFileListFilter}, the files that are not copied are rolled back
+	 * so that they pass the filter again. A value less than 1 means unlimited (default).
+	 * @param maxFetchSize the maximum number of files.
+	 * @since 3.0
+	 */
+	public void setMaxFetchSize(int maxFetchSize) {
+		this.maxFetchSize = maxFetchSize;
+	}
+
 	@Override
 	public void setIntegrationEvaluationContext(EvaluationContext evaluationContext) {
 		this.evaluationContext = evaluationContext;
@@ -149,6 +222,16 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 		Assert.notNull(this.evaluationContext, "evaluationContext must not be null");
 	}
 
+	public synchronized void destroy() {
+		if (this.defaultTaskExecutor != null) {
+			this.defaultTaskExecutor.shutdown();
+			if (this.taskExecutor == this.defaultTaskExecutor) {
+				this.taskExecutor = null;
+			}
+			this.defaultTaskExecutor = null;
+		}
+	}
+
 	protected final List<F> filterFiles(F[] files) {
 		return (this.filter != null) ? this.filter.filterFiles(files) : Arrays.asList(files);
 	}
@@ -157,6 +240,24 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 		return temporaryFileSuffix;
 	}
 
+	/**
+	 * @return the total number of bytes downloaded by this synchronizer.
+	 * @since 3.0
+	 */
+	public long getBytesTransferred() {
+		return this.bytesTransferred.get();
+	}
+
+	/**
+	 * @return the mean download rate in bytes per second, measured over the time spent
+	 * synchronizing files (excluding listing); 0 if nothing has been downloaded yet.
+	 * @since 3.0
+	 */
+	public double getTransferRate() {
+		long time = this.transferTime.get();
+		return time > 0 ? this.bytesTransferred.get() * 1000000000d / time : 0;
+	}
+
 	public void synchronizeToLocalDirectory(File localDirectory) {
 		Session<F> session = null;
 		try {
@@ -164,26 +265,165 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 			Assert.notNull(session, "failed to acquire a Session");
 			F[] files = session.list(this.remoteDirectory);
 			if (!ObjectUtils.isEmpty(files)) {
-				Collection<F> filteredFiles = this.filterFiles(files);
-				for (F file : filteredFiles) {
-					if (file != null) {
-						this.copyFileToLocalDirectory(this.remoteDirectory, file, localDirectory, session);
+				List<F> filteredFiles = this.filterFiles(files);
+				if (this.maxFetchSize > 0 && filteredFiles.size() > this.maxFetchSize) {
+					this.rollback(filteredFiles.get(this.maxFetchSize), filteredFiles);
+					filteredFiles = filteredFiles.subList(0, this.maxFetchSize);
+				}
+				long start = System.nanoTime();
+				try {
+					if (this.parallelism > 1 && filteredFiles.size() > 1) {
+						Session<F> listingSession = session;
+						session = null;
+						this.copyFilesToLocalDirectory(filteredFiles, localDirectory, listingSession);
+					}
+					else {
+						for (F file : filteredFiles) {
+							try {
+								if (file != null) {
+									this.copyFileToLocalDirectory(this.remoteDirectory, file, localDirectory, session);
+								}
+							}
+							catch (RuntimeException e) {
+								this.rollback(file, filteredFiles);
+								throw e;
+							}
+							catch (IOException e) {
+								this.rollback(file, filteredFiles);
+								throw e;
+							}
+						}
 					}
 				}
+				finally {
+					this.transferTime.addAndGet(System.nanoTime() - start);
+				}
 			}
 		}
 		catch (IOException e) {
 			throw new MessagingException("Problem occurred while synchronizing remote to local directory", e);
 		}
 		finally {
-			if (session != null) {
+			this.closeSession(session);
+		}
+	}
+
+	/**
+	 * Download the files using up to 'parallelism' workers; the calling thread is
+	 * one of them and reuses the listing session, the others acquire their own session.
+	 * Workers take files from a shared queue until it is empty, so the number of tasks
+	 * and sessions is bounded by the parallelism regardless of the number of files.
+	 */
+	private void copyFilesToLocalDirectory(List<F> files, final File localDirectory, Session<F> listingSession) {
+		final Queue<F> queue = new ConcurrentLinkedQueue<F>();
+		for (F file : files) {
+			if (file != null) {
+				queue.add(file);
+			}
+		}
+		final AtomicInteger failures = new AtomicInteger();
+		final AtomicReference<Exception> firstFailure = new AtomicReference<Exception>();
+		int workers = Math.min(this.parallelism, queue.size());
+		final CountDownLatch latch = new CountDownLatch(workers - 1);
+		Executor executor = workers > 1 ? this.getTaskExecutor() : null;
+		for (int i = 1; i < workers; i++) {
+			try {
+				executor.execute(new Runnable() {
+
+					public void run() {
+						try {
+							drainQueue(queue, localDirectory, null, failures, firstFailure);
+						}
+						finally {
+							latch.countDown();
+						}
+					}
+
+				});
+			}
+			catch (RuntimeException e) {
+				// the remaining files are downloaded by the other workers
+				if (logger.isWarnEnabled()) {
+					logger.warn("Failed to start a download worker", e);
+				}
+				latch.countDown();
+			}
+		}
+		this.drainQueue(queue, localDirectory, listingSession, failures, firstFailure);
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while waiting for downloads to complete", e);
+		}
+		if (failures.get() > 0) {
+			throw new MessagingException("Failed to copy " + failures.get() + " of " + files.size()
+					+ " file(s) from remote to local directory", firstFailure.get());
+		}
+	}
+
+	private synchronized Executor getTaskExecutor() {
+		if (this.taskExecutor == null) {
+			ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+			executor.setCorePoolSize(Math.max(1, this.parallelism - 1));
+			executor.setAllowCoreThreadTimeOut(true);
+			executor.setThreadNamePrefix(this.getClass().getSimpleName() + "-");
+			executor.afterPropertiesSet();
+			this.defaultTaskExecutor = executor;
+			this.taskExecutor = executor;
+		}
+		return this.taskExecutor;
+	}
+
+	private void drainQueue(Queue<F> queue, File localDirectory, Session<F> session,
+			AtomicInteger failures, AtomicReference<Exception> firstFailure) {
+		try {
+			F file;
+			while ((file = queue.poll()) != null) {
 				try {
-					session.close();
+					if (session == null) {
+						session = this.sessionFactory.getSession();
+						Assert.notNull(session, "failed to acquire a Session");
+					}
+					this.copyFileToLocalDirectory(this.remoteDirectory, file, localDirectory, session);
 				}
-				catch (Exception ignored) {
-					if (logger.isDebugEnabled()) {
-						logger.debug("failed to close Session", ignored);
+				catch (Exception e) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Failed to copy " + this.getFilename(file) + " from remote to local directory", e);
 					}
+					this.rollback(file, Collections.singletonList(file));
+					failures.incrementAndGet();
+					firstFailure.compareAndSet(null, e);
+					// the session may be unusable; use a new one for the next file
+					this.closeSession(session);
+					session = null;
+				}
+			}
+		}
+		finally {
+			this.closeSession(session);
+		}
+	}
+
+	/**
+	 * Roll back the file and the files after it, if the filter supports it, so that
+	 * they are copied by a subsequent synchronization.
+	 */
+	private void rollback(F file, List<F> files) {
+		if (this.filter instanceof ReversibleFileListFilter) {
+			((ReversibleFileListFilter<F>) this.filter).rollback(file, files);
+		}
+	}
+
+	private void closeSession(Session<F> session) {
+		if (session != null) {
+			try {
+				session.close();
+			}
+			catch (Exception ignored) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("failed to close Session", ignored);
 				}
 			}
 		}
@@ -204,11 +444,18 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 		if (!localFile.exists()) {
 			String tempFileName = localFile.getAbsolutePath() + this.temporaryFileSuffix;
 			File tempFile = new File(tempFileName);
-			OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile));
+			CountingOutputStream outputStream = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
 			try {
 				session.read(remoteFilePath, outputStream);
+				this.bytesTransferred.addAndGet(outputStream.count);
 			}
 			catch (Exception e) {
+				try {
+					outputStream.close();
+				}
+				catch (Exception ignored1) {
+				}
+				tempFile.delete();
 				if (e instanceof RuntimeException){
 					throw (RuntimeException) e;
 				}
@@ -251,4 +498,27 @@ public abstract class AbstractInboundFileSynchronizer<F> implements InboundFileS
 
 	protected abstract long getModified(F file);
 
+
+	private static class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		public CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			this.count += len;
+		}
+
+	}
+
 }
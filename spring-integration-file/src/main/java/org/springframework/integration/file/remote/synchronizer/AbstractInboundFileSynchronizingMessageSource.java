@@ -31,6 +31,8 @@ import org.springframework.integration.file.filters.AcceptOnceFileListFilter;
 import org.springframework.integration.file.filters.CompositeFileListFilter;
 import org.springframework.integration.file.filters.FileListFilter;
 import org.springframework.integration.file.filters.RegexPatternFileListFilter;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.util.Assert;
 
 /**
@@ -50,11 +52,15 @@ import org.springframework.util.Assert;
  * {@link AbstractInboundFileSynchronizer}. The synchronizer must
  * handle the work of actually connecting to the remote file system and
  * delivering new {@link File}s.
+ * <p>
+ * When exported by the <code>IntegrationMBeanExporter</code>, the source exposes
+ * the download statistics of its synchronizer.
  *
  * @author Josh Long
  * @author Oleg Zhurakousky
  * @author Gary Russell
  */
+@ManagedResource
 public abstract class AbstractInboundFileSynchronizingMessageSource<F> extends MessageProducerSupport
 	implements MessageSource<File> {
 
@@ -165,6 +171,26 @@ public abstract class AbstractInboundFileSynchronizingMessageSource<F> extends M
 		return message;
 	}
 
+	/**
+	 * @return the total number of bytes downloaded by the synchronizer.
+	 * @see AbstractInboundFileSynchronizer#getBytesTransferred()
+	 * @since 3.0
+	 */
+	@ManagedAttribute
+	public long getBytesTransferred() {
+		return this.synchronizer.getBytesTransferred();
+	}
+
+	/**
+	 * @return the mean download rate of the synchronizer, in bytes per second.
+	 * @see AbstractInboundFileSynchronizer#getTransferRate()
+	 * @since 3.0
+	 */
+	@ManagedAttribute
+	public double getTransferRate() {
+		return this.synchronizer.getTransferRate();
+	}
+
 	@SuppressWarnings("unchecked")
 	private FileListFilter<File> buildFilter() {
 		Pattern completePattern = Pattern.compile("^.*(?<!" + this.synchronizer.getTemporaryFileSuffix() + ")$");
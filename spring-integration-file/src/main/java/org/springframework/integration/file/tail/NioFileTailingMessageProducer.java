@@ -0,0 +1,547 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.file.tail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.file.FileHeaders;
+import org.springframework.integration.store.metadata.MetadataStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.util.Assert;
+
+/**
+ * A file tailing message producer that reads the file with a {@link FileChannel},
+ * tracking the read position itself rather than delegating to an external process
+ * or re-opening the file for each chunk.
+ * <p>
+ * Small increments are read into a reusable buffer; when at least
+ * {@link #setMappedReadThreshold(long) mappedReadThreshold} bytes are pending
+ * (e.g. a large burst, or tailing from the beginning of a big file), the pending
+ * region is memory-mapped instead.
+ * <p>
+ * Truncation (the file becomes shorter than the read position) causes the file
+ * to be read again from the beginning; rotation (the file name now refers to a
+ * different file) causes the remainder of the old file to be consumed before
+ * the new file is opened and read from the beginning.
+ * <p>
+ * When a {@link MetadataStore} is provided, the offset after the last emitted line
+ * is stored after each message, together with a checksum of the start of the file;
+ * on restart, tailing resumes from that offset if the file is still the same one.
+ * <p>
+ * Lines are split on '\n' (a trailing '\r' is removed), so the charset must be one
+ * in which that byte always represents a line feed (e.g. UTF-8, ISO-8859-1).
+ *
+ * @since 3.0
+ *
+ */
+public class NioFileTailingMessageProducer extends FileTailingMessageProducerSupport {
+
+	private static final int FINGERPRINT_LENGTH = 64;
+
+	private static final long MAX_MAPPED_REGION = 64 * 1024 * 1024;
+
+	private volatile long pollingDelay = 1000;
+
+	private volatile boolean end = true;
+
+	private volatile int batchSize = 1;
+
+	private volatile int readBufferSize = 8192;
+
+	private volatile long mappedReadThreshold = 1024 * 1024;
+
+	private volatile Charset charset = Charset.defaultCharset();
+
+	private volatile MetadataStore metadataStore;
+
+	private volatile String metadataKey;
+
+	private volatile FileTailer tailer;
+
+	/**
+	 * The delay between checks of the file for new content in milliseconds.
+	 * Default 1000.
+	 * @param pollingDelay The delay.
+	 */
+	public void setPollingDelay(long pollingDelay) {
+		Assert.isTrue(pollingDelay > 0, "'pollingDelay' must be > 0");
+		this.pollingDelay = pollingDelay;
+	}
+
+	/**
+	 * If true, tail from the end of the file, otherwise
+	 * include all lines from the beginning. Ignored when a valid checkpoint
+	 * is found in the {@link MetadataStore}. Default true.
+	 * @param end true or false
+	 */
+	public void setEnd(boolean end) {
+		this.end = end;
+	}
+
+	/**
+	 * The maximum number of lines per message. When greater than 1, the payload
+	 * is a {@code List<String>}, which is emitted when full, or when no more data
+	 * is currently available in the file. Default 1 (a {@code String} payload
+	 * per line).
+	 * @param batchSize the batch size.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * The size of the buffer used for reads that are not memory-mapped. Default 8192.
+	 * @param readBufferSize the buffer size.
+	 */
+	public void setReadBufferSize(int readBufferSize) {
+		Assert.isTrue(readBufferSize > 0, "'readBufferSize' must be > 0");
+		this.readBufferSize = readBufferSize;
+	}
+
+	/**
+	 * The number of pending bytes at, or above, which the pending region of the file
+	 * is memory-mapped rather than read into the read buffer. Default 1Mb.
+	 * @param mappedReadThreshold the threshold.
+	 */
+	public void setMappedReadThreshold(long mappedReadThreshold) {
+		Assert.isTrue(mappedReadThreshold > 0, "'mappedReadThreshold' must be > 0");
+		this.mappedReadThreshold = mappedReadThreshold;
+	}
+
+	/**
+	 * The charset used to decode lines; default is the platform default.
+	 * @param charset the charset.
+	 */
+	public void setCharset(String charset) {
+		Assert.hasText(charset, "'charset' cannot be empty");
+		this.charset = Charset.forName(charset);
+	}
+
+	/**
+	 * A {@link MetadataStore} used to checkpoint the offset of the last emitted line,
+	 * so that a restart resumes where it left off. Checkpointing is disabled by default.
+	 * @param metadataStore the metadata store.
+	 */
+	public void setMetadataStore(MetadataStore metadataStore) {
+		this.metadataStore = metadataStore;
+	}
+
+	/**
+	 * The key under which the checkpoint is stored in the {@link MetadataStore};
+	 * default "tail:" followed by the absolute path of the file.
+	 * @param metadataKey the key.
+	 */
+	public void setMetadataKey(String metadataKey) {
+		Assert.hasText(metadataKey, "'metadataKey' cannot be empty");
+		this.metadataKey = metadataKey;
+	}
+
+	@Override
+	public String getComponentType() {
+		return super.getComponentType() + " (NIO)";
+	}
+
+	@Override
+	protected void onInit() {
+		Assert.notNull(getFile(), "File cannot be null");
+		super.onInit();
+		if (this.metadataKey == null) {
+			this.metadataKey = "tail:" + this.getFile().getAbsolutePath();
+		}
+	}
+
+	@Override
+	protected void doStart() {
+		super.doStart();
+		FileTailer tailer = new FileTailer();
+		this.getTaskExecutor().execute(tailer);
+		this.tailer = tailer;
+	}
+
+	@Override
+	protected void doStop() {
+		super.doStop();
+		FileTailer tailer = this.tailer;
+		if (tailer != null) {
+			tailer.stop();
+			this.tailer = null;
+		}
+	}
+
+	/**
+	 * Reads the file on a task executor thread; a new instance is used for each start
+	 * so that a stopped tailer that has not yet exited does not share any state.
+	 */
+	private class FileTailer implements Runnable {
+
+		private volatile boolean running = true;
+
+		private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+		private final List<String> batch = new ArrayList<String>();
+
+		private ByteBuffer readBuffer;
+
+		private long position;
+
+		private long committedPosition;
+
+		private byte[] fingerprint = new byte[0];
+
+		private long lastModified;
+
+		private void stop() {
+			this.running = false;
+		}
+
+		/**
+		 * Reads the file until the adapter is stopped.
+		 */
+		@Override
+		public void run() {
+			this.readBuffer = ByteBuffer.allocate(readBufferSize);
+			RandomAccessFile file = null;
+			boolean firstOpen = true;
+			try {
+				while (this.running) {
+					try {
+						if (file == null) {
+							file = this.open(firstOpen);
+							if (file == null) {
+								publish("File not found:" + getFile().getAbsolutePath());
+								Thread.sleep(getMissingFileDelay());
+								continue;
+							}
+							firstOpen = false;
+						}
+						if (!this.readAvailable(file.getChannel())) {
+							this.sendBatch();
+							if (this.isTruncated(file.getChannel())) {
+								publish("File truncated:" + getFile().getAbsolutePath());
+								this.reset();
+							}
+							else if (this.isRotated(file.getChannel())) {
+								publish("File rotated:" + getFile().getAbsolutePath());
+								this.close(file);
+								file = null;
+								this.reset();
+							}
+							else {
+								Thread.sleep(pollingDelay);
+							}
+						}
+					}
+					catch (IOException e) {
+						publish(e.getMessage());
+						this.close(file);
+						file = null;
+						Thread.sleep(getMissingFileDelay());
+					}
+				}
+				this.sendBatch();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.close(file);
+			}
+		}
+
+		private RandomAccessFile open(boolean firstOpen) throws IOException {
+			File file = getFile();
+			if (!file.exists()) {
+				return null;
+			}
+			RandomAccessFile randomAccessFile;
+			try {
+				randomAccessFile = new RandomAccessFile(file, "r");
+			}
+			catch (FileNotFoundException e) {
+				return null;
+			}
+			FileChannel channel = randomAccessFile.getChannel();
+			this.reset();
+			this.lastModified = file.lastModified();
+			try {
+				this.fingerprint = this.readFingerprint(channel, FINGERPRINT_LENGTH);
+				if (firstOpen) {
+					Long checkpoint = this.getCheckpoint(channel);
+					if (checkpoint != null) {
+						this.position = checkpoint;
+					}
+					else if (end) {
+						this.position = channel.size();
+					}
+					this.committedPosition = this.position;
+				}
+			}
+			catch (IOException e) {
+				this.close(randomAccessFile);
+				throw e;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Tailing " + file.getAbsolutePath() + " from offset " + this.position);
+			}
+			return randomAccessFile;
+		}
+
+		private void reset() {
+			this.position = 0;
+			this.committedPosition = 0;
+			this.partialLine.reset();
+			this.fingerprint = new byte[0];
+		}
+
+		/**
+		 * Reads the bytes available after the current position, and emits any complete lines.
+		 * @return false if there was nothing to read.
+		 */
+		private boolean readAvailable(FileChannel channel) throws IOException {
+			long available = channel.size() - this.position;
+			if (available <= 0) {
+				return false;
+			}
+			ByteBuffer buffer;
+			if (available >= mappedReadThreshold) {
+				buffer = channel.map(MapMode.READ_ONLY, this.position, Math.min(available, MAX_MAPPED_REGION));
+			}
+			else {
+				buffer = this.readBuffer;
+				buffer.clear();
+				if (channel.read(buffer, this.position) <= 0) {
+					return false;
+				}
+				buffer.flip();
+			}
+			this.processLines(buffer);
+			return true;
+		}
+
+		private void processLines(ByteBuffer buffer) {
+			long base = this.position - buffer.position();
+			int lineStart = buffer.position();
+			while (buffer.hasRemaining()) {
+				if (buffer.get() == '\n') {
+					int lineEnd = buffer.position() - 1;
+					this.addLine(this.decode(buffer, lineStart, lineEnd), base + buffer.position());
+					lineStart = buffer.position();
+				}
+			}
+			this.append(buffer, lineStart, buffer.limit());
+			this.position = base + buffer.limit();
+		}
+
+		private String decode(ByteBuffer buffer, int from, int to) {
+			String line;
+			if (this.partialLine.size() == 0 && buffer.hasArray()) {
+				line = new String(buffer.array(), buffer.arrayOffset() + from, to - from, charset);
+			}
+			else {
+				this.append(buffer, from, to);
+				byte[] bytes = this.partialLine.toByteArray();
+				this.partialLine.reset();
+				line = new String(bytes, charset);
+			}
+			if (line.endsWith("\r")) {
+				line = line.substring(0, line.length() - 1);
+			}
+			return line;
+		}
+
+		private void append(ByteBuffer buffer, int from, int to) {
+			if (to > from) {
+				byte[] bytes = new byte[to - from];
+				ByteBuffer slice = buffer.duplicate();
+				slice.limit(to);
+				slice.position(from);
+				slice.get(bytes);
+				this.partialLine.write(bytes, 0, bytes.length);
+			}
+		}
+
+		private void addLine(String line, long nextLineOffset) {
+			this.batch.add(line);
+			this.committedPosition = nextLineOffset;
+			if (this.batch.size() >= batchSize) {
+				this.sendBatch();
+			}
+		}
+
+		private void sendBatch() {
+			if (this.batch.isEmpty()) {
+				return;
+			}
+			Object payload;
+			if (batchSize == 1) {
+				payload = this.batch.get(0);
+			}
+			else {
+				payload = new ArrayList<String>(this.batch);
+			}
+			this.batch.clear();
+			Message<?> message = MessageBuilder.withPayload(payload)
+					.setHeader(FileHeaders.FILENAME, getFile().getAbsolutePath())
+					.build();
+			sendMessage(message);
+			this.checkpoint();
+		}
+
+		private boolean isTruncated(FileChannel channel) throws IOException {
+			return channel.size() < this.position;
+		}
+
+		/**
+		 * Determine whether the file name now refers to a different file. If the open file
+		 * and the file name have different lengths, while the open file is not growing,
+		 * they cannot be the same file. If they have the same length, the start of
+		 * the files is compared, but only when the file name's modification time changes.
+		 */
+		private boolean isRotated(FileChannel channel) throws IOException {
+			File file = getFile();
+			long size = channel.size();
+			long length = file.length();
+			if (!file.exists() || size != channel.size()) {
+				return false;
+			}
+			if (length != size) {
+				return true;
+			}
+			long lastModified = file.lastModified();
+			if (lastModified == this.lastModified) {
+				return false;
+			}
+			this.lastModified = lastModified;
+			if (this.fingerprint.length < FINGERPRINT_LENGTH) {
+				this.fingerprint = this.readFingerprint(channel, FINGERPRINT_LENGTH);
+			}
+			RandomAccessFile other;
+			try {
+				other = new RandomAccessFile(file, "r");
+			}
+			catch (FileNotFoundException e) {
+				return false;
+			}
+			try {
+				byte[] otherFingerprint = this.readFingerprint(other.getChannel(), this.fingerprint.length);
+				return !Arrays.equals(this.fingerprint, otherFingerprint);
+			}
+			finally {
+				this.close(other);
+			}
+		}
+
+		private byte[] readFingerprint(FileChannel channel, int length) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, channel.size()));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, buffer.position()) < 0) {
+					break;
+				}
+			}
+			byte[] bytes = new byte[buffer.position()];
+			buffer.flip();
+			buffer.get(bytes);
+			return bytes;
+		}
+
+		private Long getCheckpoint(FileChannel channel) throws IOException {
+			if (metadataStore == null) {
+				return null;
+			}
+			String value = metadataStore.get(metadataKey);
+			if (value == null) {
+				return null;
+			}
+			try {
+				int colonAt = value.indexOf(':');
+				long offset = Long.parseLong(value.substring(0, colonAt));
+				long checksum = Long.parseLong(value.substring(colonAt + 1), 16);
+				if (offset <= channel.size() && checksum == this.checksum(offset)) {
+					return offset;
+				}
+				if (logger.isInfoEnabled()) {
+					logger.info("Checkpoint '" + value + "' does not match file "
+							+ getFile().getAbsolutePath() + "; reading from the beginning");
+				}
+				return 0L;
+			}
+			catch (RuntimeException e) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Ignoring invalid checkpoint '" + value + "' for key '" + metadataKey + "'");
+				}
+				return null;
+			}
+		}
+
+		private void checkpoint() {
+			if (metadataStore == null) {
+				return;
+			}
+			if (this.fingerprint.length < Math.min(FINGERPRINT_LENGTH, this.committedPosition)) {
+				RandomAccessFile file = null;
+				try {
+					file = new RandomAccessFile(getFile(), "r");
+					this.fingerprint = this.readFingerprint(file.getChannel(), FINGERPRINT_LENGTH);
+				}
+				catch (IOException e) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to read the start of the file; checkpoint skipped", e);
+					}
+					return;
+				}
+				finally {
+					this.close(file);
+				}
+			}
+			metadataStore.put(metadataKey,
+					this.committedPosition + ":" + Long.toHexString(this.checksum(this.committedPosition)));
+		}
+
+		private long checksum(long offset) {
+			CRC32 crc = new CRC32();
+			crc.update(this.fingerprint, 0, (int) Math.min(this.fingerprint.length, offset));
+			return crc.getValue();
+		}
+
+		private void close(RandomAccessFile file) {
+			if (file != null) {
+				try {
+					file.close();
+				}
+				catch (IOException e) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Exception while closing file", e);
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.file.transformer;
+
+import java.io.File;
+
+import org.springframework.integration.support.FileRegion;
+import org.springframework.util.Assert;
+
+/**
+ * A payload transformer that converts a File to a {@link FileRegion} covering
+ * its contents, instead of copying them to a byte array. Handlers that support
+ * {@link FileRegion} payloads transfer the contents directly from the file.
+ * <p>
+ * Since the file is read when the region is transferred, deleting the file
+ * after transformation is not supported.
+ *
+ * @since 3.0
+ */
+public class FileToFileRegionTransformer extends AbstractFilePayloadTransformer<FileRegion> {
+
+	@Override
+	public void setDeleteFiles(boolean deleteFiles) {
+		Assert.isTrue(!deleteFiles, "'deleteFiles' is not supported; the file is read when the region is transferred");
+	}
+
+	@Override
+	protected final FileRegion transformFile(File file) throws Exception {
+		Assert.isTrue(file.isFile(), "'" + file.getAbsolutePath() + "' is not a readable file");
+		return new FileRegion(file);
+	}
+
+}
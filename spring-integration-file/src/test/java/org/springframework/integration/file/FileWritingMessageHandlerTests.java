@@ -43,6 +43,7 @@ import org.springframework.integration.channel.NullChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.file.support.FileExistsMode;
 import org.springframework.integration.message.GenericMessage;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.util.FileCopyUtils;
 
@@ -130,6 +131,34 @@ public class FileWritingMessageHandlerTests {
 		assertFileContentIsMatching(result);
 	}
 
+	@Test
+	public void fileRegionPayloadCopiedToNewFile() throws Exception {
+		Message<?> message = MessageBuilder.withPayload(new FileRegion(sourceFile)).build();
+		QueueChannel output = new QueueChannel();
+		handler.setOutputChannel(output);
+		handler.handleMessage(message);
+		Message<?> result = output.receive(0);
+		assertFileContentIsMatching(result);
+		assertTrue(sourceFile.exists());
+	}
+
+	@Test
+	public void fileRegionPayloadAppended() throws Exception {
+		handler.setFileExistsMode(FileExistsMode.APPEND);
+		handler.setFileNameGenerator(new FileNameGenerator() {
+			public String generateFileName(Message<?> message) {
+				return "region.txt";
+			}
+		});
+		QueueChannel output = new QueueChannel();
+		handler.setOutputChannel(output);
+		handler.handleMessage(MessageBuilder.withPayload(new FileRegion(sourceFile, 0, 5)).build());
+		handler.handleMessage(MessageBuilder.withPayload(new FileRegion(sourceFile, 5, 5)).build());
+		output.receive(0);
+		Message<?> result = output.receive(0);
+		assertFileContentIs(result, "HelloWorld");
+	}
+
 	@Test
 	public void deleteFilesFalseByDefault() throws Exception {
 		QueueChannel output = new QueueChannel();
@@ -28,7 +28,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.integration.file.tail.ApacheCommonsFileTailingMessageProducer;
+import org.springframework.integration.file.tail.NioFileTailingMessageProducer;
 import org.springframework.integration.file.tail.OSDelegatingFileTailingMessageProducer;
+import org.springframework.integration.store.metadata.MetadataStore;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.test.context.ContextConfiguration;
@@ -55,6 +57,12 @@ public class FileTailInboundChannelAdapterParserTests {
 	@Autowired
 	private ApacheCommonsFileTailingMessageProducer apacheEndReopen;
 
+	@Autowired
+	private NioFileTailingMessageProducer nio;
+
+	@Autowired
+	private MetadataStore store;
+
 	@Autowired
 	private TaskExecutor exec;
 
@@ -116,6 +124,22 @@ public class FileTailInboundChannelAdapterParserTests {
 		assertEquals(Boolean.TRUE, TestUtils.getPropertyValue(apacheEndReopen, "reopen"));
 	}
 
+	@Test
+	public void testNio() {
+		String fileName = TestUtils.getPropertyValue(nio, "file", File.class).getAbsolutePath();
+		String normalizedName = getNormalizedPath(fileName);
+		assertEquals("/tmp/fiz", normalizedName);
+		assertSame(exec, TestUtils.getPropertyValue(nio, "taskExecutor"));
+		assertEquals(2000L, TestUtils.getPropertyValue(nio, "pollingDelay"));
+		assertEquals(10000L, TestUtils.getPropertyValue(nio, "tailAttemptsDelay"));
+		assertFalse(TestUtils.getPropertyValue(nio, "autoStartup", Boolean.class));
+		assertEquals(123, TestUtils.getPropertyValue(nio, "phase"));
+		assertEquals(Boolean.FALSE, TestUtils.getPropertyValue(nio, "end"));
+		assertEquals(10, TestUtils.getPropertyValue(nio, "batchSize"));
+		assertSame(store, TestUtils.getPropertyValue(nio, "metadataStore"));
+		assertEquals("tail:" + fileName, TestUtils.getPropertyValue(nio, "metadataKey"));
+	}
+
 	/**
 	 * Fix up windows paths.
 	 */
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.integration.store.metadata.SimpleMetadataStore;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * @since 3.0
+ *
+ */
+public class PersistentAcceptOnceFileListFilterTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void testAcceptOnceAndChanged() throws Exception {
+		SimpleMetadataStore store = new SimpleMetadataStore();
+		TestFilter filter = new TestFilter(store);
+		File foo = temp.newFile("foo");
+		File bar = temp.newFile("bar");
+		FileCopyUtils.copy("foo".getBytes(), foo);
+		File[] files = new File[] {foo, bar};
+		assertEquals(2, filter.filterFiles(files).size());
+		assertEquals("3:" + foo.lastModified(), store.get("test:foo"));
+		assertEquals(0, filter.filterFiles(files).size());
+		// a new instance with the same store (restart)
+		filter = new TestFilter(store);
+		assertEquals(0, filter.filterFiles(files).size());
+		FileCopyUtils.copy("foobar".getBytes(), foo);
+		List<File> accepted = filter.filterFiles(files);
+		assertEquals(1, accepted.size());
+		assertEquals(foo, accepted.get(0));
+		assertEquals(0, filter.filterFiles(files).size());
+	}
+
+	@Test
+	public void testCacheIsBounded() throws Exception {
+		final AtomicInteger gets = new AtomicInteger();
+		SimpleMetadataStore store = new SimpleMetadataStore() {
+
+			@Override
+			public String get(String key) {
+				gets.incrementAndGet();
+				return super.get(key);
+			}
+
+		};
+		TestFilter filter = new TestFilter(store);
+		filter.setCacheSize(2);
+		File foo = temp.newFile("foo");
+		File bar = temp.newFile("bar");
+		File baz = temp.newFile("baz");
+		assertEquals(3, filter.filterFiles(new File[] {foo, bar, baz}).size());
+		assertEquals(3, gets.get());
+		// bar and baz are cached, foo was evicted
+		assertEquals(0, filter.filterFiles(new File[] {bar, baz}).size());
+		assertEquals(3, gets.get());
+		assertEquals(0, filter.filterFiles(new File[] {foo}).size());
+		assertEquals(4, gets.get());
+	}
+
+	@Test
+	public void testRollback() throws Exception {
+		SimpleMetadataStore store = new SimpleMetadataStore();
+		TestFilter filter = new TestFilter(store);
+		File foo = temp.newFile("foo");
+		File bar = temp.newFile("bar");
+		File baz = temp.newFile("baz");
+		File[] files = new File[] {foo, bar, baz};
+		List<File> accepted = filter.filterFiles(files);
+		assertEquals(3, accepted.size());
+		filter.rollback(bar, accepted);
+		assertEquals("", store.get("test:bar"));
+		accepted = filter.filterFiles(files);
+		assertEquals(2, accepted.size());
+		assertEquals(bar, accepted.get(0));
+		assertEquals(baz, accepted.get(1));
+		assertEquals(0, filter.filterFiles(files).size());
+		assertNull(store.get("test:qux"));
+	}
+
+	@Test
+	public void testAcceptOnceRollback() throws Exception {
+		AcceptOnceFileListFilter<String> filter = new AcceptOnceFileListFilter<String>();
+		String[] files = new String[] {"foo", "bar", "baz"};
+		List<String> accepted = filter.filterFiles(files);
+		assertEquals(3, accepted.size());
+		CompositeFileListFilter<String> composite = new CompositeFileListFilter<String>();
+		composite.addFilter(filter);
+		composite.rollback("bar", accepted);
+		accepted = filter.filterFiles(files);
+		assertEquals(2, accepted.size());
+		assertEquals("bar", accepted.get(0));
+	}
+
+	private static class TestFilter extends AbstractPersistentAcceptOnceFileListFilter<File> {
+
+		public TestFilter(SimpleMetadataStore store) {
+			super(store, "test:");
+		}
+
+		@Override
+		protected String fileName(File file) {
+			return file.getName();
+		}
+
+		@Override
+		protected long fileSize(File file) {
+			return file.length();
+		}
+
+		@Override
+		protected long modified(File file) {
+			return file.lastModified();
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.remote.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+/**
+ * @since 3.0
+ *
+ */
+public class CachingSessionFactoryTests {
+
+	@Test
+	public void testWarmUpAndEviction() throws Exception {
+		final List<Session<String>> sessions = new CopyOnWriteArrayList<Session<String>>();
+		SessionFactory<String> factory = new SessionFactory<String>() {
+
+			@SuppressWarnings("unchecked")
+			public Session<String> getSession() {
+				Session<String> session = mock(Session.class);
+				when(session.isOpen()).thenReturn(true);
+				sessions.add(session);
+				return session;
+			}
+
+		};
+		CachingSessionFactory<String> cachingFactory = new CachingSessionFactory<String>(factory, 4);
+		cachingFactory.setMinIdle(2);
+		cachingFactory.setMaxIdleTime(100);
+		cachingFactory.setEvictionInterval(50);
+		cachingFactory.afterPropertiesSet();
+		assertEquals(2, sessions.size());
+		assertEquals(2, cachingFactory.getIdleCount());
+
+		Session<String> s1 = cachingFactory.getSession();
+		Session<String> s2 = cachingFactory.getSession();
+		Session<String> s3 = cachingFactory.getSession();
+		assertEquals(3, sessions.size());
+		assertEquals(3, cachingFactory.getActiveCount());
+		s1.close();
+		s2.close();
+		s3.close();
+		assertEquals(3, cachingFactory.getSessionWaitCount());
+
+		// idle sessions are closed down to minIdle
+		int n = 0;
+		while (n++ < 100 && cachingFactory.getAllocatedCount() > 2) {
+			Thread.sleep(50);
+		}
+		assertEquals(2, cachingFactory.getIdleCount());
+		assertEquals(2, cachingFactory.getAllocatedCount());
+
+		// closed sessions are replaced
+		for (Session<String> session : sessions) {
+			when(session.isOpen()).thenReturn(false);
+		}
+		n = 0;
+		while (n++ < 100 && sessions.size() < 5) {
+			Thread.sleep(50);
+		}
+		assertEquals(5, sessions.size());
+		n = 0;
+		while (n++ < 100 && cachingFactory.getAllocatedCount() > 2) {
+			Thread.sleep(50);
+		}
+		assertEquals(2, cachingFactory.getIdleCount());
+
+		long total = 0;
+		for (long count : cachingFactory.getSessionWaitTimeHistogram()) {
+			total += count;
+		}
+		assertEquals(3, total);
+		assertTrue(cachingFactory.getMaxSessionWaitTime() >= cachingFactory.getMeanSessionWaitTime());
+		cachingFactory.destroy();
+		assertEquals(0, cachingFactory.getIdleCount());
+		verify(sessions.get(3)).close();
+		verify(sessions.get(4)).close();
+	}
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.remote.synchronizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.springframework.integration.MessagingException;
+import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.integration.file.filters.AcceptOnceFileListFilter;
+import org.springframework.integration.file.remote.session.Session;
+import org.springframework.integration.file.remote.session.SessionFactory;
+import org.springframework.jmx.export.annotation.AnnotationJmxAttributeSource;
+import org.springframework.jmx.export.assembler.MetadataMBeanInfoAssembler;
+
+/**
+ * @since 3.0
+ *
+ */
+public class AbstractInboundFileSynchronizerTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private final String[] files = new String[] {"f0", "f1", "f2", "f3", "f4", "f5", "f6", "f7", "f8", "f9"};
+
+	private final Set<Session<String>> sessions = Collections.synchronizedSet(new HashSet<Session<String>>());
+
+	private final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+
+	private final AtomicInteger concurrent = new AtomicInteger();
+
+	private volatile int maxConcurrent;
+
+	private volatile String failing;
+
+	@Test
+	public void testSequential() throws Exception {
+		File local = temp.newFolder("local");
+		TestSynchronizer synchronizer = new TestSynchronizer(this.sessionFactory(null));
+		synchronizer.synchronizeToLocalDirectory(local);
+		assertEquals(10, local.list().length);
+		assertEquals(1, this.sessions.size());
+		assertEquals(1, this.maxConcurrent);
+		assertEquals(20, synchronizer.getBytesTransferred());
+		assertTrue(synchronizer.getTransferRate() > 0);
+	}
+
+	@Test
+	public void testStatisticsExposedByMessageSource() throws Exception {
+		TestSynchronizer synchronizer = new TestSynchronizer(this.sessionFactory(null));
+		AbstractInboundFileSynchronizingMessageSource<String> source =
+				new AbstractInboundFileSynchronizingMessageSource<String>(synchronizer) {
+
+					public String getComponentType() {
+						return "test:inbound-channel-adapter";
+					}
+
+				};
+		synchronizer.synchronizeToLocalDirectory(temp.newFolder("local"));
+		assertEquals(20, source.getBytesTransferred());
+		assertEquals(synchronizer.getTransferRate(), source.getTransferRate(), 0);
+		MetadataMBeanInfoAssembler assembler = new MetadataMBeanInfoAssembler(new AnnotationJmxAttributeSource());
+		assertTrue(assembler.includeBean(source.getClass(), "source"));
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		File local = temp.newFolder("local");
+		TestSynchronizer synchronizer = new TestSynchronizer(this.sessionFactory(null));
+		synchronizer.setParallelism(3);
+		synchronizer.synchronizeToLocalDirectory(local);
+		assertEquals(10, local.list().length);
+		assertEquals(3, this.sessions.size());
+		assertEquals(3, this.threads.size());
+		assertTrue(this.maxConcurrent <= 3);
+		assertEquals(20, synchronizer.getBytesTransferred());
+		for (Session<String> session : this.sessions) {
+			assertFalse(session.isOpen());
+		}
+	}
+
+	@Test
+	public void testParallelReusesThreads() throws Exception {
+		TestSynchronizer synchronizer = new TestSynchronizer(this.sessionFactory(null));
+		synchronizer.setParallelism(3);
+		synchronizer.synchronizeToLocalDirectory(temp.newFolder("local1"));
+		synchronizer.synchronizeToLocalDirectory(temp.newFolder("local2"));
+		// the calling thread plus the two pooled threads, across both polls
+		assertEquals(3, this.threads.size());
+		synchronizer.destroy();
+		File local = temp.newFolder("local3");
+		synchronizer.synchronizeToLocalDirectory(local);
+		assertEquals(10, local.list().length);
+		synchronizer.destroy();
+	}
+
+	@Test
+	public void testParallelFailureIsolated() throws Exception {
+		File local = temp.newFolder("local");
+		TestSynchronizer synchronizer = new TestSynchronizer(this.sessionFactory("f4"));
+		synchronizer.setParallelism(3);
+		try {
+			synchronizer.synchronizeToLocalDirectory(local);
+			fail("Expected exception");
+		}
+		catch (MessagingException e) {
+			assertEquals("Failed to copy 1 of 10 file(s) from remote to local directory", e.getMessage());
+			assertEquals("failed f4", e.getCause().getCause().getMessage());
+		}
+		assertEquals(9, local.list().length);
+		assertFalse(new File(local, "f4").exists());
+		assertFalse(new File(local, "f4.writing").exists());
+		// the failed session is replaced
+		assertEquals(4, this.sessions.size());
+		assertEquals(18, synchronizer.getBytesTransferred());
+	}
+
+	@Test
+	public void testMaxFetchSizeAndRollback() throws Exception {
+		File local = temp.newFolder("local");
+		TestSynchronizer synchronizer = new TestSynchronizer(this.sessionFactory("f7"));
+		synchronizer.setFilter(new AcceptOnceFileListFilter<String>());
+		synchronizer.setMaxFetchSize(4);
+		synchronizer.synchronizeToLocalDirectory(local);
+		assertEquals(4, local.list().length);
+		try {
+			synchronizer.synchronizeToLocalDirectory(local);
+			fail("Expected exception");
+		}
+		catch (MessagingException e) {
+			assertEquals("failed f7", e.getCause().getMessage());
+		}
+		assertEquals(7, local.list().length);
+		// the file that failed was rolled back
+		this.failing = null;
+		synchronizer.synchronizeToLocalDirectory(local);
+		assertEquals(10, local.list().length);
+		synchronizer.synchronizeToLocalDirectory(local);
+		assertEquals(10, local.list().length);
+	}
+
+	private SessionFactory<String> sessionFactory(String failing) {
+		this.failing = failing;
+		return new SessionFactory<String>() {
+
+			public Session<String> getSession() {
+				return newSession();
+			}
+
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private Session<String> newSession() {
+		final Session<String> session = mock(Session.class);
+		final AtomicInteger open = new AtomicInteger(1);
+		try {
+			when(session.list("remote")).thenReturn(this.files);
+			doAnswer(new Answer<Object>() {
+
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					String path = (String) invocation.getArguments()[0];
+					threads.add(Thread.currentThread().getName());
+					int n = concurrent.incrementAndGet();
+					synchronized (AbstractInboundFileSynchronizerTests.this) {
+						maxConcurrent = Math.max(maxConcurrent, n);
+					}
+					try {
+						Thread.sleep(50);
+						if (path.equals("remote/" + failing)) {
+							((OutputStream) invocation.getArguments()[1]).write('x');
+							throw new IOException("failed " + failing);
+						}
+						((OutputStream) invocation.getArguments()[1]).write("ab".getBytes());
+						return null;
+					}
+					finally {
+						concurrent.decrementAndGet();
+					}
+				}
+
+			}).when(session).read(anyString(), any(OutputStream.class));
+			doAnswer(new Answer<Object>() {
+
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					open.set(0);
+					return null;
+				}
+
+			}).when(session).close();
+			doAnswer(new Answer<Object>() {
+
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					return open.get() > 0;
+				}
+
+			}).when(session).isOpen();
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		this.sessions.add(session);
+		return session;
+	}
+
+	private static class TestSynchronizer extends AbstractInboundFileSynchronizer<String> {
+
+		public TestSynchronizer(SessionFactory<String> sessionFactory) {
+			super(sessionFactory);
+			this.setRemoteDirectory("remote");
+			this.setIntegrationEvaluationContext(ExpressionUtils.createStandardEvaluationContext());
+			this.afterPropertiesSet();
+		}
+
+		@Override
+		protected boolean isFile(String file) {
+			return true;
+		}
+
+		@Override
+		protected String getFilename(String file) {
+			return file;
+		}
+
+		@Override
+		protected long getModified(String file) {
+			return 0;
+		}
+
+	}
+
+}
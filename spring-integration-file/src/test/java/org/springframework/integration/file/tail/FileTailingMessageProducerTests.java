@@ -17,6 +17,7 @@ package org.springframework.integration.file.tail;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 import java.io.File;
@@ -37,6 +38,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.integration.Message;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.file.tail.FileTailingMessageProducerSupport.FileTailingEvent;
+import org.springframework.integration.store.metadata.SimpleMetadataStore;
 
 /**
  * @author Gary Russell
@@ -88,6 +90,92 @@ public class FileTailingMessageProducerTests {
 		testGuts(adapter, "tailer");
 	}
 
+	@Test
+	public void testNio() throws Exception {
+		NioFileTailingMessageProducer adapter = new NioFileTailingMessageProducer();
+		adapter.setPollingDelay(100);
+		adapter.setEnd(false);
+		testGuts(adapter, "tailer");
+	}
+
+	@Test
+	public void testNioMapped() throws Exception {
+		NioFileTailingMessageProducer adapter = new NioFileTailingMessageProducer();
+		adapter.setPollingDelay(100);
+		adapter.setEnd(false);
+		adapter.setMappedReadThreshold(1);
+		testGuts(adapter, "tailer");
+	}
+
+	@Test
+	public void testNioBatchAndCheckpoint() throws Exception {
+		File file = new File(testDir, "baz");
+		file.delete();
+		FileOutputStream baz = new FileOutputStream(file);
+		for (int i = 0; i < 10; i++) {
+			baz.write(("hello" + i + "\r\n").getBytes());
+		}
+		baz.write("partial".getBytes());
+		baz.close();
+		SimpleMetadataStore store = new SimpleMetadataStore();
+		QueueChannel outputChannel = new QueueChannel();
+		NioFileTailingMessageProducer adapter = new NioFileTailingMessageProducer();
+		adapter.setFile(file);
+		adapter.setPollingDelay(100);
+		adapter.setEnd(false);
+		adapter.setBatchSize(4);
+		adapter.setMetadataStore(store);
+		adapter.setOutputChannel(outputChannel);
+		adapter.afterPropertiesSet();
+		this.adapter = adapter;
+		adapter.start();
+		assertEquals("[hello0, hello1, hello2, hello3]", outputChannel.receive(5000).getPayload().toString());
+		assertEquals("[hello4, hello5, hello6, hello7]", outputChannel.receive(5000).getPayload().toString());
+		assertEquals("[hello8, hello9]", outputChannel.receive(5000).getPayload().toString());
+		// the checkpoint is stored after the batch is sent
+		String checkpoint = store.get("tail:" + file.getAbsolutePath());
+		int n = 0;
+		while (n++ < 100 && (checkpoint == null || !checkpoint.startsWith("80:"))) {
+			Thread.sleep(50);
+			checkpoint = store.get("tail:" + file.getAbsolutePath());
+		}
+		assertNotNull(checkpoint);
+		assertEquals("80", checkpoint.substring(0, checkpoint.indexOf(':')));
+		adapter.stop();
+		Thread.sleep(200);
+
+		baz = new FileOutputStream(file, true);
+		baz.write("\nhello10\n".getBytes());
+		baz.close();
+		adapter = new NioFileTailingMessageProducer();
+		adapter.setFile(file);
+		adapter.setPollingDelay(100);
+		adapter.setEnd(false);
+		adapter.setMetadataStore(store);
+		adapter.setOutputChannel(outputChannel);
+		adapter.afterPropertiesSet();
+		this.adapter = adapter;
+		adapter.start();
+		assertEquals("partial", outputChannel.receive(5000).getPayload());
+		assertEquals("hello10", outputChannel.receive(5000).getPayload());
+		assertNull(outputChannel.receive(200));
+		adapter.stop();
+		Thread.sleep(200);
+
+		baz = new FileOutputStream(file);
+		baz.write("rotated0\n".getBytes());
+		baz.close();
+		adapter = new NioFileTailingMessageProducer();
+		adapter.setFile(file);
+		adapter.setPollingDelay(100);
+		adapter.setMetadataStore(store);
+		adapter.setOutputChannel(outputChannel);
+		adapter.afterPropertiesSet();
+		this.adapter = adapter;
+		adapter.start();
+		assertEquals("rotated0", outputChannel.receive(5000).getPayload());
+	}
+
 	private void testGuts(FileTailingMessageProducerSupport adapter, String field)
 			throws Exception {
 		this.adapter = adapter;
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.transformer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.file.FileHeaders;
+import org.springframework.integration.support.FileRegion;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * @since 3.0
+ */
+public class FileToFileRegionTransformerTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void testRegion() throws Exception {
+		File file = temp.newFile("foo.txt");
+		FileCopyUtils.copy("foobar".getBytes(), file);
+		FileToFileRegionTransformer transformer = new FileToFileRegionTransformer();
+		Message<?> result = transformer.transform(MessageBuilder.withPayload(file).build());
+		assertTrue(result.getPayload() instanceof FileRegion);
+		FileRegion region = (FileRegion) result.getPayload();
+		assertEquals(file, region.getFile());
+		assertEquals(0, region.getPosition());
+		assertEquals(6, region.getCount());
+		assertEquals("foo.txt", result.getHeaders().get(FileHeaders.FILENAME));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(6, region.writeTo(out));
+		assertArrayEquals("foobar".getBytes(), out.toByteArray());
+		ByteArrayOutputStream partial = new ByteArrayOutputStream();
+		new FileRegion(file, 2, 3).writeTo(partial);
+		assertArrayEquals("oba".getBytes(), partial.toByteArray());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDeleteFilesRejected() {
+		new FileToFileRegionTransformer().setDeleteFiles(true);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,19 @@
 
 package org.springframework.integration.gemfire.store;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.data.gemfire.RegionAttributesFactoryBean;
 import org.springframework.data.gemfire.RegionFactoryBean;
 import org.springframework.integration.store.AbstractKeyValueMessageStore;
+import org.springframework.integration.store.MessageGroupMetadata;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.util.Assert;
@@ -35,7 +40,16 @@ import com.gemstone.gemfire.cache.Region;
 /**
  * Gemfire implementation of the key/value style {@link MessageStore} and
  * {@link MessageGroupStore}
- * 
+ * <p>
+
+ * The membership of a group is kept in one region entry per member, keyed by the
+ * group id and the message id, which holds the member's position in the group;
+ * one entry per position holds the message id, and a small entry per group holds
+ * the range of positions in use and the size of the group. Adding, removing or
+ * polling a message therefore updates a few small entries, whatever the size of
+ * the group. Groups written by earlier versions keep their ids in the group
+ * metadata and continue to be maintained there.
+ *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
  * @author David Turanski
@@ -45,6 +59,12 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore implements
 
 	private static final String MESSAGE_STORE_REGION_NAME = "messageStoreRegion";
 
+	private static final String GROUP_MEMBER_KEY_PREFIX = "GROUP_MEMBER_";
+
+	private static final String GROUP_POSITION_KEY_PREFIX = "GROUP_POSITION_";
+
+	private static final String GROUP_MEMBERS_KEY_PREFIX = "GROUP_MEMBERS_";
+
 	private volatile Region<Object, Object> messageStoreRegion;
 
 	private final Cache cache;
@@ -107,6 +127,17 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore implements
 		return this.messageStoreRegion.get(id);
 	}
 
+	@Override
+	protected List<?> doRetrieveAll(Collection<Object> ids) {
+		Assert.notNull(ids, "'ids' must not be null");
+		Map<Object, Object> objects = this.messageStoreRegion.getAll(ids);
+		List<Object> result = new ArrayList<Object>(ids.size());
+		for (Object id : ids) {
+			result.add(objects.get(id));
+		}
+		return result;
+	}
+
 	@Override
 	protected void doStore(Object id, Object objectToStore) {
 		Assert.notNull(id, "'id' must not be null");
@@ -120,6 +151,126 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore implements
 		return this.messageStoreRegion.remove(id);
 	}
 
+	@Override
+	protected void doAddMessageIdToGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+		if (metadata.size() > 0) {
+			super.doAddMessageIdToGroup(groupId, metadata, messageId);
+			return;
+		}
+		Members members = this.getMembers(groupId);
+		long position = members.next++;
+		members.size++;
+		Map<Object, Object> entries = new HashMap<Object, Object>();
+		entries.put(this.memberKey(groupId, messageId), position);
+		entries.put(this.positionKey(groupId, position), messageId);
+		entries.put(GROUP_MEMBERS_KEY_PREFIX + groupId, members);
+		this.messageStoreRegion.putAll(entries);
+	}
+
+	@Override
+	protected void doRemoveMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+		if (metadata.size() > 0) {
+			super.doRemoveMessageIdFromGroup(groupId, metadata, messageId);
+			return;
+		}
+		Members members = this.getMembers(groupId);
+		if (this.removeMember(groupId, members, messageId)) {
+			this.storeMembers(groupId, members);
+		}
+	}
+
+	@Override
+	protected void doRemoveMessageIdsFromGroup(Object groupId, MessageGroupMetadata metadata,
+			Collection<UUID> messageIds) {
+		if (metadata.size() > 0) {
+			super.doRemoveMessageIdsFromGroup(groupId, metadata, messageIds);
+			return;
+		}
+		Members members = this.getMembers(groupId);
+		boolean removed = false;
+		for (UUID messageId : messageIds) {
+			removed |= this.removeMember(groupId, members, messageId);
+		}
+		if (removed) {
+			this.storeMembers(groupId, members);
+		}
+	}
+
+	@Override
+	protected UUID doPollMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doPollMessageIdFromGroup(groupId, metadata);
+		}
+		Members members = this.getMembers(groupId);
+		while (members.first < members.next) {
+			UUID messageId = (UUID) this.messageStoreRegion.remove(this.positionKey(groupId, members.first++));
+			if (messageId != null) {
+				this.messageStoreRegion.remove(this.memberKey(groupId, messageId));
+				members.size--;
+				this.storeMembers(groupId, members);
+				return messageId;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected UUID doGetFirstMessageIdInGroup(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doGetFirstMessageIdInGroup(groupId, metadata);
+		}
+		Members members = this.getMembers(groupId);
+		for (long position = members.first; position < members.next; position++) {
+			UUID messageId = (UUID) this.messageStoreRegion.get(this.positionKey(groupId, position));
+			if (messageId != null) {
+				return messageId;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected List<UUID> doListMessageIdsInGroup(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doListMessageIdsInGroup(groupId, metadata);
+		}
+		Members members = this.getMembers(groupId);
+		List<Object> positionKeys = new ArrayList<Object>();
+		for (long position = members.first; position < members.next; position++) {
+			positionKeys.add(this.positionKey(groupId, position));
+		}
+		List<UUID> messageIds = new ArrayList<UUID>(members.size);
+		for (Object messageId : this.doRetrieveAll(positionKeys)) {
+			// positions of messages removed from the middle of the group are empty
+			if (messageId != null) {
+				messageIds.add((UUID) messageId);
+			}
+		}
+		return messageIds;
+	}
+
+	@Override
+	protected int doGetGroupSize(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doGetGroupSize(groupId, metadata);
+		}
+		return this.getMembers(groupId).size;
+	}
+
+	@Override
+	protected void doRemoveGroupMembership(Object groupId) {
+		Object members = this.messageStoreRegion.remove(GROUP_MEMBERS_KEY_PREFIX + groupId);
+		if (members != null) {
+			Members range = (Members) members;
+			for (long position = range.first; position < range.next; position++) {
+				UUID messageId = (UUID) this.messageStoreRegion.remove(this.positionKey(groupId, position));
+				if (messageId != null) {
+					this.messageStoreRegion.remove(this.memberKey(groupId, messageId));
+				}
+			}
+		}
+	}
+
 	@Override
 	protected Collection<?> doListKeys(String keyPattern) {
 		Assert.hasText(keyPattern, "'keyPattern' must not be empty");
@@ -134,4 +285,54 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore implements
 		return keyList;
 	}
 
+	private boolean removeMember(Object groupId, Members members, UUID messageId) {
+		Object position = this.messageStoreRegion.remove(this.memberKey(groupId, messageId));
+		if (position == null) {
+			return false;
+		}
+		this.messageStoreRegion.remove(this.positionKey(groupId, (Long) position));
+		members.size--;
+		if ((Long) position == members.first) {
+			// skip the positions of messages that were removed from the middle of the group
+			while (members.first < members.next
+					&& this.messageStoreRegion.get(this.positionKey(groupId, members.first)) == null) {
+				members.first++;
+			}
+		}
+		return true;
+	}
+
+	private Members getMembers(Object groupId) {
+		Object members = this.messageStoreRegion.get(GROUP_MEMBERS_KEY_PREFIX + groupId);
+		return members == null ? new Members() : (Members) members;
+	}
+
+	private void storeMembers(Object groupId, Members members) {
+		this.messageStoreRegion.put(GROUP_MEMBERS_KEY_PREFIX + groupId, members);
+	}
+
+	private String memberKey(Object groupId, UUID messageId) {
+		return GROUP_MEMBER_KEY_PREFIX + groupId + "_" + messageId;
+	}
+
+	private String positionKey(Object groupId, long position) {
+		return GROUP_POSITION_KEY_PREFIX + groupId + "_" + position;
+	}
+
+	/**
+	 * The positions in use by the members of a group ({@code first} inclusive,
+	 * {@code next} exclusive) and the number of members.
+	 */
+	private static class Members implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private long first;
+
+		private long next;
+
+		private int size;
+
+	}
+
 }
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
@@ -127,6 +128,34 @@ public class GemfireGroupStoreTests {
 
 	}
 
+	@Test
+	public void testMembershipOrderAfterRemovals() throws Exception {
+		GemfireMessageStore store = new GemfireMessageStore(this.cache);
+		store.afterPropertiesSet();
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 6; i++) {
+			Message<?> message = new GenericMessage<Integer>(i);
+			messages.add(message);
+			store.addMessageToGroup(1, message);
+		}
+		store.removeMessageFromGroup(1, messages.get(2));
+		store.removeMessageFromGroup(1, messages.get(0));
+		assertEquals(4, store.messageGroupSize(1));
+		assertEquals(1, store.pollMessageFromGroup(1).getPayload());
+		assertEquals(3, store.pollMessageFromGroup(1).getPayload());
+		store.addMessageToGroup(1, new GenericMessage<Integer>(9));
+
+		List<Object> payloads = new ArrayList<Object>();
+		for (Message<?> message : store.getMessageGroup(1).getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertEquals(Arrays.<Object>asList(4, 5, 9), payloads);
+
+		store.removeMessageGroup(1);
+		assertEquals(0, store.messageGroupSize(1));
+		assertEquals(0, store.getMessageCount());
+	}
+
 	@Test
 	public void testRemoveMessageGroup() throws Exception {
 		GemfireMessageStore store = new GemfireMessageStore(this.cache);
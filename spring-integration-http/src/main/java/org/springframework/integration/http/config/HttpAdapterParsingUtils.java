@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.integration.http.config;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.w3c.dom.Element;
@@ -26,6 +28,8 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.integration.config.ExpressionFactoryBean;
+import org.springframework.integration.config.xml.IntegrationNamespaceUtils;
+import org.springframework.integration.http.support.PoolingClientHttpRequestFactoryBean;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.xml.DomUtils;
@@ -42,8 +46,14 @@ abstract class HttpAdapterParsingUtils {
 		"request-factory", "error-handler", "message-converters"
 	};
 
+	static final String[] POOLED_REQUEST_FACTORY_ATTRIBUTES = {
+		"max-connections-per-route", "max-total-connections", "connect-timeout", "read-timeout"
+	};
+
 	static void verifyNoRestTemplateAttributes(Element element, ParserContext parserContext) {
-		for (String attributeName : REST_TEMPLATE_REFERENCE_ATTRIBUTES) {
+		List<String> attributeNames = new ArrayList<String>(Arrays.asList(REST_TEMPLATE_REFERENCE_ATTRIBUTES));
+		attributeNames.addAll(Arrays.asList(POOLED_REQUEST_FACTORY_ATTRIBUTES));
+		for (String attributeName : attributeNames) {
 			if (element.hasAttribute(attributeName)) {
 				parserContext.getReaderContext().error("When providing a 'rest-template' reference, the '"
 						+ attributeName + "' attribute is not allowed.",
@@ -52,6 +62,29 @@ abstract class HttpAdapterParsingUtils {
 		}
 	}
 
+	static void configureRestTemplateAttributes(Element element, ParserContext parserContext, BeanDefinitionBuilder builder) {
+		for (String referenceAttributeName : REST_TEMPLATE_REFERENCE_ATTRIBUTES) {
+			IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, referenceAttributeName);
+		}
+		BeanDefinitionBuilder requestFactoryBuilder = null;
+		for (String attributeName : POOLED_REQUEST_FACTORY_ATTRIBUTES) {
+			if (element.hasAttribute(attributeName)) {
+				if (element.hasAttribute("request-factory")) {
+					parserContext.getReaderContext().error("When providing a 'request-factory' reference, the '"
+							+ attributeName + "' attribute is not allowed.",
+							parserContext.extractSource(element));
+				}
+				if (requestFactoryBuilder == null) {
+					requestFactoryBuilder = BeanDefinitionBuilder.genericBeanDefinition(PoolingClientHttpRequestFactoryBean.class);
+				}
+				IntegrationNamespaceUtils.setValueIfAttributeDefined(requestFactoryBuilder, element, attributeName);
+			}
+		}
+		if (requestFactoryBuilder != null) {
+			builder.addPropertyValue("requestFactory", requestFactoryBuilder.getBeanDefinition());
+		}
+	}
+
 	static void configureUriVariableExpressions(BeanDefinitionBuilder builder, Element element) {
 		List<Element> uriVariableElements = DomUtils.getChildElementsByTagName(element, "uri-variable");
 		if (!CollectionUtils.isEmpty(uriVariableElements)) {
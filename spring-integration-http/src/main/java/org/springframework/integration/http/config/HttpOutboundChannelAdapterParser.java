@@ -53,10 +53,9 @@ public class HttpOutboundChannelAdapterParser extends AbstractOutboundChannelAda
 			builder.addConstructorArgReference(restTemplate);
 		}
 		else {
-			for (String referenceAttributeName : HttpAdapterParsingUtils.REST_TEMPLATE_REFERENCE_ATTRIBUTES) {
-				IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, referenceAttributeName);
-			}
+			HttpAdapterParsingUtils.configureRestTemplateAttributes(element, parserContext, builder);
 		}
+		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, "async-executor");
 
 		String headerMapper = element.getAttribute("header-mapper");
 		String mappedRequestHeaders = element.getAttribute("mapped-request-headers");
@@ -56,10 +56,9 @@ public class HttpOutboundGatewayParser extends AbstractConsumerEndpointParser {
 			builder.addConstructorArgReference(restTemplate);
 		}
 		else {
-			for (String referenceAttributeName : HttpAdapterParsingUtils.REST_TEMPLATE_REFERENCE_ATTRIBUTES) {
-				IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, referenceAttributeName);
-			}
+			HttpAdapterParsingUtils.configureRestTemplateAttributes(element, parserContext, builder);
 		}
+		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, "async-executor");
 
 		String headerMapper = element.getAttribute("header-mapper");
 		String mappedRequestHeaders = element.getAttribute("mapped-request-headers");
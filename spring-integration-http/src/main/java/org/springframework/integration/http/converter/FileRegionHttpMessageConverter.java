@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.http.converter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.integration.support.FileRegion;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * An {@link HttpMessageConverter} implementation that writes a {@link FileRegion}
+ * to the request body directly from its file, setting the content length to the
+ * size of the region. When reading, the body is copied to a temporary file (deleted
+ * when the JVM exits) and a region covering that file is returned.
+ * <p>
+ * Note that, to avoid buffering the whole body in memory, the
+ * {@link org.springframework.http.client.ClientHttpRequestFactory} must stream
+ * the request body; for example,
+ * {@link org.springframework.http.client.SimpleClientHttpRequestFactory#setBufferRequestBody(boolean)}
+ * should be set to false.
+ *
+ * @since 3.0
+ */
+public class FileRegionHttpMessageConverter extends AbstractHttpMessageConverter<FileRegion> {
+
+	public FileRegionHttpMessageConverter() {
+		super(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL);
+	}
+
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return FileRegion.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	protected FileRegion readInternal(Class clazz, HttpInputMessage inputMessage) throws IOException {
+		File file = File.createTempFile("si-http-", ".tmp");
+		file.deleteOnExit();
+		FileCopyUtils.copy(inputMessage.getBody(), new FileOutputStream(file));
+		return new FileRegion(file);
+	}
+
+	@Override
+	protected Long getContentLength(FileRegion region, MediaType contentType) {
+		return region.getCount();
+	}
+
+	@Override
+	protected void writeInternal(FileRegion region, HttpOutputMessage outputMessage) throws IOException {
+		region.writeTo(outputMessage.getBody());
+	}
+
+}
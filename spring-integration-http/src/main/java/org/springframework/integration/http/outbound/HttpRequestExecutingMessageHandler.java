@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.xml.transform.Source;
 
@@ -51,8 +52,10 @@ import org.springframework.integration.core.MessageHandler;
 import org.springframework.integration.expression.ExpressionEvalMap;
 import org.springframework.integration.expression.ExpressionUtils;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
+import org.springframework.integration.http.converter.FileRegionHttpMessageConverter;
 import org.springframework.integration.http.support.DefaultHttpHeaderMapper;
 import org.springframework.integration.mapping.HeaderMapper;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -74,6 +77,12 @@ import org.springframework.web.util.UriComponentsBuilder;
  * When there is a response body, the {@link HttpStatus} enum instance will instead be
  * copied to the MessageHeaders of the reply. In both cases, the response headers will
  * be mapped to the reply Message's headers by this handler's {@link HeaderMapper} instance.
+ * When this handler creates its own {@link RestTemplate}, a {@link FileRegion} payload is
+ * written to the request body from its file; note that the default request factory buffers
+ * the whole body in memory, so to avoid that, provide a {@link RestTemplate} whose request
+ * factory streams the body (for example a
+ * {@link org.springframework.http.client.SimpleClientHttpRequestFactory} with
+ * {@code bufferRequestBody} false) and has a {@link FileRegionHttpMessageConverter}.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -111,6 +120,8 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 
 	private volatile HeaderMapper<HttpHeaders> headerMapper = DefaultHttpHeaderMapper.outboundMapper();
 
+	private volatile Executor asyncExecutor;
+
 	/**
 	 * Create a handler that will send requests to the provided URI.
 	 */
@@ -155,7 +166,11 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 	 */
 	public HttpRequestExecutingMessageHandler(Expression uriExpression, RestTemplate restTemplate) {
 		Assert.notNull(uriExpression, "URI Expression is required");
-		this.restTemplate = (restTemplate == null ? new RestTemplate() : restTemplate);
+		if (restTemplate == null) {
+			restTemplate = new RestTemplate();
+			restTemplate.getMessageConverters().add(0, new FileRegionHttpMessageConverter());
+		}
+		this.restTemplate = restTemplate;
 		this.uriExpression = uriExpression;
 	}
 
@@ -290,6 +305,27 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 		this.transferCookies = transferCookies;
 	}
 
+	/**
+	 * Set an {@link Executor} to perform the HTTP requests asynchronously. The calling
+	 * thread returns as soon as the request has been handed to the executor; the reply
+	 * (if any) is sent to the output channel (or 'replyChannel' header) when the response
+	 * is received. A failure is sent as an ErrorMessage to the request message's
+	 * 'errorChannel' header or, if there is none, to the 'errorChannel' bean.
+	 * Combine with a pooled request factory (see
+	 * {@link org.springframework.integration.http.support.PoolingClientHttpRequestFactoryBean})
+	 * so that concurrent requests reuse connections.
+	 * @param asyncExecutor the executor.
+	 * @since 3.0
+	 */
+	public void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	@Override
+	protected boolean isAsync() {
+		return this.asyncExecutor != null;
+	}
+
 	@Override
 	protected void doInit() {
 		this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(this.getBeanFactory());
@@ -335,7 +371,30 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 	}
 
 	@Override
-	protected Object handleRequestMessage(Message<?> requestMessage) {
+	protected Object handleRequestMessage(final Message<?> requestMessage) {
+		if (this.asyncExecutor == null) {
+			return this.exchange(requestMessage);
+		}
+		this.asyncExecutor.execute(new Runnable() {
+			public void run() {
+				try {
+					Object reply = exchange(requestMessage);
+					if (reply != null) {
+						sendAsyncReply(reply, requestMessage);
+					}
+				}
+				catch (MessagingException e) {
+					sendAsyncFailure(e);
+				}
+				catch (Exception e) {
+					sendAsyncFailure(new MessageHandlingException(requestMessage, e));
+				}
+			}
+		});
+		return null;
+	}
+
+	private Object exchange(Message<?> requestMessage) {
 		String uri = this.uriExpression.getValue(this.evaluationContext, requestMessage, String.class);
 		Assert.notNull(uri, "URI Expression evaluation cannot result in null");
 		try {
@@ -458,7 +517,7 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 	@SuppressWarnings("unchecked")
 	private MediaType resolveContentType(Object content) {
 		MediaType contentType = null;
-		if (content instanceof byte[]) {
+		if (content instanceof byte[] || content instanceof FileRegion) {
 			contentType = MediaType.APPLICATION_OCTET_STREAM;
 		}
 		else if (content instanceof Source) {
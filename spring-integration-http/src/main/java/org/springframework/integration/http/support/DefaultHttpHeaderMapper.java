@@ -49,6 +49,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.integration.MessageHeaders;
 import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.mapping.CachingHeaderMatcher;
 import org.springframework.integration.mapping.HeaderMapper;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -246,6 +247,21 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 
 	public static final String HTTP_RESPONSE_HEADER_NAME_PATTERN = "HTTP_RESPONSE_HEADERS";
 
+	private static final Set<String> STANDARD_HEADER_NAMES = new HashSet<String>();
+
+	private static final Set<String> LOWER_CASE_STANDARD_HEADER_NAMES = new HashSet<String>();
+
+	static {
+		for (String headerName : HTTP_REQUEST_HEADER_NAMES) {
+			STANDARD_HEADER_NAMES.add(headerName);
+			LOWER_CASE_STANDARD_HEADER_NAMES.add(headerName.toLowerCase());
+		}
+		for (String headerName : HTTP_RESPONSE_HEADER_NAMES) {
+			STANDARD_HEADER_NAMES.add(headerName);
+			LOWER_CASE_STANDARD_HEADER_NAMES.add(headerName.toLowerCase());
+		}
+	}
+
 	// Copy of 'org.springframework.http.HttpHeaders#DATE_FORMATS'
 	private static final String[] DATE_FORMATS = new String[] {
 			"EEE, dd MMM yyyy HH:mm:ss zzz",
@@ -265,6 +281,10 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 
 	private volatile String userDefinedHeaderPrefix = "X-";
 
+	private volatile CachingHeaderMatcher outboundHeaderMatcher = this.createOutboundHeaderMatcher();
+
+	private volatile CachingHeaderMatcher inboundHeaderMatcher = this.createInboundHeaderMatcher();
+
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this.beanFactory = beanFactory;
 	}
@@ -279,6 +299,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	 */
 	public void setOutboundHeaderNames(String[] outboundHeaderNames) {
 		this.outboundHeaderNames = (outboundHeaderNames != null) ? outboundHeaderNames : new String[0];
+		this.outboundHeaderMatcher = this.createOutboundHeaderMatcher();
 	}
 
 	/**
@@ -292,6 +313,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	 */
 	public void setInboundHeaderNames(String[] inboundHeaderNames) {
 		this.inboundHeaderNames = (inboundHeaderNames != null) ? inboundHeaderNames : new String[0];
+		this.inboundHeaderMatcher = this.createInboundHeaderMatcher();
 	}
 
 	/**
@@ -302,6 +324,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	public void setExcludedOutboundStandardRequestHeaderNames(String[] excludedOutboundStandardRequestHeaderNames) {
 		Assert.notNull(excludedOutboundStandardRequestHeaderNames, "'excludedOutboundStandardRequestHeaderNames' must not be null");
 		this.excludedOutboundStandardRequestHeaderNames = excludedOutboundStandardRequestHeaderNames;
+		this.outboundHeaderMatcher = this.createOutboundHeaderMatcher();
 	}
 
 	/**
@@ -312,6 +335,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	public void setExcludedInboundStandardResponseHeaderNames(String[] excludedInboundStandardResponseHeaderNames) {
 		Assert.notNull(excludedInboundStandardResponseHeaderNames, "'excludedInboundStandardResponseHeaderNames' must not be null");
 		this.excludedInboundStandardResponseHeaderNames = excludedInboundStandardResponseHeaderNames;
+		this.outboundHeaderMatcher = this.createOutboundHeaderMatcher();
 	}
 
 	/**
@@ -332,11 +356,10 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 		}
 		Set<String> headerNames = headers.keySet();
 		for (String name : headerNames) {
-			if (this.shouldMapOutboundHeader(name)) {
+			if (this.outboundHeaderMatcher.matches(name)) {
 				Object value = headers.get(name);
 				if (value != null) {
-					if (!this.containsElementIgnoreCase(HTTP_REQUEST_HEADER_NAMES, name) &&
-						!this.containsElementIgnoreCase(HTTP_RESPONSE_HEADER_NAMES, name)) {
+					if (!LOWER_CASE_STANDARD_HEADER_NAMES.contains(name.toLowerCase())) {
 						// prefix the user-defined header names if not already prefixed
 
 						name = StringUtils.startsWithIgnoreCase(name, this.userDefinedHeaderPrefix) ? name :
@@ -363,8 +386,8 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 		Map<String, Object> target = new HashMap<String, Object>();
 		Set<String> headerNames = source.keySet();
 		for (String name : headerNames) {
-			if (this.shouldMapInboundHeader(name)) {
-				if (!ObjectUtils.containsElement(HTTP_REQUEST_HEADER_NAMES, name) && !ObjectUtils.containsElement(HTTP_RESPONSE_HEADER_NAMES, name)) {
+			if (this.inboundHeaderMatcher.matches(name)) {
+				if (!STANDARD_HEADER_NAMES.contains(name)) {
 					String prefixedName = StringUtils.startsWithIgnoreCase(name, this.userDefinedHeaderPrefix) ? name :
 						this.userDefinedHeaderPrefix + name;
 					Object value = source.containsKey(prefixedName) ? this.getHttpHeader(source, prefixedName) : this.getHttpHeader(source, name);
@@ -404,6 +427,32 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 		return false;
 	}
 
+	/*
+	 * The mapping decisions are memoized per header name; a new matcher is
+	 * created whenever the header names or exclusions are changed.
+	 */
+	private CachingHeaderMatcher createOutboundHeaderMatcher() {
+		return new CachingHeaderMatcher() {
+
+			@Override
+			protected boolean doMatch(String headerName) {
+				return shouldMapOutboundHeader(headerName);
+			}
+
+		};
+	}
+
+	private CachingHeaderMatcher createInboundHeaderMatcher() {
+		return new CachingHeaderMatcher() {
+
+			@Override
+			protected boolean doMatch(String headerName) {
+				return shouldMapInboundHeader(headerName);
+			}
+
+		};
+	}
+
 	private boolean shouldMapOutboundHeader(String headerName) {
 		if (this.outboundHeaderNames == HTTP_RESPONSE_HEADER_NAMES) { // a default inbound mapper
 			/*
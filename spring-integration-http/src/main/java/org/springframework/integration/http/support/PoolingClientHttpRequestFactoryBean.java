@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.http.support;
+
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+import org.springframework.beans.factory.config.AbstractFactoryBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Creates a {@link ClientHttpRequestFactory} backed by the Apache HttpComponents
+ * HttpClient (4.2 or later) with a pool of persistent (keep-alive) connections, so that concurrent requests to
+ * the same host reuse connections instead of opening one per request. The pool is
+ * shut down when the factory bean is destroyed.
+ *
+ * @since 3.0
+ */
+public class PoolingClientHttpRequestFactoryBean extends AbstractFactoryBean<ClientHttpRequestFactory> {
+
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+	public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 100;
+
+	private volatile int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+	private volatile int maxTotalConnections = DEFAULT_MAX_TOTAL_CONNECTIONS;
+
+	private volatile int connectTimeout;
+
+	private volatile int readTimeout;
+
+	/**
+	 * Set the maximum number of connections to each host (route). Default 20.
+	 * @param maxConnectionsPerRoute the maximum.
+	 */
+	public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		Assert.isTrue(maxConnectionsPerRoute > 0, "'maxConnectionsPerRoute' must be greater than 0");
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+	}
+
+	/**
+	 * Set the maximum number of connections in the pool. Default 100.
+	 * @param maxTotalConnections the maximum.
+	 */
+	public void setMaxTotalConnections(int maxTotalConnections) {
+		Assert.isTrue(maxTotalConnections > 0, "'maxTotalConnections' must be greater than 0");
+		this.maxTotalConnections = maxTotalConnections;
+	}
+
+	/**
+	 * Set the connection timeout (milliseconds); 0 (the default) means no timeout.
+	 * @param connectTimeout the timeout.
+	 */
+	public void setConnectTimeout(int connectTimeout) {
+		Assert.isTrue(connectTimeout >= 0, "'connectTimeout' must not be negative");
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Set the socket read timeout (milliseconds); 0 (the default) means no timeout.
+	 * @param readTimeout the timeout.
+	 */
+	public void setReadTimeout(int readTimeout) {
+		Assert.isTrue(readTimeout >= 0, "'readTimeout' must not be negative");
+		this.readTimeout = readTimeout;
+	}
+
+	@Override
+	public Class<?> getObjectType() {
+		return ClientHttpRequestFactory.class;
+	}
+
+	@Override
+	protected ClientHttpRequestFactory createInstance() throws Exception {
+		PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager();
+		connectionManager.setDefaultMaxPerRoute(this.maxConnectionsPerRoute);
+		connectionManager.setMaxTotal(this.maxTotalConnections);
+		HttpComponentsClientHttpRequestFactory requestFactory =
+				new HttpComponentsClientHttpRequestFactory(new DefaultHttpClient(connectionManager));
+		requestFactory.setConnectTimeout(this.connectTimeout);
+		requestFactory.setReadTimeout(this.readTimeout);
+		return requestFactory;
+	}
+
+	@Override
+	protected void destroyInstance(ClientHttpRequestFactory instance) throws Exception {
+		// shuts down the connection manager
+		((HttpComponentsClientHttpRequestFactory) instance).destroy();
+	}
+
+}
@@ -19,12 +19,16 @@ package org.springframework.integration.http.config;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.util.Map;
 
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.BeansException;
@@ -39,6 +43,7 @@ import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessageChannel;
@@ -73,6 +78,9 @@ public class HttpOutboundGatewayParserTests {
 	@Autowired @Qualifier("withAdvice")
 	private AbstractEndpoint withAdvice;
 
+	@Autowired @Qualifier("withPoolAndAsync")
+	private AbstractEndpoint withPoolAndAsync;
+
 	@Autowired
 	private ApplicationContext applicationContext;
 
@@ -180,6 +188,22 @@ public class HttpOutboundGatewayParserTests {
 		assertEquals(1, adviceCalled);
 	}
 
+	@Test
+	public void withPoolAndAsync() {
+		HttpRequestExecutingMessageHandler handler = TestUtils.getPropertyValue(this.withPoolAndAsync, "handler",
+				HttpRequestExecutingMessageHandler.class);
+		assertSame(this.applicationContext.getBean("asyncExecutor"), TestUtils.getPropertyValue(handler, "asyncExecutor"));
+		HttpComponentsClientHttpRequestFactory requestFactory = TestUtils.getPropertyValue(handler,
+				"restTemplate.requestFactory", HttpComponentsClientHttpRequestFactory.class);
+		HttpClient httpClient = requestFactory.getHttpClient();
+		PoolingClientConnectionManager connectionManager =
+				(PoolingClientConnectionManager) httpClient.getConnectionManager();
+		assertEquals(10, connectionManager.getDefaultMaxPerRoute());
+		assertEquals(50, connectionManager.getMaxTotal());
+		assertEquals(1000, HttpConnectionParams.getConnectionTimeout(httpClient.getParams()));
+		assertEquals(2000, HttpConnectionParams.getSoTimeout(httpClient.getParams()));
+	}
+
 	@Test
 	public void testInt2718FailForGatewayRequestChannelAttribute() {
 		try {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.http.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.integration.support.FileRegion;
+
+/**
+ * @since 3.0
+ */
+public class FileRegionHttpMessageConverterTests {
+
+	@Test
+	public void testRead() throws Exception {
+		FileRegionHttpMessageConverter converter = new FileRegionHttpMessageConverter();
+		assertTrue(converter.canRead(FileRegion.class, MediaType.APPLICATION_OCTET_STREAM));
+		final HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+		FileRegion region = converter.read(FileRegion.class, new HttpInputMessage() {
+
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+
+			public InputStream getBody() throws IOException {
+				return new ByteArrayInputStream("foobar".getBytes());
+			}
+
+		});
+		assertEquals(0, region.getPosition());
+		assertEquals(6, region.getCount());
+		assertEquals("foobar", new String(region.toByteArray()));
+		region.getFile().delete();
+	}
+
+}
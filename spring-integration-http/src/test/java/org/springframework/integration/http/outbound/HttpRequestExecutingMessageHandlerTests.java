@@ -26,6 +26,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
@@ -67,12 +69,17 @@ import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessageChannel;
+import org.springframework.integration.MessageHandlingException;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.core.PollableChannel;
+import org.springframework.integration.http.converter.FileRegionHttpMessageConverter;
 import org.springframework.integration.http.converter.SerializingHttpMessageConverter;
 import org.springframework.integration.message.GenericMessage;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -875,6 +882,81 @@ public class HttpRequestExecutingMessageHandlerTests {
 		assertEquals("x-java-serialized-object", accept.get(0).getSubtype());
 	}
 
+	@Test
+	public void fileRegionPayloadStreamedToRequestBody() throws Exception {
+		HttpRequestExecutingMessageHandler handler = new HttpRequestExecutingMessageHandler("http://www.springsource.org/spring-integration");
+		handler.setHttpMethod(HttpMethod.POST);
+		setBeanFactory(handler);
+		handler.afterPropertiesSet();
+
+		RestTemplate restTemplate = TestUtils.getPropertyValue(handler, "restTemplate", RestTemplate.class);
+		assertTrue(restTemplate.getMessageConverters().get(0) instanceof FileRegionHttpMessageConverter);
+
+		HttpHeaders requestHeaders = setUpMocksToCaptureSentHeaders(restTemplate);
+		ClientHttpRequest clientRequest = restTemplate.getRequestFactory().createRequest(null, null);
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		when(clientRequest.getBody()).thenReturn(body);
+
+		File file = File.createTempFile("region", ".txt");
+		file.deleteOnExit();
+		FileCopyUtils.copy("foobar".getBytes(), file);
+		Message<?> message = MessageBuilder.withPayload(new FileRegion(file, 1, 4)).build();
+		Exception exception = null;
+		try {
+			handler.handleMessage(message);
+		}
+		catch (Exception e) {
+			exception = e;
+		}
+		assertEquals("404 Not Found", exception.getCause().getMessage());
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, requestHeaders.getContentType());
+		assertEquals(4, requestHeaders.getContentLength());
+		assertEquals("ooba", new String(body.toByteArray()));
+		file.delete();
+	}
+
+	@Test
+	public void asyncExchange() throws Exception {
+		final AtomicReference<String> requestThread = new AtomicReference<String>();
+		RestTemplate restTemplate = new RestTemplate() {
+
+			@Override
+			public <T> ResponseEntity<T> exchange(URI uri, HttpMethod method, HttpEntity<?> requestEntity,
+					Class<T> responseType) throws RestClientException {
+				requestThread.set(Thread.currentThread().getName());
+				if ("fail".equals(requestEntity.getBody())) {
+					throw new RestClientException("intentional");
+				}
+				return new ResponseEntity<T>(HttpStatus.OK);
+			}
+		};
+		HttpRequestExecutingMessageHandler handler =
+				new HttpRequestExecutingMessageHandler("http://www.springsource.org/spring-integration", restTemplate);
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("async-http-");
+		executor.afterPropertiesSet();
+		handler.setAsyncExecutor(executor);
+		QueueChannel replyChannel = new QueueChannel();
+		handler.setOutputChannel(replyChannel);
+		setBeanFactory(handler);
+		handler.afterPropertiesSet();
+
+		handler.handleMessage(new GenericMessage<String>("foo"));
+		Message<?> reply = replyChannel.receive(10000);
+		assertNotNull(reply);
+		assertEquals(HttpStatus.OK, reply.getHeaders().get(org.springframework.integration.http.HttpHeaders.STATUS_CODE));
+		assertTrue(requestThread.get().startsWith("async-http-"));
+
+		QueueChannel errorChannel = new QueueChannel();
+		handler.handleMessage(MessageBuilder.withPayload("fail").setErrorChannel(errorChannel).build());
+		Message<?> error = errorChannel.receive(10000);
+		assertNotNull(error);
+		assertTrue(error.getPayload() instanceof MessageHandlingException);
+		assertEquals("fail", ((MessageHandlingException) error.getPayload()).getFailedMessage().getPayload());
+		assertNull(replyChannel.receive(0));
+		executor.destroy();
+	}
+
 	private void setBeanFactory(HttpRequestExecutingMessageHandler handler) {
 		handler.setBeanFactory(mock(BeanFactory.class));
 	}
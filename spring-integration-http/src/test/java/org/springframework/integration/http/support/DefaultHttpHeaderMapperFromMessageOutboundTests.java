@@ -673,6 +673,25 @@ public class DefaultHttpHeaderMapperFromMessageOutboundTests {
 		assertEquals(0, messageHeaders.size());
 	}
 
+	@Test
+	public void reconfiguredHeaderNamesAreHonored() {
+		DefaultHttpHeaderMapper mapper = DefaultHttpHeaderMapper.outboundMapper();
+		MessageHeaders messageHeaders = MessageBuilder.withPayload("foo")
+				.setHeader("foo", "bar")
+				.setHeader("Accept", "text/plain")
+				.build().getHeaders();
+		HttpHeaders headers = new HttpHeaders();
+		mapper.fromHeaders(messageHeaders, headers);
+		assertNull(headers.get("X-foo"));
+		assertNotNull(headers.get("Accept"));
+
+		mapper.setOutboundHeaderNames(new String[] {"f*"});
+		headers = new HttpHeaders();
+		mapper.fromHeaders(messageHeaders, headers);
+		assertEquals("bar", headers.getFirst("X-foo"));
+		assertNull(headers.get("Accept"));
+	}
+
 	public void testInt2995IfModifiedSince() throws Exception{
 		Date ifModifiedSince = new Date();
 		SimpleDateFormat dateFormat = new SimpleDateFormat("EEE MMM dd HH:mm:ss yyyy", Locale.US);
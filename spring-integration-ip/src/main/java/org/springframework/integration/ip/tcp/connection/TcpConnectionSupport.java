@@ -16,6 +16,8 @@
 
 package org.springframework.integration.ip.tcp.connection;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.net.SocketException;
@@ -35,6 +37,7 @@ import org.springframework.integration.Message;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.tcp.serializer.AbstractByteArraySerializer;
 import org.springframework.integration.message.ErrorMessage;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.util.Assert;
 
 /**
@@ -232,6 +235,27 @@ public abstract class TcpConnectionSupport implements TcpConnection {
 		}
 	}
 
+	/**
+	 * Serializes the object to the stream; a {@link FileRegion} is written by an
+	 * {@link AbstractByteArraySerializer} directly from its file; any other serializer
+	 * is passed the contents of the region (rather than the region itself).
+	 * @param object The object returned by the mapper.
+	 * @param outputStream The stream.
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	protected void serialize(Object object, OutputStream outputStream) throws IOException {
+		if (object instanceof FileRegion && this.serializer instanceof AbstractByteArraySerializer) {
+			((AbstractByteArraySerializer) this.serializer).serializeRegion((FileRegion) object, outputStream);
+		}
+		else if (object instanceof FileRegion) {
+			((Serializer<Object>) this.serializer).serialize(((FileRegion) object).toByteArray(), outputStream);
+		}
+		else {
+			((Serializer<Object>) this.serializer).serialize(object, outputStream);
+		}
+	}
+
 	/**
 	 * Sets the listener that will receive incoming Messages.
 	 * @param listener The listener.
@@ -25,13 +25,15 @@ import org.springframework.integration.MessageHandlingException;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.mapping.InboundMessageMapper;
 import org.springframework.integration.mapping.OutboundMessageMapper;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.support.MessageBuilder;
 
 /**
  * Maps incoming data from a {@link TcpConnection} to a {@link Message}.
  * If StringToBytes is true (default),
  * payloads of type String are converted to a byte[] using the supplied
- * charset (UTF-8 by default).
+ * charset (UTF-8 by default). {@link FileRegion} payloads are passed
+ * through unchanged, to be written directly from the file by the serializer.
  * Inbound messages include headers representing the remote end of the
  * connection as well as a connection id that can be used by a {@link TcpSender}
  * to correlate which connection to send a reply. If applySequence is set, adds
@@ -102,7 +104,7 @@ public class TcpMessageMapper implements
 	}
 
 	public Object fromMessage(Message<?> message) throws Exception {
-		if (this.stringToBytes) {
+		if (this.stringToBytes && !(message.getPayload() instanceof FileRegion)) {
 			return getPayloadAsBytes(message);
 		}
 		return message.getPayload();
@@ -25,6 +25,7 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
@@ -34,7 +35,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.core.serializer.Serializer;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessagingException;
 import org.springframework.integration.ip.tcp.serializer.SoftEndOfStreamException;
@@ -132,13 +132,12 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		return this.socketChannel.isOpen();
 	}
 
-	@SuppressWarnings("unchecked")
 	public void send(Message<?> message) throws Exception {
 		synchronized(this.socketChannel) {
 			Object object = this.getMapper().fromMessage(message);
 			this.lastSend = System.currentTimeMillis();
 			try {
-				((Serializer<Object>) this.getSerializer()).serialize(object, this.getChannelOutputStream());
+				this.serialize(object, this.getChannelOutputStream());
 			}
 			catch (Exception e) {
 				this.publishConnectionExceptionEvent(e);
@@ -489,7 +488,7 @@ public class TcpNioConnection extends TcpConnectionSupport {
 	 * OutputStream to wrap a SocketChannel; implements timeout on write.
 	 *
 	 */
-	class ChannelOutputStream extends OutputStream {
+	class ChannelOutputStream extends OutputStream implements WritableByteChannel {
 
 		private Selector selector;
 
@@ -524,6 +523,22 @@ public class TcpNioConnection extends TcpConnectionSupport {
 			doWrite(buffer);
 		}
 
+		/**
+		 * Allows data (such as a {@link org.springframework.integration.support.FileRegion})
+		 * to be transferred to the socket without an intermediate byte[].
+		 */
+		@Override
+		public int write(ByteBuffer buffer) throws IOException {
+			int length = buffer.remaining();
+			doWrite(buffer);
+			return length;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return socketChannel.isOpen();
+		}
+
 		protected synchronized void doWrite(ByteBuffer buffer) throws IOException {
 			if (logger.isDebugEnabled()) {
 				logger.debug(getConnectionId() + " writing " + buffer.remaining());
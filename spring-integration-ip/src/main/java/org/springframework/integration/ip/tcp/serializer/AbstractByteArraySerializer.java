@@ -17,11 +17,13 @@
 package org.springframework.integration.ip.tcp.serializer;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.support.FileRegion;
 
 /**
  * Base class for (de)serializers that provide a mechanism to
@@ -57,6 +59,22 @@ public abstract class AbstractByteArraySerializer implements
 		this.maxMessageSize = maxMessageSize;
 	}
 
+	/**
+	 * Write the contents of a {@link FileRegion} to the stream, framed in the same
+	 * way as a byte array passed to {@link #serialize(Object, OutputStream)}, without
+	 * first reading the contents into memory.
+	 * The default implementation reads the contents and delegates to
+	 * {@link #serialize(Object, OutputStream)}; subclasses override it to write
+	 * the region directly from the file.
+	 * @param region The region.
+	 * @param outputStream The stream.
+	 * @throws IOException
+	 * @since 3.0
+	 */
+	public void serializeRegion(FileRegion region, OutputStream outputStream) throws IOException {
+		this.serialize(region.toByteArray(), outputStream);
+	}
+
 	protected void checkClosure(int bite) throws IOException {
 		if (bite < 0) {
 			logger.debug("Socket closed during message assembly");
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.springframework.integration.support.FileRegion;
+
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by \r\n
  * (not included in resulting byte[]).
@@ -80,4 +82,11 @@ public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer {
 		outputStream.flush();
 	}
 
+	@Override
+	public void serializeRegion(FileRegion region, OutputStream outputStream) throws IOException {
+		region.writeTo(outputStream);
+		outputStream.write(CRLF);
+		outputStream.flush();
+	}
+
 }
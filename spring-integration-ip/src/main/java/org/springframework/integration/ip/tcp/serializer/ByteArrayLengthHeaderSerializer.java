@@ -24,6 +24,8 @@ import java.nio.ByteBuffer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.integration.support.FileRegion;
+
 /**
  * Reads data in an InputStream to a byte[]; data must be preceded by
  * a binary length (network byte order, not included in resulting byte[]).
@@ -117,6 +119,21 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		outputStream.flush();
 	}
 
+	/**
+	 * Writes the region to the output stream, preceded by its length.
+	 */
+	@Override
+	public void serializeRegion(FileRegion region, OutputStream outputStream) throws IOException {
+		if (region.getCount() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Length header:"
+					+ headerSize
+					+ " too short to accommodate message length:" + region.getCount());
+		}
+		this.writeHeader(outputStream, (int) region.getCount());
+		region.writeTo(outputStream);
+		outputStream.flush();
+	}
+
 	/**
 	 * Reads data from the socket and puts the data in buffer. Blocks until
 	 * buffer is full or a socket timeout occurs.
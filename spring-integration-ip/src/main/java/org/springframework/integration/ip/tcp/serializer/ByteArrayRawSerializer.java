@@ -19,6 +19,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.springframework.integration.support.FileRegion;
+
 /**
  * A byte array (de)serializer that does nothing with the payload; sends it raw.
  * Message termination for assembly purposes is signaled by the client closing the
@@ -41,6 +43,12 @@ public class ByteArrayRawSerializer extends AbstractByteArraySerializer {
 		outputStream.flush();
 	}
 
+	@Override
+	public void serializeRegion(FileRegion region, OutputStream outputStream) throws IOException {
+		region.writeTo(outputStream);
+		outputStream.flush();
+	}
+
 	public byte[] deserialize(InputStream inputStream) throws IOException {
 		byte[] buffer = new byte[this.maxMessageSize];
 		int n = 0;
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.springframework.integration.support.FileRegion;
+
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by a single
  * byte (not included in resulting byte[]).
@@ -79,4 +81,11 @@ public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerial
 		outputStream.flush();
 	}
 
+	@Override
+	public void serializeRegion(FileRegion region, OutputStream outputStream) throws IOException {
+		region.writeTo(outputStream);
+		outputStream.write(terminator);
+		outputStream.flush();
+	}
+
 }
@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 import org.springframework.integration.mapping.MessageMappingException;
+import org.springframework.integration.support.FileRegion;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be prefixed by &lt;stx&gt; and
@@ -78,4 +79,12 @@ public class ByteArrayStxEtxSerializer extends AbstractByteArraySerializer {
 		outputStream.flush();
 	}
 
+	@Override
+	public void serializeRegion(FileRegion region, OutputStream outputStream) throws IOException {
+		outputStream.write(STX);
+		region.writeTo(outputStream);
+		outputStream.write(ETX);
+		outputStream.flush();
+	}
+
 }
@@ -22,13 +22,20 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.net.ServerSocketFactory;
+
 import org.apache.commons.logging.Log;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -38,11 +45,15 @@ import org.mockito.stubbing.Answer;
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
 import org.springframework.integration.Message;
 import org.springframework.integration.ip.tcp.connection.TcpNioConnection.ChannelInputStream;
+import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayStxEtxSerializer;
 import org.springframework.integration.ip.tcp.serializer.MapJsonSerializer;
 import org.springframework.integration.message.ErrorMessage;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.support.converter.MapMessageConverter;
 import org.springframework.integration.test.util.TestUtils;
@@ -145,4 +156,57 @@ public class TcpNetConnectionTests {
 		assertEquals("foo", inboundMessage.get().getPayload());
 		assertEquals("baz", inboundMessage.get().getHeaders().get("bar"));
 	}
+
+	@Test
+	public void testWriteFileRegionToSocket() throws Exception {
+		File file = createRegionFile();
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		server.setSoTimeout(10000);
+		TcpNetClientConnectionFactory factory = new TcpNetClientConnectionFactory("localhost", server.getLocalPort());
+		factory.setSerializer(new ByteArrayCrLfSerializer());
+		factory.start();
+		TcpConnection connection = factory.getConnection();
+		Socket socket = server.accept();
+		socket.setSoTimeout(10000);
+		// the socket's output stream is a FileOutputStream without a channel
+		connection.send(MessageBuilder.withPayload(new FileRegion(file, 2, 6)).build());
+		byte[] buff = new byte[8];
+		DataInputStream is = new DataInputStream(socket.getInputStream());
+		is.readFully(buff);
+		assertEquals("abcdef\r\n", new String(buff));
+		socket.close();
+		server.close();
+		factory.stop();
+		file.delete();
+	}
+
+	@Test
+	public void testWriteFileRegionWithDefaultSerializer() throws Exception {
+		File file = createRegionFile();
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		server.setSoTimeout(10000);
+		TcpNetClientConnectionFactory factory = new TcpNetClientConnectionFactory("localhost", server.getLocalPort());
+		factory.setSerializer(new DefaultSerializer());
+		factory.start();
+		TcpConnection connection = factory.getConnection();
+		Socket socket = server.accept();
+		socket.setSoTimeout(10000);
+		connection.send(MessageBuilder.withPayload(new FileRegion(file, 2, 6)).build());
+		Object received = new DefaultDeserializer().deserialize(socket.getInputStream());
+		assertEquals("abcdef", new String((byte[]) received));
+		socket.close();
+		server.close();
+		factory.stop();
+		file.delete();
+	}
+
+	private File createRegionFile() throws IOException {
+		File file = File.createTempFile("region", ".txt");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		fos.write("xxabcdefxx".getBytes());
+		fos.close();
+		return file;
+	}
+
 }
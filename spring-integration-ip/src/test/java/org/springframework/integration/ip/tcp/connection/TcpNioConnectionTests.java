@@ -26,6 +26,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
@@ -64,6 +66,7 @@ import org.springframework.integration.Message;
 import org.springframework.integration.ip.tcp.connection.TcpNioConnection.ChannelInputStream;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
 import org.springframework.integration.ip.tcp.serializer.MapJsonSerializer;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.support.converter.MapMessageConverter;
 import org.springframework.integration.test.util.SocketUtils;
@@ -519,6 +522,31 @@ public class TcpNioConnectionTests {
 		assertEquals("baz", inboundMessage.get().getHeaders().get("bar"));
 	}
 
+	@Test
+	public void testWriteFileRegion() throws Exception {
+		File file = File.createTempFile("region", ".txt");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		fos.write("xxabcdefxx".getBytes());
+		fos.close();
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		server.setSoTimeout(10000);
+		TcpNioClientConnectionFactory factory = new TcpNioClientConnectionFactory("localhost", server.getLocalPort());
+		factory.setSerializer(new ByteArrayCrLfSerializer());
+		factory.start();
+		TcpConnection connection = factory.getConnection();
+		Socket socket = server.accept();
+		socket.setSoTimeout(10000);
+		connection.send(MessageBuilder.withPayload(new FileRegion(file, 2, 6)).build());
+		byte[] buff = new byte[8];
+		readFully(socket.getInputStream(), buff);
+		assertEquals("abcdef\r\n", new String(buff));
+		socket.close();
+		server.close();
+		factory.stop();
+		file.delete();
+	}
+
 	private void readFully(InputStream is, byte[] buff) throws IOException {
 		for (int i = 0; i < buff.length; i++) {
 			buff[i] = (byte) is.read();
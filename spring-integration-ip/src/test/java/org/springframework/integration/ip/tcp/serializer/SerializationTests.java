@@ -18,9 +18,13 @@ package org.springframework.integration.ip.tcp.serializer;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.ByteBuffer;
@@ -30,6 +34,7 @@ import javax.net.SocketFactory;
 
 import org.junit.Test;
 import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.integration.support.FileRegion;
 import org.springframework.integration.test.util.SocketUtils;
 
 /**
@@ -38,6 +43,65 @@ import org.springframework.integration.test.util.SocketUtils;
  */
 public class SerializationTests {
 
+	@Test
+	public void testWriteFileRegion() throws Exception {
+		File file = File.createTempFile("region", ".txt");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		fos.write("xxabcdefxx".getBytes());
+		fos.close();
+		FileRegion region = new FileRegion(file, 2, 6);
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		new ByteArrayRawSerializer().serializeRegion(region, bos);
+		assertEquals("abcdef", new String(bos.toByteArray()));
+
+		bos = new ByteArrayOutputStream();
+		new ByteArrayCrLfSerializer().serializeRegion(region, bos);
+		assertEquals("abcdef\r\n", new String(bos.toByteArray()));
+
+		bos = new ByteArrayOutputStream();
+		new ByteArrayLfSerializer().serializeRegion(region, bos);
+		assertEquals("abcdef\n", new String(bos.toByteArray()));
+
+		bos = new ByteArrayOutputStream();
+		new ByteArrayStxEtxSerializer().serializeRegion(region, bos);
+		assertEquals("\u0002abcdef\u0003", new String(bos.toByteArray()));
+
+		bos = new ByteArrayOutputStream();
+		new ByteArrayLengthHeaderSerializer().serializeRegion(region, bos);
+		ByteBuffer buffer = ByteBuffer.wrap(bos.toByteArray());
+		assertEquals(6, buffer.getInt());
+		assertEquals("abcdef", new String(bos.toByteArray(), 4, 6));
+		file.delete();
+	}
+
+	@Test
+	public void testWriteFileRegionDefault() throws Exception {
+		File file = File.createTempFile("region", ".txt");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		fos.write("xxabcdefxx".getBytes());
+		fos.close();
+		AbstractByteArraySerializer serializer = new AbstractByteArraySerializer() {
+
+			public void serialize(byte[] object, OutputStream outputStream) throws IOException {
+				outputStream.write('<');
+				outputStream.write(object);
+				outputStream.write('>');
+			}
+
+			public byte[] deserialize(InputStream inputStream) throws IOException {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		serializer.serializeRegion(new FileRegion(file, 2, 6), bos);
+		assertEquals("<abcdef>", new String(bos.toByteArray()));
+		file.delete();
+	}
+
 	@Test
 	public void testWriteLengthHeader() throws Exception {
 		final int port = SocketUtils.findAvailableServerSocket();
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.jdbc;
+
+/**
+ * Pre-defined header names to be used for setting and/or retrieving JDBC
+ * related attributes from/to integration Message Headers.
+ *
+ * @since 3.0
+ */
+public abstract class JdbcHeaders {
+
+	public static final String PREFIX = "jdbc_";
+
+	/**
+	 * Set to true on the last of the replies of a streaming {@link JdbcOutboundGateway},
+	 * false on the others.
+	 */
+	public static final String LAST_CHUNK = PREFIX + "lastChunk";
+
+}
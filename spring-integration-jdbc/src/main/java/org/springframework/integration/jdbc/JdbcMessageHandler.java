@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -13,6 +13,7 @@
 
 package org.springframework.integration.jdbc;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import org.springframework.integration.MessageDeliveryException;
 import org.springframework.integration.MessageHandlingException;
 import org.springframework.integration.MessageRejectedException;
 import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.integration.support.MessageBuilder;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
@@ -31,6 +33,7 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.util.Assert;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 
 /**
@@ -44,6 +47,10 @@ import org.springframework.util.LinkedCaseInsensitiveMap;
  *
  * N.B. do not use quotes to escape the header keys. The default SQL parameter source (from Spring JDBC) can also handle
  * headers with dotted names (e.g. <code>business.id</code>)
+ * <p>
+ * If {@link #setBatchUpdate(boolean) batchUpdate} is true and the payload is a {@link Collection}, the update is
+ * executed once per element, as a single JDBC batch; the parameter source for each element is created from a message
+ * with that element as its payload, and the headers of the original message.
  *
  * @author Dave Syer
  * @since 2.0
@@ -58,6 +65,8 @@ public class JdbcMessageHandler extends AbstractMessageHandler {
 
 	private volatile boolean keysGenerated;
 
+	private volatile boolean batchUpdate;
+
 	/**
 	 * Constructor taking {@link DataSource} from which the DB Connection can be obtained and the select query to
 	 * execute to retrieve new rows.
@@ -90,6 +99,16 @@ public class JdbcMessageHandler extends AbstractMessageHandler {
 		this.keysGenerated = keysGenerated;
 	}
 
+	/**
+	 * Flag to indicate that a {@link Collection} payload should be used to execute a batch update, with one statement
+	 * per element; cannot be combined with keysGenerated.
+	 * @param batchUpdate the flag value to set
+	 * @since 3.0
+	 */
+	public void setBatchUpdate(boolean batchUpdate) {
+		this.batchUpdate = batchUpdate;
+	}
+
 	public void setUpdateSql(String updateSql) {
 		this.updateSql = updateSql;
 	}
@@ -98,11 +117,24 @@ public class JdbcMessageHandler extends AbstractMessageHandler {
 		this.sqlParameterSourceFactory = sqlParameterSourceFactory;
 	}
 
+	@Override
+	protected void onInit() throws Exception {
+		super.onInit();
+		Assert.isTrue(!(this.batchUpdate && this.keysGenerated), "'batchUpdate' cannot be combined with 'keysGenerated'");
+	}
+
 	/**
 	 * Executes the update, passing the message into the {@link SqlParameterSourceFactory}.
 	 */
 	protected void handleMessageInternal(Message<?> message) throws MessageRejectedException, MessageHandlingException,
 			MessageDeliveryException {
+		if (this.batchUpdate && message.getPayload() instanceof Collection) {
+			int[] updated = executeBatchUpdateQuery(message, (Collection<?>) message.getPayload());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Batch of " + updated.length + " updates executed");
+			}
+			return;
+		}
 		List<? extends Map<String, Object>> keys = executeUpdateQuery(message, keysGenerated);
 		if (logger.isDebugEnabled() && !keys.isEmpty()) {
 			logger.debug("Generated keys: "+keys);
@@ -129,4 +161,15 @@ public class JdbcMessageHandler extends AbstractMessageHandler {
 
 	}
 
+	private int[] executeBatchUpdateQuery(Message<?> message, Collection<?> payload) {
+		SqlParameterSource[] updateParameterSources = new SqlParameterSource[payload.size()];
+		int i = 0;
+		for (Object item : payload) {
+			Message<?> itemMessage = MessageBuilder.withPayload(item).copyHeaders(message.getHeaders()).build();
+			updateParameterSources[i++] = this.sqlParameterSourceFactory == null ? new MapSqlParameterSource()
+					: this.sqlParameterSourceFactory.createParameterSource(itemMessage);
+		}
+		return this.jdbcOperations.batchUpdate(this.updateSql, updateParameterSources);
+	}
+
 }
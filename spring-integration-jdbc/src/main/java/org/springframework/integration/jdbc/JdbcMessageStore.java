@@ -19,6 +19,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -44,6 +45,7 @@ import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageStore;
+import org.springframework.integration.store.PersistentMessageGroup;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.util.UUIDConverter;
@@ -154,7 +156,12 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 		UPDATE_GROUP("UPDATE %PREFIX%MESSAGE_GROUP set UPDATED_DATE=? where GROUP_KEY=? and REGION=?"),
 
-		LIST_GROUP_KEYS("SELECT distinct GROUP_KEY as CREATED from %PREFIX%MESSAGE_GROUP where REGION=?");
+		LIST_GROUP_KEYS("SELECT distinct GROUP_KEY as CREATED from %PREFIX%MESSAGE_GROUP where REGION=?"),
+
+		LIST_GROUP_KEYS_CREATED_BEFORE("SELECT GROUP_KEY from %PREFIX%MESSAGE_GROUP where REGION=? and CREATED_DATE <= ?"),
+
+		LIST_GROUP_KEYS_IDLE_SINCE("SELECT GROUP_KEY from %PREFIX%MESSAGE_GROUP where REGION=? " +
+				"and (UPDATED_DATE <= ? or (UPDATED_DATE is null and CREATED_DATE <= ?))");
 
 		private String sql;
 
@@ -429,8 +436,6 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		final AtomicReference<Boolean> completeFlag = new AtomicReference<Boolean>();
 		final AtomicReference<Integer> lastReleasedSequenceRef = new AtomicReference<Integer>();
 
-		List<Message<?>> messages = jdbcTemplate.query(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY), new Object[] { key, region }, mapper);
-
 		jdbcTemplate.query(getQuery(Query.GET_GROUP_INFO), new Object[] { key, region},
 				new RowCallbackHandler() {
 					@Override
@@ -447,7 +452,7 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 		if (createDate.get() == null && updateDate.get() == null) {
 			if (logger.isWarnEnabled()) {
-				for (Message<?> message : messages) {
+				for (Message<?> message : this.getMessagesForGroup(groupId)) {
 					logger.warn("Missing group row for message id: " + message.getHeaders().getId());
 				}
 			}
@@ -457,15 +462,31 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		long timestamp = createDate.get().getTime();
 		boolean complete = completeFlag.get().booleanValue();
 
+		List<Message<?>> messages = this.isLazyLoadMessageGroups()
+				? Collections.<Message<?>>emptyList()
+				: this.getMessagesForGroup(groupId);
 		SimpleMessageGroup messageGroup = new SimpleMessageGroup(messages, groupId, timestamp, complete);
 		messageGroup.setLastModified(updateDate.get().getTime());
 
 		int lastReleasedSequenceNumber = lastReleasedSequenceRef.get();
 		messageGroup.setLastReleasedMessageSequenceNumber(lastReleasedSequenceNumber);
 
+		if (this.isLazyLoadMessageGroups()) {
+			return new PersistentMessageGroup(this, messageGroup);
+		}
 		return messageGroup;
 	}
 
+	@Override
+	protected List<Message<?>> getMessagesForGroup(Object groupId) {
+		return jdbcTemplate.query(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY), new Object[] { getKey(groupId), region }, mapper);
+	}
+
+	@Override
+	protected Message<?> getOneMessageFromGroup(Object groupId) {
+		return this.doPollForMessage(getKey(groupId));
+	}
+
 	@Override
 	public MessageGroup removeMessageFromGroup(Object groupId, Message<?> messageToRemove) {
 		final String groupKey = getKey(groupId);
@@ -571,9 +592,40 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 	@Override
 	public Iterator<MessageGroup> iterator() {
+		List<String> groupKeys = jdbcTemplate.query(getQuery(Query.LIST_GROUP_KEYS), new Object[] { region },
+				new SingleColumnRowMapper<String>());
+		return this.messageGroupIterator(groupKeys);
+	}
+
+	/**
+	 * Selects only the groups whose CREATED_DATE (or, with 'timeoutOnIdle', UPDATED_DATE)
+	 * is at or before the threshold; each group's messages are only loaded when the
+	 * group is reached.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getExpiryCandidates(long threshold) {
+		Timestamp thresholdDate = new Timestamp(threshold);
+		final List<String> groupKeys;
+		if (this.isTimeoutOnIdle()) {
+			groupKeys = jdbcTemplate.query(getQuery(Query.LIST_GROUP_KEYS_IDLE_SINCE),
+					new Object[] { region, thresholdDate, thresholdDate }, new SingleColumnRowMapper<String>());
+		}
+		else {
+			groupKeys = jdbcTemplate.query(getQuery(Query.LIST_GROUP_KEYS_CREATED_BEFORE),
+					new Object[] { region, thresholdDate }, new SingleColumnRowMapper<String>());
+		}
+		return new Iterable<MessageGroup>() {
+
+			@Override
+			public Iterator<MessageGroup> iterator() {
+				return messageGroupIterator(groupKeys);
+			}
+		};
+	}
+
+	private Iterator<MessageGroup> messageGroupIterator(List<String> groupKeys) {
 
-		final Iterator<String> iterator = jdbcTemplate.query(getQuery(Query.LIST_GROUP_KEYS), new Object[] { region },
-				new SingleColumnRowMapper<String>()).iterator();
+		final Iterator<String> iterator = groupKeys.iterator();
 
 		return new Iterator<MessageGroup>() {
 
@@ -15,6 +15,7 @@
  */
 package org.springframework.integration.jdbc;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -32,6 +33,14 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
+ * A gateway that executes an update and/or a select query for each request message;
+ * the reply contains the (mapped) result of the select, if any, otherwise the update
+ * count (or the generated keys).
+ * <p>
+ * In {@link #setStreaming(boolean) streaming} mode, the selected rows are sent as
+ * several replies, each with a {@link List} of up to {@link #setChunkSize(int) chunkSize}
+ * rows, while the cursor is open, rather than collected into a single reply.
+ *
  * @author Dave Syer
  * @author Gunnar Hillert
  *
@@ -51,6 +60,8 @@ public class JdbcOutboundGateway extends AbstractReplyProducingMessageHandler im
 
 	private volatile Integer maxRowsPerPoll;
 
+	private volatile boolean streaming;
+
 	public JdbcOutboundGateway(DataSource dataSource, String updateQuery) {
 		this(new JdbcTemplate(dataSource), updateQuery, null);
 	}
@@ -106,12 +117,63 @@ public class JdbcOutboundGateway extends AbstractReplyProducingMessageHandler im
 		this.maxRowsPerPoll = maxRowsPerPoll;
 	}
 
+	/**
+	 * When true, the rows returned by the select query are sent as several replies,
+	 * each with a {@link List} of up to {@link #setChunkSize(int) chunkSize} rows, while
+	 * the cursor is open. The replies have the request message's id as their
+	 * 'correlationId', a 'sequenceNumber' (starting at 1) and a
+	 * {@link JdbcHeaders#LAST_CHUNK} header that is true on the last reply only. All the
+	 * replies are sent on the calling thread (and therefore within its transaction, if
+	 * any), to the output channel; since a messaging gateway only accepts a single
+	 * reply, an output channel is required when more than one chunk is streamed.
+	 * Unless {@link #setMaxRowsPerPoll(Integer) maxRowsPerPoll} is set, all rows are
+	 * streamed. Only applicable if a selectQuery was provided. Default false.
+	 *
+	 * @param streaming the streaming to set
+	 * @since 3.0
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * The maximum number of rows in each reply when {@link #setStreaming(boolean)
+	 * streaming}. Default 100.
+	 *
+	 * @param chunkSize the chunk size to set
+	 * @since 3.0
+	 * @see JdbcPollingChannelAdapter#setChunkSize(int)
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.notNull(poller, "If you want to set 'chunkSize', then you must provide a 'selectQuery'.");
+		poller.setChunkSize(chunkSize);
+	}
+
+	/**
+	 * A hint to the JDBC driver as to the number of rows to fetch at a time for the
+	 * select query.
+	 *
+	 * @param fetchSize the fetch size to set
+	 * @since 3.0
+	 * @see JdbcPollingChannelAdapter#setFetchSize(int)
+	 */
+	public void setFetchSize(int fetchSize) {
+		Assert.notNull(poller, "If you want to set 'fetchSize', then you must provide a 'selectQuery'.");
+		poller.setFetchSize(fetchSize);
+	}
+
 	@Override
 	protected void doInit() {
 		if (this.maxRowsPerPoll != null) {
 			Assert.notNull(poller, "If you want to set 'maxRowsPerPoll', then you must provide a 'selectQuery'.");
 			poller.setMaxRowsPerPoll(this.maxRowsPerPoll);
 		}
+		if (this.streaming) {
+			Assert.notNull(poller, "If you want to set 'streaming', then you must provide a 'selectQuery'.");
+			if (this.maxRowsPerPoll == null) {
+				poller.setMaxRowsPerPoll(0);
+			}
+		}
 
 		if (this.handler!= null) {
 			handler.setBeanFactory(this.getBeanFactory());
@@ -149,6 +211,9 @@ public class JdbcOutboundGateway extends AbstractReplyProducingMessageHandler im
 					}
 				}
 			}
+			if (this.streaming) {
+				return stream(requestMessage, sqlQueryParameterSource);
+			}
 			list = poller.doPoll(sqlQueryParameterSource);
 			if (list.isEmpty()) {
 				return null;
@@ -164,6 +229,29 @@ public class JdbcOutboundGateway extends AbstractReplyProducingMessageHandler im
 		return MessageBuilder.withPayload(payload).copyHeaders(requestMessage.getHeaders()).build();
 	}
 
+	/**
+	 * Send each chunk but the last as a reply while the cursor is open; the last is
+	 * returned (as the final reply).
+	 */
+	private Object stream(final Message<?> requestMessage, SqlParameterSource sqlQueryParameterSource) {
+		final List<MessageBuilder<?>> last = new ArrayList<MessageBuilder<?>>(1);
+		poller.doStream(sqlQueryParameterSource, new JdbcPollingChannelAdapter.ChunkHandler() {
+
+			private int sequenceNumber;
+
+			public void handleChunk(List<Object> chunk) {
+				if (!last.isEmpty()) {
+					sendIntermediateReply(last.remove(0).setHeader(JdbcHeaders.LAST_CHUNK, false), requestMessage);
+				}
+				last.add(MessageBuilder.withPayload(chunk)
+						.setCorrelationId(requestMessage.getHeaders().getId())
+						.setSequenceNumber(++this.sequenceNumber));
+			}
+
+		});
+		return last.isEmpty() ? null : last.get(0).setHeader(JdbcHeaders.LAST_CHUNK, true);
+	}
+
 	/**
 	 * Flag to indicate that the update query is an insert with autogenerated keys, which will be logged at debug level.
 	 * @param keysGenerated the flag value to set
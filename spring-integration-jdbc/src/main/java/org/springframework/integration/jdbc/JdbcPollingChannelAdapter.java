@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,11 @@
 
 package org.springframework.integration.jdbc;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,22 +28,47 @@ import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.integration.Message;
+import org.springframework.integration.MessageChannel;
 import org.springframework.integration.context.IntegrationObjectSupport;
 import org.springframework.integration.core.MessageSource;
+import org.springframework.integration.core.MessagingTemplate;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.ParameterDisposer;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.RowMapperResultSetExtractor;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
 
 /**
  * A polling channel adapter that creates messages from the payload returned by
  * executing a select query. Optionally an update can be executed after the
- * select in order to update processed rows.
+ * select in order to update processed rows. When the update is executed per
+ * row, the updates for all the rows of a poll are sent as a single JDBC batch.
+ * <p>
+ * To allow several nodes to poll the same table, {@link #setClaimRows(boolean)
+ * claimRows} can be set; the update then acts as a claim, and only rows whose
+ * update affected a row are emitted. The update should therefore re-check the
+ * select criteria (e.g. "update item set status=10 where id=:id and status=2"),
+ * so that a row already claimed by another node is skipped; on databases that
+ * support it, the select can additionally use "FOR UPDATE SKIP LOCKED" (with a
+ * transactional poller) to avoid contending for the same rows in the first place.
+ * <p>
+ * In {@link #setStreaming(boolean) streaming} mode, the rows are not collected into
+ * a single payload; instead, while the cursor is open, each chunk of up to
+ * {@link #setChunkSize(int) chunkSize} mapped rows is sent (after the update, if
+ * any, has been applied to it) as a separate message, so that large results can
+ * be processed in constant memory. All chunks are emitted on the polling thread,
+ * and therefore within the poller's transaction, if any; the last chunk is
+ * returned from {@link #receive()} and the preceding ones are sent directly to
+ * the {@link #setOutputChannel(MessageChannel) output channel}.
  *
  * @author Jonas Partner
  * @author Dave Syer
@@ -48,7 +76,9 @@ import org.springframework.jdbc.core.namedparam.SqlParameterSource;
  */
 public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implements MessageSource<Object> {
 
-	private final NamedParameterJdbcOperations jdbcOperations;
+	public static final int DEFAULT_CHUNK_SIZE = 100;
+
+	private final FetchSizeNamedParameterJdbcTemplate jdbcOperations;
 
 	private final String selectQuery;
 
@@ -66,6 +96,18 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 
 	private volatile int maxRowsPerPoll = 0;
 
+	private volatile boolean claimRows;
+
+	private volatile boolean batchUpdateCountsUnavailable;
+
+	private volatile boolean streaming;
+
+	private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private volatile MessageChannel outputChannel;
+
+	private final MessagingTemplate messagingTemplate = new MessagingTemplate();
+
 	/**
 	 * Constructor taking {@link DataSource} from which the DB Connection can be
 	 * obtained and the select query to execute to retrieve new rows.
@@ -74,7 +116,7 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 	 * @param selectQuery query to execute
 	 */
 	public JdbcPollingChannelAdapter(DataSource dataSource, String selectQuery) {
-		this.jdbcOperations = new NamedParameterJdbcTemplate(dataSource);
+		this.jdbcOperations = new FetchSizeNamedParameterJdbcTemplate(dataSource);
 		this.selectQuery = selectQuery;
 	}
 
@@ -86,7 +128,7 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 	 * @param selectQuery query to execute
 	 */
 	public JdbcPollingChannelAdapter(JdbcOperations jdbcOperations, String selectQuery) {
-		this.jdbcOperations = new NamedParameterJdbcTemplate(jdbcOperations);
+		this.jdbcOperations = new FetchSizeNamedParameterJdbcTemplate(jdbcOperations);
 		this.selectQuery = selectQuery;
 	}
 
@@ -127,9 +169,81 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 		this.maxRowsPerPoll = maxRows;
 	}
 
+	/**
+	 * When true, the update query is executed per row and is used to claim the
+	 * rows; rows for which the update did not affect any row (because, for example,
+	 * another node claimed them concurrently) are dropped from the payload. Requires
+	 * an update query. Default false.
+	 * <p>
+	 * Claiming relies on the update count of each statement. The claims are only sent
+	 * as a single batch within a transaction: if the driver does not report the update
+	 * counts of a batch ({@link Statement#SUCCESS_NO_INFO}), the poll fails and its
+	 * transaction rolls back the claims, and subsequent polls execute the claims one
+	 * statement at a time. Without a transaction, the claims are always executed one
+	 * statement at a time, since claims that could not be verified would otherwise
+	 * remain in place.
+	 *
+	 * @param claimRows the claim rows to set
+	 * @since 3.0
+	 */
+	public void setClaimRows(boolean claimRows) {
+		this.claimRows = claimRows;
+	}
+
+	/**
+	 * When true, the rows are emitted in chunks while the cursor is open, rather
+	 * than as a single message containing all the rows; requires an
+	 * {@link #setOutputChannel(MessageChannel) output channel}. Default false.
+	 *
+	 * @param streaming the streaming to set
+	 * @since 3.0
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * The maximum number of rows in each message when {@link #setStreaming(boolean)
+	 * streaming}. Default 100.
+	 *
+	 * @param chunkSize the chunk size to set
+	 * @since 3.0
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "'chunkSize' must be greater than zero");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * A hint to the JDBC driver as to the number of rows to fetch from the database
+	 * at a time for the select query; when streaming, it should typically be set so
+	 * the driver doesn't itself buffer the whole result (some drivers, PostgreSQL for
+	 * example, only use a cursor within a transaction). Default 0 (the driver's default).
+	 *
+	 * @param fetchSize the fetch size to set
+	 * @since 3.0
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.jdbcOperations.fetchSize = fetchSize;
+	}
+
+	/**
+	 * The channel to which the chunks (other than the last one) are sent when
+	 * {@link #setStreaming(boolean) streaming}; this is normally the same channel
+	 * as the polling endpoint's output channel.
+	 *
+	 * @param outputChannel the output channel to set
+	 * @since 3.0
+	 */
+	public void setOutputChannel(MessageChannel outputChannel) {
+		this.outputChannel = outputChannel;
+	}
+
 	@Override
 	protected void onInit() throws Exception {
 		super.onInit();
+		Assert.isTrue(!this.claimRows || this.updateSql != null, "'claimRows' requires an 'updateSql'");
+		Assert.isTrue(!this.streaming || this.outputChannel != null, "'streaming' requires an 'outputChannel'");
 		if (!this.sqlParameterSourceFactorySet && this.getBeanFactory() != null) {
 			((ExpressionEvaluatingSqlParameterSourceFactory)this.sqlParameterSourceFactory)
 				.setBeanFactory(this.getBeanFactory());
@@ -143,6 +257,9 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 	 * query returns no rows, this method will return <code>null</code>.
 	 */
 	public Message<Object> receive() {
+		if (this.streaming) {
+			return stream();
+		}
 		Object payload = poll();
 		if (payload == null) {
 			return null;
@@ -160,11 +277,48 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 		if (payload.size() < 1) {
 			payload = null;
 		}
-		if (payload != null && updateSql != null) {
-			if (this.updatePerRow) {
-				for (Object row : payload) {
-					executeUpdateQuery(row);
+		if (payload != null) {
+			payload = update(payload);
+		}
+		return payload;
+	}
+
+	/**
+	 * Stream the rows of the select query; each chunk is updated (if an update
+	 * query is provided) and all but the last are sent to the output channel.
+	 */
+	private Message<Object> stream() {
+		final List<Message<Object>> last = new ArrayList<Message<Object>>(1);
+		int rows = doStream(this.sqlQueryParameterSource, new ChunkHandler() {
+
+			public void handleChunk(List<Object> chunk) {
+				List<?> payload = update(chunk);
+				if (payload == null) {
+					return;
+				}
+				if (!last.isEmpty()) {
+					messagingTemplate.send(outputChannel, last.remove(0));
+				}
+				last.add(MessageBuilder.withPayload((Object) payload).build());
+			}
+
+		});
+		if (logger.isDebugEnabled()) {
+			logger.debug("Streamed " + rows + " row(s)");
+		}
+		return last.isEmpty() ? null : last.get(0);
+	}
+
+	private List<?> update(List<?> payload) {
+		if (this.updateSql != null) {
+			if (this.claimRows) {
+				if (this.batchUpdateCountsUnavailable || !TransactionSynchronizationManager.isActualTransactionActive()) {
+					return claimedRows(payload, executeUpdateQueryPerRow(payload));
 				}
+				return claimedRows(payload, executeBatchUpdateQuery(payload));
+			}
+			else if (this.updatePerRow) {
+				executeBatchUpdateQuery(payload);
 			}
 			else {
 				executeUpdateQuery(payload);
@@ -178,6 +332,43 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 		this.jdbcOperations.update(this.updateSql, updateParamaterSource);
 	}
 
+	private int[] executeBatchUpdateQuery(List<?> rows) {
+		SqlParameterSource[] updateParameterSources = new SqlParameterSource[rows.size()];
+		for (int i = 0; i < updateParameterSources.length; i++) {
+			updateParameterSources[i] = this.sqlParameterSourceFactory.createParameterSource(rows.get(i));
+		}
+		return this.jdbcOperations.batchUpdate(this.updateSql, updateParameterSources);
+	}
+
+	private int[] executeUpdateQueryPerRow(List<?> rows) {
+		int[] updated = new int[rows.size()];
+		for (int i = 0; i < updated.length; i++) {
+			SqlParameterSource updateParamaterSource = this.sqlParameterSourceFactory.createParameterSource(rows.get(i));
+			updated[i] = this.jdbcOperations.update(this.updateSql, updateParamaterSource);
+		}
+		return updated;
+	}
+
+	private List<?> claimedRows(List<?> rows, int[] updated) {
+		List<Object> claimed = new ArrayList<Object>(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			if (updated[i] == Statement.SUCCESS_NO_INFO) {
+				// the driver does not report the count for batched statements
+				this.batchUpdateCountsUnavailable = true;
+				throw new IllegalStateException("The JDBC driver did not report the update count of a batched "
+						+ "claim; the claims of this poll are rolled back. Subsequent polls execute "
+						+ "the claims one statement at a time.");
+			}
+			if (updated[i] > 0) {
+				claimed.add(rows.get(i));
+			}
+		}
+		if (logger.isDebugEnabled() && claimed.size() < rows.size()) {
+			logger.debug((rows.size() - claimed.size()) + " row(s) were claimed by another consumer");
+		}
+		return claimed.isEmpty() ? null : claimed;
+	}
+
 	protected List<?> doPoll(SqlParameterSource sqlQueryParameterSource) {
 
 		List<?> payload = null;
@@ -203,9 +394,10 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 			resultSetExtractor = temp;
 		}
 
-		if (sqlQueryParameterSource != null) {
+		if (sqlQueryParameterSource != null || this.jdbcOperations.fetchSize != 0) {
 			payload = this.jdbcOperations.query(this.selectQuery,
-					sqlQueryParameterSource, resultSetExtractor);
+					sqlQueryParameterSource == null ? new MapSqlParameterSource() : sqlQueryParameterSource,
+					resultSetExtractor);
 		}
 		else {
 			payload = this.jdbcOperations.getJdbcOperations().query(this.selectQuery, resultSetExtractor);
@@ -213,9 +405,112 @@ public class JdbcPollingChannelAdapter extends IntegrationObjectSupport implemen
 
 		return payload;
 	}
+
+	/**
+	 * Execute the select query, passing the mapped rows to the handler in chunks of
+	 * up to {@link #setChunkSize(int) chunkSize} rows while the cursor is open. At
+	 * most {@link #setMaxRowsPerPoll(int) maxRowsPerPoll} rows are read, if greater
+	 * than zero.
+	 *
+	 * @param sqlQueryParameterSource the parameters for the select query; may be null.
+	 * @param chunkHandler the handler.
+	 * @return the number of rows read.
+	 * @since 3.0
+	 */
+	protected int doStream(SqlParameterSource sqlQueryParameterSource, final ChunkHandler chunkHandler) {
+		final RowMapper<?> rowMapper = this.rowMapper == null ? new ColumnMapRowMapper() : this.rowMapper;
+		final int chunkSize = this.chunkSize;
+		final int maxRows = this.maxRowsPerPoll;
+		return this.jdbcOperations.query(this.selectQuery,
+				sqlQueryParameterSource == null ? new MapSqlParameterSource() : sqlQueryParameterSource,
+				new ResultSetExtractor<Integer>() {
+
+					public Integer extractData(ResultSet rs) throws SQLException, DataAccessException {
+						List<Object> chunk = new ArrayList<Object>(chunkSize);
+						int rowNum = 0;
+						while ((maxRows <= 0 || rowNum < maxRows) && rs.next()) {
+							chunk.add(rowMapper.mapRow(rs, rowNum++));
+							if (chunk.size() == chunkSize) {
+								chunkHandler.handleChunk(chunk);
+								chunk = new ArrayList<Object>(chunkSize);
+							}
+						}
+						if (!chunk.isEmpty()) {
+							chunkHandler.handleChunk(chunk);
+						}
+						return rowNum;
+					}
+
+				});
+	}
+
 	@Override
 	public String getComponentType(){
 		return "jdbc:inbound-channel-adapter";
 	}
 
+	/**
+	 * Receives the chunks of mapped rows while a result is being streamed.
+	 * @since 3.0
+	 */
+	protected interface ChunkHandler {
+
+		void handleChunk(List<Object> chunk);
+
+	}
+
+	/**
+	 * Applies the fetch size (if any) to the statements it creates.
+	 */
+	private static class FetchSizeNamedParameterJdbcTemplate extends NamedParameterJdbcTemplate {
+
+		private volatile int fetchSize;
+
+		public FetchSizeNamedParameterJdbcTemplate(DataSource dataSource) {
+			super(dataSource);
+		}
+
+		public FetchSizeNamedParameterJdbcTemplate(JdbcOperations jdbcOperations) {
+			super(jdbcOperations);
+		}
+
+		@Override
+		protected PreparedStatementCreator getPreparedStatementCreator(String sql, SqlParameterSource paramSource) {
+			PreparedStatementCreator creator = super.getPreparedStatementCreator(sql, paramSource);
+			int fetchSize = this.fetchSize;
+			return fetchSize == 0 ? creator : new FetchSizePreparedStatementCreator(creator, fetchSize);
+		}
+
+	}
+
+	private static class FetchSizePreparedStatementCreator
+			implements PreparedStatementCreator, SqlProvider, ParameterDisposer {
+
+		private final PreparedStatementCreator delegate;
+
+		private final int fetchSize;
+
+		public FetchSizePreparedStatementCreator(PreparedStatementCreator delegate, int fetchSize) {
+			this.delegate = delegate;
+			this.fetchSize = fetchSize;
+		}
+
+		public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+			PreparedStatement statement = this.delegate.createPreparedStatement(con);
+			statement.setFetchSize(this.fetchSize);
+			return statement;
+		}
+
+		public String getSql() {
+			return this.delegate instanceof SqlProvider ? ((SqlProvider) this.delegate).getSql() : null;
+		}
+
+		public void cleanupParameters() {
+			if (this.delegate instanceof ParameterDisposer) {
+				((ParameterDisposer) this.delegate).cleanupParameters();
+			}
+		}
+
+	}
+
 }
@@ -69,6 +69,9 @@ public class JdbcOutboundGatewayParser extends AbstractConsumerEndpointParser {
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "keys-generated");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "reply-timeout", "sendTimeout");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "requires-reply");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "streaming");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "chunk-size");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "fetch-size");
 
 		String replyChannel = element.getAttribute("reply-channel");
 		if (StringUtils.hasText(replyChannel)) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,9 @@ package org.springframework.integration.jdbc.config;
 
 import org.springframework.beans.BeanMetadataElement;
 import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.integration.config.xml.AbstractPollingInboundChannelAdapterParser;
@@ -42,6 +45,17 @@ public class JdbcPollingChannelAdapterParser extends AbstractPollingInboundChann
 		return true;
 	}
 
+	@Override
+	protected AbstractBeanDefinition doParse(Element element, ParserContext parserContext, String channelName) {
+		AbstractBeanDefinition adapter = super.doParse(element, parserContext, channelName);
+		if (StringUtils.hasText(element.getAttribute("streaming"))) {
+			// when streaming, the source itself sends all but the last chunk
+			BeanDefinition source = (BeanDefinition) adapter.getPropertyValues().getPropertyValue("source").getValue();
+			source.getPropertyValues().addPropertyValue("outputChannel", new RuntimeBeanReference(channelName));
+		}
+		return adapter;
+	}
+
 	@Override
 	protected BeanMetadataElement parseSource(Element element, ParserContext parserContext) {
 		Object source = parserContext.extractSource(element);
@@ -76,6 +90,10 @@ public class JdbcPollingChannelAdapterParser extends AbstractPollingInboundChann
 			builder.addPropertyValue("updateSql", update);
 		}
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "update-per-row");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "claim-rows");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "streaming");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "chunk-size");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "fetch-size");
 		return builder.getBeanDefinition();
 	}
 
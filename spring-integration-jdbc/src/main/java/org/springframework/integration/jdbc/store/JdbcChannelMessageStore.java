@@ -16,13 +16,17 @@ package org.springframework.integration.jdbc.store;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -41,6 +45,7 @@ import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessageHeaders;
 import org.springframework.integration.jdbc.JdbcMessageStore;
+import org.springframework.integration.jdbc.store.channel.AbstractChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.DerbyChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.MessageRowMapper;
@@ -51,6 +56,7 @@ import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
+import org.springframework.integration.store.PriorityCapableChannelMessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.transaction.TransactionSynchronizationFactory;
@@ -65,6 +71,8 @@ import org.springframework.jdbc.support.lob.LobHandler;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedMetric;
 import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -96,10 +104,23 @@ import org.springframework.util.StringUtils;
  * @since 2.2
  */
 @ManagedResource
-public class JdbcChannelMessageStore extends AbstractMessageGroupStore implements InitializingBean {
+public class JdbcChannelMessageStore extends AbstractMessageGroupStore
+		implements PriorityCapableChannelMessageStore, InitializingBean {
 
 	private static final Log logger = LogFactory.getLog(JdbcChannelMessageStore.class);
 
+	/**
+	 * The number of recently claimed message ids that a claim based poll, which
+	 * selected a message before its claim was committed, can recognize.
+	 */
+	private static final int RECENT_CLAIMS_CAPACITY = 1000;
+
+	/**
+	 * The maximum number of selects in one poll when the selected messages are
+	 * being claimed by other consumers of this store.
+	 */
+	private static final int MAX_POLL_ATTEMPTS = 10;
+
 	private final Set<String> idCache = new HashSet<String>();
 
 	private final ReadWriteLock idCacheLock = new ReentrantReadWriteLock();
@@ -153,6 +174,26 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 
 	private boolean usingIdCache = false;
 
+	private volatile boolean claimBasedPolling;
+
+	private final AtomicLong lostClaimCount = new AtomicLong();
+
+	private final Set<String> claimsInProgress = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	private final Set<String> recentClaims = Collections.synchronizedSet(Collections.newSetFromMap(
+			new LinkedHashMap<String, Boolean>() {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+					return this.size() > RECENT_CLAIMS_CAPACITY;
+				}
+
+			}));
+
+	private volatile boolean priorityEnabled;
+
 	/**
 	 * Convenient constructor for configuration use.
 	 */
@@ -359,6 +400,55 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 		this.usingIdCache = usingIdCache;
 	}
 
+	/**
+	 * <p>Set to <code>true</code> when several consumers, possibly on several nodes,
+	 * poll the same channel concurrently. Deleting the polled row claims the message;
+	 * if the delete affects no row (because another consumer claimed the message first),
+	 * the next message is polled rather than returning no message.</p>
+	 *
+	 * <p>In addition, if the query provider is an
+	 * {@link AbstractChannelMessageStoreQueryProvider} that provides a
+	 * {@link AbstractChannelMessageStoreQueryProvider#getPollFromGroupSkipLockedQuery() skip
+	 * locked} query (e.g. <code>FOR UPDATE SKIP LOCKED</code>), that query is used, so
+	 * that, when polling transactionally, consumers skip the rows that are locked by
+	 * other transactions instead of waiting for them; there is then no need for the
+	 * {@link #setUsingIdCache(boolean) id cache}.</p>
+	 *
+	 * <p>Otherwise, the consumers of this store instance exclude the messages that
+	 * they are currently claiming from their polls, so that they don't all select (and
+	 * contend for) the oldest message; consumers on different nodes can still select
+	 * the same message, in which case all but one lose the claim.</p>
+	 *
+	 * @param claimBasedPolling When <code>true</code> claim based polling is used.
+	 * @since 3.0
+	 */
+	public void setClaimBasedPolling(boolean claimBasedPolling) {
+		this.claimBasedPolling = claimBasedPolling;
+	}
+
+	/**
+	 * <p>Set to <code>true</code> to poll the messages in priority order (highest
+	 * {@link MessageHeaders#PRIORITY} first, then oldest first) rather than in the
+	 * order they were added, so that the store can back a
+	 * {@link org.springframework.integration.channel.PriorityChannel}. The priority is
+	 * then stored (0 when the message has no priority header), using the
+	 * {@link AbstractChannelMessageStoreQueryProvider#getCreatePriorityMessageQuery() priority
+	 * insert} query, and the poll is served by the <code>MESSAGE_PRIORITY</code> index
+	 * of the table. Requires a query provider that extends
+	 * {@link AbstractChannelMessageStoreQueryProvider} and provides the priority poll
+	 * queries, as all the providers of this framework do.</p>
+	 *
+	 * @param priorityEnabled When <code>true</code> messages are polled by priority.
+	 * @since 3.0
+	 */
+	public void setPriorityEnabled(boolean priorityEnabled) {
+		this.priorityEnabled = priorityEnabled;
+	}
+
+	public boolean isPriorityEnabled() {
+		return this.priorityEnabled;
+	}
+
 	/**
 	 * Check mandatory properties ({@link DataSource} and
 	 * {@link #setChannelMessageStoreQueryProvider(ChannelMessageStoreQueryProvider)}). If no {@link MessageRowMapper} was
@@ -385,6 +475,22 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 			logger.warn("The jdbcTemplate's fetchsize is not 1 but %s. This may cause FIFO issues with Oracle databases.");
 		}
 
+		if (this.priorityEnabled) {
+			Assert.state(this.channelMessageStoreQueryProvider instanceof AbstractChannelMessageStoreQueryProvider,
+					"'priorityEnabled' requires a channelMessageStoreQueryProvider that extends "
+							+ "AbstractChannelMessageStoreQueryProvider");
+			AbstractChannelMessageStoreQueryProvider queryProvider = this.getPriorityQueryProvider();
+			Assert.state(queryProvider.getPriorityPollFromGroupQuery() != null
+					&& queryProvider.getPriorityPollFromGroupExcludeIdsQuery() != null
+					&& queryProvider.getCreatePriorityMessageQuery() != null,
+					"'priorityEnabled' requires a channelMessageStoreQueryProvider that provides the priority queries");
+		}
+
+		if (this.claimBasedPolling && this.getPollFromGroupSkipLockedQuery() == null && logger.isInfoEnabled()) {
+			logger.info("The channelMessageStoreQueryProvider has no skip locked query; polling consumers may wait "
+					+ "for rows locked by other transactions.");
+		}
+
 	}
 
 	/**
@@ -403,6 +509,7 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 		final String groupKey = getKey(groupId);
 
 		final long createdDate = System.currentTimeMillis();
+		final Integer priority = message.getHeaders().getPriority();
 		final Message<?> result = MessageBuilder.fromMessage(message).setHeader(SAVED_KEY, Boolean.TRUE)
 				.setHeader(CREATED_DATE_KEY, new Long(createdDate)).build();
 
@@ -413,16 +520,25 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 		final String messageId = getKey(result.getHeaders().getId());
 		final byte[] messageBytes = serializer.convert(result);
 
-		jdbcTemplate.update(getQuery(channelMessageStoreQueryProvider.getCreateMessageQuery()), new PreparedStatementSetter() {
+		final boolean withPriority = this.priorityEnabled;
+		final String query = getQuery(withPriority
+				? this.getPriorityQueryProvider().getCreatePriorityMessageQuery()
+				: this.channelMessageStoreQueryProvider.getCreateMessageQuery());
+
+		jdbcTemplate.update(query, new PreparedStatementSetter() {
 			public void setValues(PreparedStatement ps) throws SQLException {
 				if (logger.isDebugEnabled()){
 					logger.debug("Inserting message with id key=" + messageId);
 				}
-				ps.setString(1, messageId);
-				ps.setString(2, groupKey);
-				ps.setString(3, region);
-				ps.setLong(4, createdDate);
-				lobHandler.getLobCreator().setBlobAsBytes(ps, 5, messageBytes);
+				int index = 1;
+				ps.setString(index++, messageId);
+				ps.setString(index++, groupKey);
+				ps.setString(index++, region);
+				ps.setLong(index++, createdDate);
+				if (withPriority) {
+					ps.setInt(index++, priority != null ? priority : 0);
+				}
+				lobHandler.getLobCreator().setBlobAsBytes(ps, index, messageBytes);
 			}
 		});
 
@@ -440,7 +556,8 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 	/**
 	 * This method executes a call to the DB to get the oldest Message in the
 	 * MessageGroup which in the context of the {@link JdbcChannelMessageStore}
-	 * means the channel identifier.
+	 * means the channel identifier (or, if {@link #setPriorityEnabled(boolean)
+	 * priority is enabled}, the oldest Message with the highest priority).
 	 *
 	 * @param groupIdKey String representation of message group (Channel) ID
 	 * @return a message; could be null if query produced no Messages
@@ -453,32 +570,65 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 		parameters.addValue("region", region);
 		parameters.addValue("group_key", groupIdKey);
 
-		final String query;
+		final String skipLockedQuery = this.claimBasedPolling ? this.getPollFromGroupSkipLockedQuery() : null;
+		final boolean trackClaims = this.claimBasedPolling && skipLockedQuery == null;
 
-		final List<Message<?>> messages;
+		for (int attempt = 0; attempt < MAX_POLL_ATTEMPTS; attempt++) {
 
-		this.idCacheReadLock.lock();
-		try {
-			if (this.usingIdCache && !this.idCache.isEmpty()) {
-				query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
-				parameters.addValue("message_ids", idCache);
-			} else {
-				query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
-			}
-			messages = namedParameterJdbcTemplate.query(query, parameters, messageRowMapper);
-		}
-		finally {
-			this.idCacheReadLock.unlock();
-		}
+			final String query;
 
+			final List<Message<?>> messages;
+
+			this.idCacheReadLock.lock();
+			try {
+				if (skipLockedQuery != null) {
+					query = getQuery(skipLockedQuery);
+				}
+				else if ((this.usingIdCache && !this.idCache.isEmpty()) || (trackClaims && !this.claimsInProgress.isEmpty())) {
+					query = getQuery(this.priorityEnabled
+							? this.getPriorityQueryProvider().getPriorityPollFromGroupExcludeIdsQuery()
+							: this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
+					Set<String> excludedIds = new HashSet<String>();
+					if (this.usingIdCache) {
+						excludedIds.addAll(this.idCache);
+					}
+					if (trackClaims) {
+						excludedIds.addAll(this.claimsInProgress);
+					}
+					parameters.addValue("message_ids", excludedIds);
+				} else {
+					query = getQuery(this.priorityEnabled
+							? this.getPriorityQueryProvider().getPriorityPollFromGroupQuery()
+							: this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
+				}
+				messages = namedParameterJdbcTemplate.query(query, parameters, messageRowMapper);
+			}
+			finally {
+				this.idCacheReadLock.unlock();
+			}
 
-		Assert.isTrue(messages.size() == 0 || messages.size() == 1);
-		if (messages.size() > 0){
+			Assert.isTrue(messages.size() == 0 || messages.size() == 1);
+			if (messages.size() == 0) {
+				return null;
+			}
 
 			final Message<?>message = messages.get(0);
 			final String messageId = message.getHeaders().getId().toString();
 
-			if (this.usingIdCache) {
+			if (trackClaims) {
+				if (!this.claimsInProgress.add(messageId)) {
+					// selected concurrently by another consumer of this store; select another message
+					continue;
+				}
+				if (this.recentClaims.contains(messageId)) {
+					// the select started before another consumer committed its claim
+					this.claimsInProgress.remove(messageId);
+					continue;
+				}
+			}
+
+			// rows that are locked by a skip locked poll are not selected by others anyway
+			if (this.usingIdCache && skipLockedQuery == null) {
 				this.idCacheWriteLock.lock();
 				try {
 					boolean added = this.idCache.add(messageId);
@@ -494,9 +644,33 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 
 			return message;
 		}
+		// contended by the other consumers of this store; let the next poll try again
 		return null;
 	}
 
+	/**
+	 * The query provider when priority is enabled, which is checked by
+	 * {@link #afterPropertiesSet()}.
+	 */
+	private AbstractChannelMessageStoreQueryProvider getPriorityQueryProvider() {
+		return (AbstractChannelMessageStoreQueryProvider) this.channelMessageStoreQueryProvider;
+	}
+
+	/**
+	 * Return the skip locked query of the query provider, if it is an
+	 * {@link AbstractChannelMessageStoreQueryProvider} that provides one.
+	 */
+	private String getPollFromGroupSkipLockedQuery() {
+		if (!(this.channelMessageStoreQueryProvider instanceof AbstractChannelMessageStoreQueryProvider)) {
+			return null;
+		}
+		AbstractChannelMessageStoreQueryProvider queryProvider =
+				(AbstractChannelMessageStoreQueryProvider) this.channelMessageStoreQueryProvider;
+		return this.priorityEnabled
+				? queryProvider.getPriorityPollFromGroupSkipLockedQuery()
+				: queryProvider.getPollFromGroupSkipLockedQuery();
+	}
+
 	/**
 	 * Helper method that converts the channel id to a UUID using
 	 * {@link UUIDConverter#getUUID(Object)}.
@@ -588,17 +762,53 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 	public Message<?> pollMessageFromGroup(Object groupId) {
 
 		final String key = getKey(groupId);
-		final Message<?> polledMessage = this.doPollForMessage(key);
+		Message<?> polledMessage = this.doPollForMessage(key);
 
-		if (polledMessage != null){
-			if (!this.doRemoveMessageFromGroup(groupId, polledMessage)) {
+		while (polledMessage != null && !this.claimMessage(groupId, polledMessage)) {
+			if (!this.claimBasedPolling) {
 				return null;
 			}
+			// claimed by another consumer; each lost claim means that a message was consumed
+			this.lostClaimCount.incrementAndGet();
+			polledMessage = this.doPollForMessage(key);
 		}
 
 		return polledMessage;
 	}
 
+	private boolean claimMessage(Object groupId, Message<?> polledMessage) {
+		final String messageId = polledMessage.getHeaders().getId().toString();
+		boolean claimed = false;
+		try {
+			claimed = this.doRemoveMessageFromGroup(groupId, polledMessage);
+			return claimed;
+		}
+		finally {
+			if (claimed && TransactionSynchronizationManager.isSynchronizationActive()) {
+				// the row remains visible to other consumers until the delete is committed
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+					@Override
+					public void afterCompletion(int status) {
+						releaseClaim(messageId, status == STATUS_COMMITTED);
+					}
+
+				});
+			}
+			else {
+				this.releaseClaim(messageId, claimed);
+			}
+		}
+	}
+
+	private void releaseClaim(String messageId, boolean committed) {
+		if (committed) {
+			// must be added before the claim is released, see doPollForMessage()
+			this.recentClaims.add(messageId);
+		}
+		this.claimsInProgress.remove(messageId);
+	}
+
 	/**
 	 * Remove a single message from the database.
 	 *
@@ -623,6 +833,11 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 		if (result) {
 			logger.debug(String.format("Message with id '%s' was deleted.", id));
 		}
+		else if (this.claimBasedPolling) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format("Message with id '%s' was claimed by another consumer.", id));
+			}
+		}
 		else {
 			logger.warn(String.format("Message with id '%s' was not deleted.", id));
 		}
@@ -664,6 +879,19 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore implement
 		return this.idCache.size();
 	}
 
+	/**
+	 * Returns the number of times a polled message could not be claimed because
+	 * another consumer claimed it first; only incremented when using
+	 * {@link #setClaimBasedPolling(boolean) claim based polling}.
+	 *
+	 * @return The number of lost claims
+	 * @since 3.0
+	 */
+	@ManagedMetric
+	public long getLostClaimCount() {
+		return this.lostClaimCount.get();
+	}
+
 	/**
 	 * Will remove all messages from the message channel.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -26,6 +26,58 @@ public abstract class AbstractChannelMessageStoreQueryProvider implements Channe
 	public abstract String getPollFromGroupExcludeIdsQuery();
 	public abstract String getPollFromGroupQuery();
 
+	/**
+	 * Get the query used to retrieve the oldest message for a channel that is not
+	 * locked by another transaction (skipping locked rows, rather than waiting for
+	 * them); used when the JdbcChannelMessageStore is configured for claim based
+	 * polling. Return null by default, meaning that the database does not support
+	 * skipping locked rows.
+	 *
+	 * @return Sql Query or null if the database provides no such construct.
+	 * @since 3.0
+	 */
+	public String getPollFromGroupSkipLockedQuery() {
+		return null;
+	}
+
+	/**
+	 * Get the query used to retrieve the message for a channel with the highest
+	 * priority (the oldest of those with that priority), excluding messages that
+	 * match the provided message ids. Return null by default, meaning that the
+	 * provider does not support priority.
+	 *
+	 * @return Sql Query or null if priority is not supported.
+	 * @since 3.0
+	 */
+	public String getPriorityPollFromGroupExcludeIdsQuery() {
+		return null;
+	}
+
+	/**
+	 * Get the query used to retrieve the message for a channel with the highest
+	 * priority (the oldest of those with that priority). Return null by default,
+	 * meaning that the provider does not support priority.
+	 *
+	 * @return Sql Query or null if priority is not supported.
+	 * @since 3.0
+	 */
+	public String getPriorityPollFromGroupQuery() {
+		return null;
+	}
+
+	/**
+	 * Get the query used to retrieve the message for a channel with the highest
+	 * priority (the oldest of those with that priority) that is not locked by
+	 * another transaction; see {@link #getPollFromGroupSkipLockedQuery()}. Return
+	 * null by default.
+	 *
+	 * @return Sql Query or null if the database provides no such construct.
+	 * @since 3.0
+	 */
+	public String getPriorityPollFromGroupSkipLockedQuery() {
+		return null;
+	}
+
 	public String getMessageQuery() {
 		return "SELECT MESSAGE_ID, CREATED_DATE, MESSAGE_BYTES from %PREFIX%CHANNEL_MESSAGE where MESSAGE_ID=? and GROUP_KEY=? and REGION=?";
 	}
@@ -43,6 +95,18 @@ public abstract class AbstractChannelMessageStoreQueryProvider implements Channe
 				+ " values (?, ?, ?, ?, ?)";
 	}
 
+	/**
+	 * Query to add a single message, including its priority, to the database;
+	 * used when the store is priority enabled.
+	 *
+	 * @return Sql Query
+	 * @since 3.0
+	 */
+	public String getCreatePriorityMessageQuery() {
+		return "INSERT into %PREFIX%CHANNEL_MESSAGE(MESSAGE_ID, GROUP_KEY, REGION, CREATED_DATE, MESSAGE_PRIORITY, MESSAGE_BYTES)"
+				+ " values (?, ?, ?, ?, ?, ?)";
+	}
+
 	public String getDeleteMessageGroupQuery() {
 		return "DELETE from %PREFIX%CHANNEL_MESSAGE where GROUP_KEY=? and REGION=?";
 	}
@@ -2,6 +2,7 @@ CREATE TABLE INT_CHANNEL_MESSAGE (
 	MESSAGE_ID character(36) NOT NULL,
 	GROUP_KEY character(36) NOT NULL,
 	CREATED_DATE BIGINT NOT NULL,
+	MESSAGE_PRIORITY integer DEFAULT 0 NOT NULL,
 	MESSAGE_BYTES bytea,
 	REGION character varying(100) NOT NULL,
 	constraint INT_CHANNEL_MESSAGE_PK primary key (GROUP_KEY, MESSAGE_ID, REGION)
@@ -9,4 +10,8 @@ CREATE TABLE INT_CHANNEL_MESSAGE (
 
 CREATE INDEX MSG_INDEX_DATE_IDX
 	ON INT_CHANNEL_MESSAGE
-	USING btree (created_date);
\ No newline at end of file
+	USING btree (created_date);
+
+CREATE INDEX MSG_INDEX_PRIORITY_IDX
+	ON INT_CHANNEL_MESSAGE
+	USING btree (group_key, region, message_priority DESC, created_date);
\ No newline at end of file
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.integration.jdbc;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import org.junit.After;
@@ -85,6 +86,19 @@ public class JdbcMessageHandlerIntegrationTests {
 		assertEquals("Wrong name", "foo", map.get("NAME"));
 	}
 
+	@Test
+	public void testBatchInsert() {
+		JdbcMessageHandler handler = new JdbcMessageHandler(jdbcTemplate,
+				"insert into foos (id, status, name) values (:headers[business.key], 0, :payload)");
+		handler.setBatchUpdate(true);
+		Message<?> message = MessageBuilder.withPayload(Arrays.asList("foo", "bar", "baz"))
+				.setHeader("business.key", "FOO").build();
+		handler.handleMessage(message);
+		assertEquals(3, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM FOOS WHERE ID=?", "FOO"));
+		Map<String, Object> map = jdbcTemplate.queryForMap("SELECT * FROM FOOS WHERE NAME=?", "bar");
+		assertEquals("Wrong id", "FOO", map.get("ID"));
+	}
+
 	@Test
 	public void testDottedHeaderDynamicInsert() {
 		JdbcMessageHandler handler = new JdbcMessageHandler(jdbcTemplate, "insert into foos (id, status, name) values (:headers[business.id], 0, :payload)");
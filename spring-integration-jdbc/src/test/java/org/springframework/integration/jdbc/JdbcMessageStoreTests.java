@@ -17,6 +17,7 @@
 package org.springframework.integration.jdbc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
@@ -30,6 +31,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -51,6 +53,8 @@ import org.springframework.integration.message.GenericMessage;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageGroupStore.MessageGroupCallback;
+import org.springframework.integration.store.PersistentMessageGroup;
+import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.util.UUIDConverter;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -232,6 +236,29 @@ public class JdbcMessageStoreTests {
 		assertTrue("Timestamp too early: " + group.getTimestamp() + "<" + now, group.getTimestamp() >= now);
 	}
 
+	@Test
+	@Transactional
+	public void testMessageGroupIsLazilyLoaded() throws Exception {
+		String groupId = "X";
+		messageStore.addMessageToGroup(groupId, MessageBuilder.withPayload("foo").setCorrelationId(groupId)
+				.setSequenceNumber(1).setSequenceSize(2).build());
+		messageStore.addMessageToGroup(groupId, MessageBuilder.withPayload("bar").setCorrelationId(groupId)
+				.setSequenceNumber(2).setSequenceSize(2).build());
+		MessageGroup group = messageStore.getMessageGroup(groupId);
+		assertTrue(group instanceof PersistentMessageGroup);
+		assertEquals(2, group.size());
+		assertEquals(2, group.getSequenceSize());
+		assertNotNull(group.getOne());
+		assertFalse(((PersistentMessageGroup) group).isLoaded());
+		assertEquals(2, group.getMessages().size());
+		assertTrue(((PersistentMessageGroup) group).isLoaded());
+
+		messageStore.setLazyLoadMessageGroups(false);
+		group = messageStore.getMessageGroup(groupId);
+		assertTrue(group instanceof SimpleMessageGroup);
+		assertEquals(2, group.getMessages().size());
+	}
+
 	@Test
 	@Transactional
 	public void testAddAndRemoveMessageFromMessageGroup() throws Exception {
@@ -366,6 +393,24 @@ public class JdbcMessageStoreTests {
 		assertEquals(0, group.size());
 	}
 
+	@Test
+	@Transactional
+	public void testExpiryCandidatesAreSelectedByDate() throws Exception {
+		messageStore.addMessageToGroup("X", MessageBuilder.withPayload("foo").build());
+		Thread.sleep(10);
+		long threshold = System.currentTimeMillis();
+		Thread.sleep(10);
+		messageStore.addMessageToGroup("Y", MessageBuilder.withPayload("bar").build());
+		Iterator<MessageGroup> candidates = messageStore.getExpiryCandidates(threshold).iterator();
+		assertTrue(candidates.hasNext());
+		assertEquals(1, candidates.next().size());
+		assertFalse(candidates.hasNext());
+		messageStore.setTimeoutOnIdle(true);
+		messageStore.addMessageToGroup("X", MessageBuilder.withPayload("baz").build());
+		assertFalse(messageStore.getExpiryCandidates(threshold).iterator().hasNext());
+		assertTrue(messageStore.getExpiryCandidates(System.currentTimeMillis()).iterator().hasNext());
+	}
+
 	@Test
 	@Transactional
 	public void testMessagePollingFromTheGroup() throws Exception {
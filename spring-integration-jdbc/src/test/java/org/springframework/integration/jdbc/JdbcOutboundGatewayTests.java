@@ -13,14 +13,28 @@
 package org.springframework.integration.jdbc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.List;
+import java.util.Map;
+
 import javax.sql.DataSource;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import org.springframework.integration.Message;
+import org.springframework.integration.MessageHandlingException;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.core.MessagingTemplate;
+import org.springframework.integration.message.GenericMessage;
+import org.springframework.integration.support.MessageBuilder;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 
 /**
@@ -52,6 +66,76 @@ public class JdbcOutboundGatewayTests {
 
 	}
 
+	@Test
+	public void testStreamingInChunks() {
+
+		EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder().build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table items(id int, status int)");
+		for (int i = 1; i <= 5; i++) {
+			jdbcTemplate.update("insert into items values(?, ?)", i, i < 5 ? 2 : 3);
+		}
+
+		JdbcOutboundGateway jdbcOutboundGateway = new JdbcOutboundGateway(dataSource, null,
+				"select * from items where status >= :payload order by id");
+		jdbcOutboundGateway.setStreaming(true);
+		jdbcOutboundGateway.setChunkSize(2);
+		QueueChannel replies = new QueueChannel();
+		jdbcOutboundGateway.setOutputChannel(replies);
+		jdbcOutboundGateway.afterPropertiesSet();
+
+		Message<?> request = MessageBuilder.withPayload(2).setHeader("foo", "bar").build();
+		jdbcOutboundGateway.handleMessage(request);
+
+		for (int i = 1; i <= 2; i++) {
+			Message<?> reply = replies.receive(0);
+			assertEquals("bar", reply.getHeaders().get("foo"));
+			assertEquals(2, ((List<?>) reply.getPayload()).size());
+			assertEquals(request.getHeaders().getId(), reply.getHeaders().getCorrelationId());
+			assertEquals(Integer.valueOf(i), reply.getHeaders().getSequenceNumber());
+			assertEquals(Boolean.FALSE, reply.getHeaders().get(JdbcHeaders.LAST_CHUNK));
+		}
+		Message<?> reply = replies.receive(0);
+		// a chunk of one row is still a List
+		assertEquals(1, ((List<?>) reply.getPayload()).size());
+		assertEquals(5, ((Map<?, ?>) ((List<?>) reply.getPayload()).get(0)).get("ID"));
+		assertEquals("bar", reply.getHeaders().get("foo"));
+		assertEquals(Integer.valueOf(3), reply.getHeaders().getSequenceNumber());
+		assertEquals(Boolean.TRUE, reply.getHeaders().get(JdbcHeaders.LAST_CHUNK));
+		assertNull(replies.receive(0));
+
+		dataSource.shutdown();
+	}
+
+	@Test
+	public void testStreamingToGatewayRequiresOutputChannel() {
+
+		EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder().build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table items(id int, status int)");
+		for (int i = 1; i <= 3; i++) {
+			jdbcTemplate.update("insert into items values(?, ?)", i, 2);
+		}
+
+		JdbcOutboundGateway jdbcOutboundGateway = new JdbcOutboundGateway(dataSource, null,
+				"select * from items where status = :payload order by id");
+		jdbcOutboundGateway.setStreaming(true);
+		jdbcOutboundGateway.setChunkSize(2);
+		jdbcOutboundGateway.afterPropertiesSet();
+		DirectChannel requestChannel = new DirectChannel();
+		requestChannel.subscribe(jdbcOutboundGateway);
+
+		try {
+			new MessagingTemplate().sendAndReceive(requestChannel, new GenericMessage<Integer>(2));
+			fail("Expected MessageHandlingException");
+		}
+		catch (MessageHandlingException e) {
+			assertTrue(e.getMessage().contains("single reply"));
+		}
+
+		dataSource.shutdown();
+	}
+
 	@Test
 	public void testConstructorWithNulljdbcOperations() {
 
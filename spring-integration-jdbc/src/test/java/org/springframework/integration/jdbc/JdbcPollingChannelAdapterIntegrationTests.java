@@ -19,13 +19,17 @@ package org.springframework.integration.jdbc;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -34,13 +38,20 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.integration.Message;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author Jonas Partner
@@ -289,6 +300,154 @@ public class JdbcPollingChannelAdapterIntegrationTests {
 
 	}
 
+	@Test
+	public void testSimplePollForListWithRowMapperAndClaimRows() {
+		JdbcPollingChannelAdapter adapter = new JdbcPollingChannelAdapter(
+				this.embeddedDatabase, "select * from item");
+		adapter.setUpdateSql("update item set status = 10 where id = :id and status = 2");
+		adapter.setClaimRows(true);
+		adapter.setRowMapper(new ItemRowMapper());
+		adapter.setBeanFactory(mock(BeanFactory.class));
+		adapter.afterPropertiesSet();
+
+		this.jdbcTemplate.update("insert into item values(1,2)");
+		// already claimed by another consumer
+		this.jdbcTemplate.update("insert into item values(2,10)");
+		this.jdbcTemplate.update("insert into item values(3,2)");
+
+		Message<Object> message = adapter.receive();
+		List<?> rows = (List<?>) message.getPayload();
+		assertEquals("Wrong number of elements", 2, rows.size());
+		assertEquals("Wrong id", 1, ((Item) rows.get(0)).getId());
+		assertEquals("Wrong id", 3, ((Item) rows.get(1)).getId());
+
+		int countOfStatusTen = this.jdbcTemplate
+				.queryForInt("select count(*) from item where status = 10");
+		assertEquals(
+				"Status not updated incorect number of rows with status 10", 3,
+				countOfStatusTen);
+
+		assertNull("Message received when all rows are claimed", adapter.receive());
+	}
+
+	@Test
+	public void testClaimRowsWhenDriverDoesNotReportBatchUpdateCounts() {
+		final AtomicInteger batches = new AtomicInteger();
+		JdbcTemplate noInfoTemplate = new JdbcTemplate(this.embeddedDatabase) {
+
+			@Override
+			public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+				batches.incrementAndGet();
+				int[] updated = super.batchUpdate(sql, pss);
+				Arrays.fill(updated, Statement.SUCCESS_NO_INFO);
+				return updated;
+			}
+
+		};
+		final JdbcPollingChannelAdapter adapter = new JdbcPollingChannelAdapter(noInfoTemplate,
+				"select * from item where status = 2");
+		adapter.setUpdateSql("update item set status = 10 where id = :id and status = 2");
+		adapter.setClaimRows(true);
+		adapter.setRowMapper(new ItemRowMapper());
+		adapter.setBeanFactory(mock(BeanFactory.class));
+		adapter.afterPropertiesSet();
+		TransactionTemplate transactionTemplate =
+				new TransactionTemplate(new DataSourceTransactionManager(this.embeddedDatabase));
+		TransactionCallback<Message<Object>> poll = new TransactionCallback<Message<Object>>() {
+
+			public Message<Object> doInTransaction(TransactionStatus status) {
+				return adapter.receive();
+			}
+
+		};
+
+		this.jdbcTemplate.update("insert into item values(1,2)");
+		this.jdbcTemplate.update("insert into item values(2,10)");
+		try {
+			transactionTemplate.execute(poll);
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("update count"));
+		}
+		assertEquals("Claims not rolled back", 0,
+				this.jdbcTemplate.queryForInt("select count(*) from item where id = 1 and status = 10"));
+
+		// now claimed one statement at a time
+		Message<Object> message = transactionTemplate.execute(poll);
+		List<?> rows = (List<?>) message.getPayload();
+		assertEquals("Wrong number of elements", 1, rows.size());
+		assertEquals("Wrong id", 1, ((Item) rows.get(0)).getId());
+		assertEquals(1, batches.get());
+	}
+
+	@Test
+	public void testClaimRowsWithoutTransactionAreNotBatched() {
+		final AtomicInteger batches = new AtomicInteger();
+		JdbcTemplate template = new JdbcTemplate(this.embeddedDatabase) {
+
+			@Override
+			public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+				batches.incrementAndGet();
+				return super.batchUpdate(sql, pss);
+			}
+
+		};
+		JdbcPollingChannelAdapter adapter = new JdbcPollingChannelAdapter(template, "select * from item");
+		adapter.setUpdateSql("update item set status = 10 where id = :id and status = 2");
+		adapter.setClaimRows(true);
+		adapter.setRowMapper(new ItemRowMapper());
+		adapter.setBeanFactory(mock(BeanFactory.class));
+		adapter.afterPropertiesSet();
+
+		this.jdbcTemplate.update("insert into item values(1,2)");
+		this.jdbcTemplate.update("insert into item values(2,10)");
+		List<?> rows = (List<?>) adapter.receive().getPayload();
+		assertEquals("Wrong number of elements", 1, rows.size());
+		assertEquals(0, batches.get());
+	}
+
+	@Test
+	public void testStreamingInChunksWithUpdatePerRow() throws Exception {
+		JdbcPollingChannelAdapter adapter = new JdbcPollingChannelAdapter(
+				this.embeddedDatabase, "select * from item where status=2 order by id");
+		adapter.setUpdateSql("update item set status = 10 where id = :id");
+		adapter.setUpdatePerRow(true);
+		adapter.setStreaming(true);
+		adapter.setChunkSize(2);
+		adapter.setFetchSize(2);
+		QueueChannel outputChannel = new QueueChannel();
+		adapter.setOutputChannel(outputChannel);
+		adapter.setRowMapper(new ItemRowMapper());
+		adapter.setBeanFactory(mock(BeanFactory.class));
+		adapter.afterPropertiesSet();
+
+		for (int i = 1; i <= 5; i++) {
+			this.jdbcTemplate.update("insert into item values(?,2)", i);
+		}
+
+		Message<Object> last = adapter.receive();
+		List<?> rows = (List<?>) last.getPayload();
+		assertEquals("Wrong number of elements", 1, rows.size());
+		assertEquals("Wrong id", 5, ((Item) rows.get(0)).getId());
+
+		for (int i = 0; i < 2; i++) {
+			Message<?> message = outputChannel.receive(0);
+			rows = (List<?>) message.getPayload();
+			assertEquals("Wrong number of elements", 2, rows.size());
+			assertEquals("Wrong id", i * 2 + 1, ((Item) rows.get(0)).getId());
+		}
+		assertNull(outputChannel.receive(0));
+
+		int countOfStatusTen = this.jdbcTemplate
+				.queryForInt("select count(*) from item where status = 10");
+		assertEquals(
+				"Status not updated incorect number of rows with status 10", 5,
+				countOfStatusTen);
+
+		assertNull("Message received when no rows in table", adapter.receive());
+	}
+
 	@Test
 	public void testEmptyPoll() {
 		JdbcPollingChannelAdapter adapter = new JdbcPollingChannelAdapter(
@@ -16,6 +16,7 @@ package org.springframework.integration.jdbc.config;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 
@@ -109,6 +110,15 @@ public class JdbcMessageHandlerParserTests {
 		assertEquals("Wrong name", "bar", map.get("name"));
 	}
 
+	@Test
+	public void testBatchUpdateOutboundChannelAdapter(){
+		setUp("handlingBatchUpdateJdbcOutboundChannelAdapterTest.xml", getClass());
+		assertEquals(Boolean.TRUE, TestUtils.getPropertyValue(context.getBean(JdbcMessageHandler.class), "batchUpdate"));
+		Message<?> message = MessageBuilder.withPayload(Arrays.asList("foo", "bar")).setHeader("business.key", "FOO").build();
+		channel.send(message);
+		assertEquals(2, this.jdbcTemplate.queryForInt("SELECT COUNT(*) from FOOS WHERE ID='FOO'"));
+	}
+
 	@Test
 	public void testOutboundAdapterWithPoller() throws Exception{
 		ApplicationContext ac = new ClassPathXmlApplicationContext("JdbcOutboundAdapterWithPollerTest-context.xml", this.getClass());
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.util.Collections;
 import java.util.List;
@@ -152,6 +153,28 @@ public class JdbcOutboundGatewayParserTests {
 		assertEquals("Cartman", name);
 	}
 
+	@Test
+	public void testStreaming() throws Exception{
+		ConfigurableApplicationContext ac = new ClassPathXmlApplicationContext("JdbcOutboundGatewayStreamingTest-context.xml", this.getClass());
+		JdbcTemplate jdbcTemplate = ac.getBean("jdbcTemplate", JdbcTemplate.class);
+		jdbcTemplate.update("INSERT INTO bazz (id, status, name) VALUES (101, 3, 'Kenny')");
+		jdbcTemplate.update("INSERT INTO bazz (id, status, name) VALUES (102, 3, 'Kyle')");
+		MessageChannel requestChannel = ac.getBean("request", MessageChannel.class);
+		PollableChannel replyChannel = ac.getBean("reply", PollableChannel.class);
+		JdbcOutboundGateway gateway = ac.getBean("jdbcOutboundGateway.handler", JdbcOutboundGateway.class);
+		assertEquals(Boolean.TRUE, TestUtils.getPropertyValue(gateway, "streaming"));
+		assertEquals(2, TestUtils.getPropertyValue(gateway, "poller.chunkSize"));
+
+		requestChannel.send(MessageBuilder.withPayload(Integer.valueOf(3)).build());
+
+		Message<?> reply = replyChannel.receive(0);
+		assertEquals(2, ((List<?>) reply.getPayload()).size());
+		reply = replyChannel.receive(0);
+		assertEquals("Kyle", ((Map<?, ?>) ((List<?>) reply.getPayload()).get(0)).get("name"));
+		assertNull(replyChannel.receive(0));
+		ac.close();
+	}
+
     @Test
     public void testReplyTimeoutIsSet() throws Exception {
         setUp("JdbcOutboundGatewayWithPollerTest-context.xml", getClass());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -158,6 +158,39 @@ public class JdbcPollingChannelAdapterParserTests {
 		}
 	}
 
+	@Test
+	public void testClaimRowsInboundChannelAdapter() {
+		setUp("pollingWithClaimRowsJdbcInboundChannelAdapterTest.xml", getClass());
+		assertEquals(Boolean.TRUE, TestUtils.getPropertyValue(appCtx.getBean("jdbcAdapter"), "source.claimRows"));
+		this.jdbcTemplate.update("insert into item values(1,'',2)");
+		this.jdbcTemplate.update("insert into item values(2,'',2)");
+		int count = 0;
+		while (count < 2) {
+			Message<List<?>> message = messagingTemplate.receive();
+			assertNotNull(message);
+			count += message.getPayload().size();
+		}
+		assertEquals(2, this.jdbcTemplate.queryForInt("select count(*) from item where status=10"));
+	}
+
+	@Test
+	public void testStreamingInboundChannelAdapter() {
+		setUp("pollingStreamingJdbcInboundChannelAdapterTest.xml", getClass());
+		Object source = TestUtils.getPropertyValue(appCtx.getBean("jdbcAdapter"), "source");
+		assertSame(appCtx.getBean("target"), TestUtils.getPropertyValue(source, "outputChannel"));
+		assertEquals(1, TestUtils.getPropertyValue(source, "chunkSize"));
+		assertEquals(10, TestUtils.getPropertyValue(source, "jdbcOperations.fetchSize"));
+		this.jdbcTemplate.update("insert into item values(1,'',2)");
+		this.jdbcTemplate.update("insert into item values(2,'',2)");
+		for (int i = 1; i <= 2; i++) {
+			Message<List<?>> message = messagingTemplate.receive();
+			assertNotNull(message);
+			assertEquals(1, message.getPayload().size());
+			assertEquals(i, ((Map<?, ?>) message.getPayload().get(0)).get("id"));
+		}
+		assertEquals(2, this.jdbcTemplate.queryForInt("select count(*) from item where status=10"));
+	}
+
 	@Test
 	public void testAutoChannel() {
 		setUp("autoChannelJdbcPollingChannelAdapterParserTests-context.xml", getClass());
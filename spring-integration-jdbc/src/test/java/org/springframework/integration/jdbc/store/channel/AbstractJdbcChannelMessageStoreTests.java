@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,7 +24,9 @@ import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.integration.Message;
+import org.springframework.integration.channel.PriorityChannel;
 import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
@@ -90,4 +92,24 @@ public class AbstractJdbcChannelMessageStoreTests {
 		assertNotNull(messageFromDb.getHeaders().get(JdbcChannelMessageStore.CREATED_DATE_KEY));
 	}
 
+	public void testPriorityChannel() throws Exception {
+		JdbcChannelMessageStore priorityStore = new JdbcChannelMessageStore(dataSource);
+		priorityStore.setRegion("AbstractJdbcChannelMessageStoreTests.priority");
+		priorityStore.setChannelMessageStoreQueryProvider(queryProvider);
+		priorityStore.setPriorityEnabled(true);
+		priorityStore.afterPropertiesSet();
+		priorityStore.removeMessageGroup(TEST_MESSAGE_GROUP);
+		PriorityChannel channel = new PriorityChannel(new MessageGroupQueue(priorityStore, TEST_MESSAGE_GROUP));
+		channel.send(MessageBuilder.withPayload("low").setPriority(-14).build());
+		channel.send(MessageBuilder.withPayload("high").setPriority(99).build());
+		channel.send(MessageBuilder.withPayload("none").build());
+		channel.send(MessageBuilder.withPayload("mid").setPriority(5).build());
+
+		assertEquals("high", channel.receive(0).getPayload());
+		assertEquals("mid", channel.receive(0).getPayload());
+		assertEquals("none", channel.receive(0).getPayload());
+		assertEquals("low", channel.receive(0).getPayload());
+		assertNull(channel.receive(0));
+	}
+
 }
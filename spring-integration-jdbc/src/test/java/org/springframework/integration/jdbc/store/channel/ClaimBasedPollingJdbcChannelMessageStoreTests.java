@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.jdbc.store.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.integration.Message;
+import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.message.GenericMessage;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Several consumers, on two simulated nodes (store instances), poll the same channel
+ * concurrently; each message must be received exactly once.
+ *
+ * @since 3.0
+ */
+@ContextConfiguration("HsqlJdbcChannelMessageStoreTests-context.xml")
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ClaimBasedPollingJdbcChannelMessageStoreTests {
+
+	private static final Log logger = LogFactory.getLog(ClaimBasedPollingJdbcChannelMessageStoreTests.class);
+
+	private static final String TEST_MESSAGE_GROUP = "ClaimBasedPollingJdbcChannelMessageStoreTests";
+
+	private static final int MESSAGE_COUNT = 1000;
+
+	private static final int CONSUMERS_PER_NODE = 4;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ChannelMessageStoreQueryProvider queryProvider;
+
+	@Test
+	public void testConcurrentConsumersOnTwoNodes() throws Exception {
+		consume(createStore(), createStore());
+	}
+
+	@Test
+	public void testConcurrentConsumersOnOneNodeDoNotLoseClaims() throws Exception {
+		JdbcChannelMessageStore node = createStore();
+		consume(node, node);
+		assertEquals(0, node.getLostClaimCount());
+	}
+
+	private void consume(JdbcChannelMessageStore node1, JdbcChannelMessageStore node2) throws Exception {
+		node1.removeMessageGroup(TEST_MESSAGE_GROUP);
+		for (int i = 0; i < MESSAGE_COUNT; i++) {
+			node1.addMessageToGroup(TEST_MESSAGE_GROUP, new GenericMessage<Integer>(i));
+		}
+
+		final Set<UUID> received = Collections.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+		final AtomicInteger duplicates = new AtomicInteger();
+		final AtomicInteger errors = new AtomicInteger();
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+		transactionTemplate.setIsolationLevel(Isolation.READ_COMMITTED.value());
+		ExecutorService executor = Executors.newFixedThreadPool(CONSUMERS_PER_NODE * 2);
+		final CountDownLatch done = new CountDownLatch(CONSUMERS_PER_NODE * 2);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < CONSUMERS_PER_NODE * 2; i++) {
+			final JdbcChannelMessageStore store = i % 2 == 0 ? node1 : node2;
+			executor.execute(new Runnable() {
+
+				public void run() {
+					try {
+						Message<?> message;
+						do {
+							try {
+								message = transactionTemplate.execute(new TransactionCallback<Message<?>>() {
+
+									public Message<?> doInTransaction(TransactionStatus status) {
+										return store.pollMessageFromGroup(TEST_MESSAGE_GROUP);
+									}
+
+								});
+							}
+							catch (RuntimeException e) {
+								// e.g. a deadlock; the transaction was rolled back, so try again
+								errors.incrementAndGet();
+								message = new GenericMessage<String>("retry");
+								continue;
+							}
+							if (message != null && !received.add(message.getHeaders().getId())) {
+								duplicates.incrementAndGet();
+							}
+						}
+						while (message != null);
+					}
+					finally {
+						done.countDown();
+					}
+				}
+
+			});
+		}
+		assertTrue(done.await(60, TimeUnit.SECONDS));
+		long elapsed = Math.max(1, System.currentTimeMillis() - start);
+		executor.shutdown();
+
+		logger.info(String.format("Consumed %d messages with %d consumers in %d ms (%d msg/s); "
+				+ "lost claims: %d, rolled back polls: %d", received.size(), CONSUMERS_PER_NODE * 2, elapsed,
+				received.size() * 1000L / elapsed,
+				node1.getLostClaimCount() + (node2 == node1 ? 0 : node2.getLostClaimCount()),
+				errors.get()));
+
+		assertEquals(0, duplicates.get());
+		assertEquals(MESSAGE_COUNT, received.size());
+		assertEquals(0, node1.messageGroupSize(TEST_MESSAGE_GROUP));
+	}
+
+	private JdbcChannelMessageStore createStore() throws Exception {
+		JdbcChannelMessageStore store = new JdbcChannelMessageStore(this.dataSource);
+		store.setRegion(TEST_MESSAGE_GROUP);
+		store.setChannelMessageStoreQueryProvider(this.queryProvider);
+		store.setClaimBasedPolling(true);
+		store.afterPropertiesSet();
+		return store;
+	}
+
+}
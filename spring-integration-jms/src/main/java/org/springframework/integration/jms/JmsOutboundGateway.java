@@ -17,7 +17,6 @@
 package org.springframework.integration.jms;
 
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +26,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jms.Connection;
@@ -122,6 +122,8 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 
 	private volatile boolean useReplyContainer;
 
+	private volatile boolean async;
+
 	private final Object initializationMonitor = new Object();
 
 	private volatile boolean autoStartup;
@@ -133,11 +135,15 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 	private final String gatewayCorrelation = UUID.randomUUID().toString();
 
 	private final Map<String, LinkedBlockingQueue<javax.jms.Message>> replies =
-			new HashMap<String, LinkedBlockingQueue<javax.jms.Message>>();
+			new ConcurrentHashMap<String, LinkedBlockingQueue<javax.jms.Message>>();
+
+	private final Map<String, AsyncRequest> asyncRequests = new ConcurrentHashMap<String, AsyncRequest>();
 
 	private final ConcurrentHashMap<String, TimedReply> earlyOrLateReplies =
 			new ConcurrentHashMap<String, JmsOutboundGateway.TimedReply>();
 
+	private final AtomicInteger lateReplyCount = new AtomicInteger();
+
 	private volatile ScheduledFuture<?> reaper;
 
 	private final Object lifeCycleMonitor = new Object();
@@ -389,6 +395,31 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		this.useReplyContainer = useReplyContainer;
 	}
 
+	/**
+	 * When true, and a reply listener is used, the calling thread is released as soon
+	 * as the request has been sent; the reply is sent to the output channel (or
+	 * 'replyChannel' header) on the reply listener thread when it arrives. If no reply
+	 * is received within the 'receiveTimeout', a {@link MessageTimeoutException} is sent
+	 * to the request's 'errorChannel' header (or the 'errorChannel' bean). A negative
+	 * 'receiveTimeout' means wait indefinitely. Default false.
+	 * @param async true for asynchronous replies.
+	 * @since 3.0
+	 */
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
+	/**
+	 * When using a reply listener with a 'correlationKey', the number of replies
+	 * that arrived after the requesting thread timed out (or for which no request
+	 * was waiting); such replies are discarded.
+	 * @return the count.
+	 * @since 3.0
+	 */
+	public int getLateReplyCount() {
+		return this.lateReplyCount.get();
+	}
+
 	private Destination determineRequestDestination(Message<?> message, Session session) throws JMSException {
 		if (this.requestDestination != null) {
 			return this.requestDestination;
@@ -496,6 +527,7 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 				}
 				this.useReplyContainer = false;
 			}
+			Assert.state(!this.async || this.useReplyContainer, "'async' requires a reply listener");
 			if (this.useReplyContainer) {
 				GatewayReplyListenerContainer container = new GatewayReplyListenerContainer();
 				setContainerProperties(container);
@@ -571,13 +603,13 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 	public void start() {
 		synchronized (this.lifeCycleMonitor) {
 			if (!this.active) {
+				this.active = true;
 				if (this.replyContainer != null) {
 					this.replyContainer.start();
 					if (this.receiveTimeout >= 0) {
 						this.reaper = this.getTaskScheduler().schedule(new LateReplyReaper(), new Date());
 					}
 				}
-				this.active = true;
 			}
 		}
 	}
@@ -587,7 +619,10 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 			if (this.replyContainer != null) {
 				this.replyContainer.stop();
 				this.deleteDestinationIfTemporary(this.replyContainer.getDestination());
-				this.reaper.cancel(false);
+				if (this.reaper != null) {
+					this.reaper.cancel(false);
+					this.reaper = null;
+				}
 			}
 			this.active = false;
 		}
@@ -615,38 +650,50 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 			}
 			else {
 				jmsReply = this.sendAndReceiveWithContainer(requestMessage);
+				if (this.async) {
+					return null;
+				}
 			}
 			if (jmsReply == null) {
 				throw new MessageTimeoutException(message,
 						"failed to receive JMS response within timeout of: " + this.receiveTimeout + "ms");
 			}
-			Object result = jmsReply;
-			if (this.extractReplyPayload) {
-				result = this.messageConverter.fromMessage(jmsReply);
-				if (logger.isDebugEnabled()) {
-					logger.debug("converted JMS Message [" + jmsReply + "] to integration Message payload [" + result + "]");
-				}
-			}
-			Map<String, Object> jmsReplyHeaders = this.headerMapper.toHeaders(jmsReply);
-
-			if (this.replyContainer != null && this.correlationKey != null) {
-				// do not propagate back the gateway's internal correlation id
-				jmsReplyHeaders.remove(this.correlationKey);
-			}
-			Message<?> replyMessage = null;
-			if (result instanceof Message){
-				replyMessage = MessageBuilder.fromMessage((Message<?>) result).copyHeaders(jmsReplyHeaders).build();
-			}
-			else {
-				replyMessage = MessageBuilder.withPayload(result).copyHeaders(jmsReplyHeaders).build();
-			}
-			return replyMessage;
+			return this.buildReply(jmsReply);
 		}
 		catch (JMSException e) {
 			throw new MessageHandlingException(requestMessage, e);
 		}
 	}
 
+	@Override
+	protected boolean isAsync() {
+		return this.async;
+	}
+
+	private Message<?> buildReply(javax.jms.Message jmsReply) throws JMSException {
+		Object result = jmsReply;
+		if (this.extractReplyPayload) {
+			result = this.messageConverter.fromMessage(jmsReply);
+			if (logger.isDebugEnabled()) {
+				logger.debug("converted JMS Message [" + jmsReply + "] to integration Message payload [" + result + "]");
+			}
+		}
+		Map<String, Object> jmsReplyHeaders = this.headerMapper.toHeaders(jmsReply);
+
+		if (this.replyContainer != null && this.correlationKey != null) {
+			// do not propagate back the gateway's internal correlation id
+			jmsReplyHeaders.remove(this.correlationKey);
+		}
+		Message<?> replyMessage = null;
+		if (result instanceof Message){
+			replyMessage = MessageBuilder.fromMessage((Message<?>) result).copyHeaders(jmsReplyHeaders).build();
+		}
+		else {
+			replyMessage = MessageBuilder.withPayload(result).copyHeaders(jmsReplyHeaders).build();
+		}
+		return replyMessage;
+	}
+
 	private javax.jms.Message sendAndReceiveWithContainer(Message<?> requestMessage) throws JMSException {
 		Connection connection = this.createConnection();
 		Session session = null;
@@ -678,6 +725,10 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 			 * (it will be restored by normal ARPMH header processing).
 			 */
 			jmsRequest.setJMSCorrelationID(null);
+			if (this.async) {
+				this.doSendAsync(requestMessage, requestDestination, jmsRequest, session, priority);
+				return null;
+			}
 			javax.jms.Message reply = null;
 			if (this.correlationKey == null) {
 				reply = doSendAndReceiveAsyncDefaultCorrelation(requestDestination, jmsRequest, session, priority);
@@ -889,6 +940,104 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		}
 	}
 
+	/**
+	 * Registers the request and returns without waiting; the reply (or a timeout) is
+	 * handled on another thread.
+	 */
+	private void doSendAsync(Message<?> requestMessage, Destination requestDestination, javax.jms.Message jmsRequest,
+			Session session, int priority) throws JMSException {
+		String correlationId = null;
+		MessageProducer messageProducer = null;
+		AsyncRequest asyncRequest = new AsyncRequest(requestMessage);
+		try {
+			messageProducer = session.createProducer(requestDestination);
+			if (this.correlationKey != null) {
+				correlationId = this.gatewayCorrelation + "_" + Long.toString(this.correlationId.incrementAndGet());
+				if (this.correlationKey.equals("JMSCorrelationID")) {
+					jmsRequest.setJMSCorrelationID(correlationId);
+				}
+				else {
+					jmsRequest.setStringProperty(this.correlationKey, correlationId);
+				}
+				this.asyncRequests.put(correlationId, asyncRequest);
+				this.sendRequestMessage(jmsRequest, messageProducer, priority);
+			}
+			else {
+				this.sendRequestMessage(jmsRequest, messageProducer, priority);
+				correlationId = jmsRequest.getJMSMessageID();
+				this.asyncRequests.put(correlationId, asyncRequest);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug(this.getComponentName() + " Sent async message with correlationId " + correlationId);
+			}
+			if (this.receiveTimeout >= 0) {
+				final String timeoutCorrelationId = correlationId;
+				asyncRequest.setTimeoutFuture(this.getTaskScheduler().schedule(new Runnable() {
+
+					public void run() {
+						asyncTimeout(timeoutCorrelationId);
+					}
+
+				}, new Date(System.currentTimeMillis() + this.receiveTimeout)));
+			}
+			if (this.correlationKey == null) {
+				/*
+				 * Check to see if the reply arrived before we obtained the correlationId
+				 */
+				TimedReply earlyReply = null;
+				synchronized (this.earlyOrLateReplies) {
+					earlyReply = this.earlyOrLateReplies.remove(correlationId);
+					if (earlyReply != null && this.asyncRequests.remove(correlationId) == null) {
+						earlyReply = null;
+					}
+				}
+				if (earlyReply != null) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Found early reply with correlationId " + correlationId);
+					}
+					this.asyncReply(asyncRequest, earlyReply.getReply());
+				}
+			}
+		}
+		catch (JMSException e) {
+			if (correlationId != null) {
+				this.asyncRequests.remove(correlationId);
+			}
+			asyncRequest.cancelTimeout();
+			throw e;
+		}
+		finally {
+			JmsUtils.closeMessageProducer(messageProducer);
+		}
+	}
+
+	private void asyncReply(AsyncRequest asyncRequest, javax.jms.Message jmsReply) {
+		asyncRequest.cancelTimeout();
+		Message<?> reply;
+		try {
+			// remove the gateway's internal correlation id
+			jmsReply.setJMSCorrelationID(null);
+			reply = this.buildReply(jmsReply);
+		}
+		catch (Exception e) {
+			this.sendAsyncFailure(new MessageHandlingException(asyncRequest.getRequestMessage(),
+					"Failed to convert JMS reply", e));
+			return;
+		}
+		this.sendAsyncReply(reply, asyncRequest.getRequestMessage());
+	}
+
+	private void asyncTimeout(String correlationId) {
+		AsyncRequest asyncRequest = this.asyncRequests.remove(correlationId);
+		if (asyncRequest != null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(this.getComponentName() + " Timed out waiting for reply with CorrelationId " + correlationId);
+			}
+			this.sendAsyncFailure(new MessageTimeoutException(asyncRequest.getRequestMessage(),
+					"failed to receive JMS response within timeout of: " + this.receiveTimeout + "ms"));
+		}
+	}
+
 	private javax.jms.Message obtainReplyFromContainer(String correlationId,
 			LinkedBlockingQueue<javax.jms.Message> replyQueue) {
 		javax.jms.Message reply = null;
@@ -975,20 +1124,42 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 				correlationId = message.getStringProperty(this.correlationKey);
 			}
 			Assert.state(correlationId != null, "Message with no correlationId received");
+			AsyncRequest asyncRequest = this.asyncRequests.remove(correlationId);
+			if (asyncRequest != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Received async reply with correlationId " + correlationId);
+				}
+				this.asyncReply(asyncRequest, message);
+				return;
+			}
 			LinkedBlockingQueue<javax.jms.Message> queue = this.replies.get(correlationId);
 			if (queue == null) {
 				if (this.correlationKey != null) {
-					throw new RuntimeException("No sender waiting for reply");
+					/*
+					 * The correlation data is generated before the request is sent so
+					 * there is no early reply; the requester has timed out.
+					 */
+					this.lateReplyCount.incrementAndGet();
+					if (logger.isWarnEnabled()) {
+						logger.warn("No sender waiting for reply with correlationId " + correlationId
+								+ " (late reply?); discarded");
+					}
+					return;
 				}
 				synchronized (this.earlyOrLateReplies) {
 					queue = this.replies.get(correlationId);
-					if (queue == null) {
+					asyncRequest = this.asyncRequests.remove(correlationId);
+					if (queue == null && asyncRequest == null) {
 						if (logger.isDebugEnabled()) {
 							logger.debug("Reply for correlationId " + correlationId + " received early or late");
 						}
 						this.earlyOrLateReplies.put(correlationId, new TimedReply(message));
 					}
 				}
+				if (asyncRequest != null) {
+					this.asyncReply(asyncRequest, message);
+					return;
+				}
 			}
 			if (queue != null) {
 				if (logger.isDebugEnabled()) {
@@ -1108,6 +1279,33 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		}
 	}
 
+	private static class AsyncRequest {
+
+		private final Message<?> requestMessage;
+
+		private volatile ScheduledFuture<?> timeoutFuture;
+
+		public AsyncRequest(Message<?> requestMessage) {
+			this.requestMessage = requestMessage;
+		}
+
+		public Message<?> getRequestMessage() {
+			return requestMessage;
+		}
+
+		public void setTimeoutFuture(ScheduledFuture<?> timeoutFuture) {
+			this.timeoutFuture = timeoutFuture;
+		}
+
+		public void cancelTimeout() {
+			ScheduledFuture<?> timeoutFuture = this.timeoutFuture;
+			if (timeoutFuture != null) {
+				timeoutFuture.cancel(false);
+			}
+		}
+
+	}
+
 	private class LateReplyReaper implements Runnable {
 
 		public void run() {
@@ -1127,7 +1325,7 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 				}
 			}
 			// reschedule myself
-			if (JmsOutboundGateway.this.receiveTimeout >= 0) {
+			if (JmsOutboundGateway.this.receiveTimeout >= 0 && JmsOutboundGateway.this.active) {
 				JmsOutboundGateway.this.reaper = getTaskScheduler().schedule(this,
 						new Date(now + JmsOutboundGateway.this.receiveTimeout));
 			}
@@ -16,6 +16,8 @@
 package org.springframework.integration.jms;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
@@ -26,16 +28,24 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
+import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Session;
 import javax.jms.TemporaryQueue;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQQueue;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -44,10 +54,20 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.MessageTimeoutException;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.message.ErrorMessage;
+import org.springframework.integration.message.GenericMessage;
+import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.jms.JmsOutboundGateway.ReplyContainerProperties;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.integration.util.ErrorHandlingTaskExecutor;
 import org.springframework.jms.JmsException;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.SessionAwareMessageListener;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.ErrorHandler;
 import org.springframework.util.ObjectUtils;
@@ -144,4 +164,176 @@ public class JmsOutboundGatewayTests {
 		assertTrue(count.get() > 4);
 		assertEquals(0, errors.size());
 	}
+
+	@Test
+	public void testSharedReplyListenerWithCorrelationKey() throws Exception {
+		ActiveMQConnectionFactory amqConnectionFactory = new ActiveMQConnectionFactory("vm://localhost?broker.persistent=false");
+		CachingConnectionFactory connectionFactory = new CachingConnectionFactory(amqConnectionFactory);
+		connectionFactory.setSessionCacheSize(10);
+		final ActiveMQQueue replyQueue = new ActiveMQQueue("shared.reply");
+
+		DefaultMessageListenerContainer responder = new DefaultMessageListenerContainer();
+		responder.setConnectionFactory(connectionFactory);
+		responder.setDestinationName("shared.request");
+		responder.setConcurrentConsumers(2);
+		responder.setMessageListener(new SessionAwareMessageListener<Message>() {
+
+			public void onMessage(Message request, Session session) throws JMSException {
+				TextMessage reply = session.createTextMessage(((TextMessage) request).getText().toUpperCase());
+				reply.setJMSCorrelationID(request.getJMSCorrelationID());
+				session.createProducer(request.getJMSReplyTo()).send(reply);
+			}
+
+		});
+		responder.afterPropertiesSet();
+		responder.start();
+
+		final JmsOutboundGateway gateway = new JmsOutboundGateway();
+		gateway.setConnectionFactory(connectionFactory);
+		gateway.setRequestDestinationName("shared.request");
+		gateway.setReplyDestination(replyQueue);
+		gateway.setCorrelationKey("JMSCorrelationID");
+		gateway.setUseReplyContainer(true);
+		gateway.setReceiveTimeout(10000);
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.initialize();
+		beanFactory.registerSingleton("taskScheduler", taskScheduler);
+		gateway.setBeanFactory(beanFactory);
+		gateway.afterPropertiesSet();
+		gateway.start();
+
+		int n = 100;
+		final CountDownLatch latch = new CountDownLatch(n);
+		final AtomicInteger mismatches = new AtomicInteger();
+		ExecutorService exec = Executors.newFixedThreadPool(10);
+		for (int i = 0; i < n; i++) {
+			final String payload = "foo" + i;
+			exec.execute(new Runnable() {
+
+				public void run() {
+					try {
+						Object reply = gateway.handleRequestMessage(new GenericMessage<String>(payload));
+						if (!payload.toUpperCase().equals(((org.springframework.integration.Message<?>) reply).getPayload())) {
+							mismatches.incrementAndGet();
+						}
+					}
+					catch (Exception e) {
+						logger.error("Request failed", e);
+						mismatches.incrementAndGet();
+					}
+					finally {
+						latch.countDown();
+					}
+				}
+			});
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		assertEquals(0, mismatches.get());
+		assertEquals(0, TestUtils.getPropertyValue(gateway, "replies", java.util.Map.class).size());
+
+		// a reply nobody is waiting for is discarded
+		String gatewayCorrelation = TestUtils.getPropertyValue(gateway, "gatewayCorrelation", String.class);
+		final String lateCorrelation = gatewayCorrelation + "_late";
+		JmsTemplate template = new JmsTemplate(connectionFactory);
+		template.send(replyQueue, new MessageCreator() {
+
+			public Message createMessage(Session session) throws JMSException {
+				TextMessage message = session.createTextMessage("late");
+				message.setJMSCorrelationID(lateCorrelation);
+				return message;
+			}
+		});
+		int i = 0;
+		while (i++ < 100 && gateway.getLateReplyCount() == 0) {
+			Thread.sleep(50);
+		}
+		assertEquals(1, gateway.getLateReplyCount());
+		template.setReceiveTimeout(100);
+		assertNull(template.receive(replyQueue));
+
+		gateway.stop();
+		responder.stop();
+		responder.destroy();
+		exec.shutdownNow();
+		taskScheduler.destroy();
+		connectionFactory.destroy();
+	}
+
+	@Test
+	public void testAsync() throws Exception {
+		ActiveMQConnectionFactory amqConnectionFactory = new ActiveMQConnectionFactory("vm://localhost?broker.persistent=false");
+		CachingConnectionFactory connectionFactory = new CachingConnectionFactory(amqConnectionFactory);
+		connectionFactory.setSessionCacheSize(10);
+
+		DefaultMessageListenerContainer responder = new DefaultMessageListenerContainer();
+		responder.setConnectionFactory(connectionFactory);
+		responder.setDestinationName("async.request");
+		responder.setMessageListener(new SessionAwareMessageListener<Message>() {
+
+			public void onMessage(Message request, Session session) throws JMSException {
+				String text = ((TextMessage) request).getText();
+				if ("noReply".equals(text)) {
+					return;
+				}
+				TextMessage reply = session.createTextMessage(text.toUpperCase());
+				reply.setJMSCorrelationID(request.getJMSMessageID());
+				session.createProducer(request.getJMSReplyTo()).send(reply);
+			}
+
+		});
+		responder.afterPropertiesSet();
+		responder.start();
+
+		JmsOutboundGateway gateway = new JmsOutboundGateway();
+		gateway.setConnectionFactory(connectionFactory);
+		gateway.setRequestDestinationName("async.request");
+		gateway.setUseReplyContainer(true);
+		gateway.setAsync(true);
+		gateway.setReceiveTimeout(500);
+		QueueChannel replies = new QueueChannel();
+		gateway.setOutputChannel(replies);
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.initialize();
+		beanFactory.registerSingleton("taskScheduler", taskScheduler);
+		gateway.setBeanFactory(beanFactory);
+		gateway.afterPropertiesSet();
+		gateway.start();
+
+		QueueChannel errors = new QueueChannel();
+		int n = 50;
+		for (int i = 0; i < n; i++) {
+			gateway.handleMessage(MessageBuilder.withPayload("foo" + i).setHeader("index", i)
+					.setErrorChannel(errors).build());
+		}
+		boolean[] received = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			org.springframework.integration.Message<?> reply = replies.receive(10000);
+			assertNotNull(reply);
+			int index = (Integer) reply.getHeaders().get("index");
+			assertEquals("FOO" + index, reply.getPayload());
+			received[index] = true;
+		}
+		for (int i = 0; i < n; i++) {
+			assertTrue(received[i]);
+		}
+		assertEquals(0, TestUtils.getPropertyValue(gateway, "asyncRequests", java.util.Map.class).size());
+
+		gateway.handleMessage(MessageBuilder.withPayload("noReply").setErrorChannel(errors).build());
+		org.springframework.integration.Message<?> error = errors.receive(10000);
+		assertNotNull(error);
+		assertTrue(error instanceof ErrorMessage);
+		assertTrue(error.getPayload() instanceof MessageTimeoutException);
+		assertEquals("noReply", ((MessageTimeoutException) error.getPayload()).getFailedMessage().getPayload());
+		assertNull(replies.receive(0));
+		assertEquals(0, TestUtils.getPropertyValue(gateway, "asyncRequests", java.util.Map.class).size());
+
+		gateway.stop();
+		responder.stop();
+		responder.destroy();
+		taskScheduler.destroy();
+		connectionFactory.destroy();
+	}
+
 }
@@ -203,17 +203,51 @@ public class DefaultJpaOperations extends AbstractJpaOperations {
 
 	@Override
 	public Object merge(Object entity) {
+		return merge(entity, 0, false);
+	}
+
+	/**
+	 * Like {@link #merge(Object)}, but, when {@code flushSize} is greater than 0, the
+	 * {@link EntityManager} is flushed after every {@code flushSize} entities of an
+	 * {@link Iterable} (and after the last one, or after a single entity) and, if
+	 * {@code clearOnFlush} is true, cleared after each flush. This bounds the size of
+	 * the persistence context when merging large collections; note that clearing
+	 * detaches all entities that it manages, including the returned ones.
+	 *
+	 * @param entity Must not be null.
+	 * @param flushSize The number of entities between flushes; 0 to not flush.
+	 * @param clearOnFlush Whether to clear the {@link EntityManager} after each flush.
+	 * @return The merged managed instance of the entity.
+	 * @since 3.0
+	 */
+	public Object merge(Object entity, int flushSize, boolean clearOnFlush) {
 		Assert.notNull(entity, "The object to merge must not be null.");
-		return persistOrMerge(entity, true);
+		return persistOrMerge(entity, true, flushSize, clearOnFlush);
 	}
 
 	@Override
 	public void persist(Object entity) {
+		persist(entity, 0, false);
+	}
+
+	/**
+	 * Like {@link #persist(Object)}, but, when {@code flushSize} is greater than 0, the
+	 * {@link EntityManager} is flushed after every {@code flushSize} entities of an
+	 * {@link Iterable} (and after the last one, or after a single entity) and, if
+	 * {@code clearOnFlush} is true, cleared after each flush. Aligning the flush size
+	 * with the JDBC batch size of the persistence provider allows it to batch the inserts.
+	 *
+	 * @param entity Must not be null
+	 * @param flushSize The number of entities between flushes; 0 to not flush.
+	 * @param clearOnFlush Whether to clear the {@link EntityManager} after each flush.
+	 * @since 3.0
+	 */
+	public void persist(Object entity, int flushSize, boolean clearOnFlush) {
 		Assert.notNull(entity, "The object to persist must not be null.");
-		persistOrMerge(entity, false);
+		persistOrMerge(entity, false, flushSize, clearOnFlush);
 	}
 
-	private Object persistOrMerge(Object entity, boolean isMerge) {
+	private Object persistOrMerge(Object entity, boolean isMerge, int flushSize, boolean clearOnFlush) {
 
 		if (entity instanceof Iterable) {
 
@@ -237,9 +271,16 @@ public class DefaultJpaOperations extends AbstractJpaOperations {
 						entityManager.persist(iteratedEntity);
 					}
 					savedEntities++;
+					if (flushSize > 0 && savedEntities % flushSize == 0) {
+						flush(clearOnFlush);
+					}
 				}
 			}
 
+			if (flushSize > 0 && savedEntities % flushSize != 0) {
+				flush(clearOnFlush);
+			}
+
 			if (logger.isDebugEnabled()) {
 				logger.debug(String.format("%s %s entities. %s NULL entities were ignored.",
 					isMerge ? "Merged" : "Persisted", savedEntities, nullEntities));
@@ -253,13 +294,24 @@ public class DefaultJpaOperations extends AbstractJpaOperations {
 			}
 		}
 		else {
+			Object result = null;
 			if (isMerge) {
-				return entityManager.merge(entity);
+				result = entityManager.merge(entity);
 			}
 			else {
 				entityManager.persist(entity);
-				return null;
 			}
+			if (flushSize > 0) {
+				flush(clearOnFlush);
+			}
+			return result;
+		}
+	}
+
+	private void flush(boolean clear) {
+		entityManager.flush();
+		if (clear) {
+			entityManager.clear();
 		}
 	}
 
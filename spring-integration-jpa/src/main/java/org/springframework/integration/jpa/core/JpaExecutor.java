@@ -81,6 +81,10 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 
 	private volatile PersistMode persistMode = PersistMode.MERGE;
 
+	private volatile int flushSize = 0;
+
+	private volatile boolean clearOnFlush = false;
+
 	private volatile ParameterSourceFactory parameterSourceFactory = null;
 	private volatile ParameterSource parameterSource;
 
@@ -194,6 +198,9 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 				this.usePayloadAsParameterSource = true;
 			}
 		}
+
+		Assert.state(this.flushSize == 0 || this.jpaOperations instanceof DefaultJpaOperations,
+				"'flushSize' is only supported with a DefaultJpaOperations");
 	}
 
 	/**
@@ -228,11 +235,23 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 		else {
 
 			if (PersistMode.PERSIST.equals(this.persistMode)) {
-				this.jpaOperations.persist(message.getPayload());
+				if (this.flushSize > 0) {
+					((DefaultJpaOperations) this.jpaOperations).persist(message.getPayload(), this.flushSize,
+							this.clearOnFlush);
+				}
+				else {
+					this.jpaOperations.persist(message.getPayload());
+				}
 				result = message.getPayload();
 			}
 			else if (PersistMode.MERGE.equals(this.persistMode)) {
-				result = this.jpaOperations.merge(message.getPayload());
+				if (this.flushSize > 0) {
+					result = ((DefaultJpaOperations) this.jpaOperations).merge(message.getPayload(), this.flushSize,
+							this.clearOnFlush);
+				}
+				else {
+					result = this.jpaOperations.merge(message.getPayload());
+				}
 			}
 			else if (PersistMode.DELETE.equals(this.persistMode)) {
 				this.jpaOperations.delete(message.getPayload());
@@ -259,7 +278,6 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 	 * @param requestMessage May be null.
 	 * @return The payload object, which may be null.
 	 */
-	@SuppressWarnings("unchecked")
 	public Object poll(final Message<?> requestMessage) {
 		final Object payload;
 		final List<?> result;
@@ -296,22 +314,49 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 		}
 
 		if (payload != null && this.deleteAfterPoll) {
-			if (payload instanceof Iterable) {
-				if (this.deleteInBatch) {
-					this.jpaOperations.deleteInBatch((Iterable<Object>) payload);
-				}
-				else {
-					for (Object entity : (Iterable<?>) payload) {
-						this.jpaOperations.delete(entity);
-					}
-				}
+			this.deletePolled(payload);
+		}
+		return payload;
+	}
+
+	/**
+	 * Retrieve one page of the results of the configured query (or entity class),
+	 * starting at the (zero-based) position <i>firstResult</i>, using the
+	 * {@link JpaExecutor#parameterSource} for the query parameters. If
+	 * 'deleteAfterPoll' is set, the entities of the page are deleted (in batch if
+	 * 'deleteInBatch' is set). 'maxNumberOfResults' and 'expectSingleResult' do not
+	 * apply.
+	 *
+	 * @param firstResult The position of the first result of the page.
+	 * @param pageSize The maximum number of results; must be greater than 0.
+	 * @return The page, which is empty if there are no more results.
+	 * @since 3.0
+	 */
+	public List<?> pollPage(int firstResult, int pageSize) {
+		Assert.isTrue(pageSize > 0, "'pageSize' must be greater than 0.");
+		Assert.state(!this.expectSingleResult, "Pages cannot be retrieved when 'expectSingleResult' is 'true'.");
+		final List<?> page = this.doPoll(this.parameterSource, firstResult, pageSize);
+		if (!page.isEmpty() && this.deleteAfterPoll) {
+			this.deletePolled(page);
+		}
+		return page;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void deletePolled(Object payload) {
+		if (payload instanceof Iterable) {
+			if (this.deleteInBatch) {
+				this.jpaOperations.deleteInBatch((Iterable<Object>) payload);
 			}
 			else {
-				this.jpaOperations.delete(payload);
+				for (Object entity : (Iterable<?>) payload) {
+					this.jpaOperations.delete(entity);
+				}
 			}
-
 		}
-		return payload;
+		else {
+			this.jpaOperations.delete(payload);
+		}
 	}
 
 	private int getFirstResult(final Message<?> requestMessage) {
@@ -445,6 +490,35 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 		this.persistMode = persistMode;
 	}
 
+	/**
+	 * If set to a value greater than 0, the {@link EntityManager} is flushed after
+	 * every 'flushSize' entities when persisting or merging an {@link Iterable} payload
+	 * (and after the last one or after a single entity). Combined with
+	 * {@link #setClearOnFlush(boolean) clearOnFlush}, this keeps the persistence context
+	 * (and memory use) bounded for large collections; setting it to the JDBC batch size
+	 * of the persistence provider (e.g. 'hibernate.jdbc.batch_size') lets the provider
+	 * send each chunk of inserts as a JDBC batch. Requires the {@link DefaultJpaOperations}
+	 * (the default).
+	 *
+	 * @param flushSize Defaults to '0' (no explicit flush).
+	 * @since 3.0
+	 */
+	public void setFlushSize(int flushSize) {
+		Assert.isTrue(flushSize >= 0, "'flushSize' must not be negative.");
+		this.flushSize = flushSize;
+	}
+
+	/**
+	 * If set to 'true', the {@link EntityManager} is cleared after each flush
+	 * (see {@link #setFlushSize(int)}), detaching all the entities it manages.
+	 *
+	 * @param clearOnFlush Defaults to 'false'.
+	 * @since 3.0
+	 */
+	public void setClearOnFlush(boolean clearOnFlush) {
+		this.clearOnFlush = clearOnFlush;
+	}
+
 	public void setJpaParameters(List<JpaParameter> jpaParameters) {
 		this.jpaParameters = jpaParameters;
 	}
@@ -484,6 +558,14 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 		this.deleteAfterPoll = deleteAfterPoll;
 	}
 
+	/**
+	 * @return true if the retrieved objects are deleted upon being polled.
+	 * @since 3.0
+	 */
+	public boolean isDeleteAfterPoll() {
+		return this.deleteAfterPoll;
+	}
+
 	/**
 	 *
 	 * @param parameterSourceFactory Must not be null
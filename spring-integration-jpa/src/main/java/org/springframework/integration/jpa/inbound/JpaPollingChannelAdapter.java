@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,11 +15,17 @@
  */
 package org.springframework.integration.jpa.inbound;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import org.springframework.integration.Message;
 import org.springframework.integration.context.IntegrationObjectSupport;
 import org.springframework.integration.core.MessageSource;
 import org.springframework.integration.jpa.core.JpaExecutor;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 /**
@@ -42,6 +48,20 @@ import org.springframework.util.Assert;
  *     <li>delete the retrieved object</li>
  * </ul>
  *
+ * When a page size is set, the results are instead retrieved one page at a time:
+ * each poll retrieves the next page (using the position after the previous page
+ * as the first result) and returns it as the payload or, if 'messagePerEntity'
+ * is set, returns its entities one per poll. After the last (partial) page, the
+ * next poll starts again from the first result. When the retrieved objects are
+ * deleted after the poll, each page is deleted as it is polled, and the next page
+ * is retrieved from the first result. Pages are selected by position, so the query
+ * must define a stable order.
+ * <p>
+ * When the poll runs in a transaction, the position only moves past a page when
+ * the transaction commits, and an entity whose message is rolled back is sent
+ * again by the next poll; otherwise, the position moves as soon as a page is
+ * retrieved.
+ *
  * @author Amol Nayak
  * @author Gunnar Hillert
  *
@@ -52,6 +72,16 @@ public class JpaPollingChannelAdapter extends IntegrationObjectSupport implement
 
 	private final JpaExecutor jpaExecutor;
 
+	private volatile int pageSize;
+
+	private volatile boolean messagePerEntity;
+
+	private final Object pageMonitor = new Object();
+
+	private int nextFirstResult;
+
+	private final LinkedList<Object> pendingEntities = new LinkedList<Object>();
+
 	/**
 	 * Constructor taking a {@link JpaExecutor} that provide all required JPA
 	 * functionality.
@@ -64,12 +94,40 @@ public class JpaPollingChannelAdapter extends IntegrationObjectSupport implement
 		this.jpaExecutor = jpaExecutor;
 	}
 
+	/**
+	 * Set to a value greater than 0 to retrieve the results in pages of this
+	 * size, one page per poll, rather than all at once. Defaults to '0'.
+	 *
+	 * @param pageSize The page size.
+	 * @since 3.0
+	 */
+	public void setPageSize(int pageSize) {
+		Assert.isTrue(pageSize >= 0, "'pageSize' must not be negative.");
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * When paging, set to 'true' to produce one message per entity of a page,
+	 * rather than one message containing the page. Not allowed if the retrieved
+	 * objects are deleted after the poll, because the entities of a page would
+	 * then be deleted before they are all sent. Defaults to 'false'.
+	 *
+	 * @param messagePerEntity true for one message per entity.
+	 * @since 3.0
+	 */
+	public void setMessagePerEntity(boolean messagePerEntity) {
+		this.messagePerEntity = messagePerEntity;
+	}
+
 	/**
 	 * Check for mandatory attributes
 	 */
 	@Override
 	protected void onInit() throws Exception {
 		 super.onInit();
+		 Assert.isTrue(!this.messagePerEntity || this.pageSize > 0, "'messagePerEntity' requires a 'pageSize'.");
+		 Assert.isTrue(!(this.messagePerEntity && this.jpaExecutor.isDeleteAfterPoll()),
+				 "'messagePerEntity' cannot be used with 'deleteAfterPoll'.");
 		 this.jpaExecutor.setBeanFactory(this.getBeanFactory());
 	}
 
@@ -81,6 +139,10 @@ public class JpaPollingChannelAdapter extends IntegrationObjectSupport implement
 	 */
 	public Message<Object> receive() {
 
+		if (this.pageSize > 0) {
+			return this.receivePage();
+		}
+
 		final Object payload = jpaExecutor.poll();
 
 		if (payload == null) {
@@ -90,6 +152,86 @@ public class JpaPollingChannelAdapter extends IntegrationObjectSupport implement
 		return MessageBuilder.withPayload(payload).build();
 	}
 
+	private Message<Object> receivePage() {
+		final Object entity;
+		synchronized (this.pageMonitor) {
+			if (this.pendingEntities.isEmpty()) {
+				final int firstResult = this.nextFirstResult;
+				final List<?> page = this.jpaExecutor.pollPage(firstResult, this.pageSize);
+				final int next;
+				if (page.size() < this.pageSize) {
+					// last page; start again from the beginning
+					next = 0;
+				}
+				else if (this.jpaExecutor.isDeleteAfterPoll()) {
+					next = firstResult;
+				}
+				else {
+					next = firstResult + page.size();
+				}
+				if (!this.messagePerEntity) {
+					this.advanceAfterCommit(firstResult, next);
+					if (page.isEmpty()) {
+						return null;
+					}
+					return MessageBuilder.withPayload((Object) page).build();
+				}
+				// entities that are rolled back are returned to the pending entities
+				this.nextFirstResult = next;
+				if (page.isEmpty()) {
+					return null;
+				}
+				this.pendingEntities.addAll(page);
+			}
+			entity = this.pendingEntities.removeFirst();
+		}
+		this.requeueOnRollback(entity);
+		return MessageBuilder.withPayload(entity).build();
+	}
+
+	/**
+	 * Moves the position from 'firstResult' to 'next' now or, within a transaction,
+	 * when (and if) it commits.
+	 */
+	private void advanceAfterCommit(final int firstResult, final int next) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.nextFirstResult = next;
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == TransactionSynchronization.STATUS_COMMITTED) {
+					synchronized (pageMonitor) {
+						if (nextFirstResult == firstResult) {
+							nextFirstResult = next;
+						}
+					}
+				}
+			}
+
+		});
+	}
+
+	private void requeueOnRollback(final Object entity) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status != TransactionSynchronization.STATUS_COMMITTED) {
+					synchronized (pageMonitor) {
+						pendingEntities.addFirst(entity);
+					}
+				}
+			}
+
+		});
+	}
+
 	@Override
 	public String getComponentType(){
 		return "jpa:inbound-channel-adapter";
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -74,6 +74,8 @@ public class JpaMessageHandlerParserTests {
 		final PersistMode persistMode = TestUtils.getPropertyValue(jpaExecutor, "persistMode", PersistMode.class);
 
 		assertEquals(PersistMode.PERSIST, persistMode);
+		assertEquals(100, TestUtils.getPropertyValue(jpaExecutor, "flushSize"));
+		assertEquals(true, TestUtils.getPropertyValue(jpaExecutor, "clearOnFlush"));
 
 		@SuppressWarnings("unchecked")
 		List<JpaParameter> jpaParameters = TestUtils.getPropertyValue(jpaExecutor, "jpaParameters", List.class);
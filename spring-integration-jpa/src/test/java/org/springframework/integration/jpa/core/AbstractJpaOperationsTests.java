@@ -412,6 +412,27 @@ public class AbstractJpaOperationsTests {
 		Assert.assertEquals(5, studentsFromDb.size());
 	}
 
+	public void testPersistCollectionWithFlushAndClear() {
+		final JpaOperations jpaOperations = getJpaOperations(entityManager);
+
+		List<StudentDomain> students = new ArrayList<StudentDomain>(5);
+		for (int i = 0; i < 5; i++) {
+			StudentDomain student = JpaTestUtils.getTestStudent();
+			student.setFirstName("Student" + i);
+			students.add(student);
+		}
+
+		((DefaultJpaOperations) jpaOperations).persist(students, 2, true);
+
+		for (StudentDomain student : students) {
+			Assert.assertNotNull(student.getRollNumber());
+			Assert.assertFalse(entityManager.contains(student));
+		}
+
+		final List<?> studentsFromDb = jpaOperations.getResultListForClass(StudentDomain.class, 0, 0);
+		Assert.assertEquals(8, studentsFromDb.size());
+	}
+
 	public void testDeleteInBatch() {
 		final JpaOperations jpaOperations = getJpaOperations(entityManager);
 
@@ -140,6 +140,12 @@ public class EclipseLinkJpaOperationsTests extends AbstractJpaOperationsTests {
 		super.testPersistCollectionWithNullElement();
 	}
 
+	@Test
+	@Override
+	public void testPersistCollectionWithFlushAndClear() {
+		super.testPersistCollectionWithFlushAndClear();
+	}
+
 	@Test
 	@Override
 	public void testGetAllStudents() {
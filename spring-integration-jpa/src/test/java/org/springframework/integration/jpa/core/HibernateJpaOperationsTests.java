@@ -170,6 +170,12 @@ public class HibernateJpaOperationsTests extends AbstractJpaOperationsTests {
 		super.testPersistCollectionWithNullElement();
 	}
 
+	@Test
+	@Override
+	public void testPersistCollectionWithFlushAndClear() {
+		super.testPersistCollectionWithFlushAndClear();
+	}
+
 	@Test
 	@Override
 	public void testDeleteInBatch() {
@@ -96,6 +96,19 @@ public class JpaExecutorTests {
 
 	}
 
+	@Test
+	public void testFlushSizeRequiresDefaultJpaOperations() {
+		JpaExecutor executor = new JpaExecutor(mock(JpaOperations.class));
+		executor.setFlushSize(10);
+		try {
+			executor.afterPropertiesSet();
+			Assert.fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			Assert.assertEquals("'flushSize' is only supported with a DefaultJpaOperations", e.getMessage());
+		}
+	}
+
 	@Test
 	public void testSetMultipleQueryTypes() {
 		JpaExecutor executor = new JpaExecutor(mock(EntityManager.class));
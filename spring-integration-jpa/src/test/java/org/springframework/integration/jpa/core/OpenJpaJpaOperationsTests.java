@@ -185,6 +185,12 @@ public class OpenJpaJpaOperationsTests extends AbstractJpaOperationsTests {
 		super.testPersistCollectionWithNullElement();
 	}
 
+	@Test
+	@Override
+	public void testPersistCollectionWithFlushAndClear() {
+		super.testPersistCollectionWithFlushAndClear();
+	}
+
 	@Test
 	@Override
 	public void testGetAllStudents() {
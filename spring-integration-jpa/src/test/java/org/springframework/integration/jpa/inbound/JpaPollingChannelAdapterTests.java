@@ -170,6 +170,35 @@ public class JpaPollingChannelAdapterTests {
 
 	}
 
+	/**
+	 * In this test, a Jpa Polling Channel Adapter will use JpQL query
+	 * to retrieve the records from the database in pages of 2.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testWithJpaQueryInPages() throws Exception {
+
+		final JpaExecutor jpaExecutor = new JpaExecutor(entityManager);
+		jpaExecutor.setJpaQuery("from Student s order by s.rollNumber");
+		jpaExecutor.afterPropertiesSet();
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+		jpaPollingChannelAdapter.setPageSize(2);
+		jpaPollingChannelAdapter.setBeanFactory(this.context);
+		jpaPollingChannelAdapter.afterPropertiesSet();
+
+		List<StudentDomain> firstPage = (List<StudentDomain>) jpaPollingChannelAdapter.receive().getPayload();
+		assertEquals(2, firstPage.size());
+		List<StudentDomain> secondPage = (List<StudentDomain>) jpaPollingChannelAdapter.receive().getPayload();
+		assertEquals(1, secondPage.size());
+		assertTrue(secondPage.get(0).getRollNumber() > firstPage.get(1).getRollNumber());
+		List<StudentDomain> restartedPage = (List<StudentDomain>) jpaPollingChannelAdapter.receive().getPayload();
+		assertEquals(firstPage.get(0).getRollNumber(), restartedPage.get(0).getRollNumber());
+
+	}
+
 	/**
 	 * In this test, a Jpa Polling Channel Adapter will use JpQL query
 	 * to retrieve a list of records from the database with a maxRows value of 1.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,10 +19,17 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Test;
 import org.springframework.integration.jpa.core.JpaExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * @author Gunnar Hillert
@@ -75,4 +82,131 @@ public class JpaPollingChannelAdapterUnitTests {
 
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testPages() throws Exception {
+
+		JpaExecutor jpaExecutor = mock(JpaExecutor.class);
+
+		when(jpaExecutor.pollPage(0, 2)).thenReturn((List) Arrays.asList("a", "b"));
+		when(jpaExecutor.pollPage(2, 2)).thenReturn((List) Arrays.asList("c"));
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+		jpaPollingChannelAdapter.setPageSize(2);
+		jpaPollingChannelAdapter.afterPropertiesSet();
+
+		assertEquals(Arrays.asList("a", "b"), jpaPollingChannelAdapter.receive().getPayload());
+		assertEquals(Arrays.asList("c"), jpaPollingChannelAdapter.receive().getPayload());
+		assertEquals(Arrays.asList("a", "b"), jpaPollingChannelAdapter.receive().getPayload());
+
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testMessagePerEntity() throws Exception {
+
+		JpaExecutor jpaExecutor = mock(JpaExecutor.class);
+
+		when(jpaExecutor.pollPage(0, 2)).thenReturn((List) Arrays.asList("a", "b"));
+		when(jpaExecutor.pollPage(2, 2)).thenReturn((List) Collections.emptyList());
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+		jpaPollingChannelAdapter.setPageSize(2);
+		jpaPollingChannelAdapter.setMessagePerEntity(true);
+		jpaPollingChannelAdapter.afterPropertiesSet();
+
+		assertEquals("a", jpaPollingChannelAdapter.receive().getPayload());
+		assertEquals("b", jpaPollingChannelAdapter.receive().getPayload());
+		assertNull(jpaPollingChannelAdapter.receive());
+		verify(jpaExecutor).pollPage(2, 2);
+		assertEquals("a", jpaPollingChannelAdapter.receive().getPayload());
+
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testPagesWithDeleteAfterPoll() throws Exception {
+
+		JpaExecutor jpaExecutor = mock(JpaExecutor.class);
+
+		when(jpaExecutor.isDeleteAfterPoll()).thenReturn(true);
+		when(jpaExecutor.pollPage(0, 2)).thenReturn((List) Arrays.asList("a", "b"), (List) Arrays.asList("c"));
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+		jpaPollingChannelAdapter.setPageSize(2);
+		jpaPollingChannelAdapter.afterPropertiesSet();
+
+		assertEquals(Arrays.asList("a", "b"), jpaPollingChannelAdapter.receive().getPayload());
+		assertEquals(Arrays.asList("c"), jpaPollingChannelAdapter.receive().getPayload());
+
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testPageIsNotSkippedOnRollback() throws Exception {
+
+		JpaExecutor jpaExecutor = mock(JpaExecutor.class);
+
+		when(jpaExecutor.pollPage(0, 2)).thenReturn((List) Arrays.asList("a", "b"));
+		when(jpaExecutor.pollPage(2, 2)).thenReturn((List) Arrays.asList("c"));
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+		jpaPollingChannelAdapter.setPageSize(2);
+		jpaPollingChannelAdapter.afterPropertiesSet();
+
+		assertEquals(Arrays.asList("a", "b"), receiveInTransaction(jpaPollingChannelAdapter, false));
+		assertEquals(Arrays.asList("a", "b"), receiveInTransaction(jpaPollingChannelAdapter, true));
+		assertEquals(Arrays.asList("c"), receiveInTransaction(jpaPollingChannelAdapter, true));
+
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testEntityIsResentOnRollback() throws Exception {
+
+		JpaExecutor jpaExecutor = mock(JpaExecutor.class);
+
+		when(jpaExecutor.pollPage(0, 2)).thenReturn((List) Arrays.asList("a", "b"));
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+		jpaPollingChannelAdapter.setPageSize(2);
+		jpaPollingChannelAdapter.setMessagePerEntity(true);
+		jpaPollingChannelAdapter.afterPropertiesSet();
+
+		assertEquals("a", receiveInTransaction(jpaPollingChannelAdapter, true));
+		assertEquals("b", receiveInTransaction(jpaPollingChannelAdapter, false));
+		assertEquals("b", receiveInTransaction(jpaPollingChannelAdapter, true));
+		verify(jpaExecutor).pollPage(0, 2);
+
+	}
+
+	private Object receiveInTransaction(JpaPollingChannelAdapter jpaPollingChannelAdapter, boolean commit) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			Object payload = jpaPollingChannelAdapter.receive().getPayload();
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(commit ? TransactionSynchronization.STATUS_COMMITTED
+						: TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+			return payload;
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMessagePerEntityWithDeleteAfterPoll() throws Exception {
+
+		JpaExecutor jpaExecutor = mock(JpaExecutor.class);
+
+		when(jpaExecutor.isDeleteAfterPoll()).thenReturn(true);
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+		jpaPollingChannelAdapter.setPageSize(2);
+		jpaPollingChannelAdapter.setMessagePerEntity(true);
+		jpaPollingChannelAdapter.afterPropertiesSet();
+
+	}
+
 }
@@ -51,6 +51,8 @@ public class MongoDbInboundChannelAdapterParser extends AbstractPollingInboundCh
 
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "entity-class");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "expect-single-result");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "streaming");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "batch-size");
 
 		String beanName = BeanDefinitionReaderUtils.registerWithGeneratedName(
 				builder.getBeanDefinition(), parserContext.getRegistry());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2013 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ public class MongoDbNamespaceHandler extends AbstractIntegrationNamespaceHandler
 
 	public void init() {
 		registerBeanDefinitionParser("inbound-channel-adapter", new MongoDbInboundChannelAdapterParser());
+		registerBeanDefinitionParser("tail-inbound-channel-adapter", new MongoDbTailInboundChannelAdapterParser());
 		registerBeanDefinitionParser("outbound-channel-adapter", new MongoDbOutboundChannelAdapterParser());
 	}
 }
\ No newline at end of file
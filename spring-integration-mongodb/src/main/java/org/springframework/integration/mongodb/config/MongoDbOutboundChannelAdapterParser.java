@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2012 the original author or authors
+ * Copyright 2007-2013 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.integration.config.xml.AbstractOutboundChannelAdapterParser;
+import org.springframework.integration.config.xml.IntegrationNamespaceUtils;
 import org.springframework.integration.mongodb.outbound.MongoDbStoringMessageHandler;
 /**
  * Parser for Mongodb store outbound adapters
@@ -38,6 +39,10 @@ public class MongoDbOutboundChannelAdapterParser extends AbstractOutboundChannel
 		// 'collection-name', 'collection-name-expression' and 'mongo-converter'
 		MongoParserUtils.processCommonAttributes(element, parserContext, builder);
 
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "batch-size");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "batch-timeout");
+		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, "error-channel");
+
 		return builder.getBeanDefinition();
 	}
 }
\ No newline at end of file
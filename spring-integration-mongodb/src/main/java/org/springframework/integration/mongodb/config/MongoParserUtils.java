@@ -39,6 +39,29 @@ class MongoParserUtils {
 	 * @param builder
 	 */
 	public static void processCommonAttributes(Element element, ParserContext parserContext, BeanDefinitionBuilder builder){
+		processTemplateOrFactory(element, parserContext, builder);
+
+		BeanDefinition collectionNameExpressionDef =
+				IntegrationNamespaceUtils.createExpressionDefinitionFromValueOrExpression("collection-name", "collection-name-expression",
+						parserContext, element, false);
+
+
+		if (collectionNameExpressionDef != null){
+			builder.addPropertyValue("collectionNameExpression", collectionNameExpressionDef);
+		}
+
+	}
+
+	/**
+	 * Will parse and validate 'mongodb-template', 'mongodb-factory' and 'mongo-converter';
+	 * the template or factory is added as the next constructor argument.
+	 *
+	 * @param element
+	 * @param parserContext
+	 * @param builder
+	 * @since 3.0
+	 */
+	public static void processTemplateOrFactory(Element element, ParserContext parserContext, BeanDefinitionBuilder builder){
 		String mongoDbTemplate = element.getAttribute("mongo-template");
 		String mongoDbFactory = element.getAttribute("mongodb-factory");
 
@@ -61,15 +84,5 @@ class MongoParserUtils {
 			builder.addConstructorArgReference(mongoDbFactory);
 			IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, "mongo-converter");
 		}
-
-		BeanDefinition collectionNameExpressionDef =
-				IntegrationNamespaceUtils.createExpressionDefinitionFromValueOrExpression("collection-name", "collection-name-expression",
-						parserContext, element, false);
-
-
-		if (collectionNameExpressionDef != null){
-			builder.addPropertyValue("collectionNameExpression", collectionNameExpressionDef);
-		}
-
 	}
 }
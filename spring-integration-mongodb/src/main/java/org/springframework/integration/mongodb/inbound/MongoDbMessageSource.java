@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2012 the original author or authors
+ * Copyright 2007-2013 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -15,8 +15,10 @@
  */
 package org.springframework.integration.mongodb.inbound;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -37,6 +39,7 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 
 /**
@@ -52,6 +55,12 @@ import com.mongodb.DBObject;
  * When expectSingleResult is true, the {@link MongoOperations#findOne(Query, Class)} is
  * used instead, and the message payload will be the single object returned from the
  * query.
+ * <p>
+ * When streaming is true, the query is executed once and its cursor is kept open across
+ * calls to {@link #receive()}; each call returns a {@link List} of at most 'batchSize'
+ * results, fetched from the server in batches of that size, so large results are consumed
+ * with bounded memory. When the cursor is exhausted, the call returns null and the query
+ * is executed again (with the expressions re-evaluated) on the next call.
  *
  * @author Amol Nayak
  * @author Oleg Zhurakousky
@@ -59,7 +68,9 @@ import com.mongodb.DBObject;
  * @since 2.2
  */
 public class MongoDbMessageSource extends IntegrationObjectSupport
-				implements MessageSource<Object> {
+				implements MessageSource<Object>, DisposableBean {
+
+	public static final int DEFAULT_BATCH_SIZE = 100;
 
 	private final Expression queryExpression;
 
@@ -79,6 +90,16 @@ public class MongoDbMessageSource extends IntegrationObjectSupport
 
 	private volatile boolean expectSingleResult = false;
 
+	private volatile boolean streaming;
+
+	private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+	private final Object cursorMonitor = new Object();
+
+	private DBCursor cursor;
+
+	private String cursorCollectionName;
+
 	/**
 	 * Creates an instance with the provided {@link MongoDbFactory} and SpEL expression
 	 * which should resolve to a MongoDb 'query' string
@@ -141,6 +162,31 @@ public class MongoDbMessageSource extends IntegrationObjectSupport
 		this.expectSingleResult = expectSingleResult;
 	}
 
+	/**
+	 * Set to true to iterate a cursor over the query results, returning at most
+	 * {@link #setBatchSize(int) batchSize} results per message, rather than
+	 * materializing all the results on each call to {@link #receive()}.
+	 * Cannot be combined with 'expectSingleResult'. Default 'false'.
+	 *
+	 * @param streaming true to stream the results.
+	 * @since 3.0
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * The maximum number of results in each message (and the cursor batch size)
+	 * when streaming. Default 100.
+	 *
+	 * @param batchSize the batch size.
+	 * @since 3.0
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
 	/**
 	 * Sets the SpEL {@link Expression} that should resolve to a collection name
 	 * used by the {@link Query}. The resulting collection name will be included
@@ -168,6 +214,8 @@ public class MongoDbMessageSource extends IntegrationObjectSupport
 
 	@Override
 	protected void onInit() throws Exception {
+		Assert.isTrue(!(this.streaming && this.expectSingleResult),
+				"'streaming' and 'expectSingleResult' are mutually exclusive");
 		this.evaluationContext =
 					ExpressionUtils.createStandardEvaluationContext(this.getBeanFactory());
 
@@ -187,6 +235,9 @@ public class MongoDbMessageSource extends IntegrationObjectSupport
 	 */
 	public Message<Object> receive() {
 		Assert.isTrue(this.initialized, "This class is not yet initialized. Invoke its afterPropertiesSet() method");
+		if (this.streaming) {
+			return this.receiveBatch();
+		}
 		Message<Object> message = null;
 		Query query = new BasicQuery(this.queryExpression.getValue(this.evaluationContext, String.class));
 		Assert.notNull(query, "'queryExpression' must not evaluate to null");
@@ -211,12 +262,81 @@ public class MongoDbMessageSource extends IntegrationObjectSupport
 					.build();
 		}
 
+		this.bindTemplateToTransaction();
+
+		return message;
+	}
+
+	private Message<Object> receiveBatch() {
+		Message<Object> message = null;
+		synchronized (this.cursorMonitor) {
+			if (this.cursor == null) {
+				Query query = new BasicQuery(this.queryExpression.getValue(this.evaluationContext, String.class));
+				String collectionName = this.collectionNameExpression.getValue(this.evaluationContext, String.class);
+				Assert.notNull(collectionName, "'collectionNameExpression' must not evaluate to null");
+				DBCursor cursor = this.mongoTemplate.getCollection(collectionName)
+						.find(query.getQueryObject(), query.getFieldsObject())
+						.batchSize(this.batchSize);
+				if (query.getSortObject() != null) {
+					cursor.sort(query.getSortObject());
+				}
+				this.cursor = cursor;
+				this.cursorCollectionName = collectionName;
+			}
+			List<Object> results = new ArrayList<Object>();
+			try {
+				while (results.size() < this.batchSize && this.cursor.hasNext()) {
+					results.add(this.convert(this.cursor.next()));
+				}
+			}
+			catch (RuntimeException e) {
+				// the query is executed again on the next call
+				this.closeCursor();
+				throw e;
+			}
+			String collectionName = this.cursorCollectionName;
+			if (results.size() < this.batchSize) {
+				this.closeCursor();
+			}
+			if (results.size() > 0) {
+				message = MessageBuilder.withPayload((Object) results)
+						.setHeader(MongoHeaders.COLLECTION_NAME, collectionName)
+						.build();
+			}
+		}
+
+		this.bindTemplateToTransaction();
+
+		return message;
+	}
+
+	private Object convert(DBObject dbObject) {
+		if (DBObject.class.isAssignableFrom(this.entityClass)) {
+			return dbObject;
+		}
+		return this.mongoTemplate.getConverter().read(this.entityClass, dbObject);
+	}
+
+	private void closeCursor() {
+		if (this.cursor != null) {
+			this.cursor.close();
+			this.cursor = null;
+			this.cursorCollectionName = null;
+		}
+	}
+
+	private void bindTemplateToTransaction() {
 		Object holder = TransactionSynchronizationManager.getResource(this);
 		if (holder != null) {
 			Assert.isInstanceOf(IntegrationResourceHolder.class, holder);
 			((IntegrationResourceHolder) holder).addAttribute("mongoTemplate", this.mongoTemplate);
 		}
+	}
 
-		return message;
+	public void destroy() {
+		synchronized (this.cursorMonitor) {
+			this.closeCursor();
+		}
 	}
+
 }
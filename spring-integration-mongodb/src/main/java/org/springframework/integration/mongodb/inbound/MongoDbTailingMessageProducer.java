@@ -0,0 +1,308 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.mongodb.inbound;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.integration.endpoint.MessageProducerSupport;
+import org.springframework.integration.mongodb.support.MongoHeaders;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.Bytes;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * A message-driven producer that follows a capped collection with a tailable cursor;
+ * each document matching the query is sent as a message as soon as it is inserted,
+ * without polling. The cursor starts at the beginning of the collection (in natural,
+ * insertion, order).
+ * <p>
+ * A tailable cursor dies if, for example, the collection was empty when it was opened
+ * or the connection is lost; it is then reopened after the {@link #setReconnectDelay(long)
+ * reconnect delay}. The new cursor starts at the beginning of the collection again and
+ * the documents up to, and including, the last document received are skipped (matched
+ * on '_id' equality, since ids are not necessarily ordered); if that document has since
+ * been removed from the capped collection, all the documents are sent.
+ *
+ * @since 3.0
+ */
+public class MongoDbTailingMessageProducer extends MessageProducerSupport {
+
+	public static final long DEFAULT_RECONNECT_DELAY = 1000;
+
+	private static final String ID_KEY = "_id";
+
+	private final String collectionName;
+
+	private volatile MongoOperations mongoTemplate;
+
+	private volatile MongoDbFactory mongoDbFactory;
+
+	private volatile MongoConverter mongoConverter;
+
+	private volatile String query = "{}";
+
+	private volatile Class<?> entityClass = DBObject.class;
+
+	private volatile TaskExecutor taskExecutor;
+
+	private volatile long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+
+	private volatile TailTask tailTask;
+
+	private volatile Object lastId;
+
+	/**
+	 * @param mongoDbFactory the factory.
+	 * @param collectionName the name of a capped collection.
+	 */
+	public MongoDbTailingMessageProducer(MongoDbFactory mongoDbFactory, String collectionName) {
+		Assert.notNull(mongoDbFactory, "'mongoDbFactory' must not be null");
+		Assert.hasText(collectionName, "'collectionName' must not be empty");
+		this.mongoDbFactory = mongoDbFactory;
+		this.collectionName = collectionName;
+	}
+
+	/**
+	 * @param mongoTemplate the template; it is assumed to be fully initialized.
+	 * @param collectionName the name of a capped collection.
+	 */
+	public MongoDbTailingMessageProducer(MongoOperations mongoTemplate, String collectionName) {
+		Assert.notNull(mongoTemplate, "'mongoTemplate' must not be null");
+		Assert.hasText(collectionName, "'collectionName' must not be empty");
+		this.mongoTemplate = mongoTemplate;
+		this.collectionName = collectionName;
+	}
+
+	/**
+	 * A MongoDb query (JSON) selecting the documents to send; default all documents.
+	 * @param query the query.
+	 */
+	public void setQuery(String query) {
+		Assert.hasText(query, "'query' must not be empty");
+		this.query = query;
+	}
+
+	/**
+	 * The type that each document is converted to; default {@link DBObject}.
+	 * @param entityClass the entity class.
+	 */
+	public void setEntityClass(Class<?> entityClass) {
+		Assert.notNull(entityClass, "'entityClass' must not be null");
+		this.entityClass = entityClass;
+	}
+
+	/**
+	 * A custom {@link MongoConverter}; only allowed if this instance was constructed
+	 * with a {@link MongoDbFactory}.
+	 * @param mongoConverter the converter.
+	 */
+	public void setMongoConverter(MongoConverter mongoConverter) {
+		Assert.isNull(this.mongoTemplate,
+				"'mongoConverter' can not be set when instance was constructed with MongoTemplate");
+		this.mongoConverter = mongoConverter;
+	}
+
+	/**
+	 * The executor that runs the (long-lived) tailing task; default a
+	 * {@link SimpleAsyncTaskExecutor}.
+	 * @param taskExecutor the executor.
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * The delay (milliseconds) before reopening a cursor that has died. Default 1000.
+	 * @param reconnectDelay the delay.
+	 */
+	public void setReconnectDelay(long reconnectDelay) {
+		Assert.isTrue(reconnectDelay >= 0, "'reconnectDelay' must not be negative");
+		this.reconnectDelay = reconnectDelay;
+	}
+
+	@Override
+	public String getComponentType() {
+		return "mongo:tail-inbound-channel-adapter";
+	}
+
+	@Override
+	protected void onInit() {
+		super.onInit();
+		if (this.mongoTemplate == null) {
+			this.mongoTemplate = new MongoTemplate(this.mongoDbFactory, this.mongoConverter);
+		}
+		if (this.taskExecutor == null) {
+			String beanName = this.getComponentName();
+			this.taskExecutor = new SimpleAsyncTaskExecutor((beanName == null ? "" : beanName + "-") + "tail");
+		}
+	}
+
+	@Override
+	protected void doStart() {
+		TailTask previous = this.tailTask;
+		if (previous != null) {
+			// a restart must not overlap with the task of the previous run
+			previous.awaitTermination();
+		}
+		TailTask tailTask = new TailTask();
+		this.tailTask = tailTask;
+		this.taskExecutor.execute(tailTask);
+	}
+
+	@Override
+	protected void doStop() {
+		TailTask tailTask = this.tailTask;
+		if (tailTask != null) {
+			tailTask.stop();
+		}
+	}
+
+	private DBCursor openCursor(Object lastId) {
+		DBObject queryObject = new BasicQuery(this.query).getQueryObject();
+		if (lastId != null) {
+			// the last document is needed to find where to resume, even if it no longer matches
+			queryObject = new BasicDBObject("$or", Arrays.asList(queryObject, new BasicDBObject(ID_KEY, lastId)));
+		}
+		return this.getCollection().find(queryObject)
+				.addOption(Bytes.QUERYOPTION_TAILABLE)
+				.addOption(Bytes.QUERYOPTION_AWAITDATA);
+	}
+
+	private DBCollection getCollection() {
+		return this.mongoTemplate.getCollection(this.collectionName);
+	}
+
+	private Object convert(DBObject dbObject) {
+		if (DBObject.class.isAssignableFrom(this.entityClass)) {
+			return dbObject;
+		}
+		return this.mongoTemplate.getConverter().read(this.entityClass, dbObject);
+	}
+
+	private class TailTask implements Runnable {
+
+		private final CountDownLatch stopped = new CountDownLatch(1);
+
+		private final CountDownLatch terminated = new CountDownLatch(1);
+
+		private volatile boolean active = true;
+
+		private volatile DBCursor cursor;
+
+		private volatile Thread thread;
+
+		public void run() {
+			this.thread = Thread.currentThread();
+			try {
+				while (this.active) {
+					this.tail();
+					if (this.active) {
+						try {
+							this.stopped.await(reconnectDelay, TimeUnit.MILLISECONDS);
+						}
+						catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							this.active = false;
+						}
+					}
+				}
+			}
+			finally {
+				this.terminated.countDown();
+			}
+		}
+
+		private void tail() {
+			MongoDbTailingMessageProducer producer = MongoDbTailingMessageProducer.this;
+			DBCursor cursor = null;
+			try {
+				Object lastId = producer.lastId;
+				boolean skipping = lastId != null
+						&& producer.getCollection().findOne(new BasicDBObject(ID_KEY, lastId)) != null;
+				cursor = producer.openCursor(lastId);
+				this.cursor = cursor;
+				if (!this.active) {
+					// stopped while opening
+					return;
+				}
+				while (this.active && cursor.hasNext()) {
+					DBObject document = cursor.next();
+					Object id = document.get(ID_KEY);
+					if (skipping) {
+						skipping = !lastId.equals(id);
+						continue;
+					}
+					producer.lastId = id;
+					producer.sendMessage(MessageBuilder.withPayload(producer.convert(document))
+							.setHeader(MongoHeaders.COLLECTION_NAME, producer.collectionName)
+							.build());
+				}
+			}
+			catch (RuntimeException e) {
+				if (this.active) {
+					logger.error("Error while tailing collection '" + producer.collectionName + "'", e);
+				}
+			}
+			finally {
+				this.cursor = null;
+				if (cursor != null) {
+					cursor.close();
+				}
+			}
+		}
+
+		public void stop() {
+			this.active = false;
+			this.stopped.countDown();
+			DBCursor cursor = this.cursor;
+			if (cursor != null) {
+				// unblocks the tailing thread
+				cursor.close();
+			}
+		}
+
+		public void awaitTermination() {
+			if (Thread.currentThread() == this.thread) {
+				// restarted by the tailing thread itself (e.g. from a flow it sent a message to)
+				return;
+			}
+			try {
+				this.terminated.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
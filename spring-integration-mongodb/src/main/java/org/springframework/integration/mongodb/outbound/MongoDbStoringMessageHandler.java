@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2012 the original author or authors
+ * Copyright 2007-2013 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -15,6 +15,13 @@
  */
 package org.springframework.integration.mongodb.outbound;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -23,20 +30,35 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.integration.Message;
+import org.springframework.integration.MessageChannel;
+import org.springframework.integration.MessageHandlingException;
+import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.core.MessageHandler;
 import org.springframework.integration.expression.ExpressionUtils;
 import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.integration.util.WriteBehindBuffer;
 import org.springframework.util.Assert;
 /**
  * Implementation of {@link MessageHandler} which writes Message payload into a MongoDb collection
  * identified by evaluation of the {@link #collectionNameExpression}.
+ * <p>
+ * A {@link Collection} payload is written with a single (bulk) insert of its elements.
+ * When the batch size is greater than 1, payloads are accumulated and written with
+ * bulk inserts (one per collection name) when the batch is full or the batch timeout
+ * elapses, and when this handler is destroyed. Note that a bulk insert, unlike the
+ * save used for single payloads, fails if a document with the same id already exists.
+ * When a batch cannot be written, an {@link org.springframework.integration.message.ErrorMessage}
+ * is sent for each of its messages to the {@link #setErrorChannel(MessageChannel) error channel}
+ * (by default, the message's error channel header or the 'errorChannel' bean).
  *
  * @author Amol Nayak
  * @author Oleg Zhurakousky
  * @since 2.2
  *
  */
-public class MongoDbStoringMessageHandler extends AbstractMessageHandler {
+public class MongoDbStoringMessageHandler extends AbstractMessageHandler implements DisposableBean {
+
+	public static final long DEFAULT_BATCH_TIMEOUT = 1000;
 
 	private volatile MongoOperations mongoTemplate;
 
@@ -50,6 +72,16 @@ public class MongoDbStoringMessageHandler extends AbstractMessageHandler {
 
 	private volatile boolean initialized = false;
 
+	private volatile int batchSize = 1;
+
+	private volatile long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+
+	private volatile WriteBehindBuffer<PendingInsert> buffer;
+
+	private final MessagePublishingErrorHandler errorHandler = new MessagePublishingErrorHandler();
+
+	private volatile MessageChannel errorChannel;
+
 	/**
 	 * Will construct this instance using provided {@link MongoDbFactory}
 	 *
@@ -97,6 +129,39 @@ public class MongoDbStoringMessageHandler extends AbstractMessageHandler {
 		this.collectionNameExpression = collectionNameExpression;
 	}
 
+	/**
+	 * The number of payloads to accumulate before writing them with bulk inserts;
+	 * a value greater than 1 enables the write-behind mode. Default 1.
+	 * @param batchSize the batch size.
+	 * @since 3.0
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * The maximum time (milliseconds) payloads remain pending in write-behind mode
+	 * before they are written, even if the batch is not full. Default 1000.
+	 * @param batchTimeout the batch timeout.
+	 * @since 3.0
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		Assert.isTrue(batchTimeout > 0, "'batchTimeout' must be > 0");
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * The channel to which an error message is sent for each message of a batch that
+	 * could not be written in write-behind mode. By default, the message's error channel
+	 * header or the 'errorChannel' bean is used.
+	 * @param errorChannel the error channel.
+	 * @since 3.0
+	 */
+	public void setErrorChannel(MessageChannel errorChannel) {
+		this.errorChannel = errorChannel;
+	}
+
 	@Override
 	protected void onInit() throws Exception {
 		this.evaluationContext =
@@ -104,6 +169,35 @@ public class MongoDbStoringMessageHandler extends AbstractMessageHandler {
 		if (this.mongoTemplate == null){
 			this.mongoTemplate = new MongoTemplate(this.mongoDbFactory, this.mongoConverter);
 		}
+		if (this.batchSize > 1) {
+			this.buffer = new WriteBehindBuffer<PendingInsert>(this.batchSize, new WriteBehindBuffer.Writer<PendingInsert>() {
+
+				public void write(List<PendingInsert> items) {
+					insert(items);
+				}
+
+			});
+			this.errorHandler.setDefaultErrorChannel(this.errorChannel);
+			if (this.getBeanFactory() != null) {
+				this.errorHandler.setBeanFactory(this.getBeanFactory());
+			}
+			this.buffer.setFailureCallback(new WriteBehindBuffer.FailureCallback<PendingInsert>() {
+
+				public void onFailure(List<PendingInsert> items, RuntimeException exception) {
+					// a collection payload contributes several items
+					Set<Message<?>> messages = new LinkedHashSet<Message<?>>();
+					for (PendingInsert item : items) {
+						messages.add(item.message);
+					}
+					for (Message<?> message : messages) {
+						errorHandler.handleError(new MessageHandlingException(message,
+								"Failed to write a batch of " + items.size() + " document(s)", exception));
+					}
+				}
+
+			});
+			this.buffer.start(this.getTaskScheduler(), this.batchTimeout);
+		}
 		this.initialized = true;
 	}
 
@@ -115,6 +209,79 @@ public class MongoDbStoringMessageHandler extends AbstractMessageHandler {
 
 		Object payload = message.getPayload();
 
-		this.mongoTemplate.save(payload, collectionName);
+		WriteBehindBuffer<PendingInsert> buffer = this.buffer;
+		if (buffer != null) {
+			if (payload instanceof Collection) {
+				for (Object element : (Collection<?>) payload) {
+					buffer.add(new PendingInsert(message, collectionName, element));
+				}
+			}
+			else {
+				buffer.add(new PendingInsert(message, collectionName, payload));
+			}
+		}
+		else if (payload instanceof Collection) {
+			if (!((Collection<?>) payload).isEmpty()) {
+				this.mongoTemplate.insert((Collection<?>) payload, collectionName);
+			}
+		}
+		else {
+			this.mongoTemplate.save(payload, collectionName);
+		}
+	}
+
+	/**
+	 * Write any payloads pending in write-behind mode.
+	 * @since 3.0
+	 */
+	public void flush() {
+		WriteBehindBuffer<PendingInsert> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.flush();
+		}
 	}
+
+	/**
+	 * Stop the write-behind timer and write any pending payloads.
+	 */
+	public void destroy() {
+		WriteBehindBuffer<PendingInsert> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.stop();
+		}
+	}
+
+	private void insert(List<PendingInsert> items) {
+		// consecutive payloads for the same collection are written with one bulk insert
+		String collectionName = null;
+		List<Object> documents = new ArrayList<Object>();
+		for (PendingInsert item : items) {
+			if (collectionName != null && !collectionName.equals(item.collectionName)) {
+				this.mongoTemplate.insert(documents, collectionName);
+				documents = new ArrayList<Object>();
+			}
+			collectionName = item.collectionName;
+			documents.add(item.payload);
+		}
+		if (!documents.isEmpty()) {
+			this.mongoTemplate.insert(documents, collectionName);
+		}
+	}
+
+	private static class PendingInsert {
+
+		private final Message<?> message;
+
+		private final String collectionName;
+
+		private final Object payload;
+
+		private PendingInsert(Message<?> message, String collectionName, Object payload) {
+			this.message = message;
+			this.collectionName = collectionName;
+			this.payload = payload;
+		}
+
+	}
+
 }
@@ -22,11 +22,14 @@ import static org.springframework.integration.history.MessageHistory.TIMESTAMP_P
 import static org.springframework.integration.history.MessageHistory.TYPE_PROPERTY;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.DirectFieldAccessor;
@@ -40,9 +43,12 @@ import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.CustomConversions;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Order;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.integration.Message;
@@ -53,12 +59,14 @@ import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
+import org.springframework.integration.store.PersistentMessageGroup;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
+import com.mongodb.AggregationOutput;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
@@ -101,6 +109,8 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore implements Me
 
 	private volatile ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
 
+	private volatile boolean expiryIndexEnsured;
+
 
 	/**
 	 * Create a MongoDbMessageStore using the provided {@link MongoDbFactory}.and the default collection name.
@@ -151,7 +161,21 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore implements Me
 
 	public MessageGroup getMessageGroup(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
-		List<MessageWrapper> messageWrappers = this.template.find(whereGroupIdIs(groupId), MessageWrapper.class, this.collectionName);
+		boolean lazy = this.isLazyLoadMessageGroups();
+		List<MessageWrapper> messageWrappers;
+		if (lazy) {
+			/*
+			 * Only the group metadata is needed; it is held on the most recently
+			 * updated document of the group.
+			 */
+			MessageWrapper metadata = this.template.findOne(whereGroupIdIs(groupId), MessageWrapper.class,
+					this.collectionName);
+			messageWrappers = metadata == null ? Collections.<MessageWrapper>emptyList()
+					: Collections.singletonList(metadata);
+		}
+		else {
+			messageWrappers = this.template.find(whereGroupIdIs(groupId), MessageWrapper.class, this.collectionName);
+		}
 		List<Message<?>> messages = new ArrayList<Message<?>>();
 		long timestamp = 0;
 		long lastmodified = 0;
@@ -165,8 +189,10 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore implements Me
 			lastReleasedSequenceNumber = messageWrapper.get_LastReleasedSequenceNumber();
 		}
 
-		for (MessageWrapper messageWrapper : messageWrappers) {
-			messages.add(messageWrapper.getMessage());
+		if (!lazy) {
+			for (MessageWrapper messageWrapper : messageWrappers) {
+				messages.add(messageWrapper.getMessage());
+			}
 		}
 
 		SimpleMessageGroup messageGroup = new SimpleMessageGroup(messages, groupId, timestamp, completeGroup);
@@ -175,9 +201,29 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore implements Me
 			messageGroup.setLastReleasedMessageSequenceNumber(lastReleasedSequenceNumber);
 		}
 
+		if (lazy && messageWrappers.size() > 0) {
+			return new PersistentMessageGroup(this, messageGroup);
+		}
 		return messageGroup;
 	}
 
+	@Override
+	protected List<Message<?>> getMessagesForGroup(Object groupId) {
+		List<MessageWrapper> messageWrappers = this.template.find(whereGroupIdIs(groupId), MessageWrapper.class, this.collectionName);
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (MessageWrapper messageWrapper : messageWrappers) {
+			messages.add(messageWrapper.getMessage());
+		}
+		return messages;
+	}
+
+	@Override
+	protected Message<?> getOneMessageFromGroup(Object groupId) {
+		MessageWrapper messageWrapper = this.template.findOne(whereGroupIdIsOrdered(groupId), MessageWrapper.class,
+				this.collectionName);
+		return messageWrapper == null ? null : messageWrapper.getMessage();
+	}
+
 	public MessageGroup addMessageToGroup(Object groupId, Message<?> message) {
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(message, "'message' must not be null");
@@ -233,6 +279,43 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore implements Me
 		return messageGroups.values().iterator();
 	}
 
+	/**
+	 * Queries the group timestamps so that only the messages of groups that may have
+	 * expired are loaded; each group is loaded when it is reached. With 'timeoutOnIdle',
+	 * the last update time of each group is aggregated on the server.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getExpiryCandidates(long threshold) {
+		this.ensureExpiryIndex();
+		final Set<Object> groupIds = new LinkedHashSet<Object>();
+		if (this.isTimeoutOnIdle()) {
+			groupIds.addAll(this.idleGroupIds(threshold));
+		}
+		else {
+			groupIds.addAll(this.distinctGroupIds(where(GROUP_TIMESTAMP_KEY).lte(threshold)));
+		}
+		return new Iterable<MessageGroup>() {
+
+			public Iterator<MessageGroup> iterator() {
+				final Iterator<Object> iterator = groupIds.iterator();
+				return new Iterator<MessageGroup>() {
+
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					public MessageGroup next() {
+						return getMessageGroup(iterator.next());
+					}
+
+					public void remove() {
+						throw new UnsupportedOperationException("Cannot remove MessageGroup from this iterator.");
+					}
+				};
+			}
+		};
+	}
+
 	public void completeGroup(Object groupId) {
 		Update update = Update.update(GROUP_COMPLETE_KEY, true);
 		Query q = whereGroupIdIs(groupId);
@@ -292,6 +375,39 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore implements Me
 		return q;
 	}
 
+	@SuppressWarnings("unchecked")
+	private List<Object> distinctGroupIds(Criteria criteria) {
+		Query query = new Query(criteria.and(GROUP_ID_KEY).exists(true));
+		return this.template.getCollection(this.collectionName).distinct(GROUP_ID_KEY, query.getQueryObject());
+	}
+
+	/**
+	 * Only the most recently updated document of a group carries its current update
+	 * timestamp, so a group's last update is the maximum over its documents.
+	 */
+	private List<Object> idleGroupIds(long threshold) {
+		DBObject groups = new BasicDBObject("$match", new BasicDBObject(GROUP_ID_KEY, new BasicDBObject("$exists", true)));
+		DBObject lastUpdates = new BasicDBObject("$group", new BasicDBObject("_id", "$" + GROUP_ID_KEY)
+				.append(GROUP_UPDATE_TIMESTAMP_KEY, new BasicDBObject("$max", "$" + GROUP_UPDATE_TIMESTAMP_KEY)));
+		DBObject idle = new BasicDBObject("$match",
+				new BasicDBObject(GROUP_UPDATE_TIMESTAMP_KEY, new BasicDBObject("$lte", threshold)));
+		AggregationOutput output = this.template.getCollection(this.collectionName).aggregate(groups, lastUpdates, idle);
+		output.getCommandResult().throwOnError();
+		List<Object> groupIds = new ArrayList<Object>();
+		for (DBObject result : output.results()) {
+			groupIds.add(result.get("_id"));
+		}
+		return groupIds;
+	}
+
+	private void ensureExpiryIndex() {
+		if (!this.expiryIndexEnsured) {
+			this.template.indexOps(this.collectionName).ensureIndex(
+					new Index().on(GROUP_TIMESTAMP_KEY, Order.ASCENDING));
+			this.expiryIndexEnsured = true;
+		}
+	}
+
 	private void updateGroup(Object groupId) {
 		Update update = Update.update(GROUP_UPDATE_TIMESTAMP_KEY, System.currentTimeMillis());
 		Query q = whereGroupIdIs(groupId);
@@ -27,6 +27,7 @@ import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.integration.endpoint.SourcePollingChannelAdapter;
 import org.springframework.integration.mongodb.inbound.MongoDbMessageSource;
+import org.springframework.integration.mongodb.inbound.MongoDbTailingMessageProducer;
 import org.springframework.integration.test.util.TestUtils;
 /**
  * @author Oleg Zhurakousky
@@ -95,6 +96,35 @@ public class MongoDbInboundChannelAdapterParserTests {
 		assertEquals("foo", TestUtils.getPropertyValue(source, "collectionNameExpression.literalValue"));
 	}
 
+	@Test
+	public void streamingConfig(){
+		ClassPathXmlApplicationContext context =
+				new ClassPathXmlApplicationContext("inbound-adapter-parser-config.xml", this.getClass());
+		SourcePollingChannelAdapter spca = context.getBean("streamingConfig.adapter", SourcePollingChannelAdapter.class);
+		MongoDbMessageSource source = TestUtils.getPropertyValue(spca, "source", MongoDbMessageSource.class);
+
+		assertEquals(true, TestUtils.getPropertyValue(source, "streaming"));
+		assertEquals(50, TestUtils.getPropertyValue(source, "batchSize"));
+		context.close();
+	}
+
+	@Test
+	public void tailConfig(){
+		ClassPathXmlApplicationContext context =
+				new ClassPathXmlApplicationContext("inbound-adapter-parser-config.xml", this.getClass());
+		MongoDbTailingMessageProducer producer = context.getBean("tailConfig", MongoDbTailingMessageProducer.class);
+
+		assertEquals(false, producer.isAutoStartup());
+		assertEquals(context.getBean("mongoDbTemplate"), TestUtils.getPropertyValue(producer, "mongoTemplate"));
+		assertEquals(context.getBean("tailChannel"), TestUtils.getPropertyValue(producer, "outputChannel"));
+		assertEquals(context.getBean("exec"), TestUtils.getPropertyValue(producer, "taskExecutor"));
+		assertEquals("capped", TestUtils.getPropertyValue(producer, "collectionName"));
+		assertEquals("{'name' : 'Manny'}", TestUtils.getPropertyValue(producer, "query"));
+		assertEquals(String.class, TestUtils.getPropertyValue(producer, "entityClass"));
+		assertEquals(500L, TestUtils.getPropertyValue(producer, "reconnectDelay"));
+		context.close();
+	}
+
 	@Test(expected=BeanDefinitionParsingException.class)
 	public void templateAndFactoryFail(){
 		new ClassPathXmlApplicationContext("inbound-adapter-parser-fail-template-factory-config.xml", this.getClass());
@@ -17,6 +17,7 @@ package org.springframework.integration.mongodb.config;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -102,6 +103,19 @@ public class MongoDbOutboundChannelAdapterParserTests {
 		assertEquals("foo", TestUtils.getPropertyValue(handler, "collectionNameExpression.literalValue"));
 	}
 
+	@Test
+	public void writeBehindConfig(){
+		ClassPathXmlApplicationContext context =
+				new ClassPathXmlApplicationContext("outbound-adapter-parser-config.xml", this.getClass());
+		MongoDbStoringMessageHandler handler =
+				TestUtils.getPropertyValue(context.getBean("writeBehindConfig.adapter"), "handler", MongoDbStoringMessageHandler.class);
+		assertEquals(100, TestUtils.getPropertyValue(handler, "batchSize"));
+		assertEquals(500L, TestUtils.getPropertyValue(handler, "batchTimeout"));
+		assertNotNull(TestUtils.getPropertyValue(handler, "buffer"));
+		assertSame(context.getBean("input"), TestUtils.getPropertyValue(handler, "errorChannel"));
+		context.close();
+	}
+
 	@Test(expected=BeanDefinitionParsingException.class)
 	public void templateAndFactoryFail(){
 		new ClassPathXmlApplicationContext("outbound-adapter-parser-fail-template-factory-config.xml", this.getClass());
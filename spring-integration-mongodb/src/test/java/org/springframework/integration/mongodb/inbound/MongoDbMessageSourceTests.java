@@ -17,10 +17,14 @@ package org.springframework.integration.mongodb.inbound;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.List;
 
@@ -33,9 +37,14 @@ import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
+import org.springframework.integration.Message;
 import org.springframework.integration.mongodb.rules.MongoDbAvailable;
 import org.springframework.integration.mongodb.rules.MongoDbAvailableTests;
+import org.springframework.integration.mongodb.support.MongoHeaders;
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.util.JSON;
 
@@ -259,4 +268,48 @@ public class MongoDbMessageSourceTests extends MongoDbAvailableTests {
 		result = (DBObject) messageSource.receive().getPayload();
 		assertEquals(id, result.get("_id"));
 	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void streamingReturnsBatchesFromOneCursor() throws Exception {
+		MongoOperations template = mock(MongoOperations.class);
+		DBCollection collection = mock(DBCollection.class);
+		DBCursor cursor = mock(DBCursor.class);
+		when(template.getCollection("data")).thenReturn(collection);
+		when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+		when(cursor.batchSize(anyInt())).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, true, true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("name", "Manny"), new BasicDBObject("name", "Moe"),
+				new BasicDBObject("name", "Jack"));
+
+		MongoDbMessageSource messageSource = new MongoDbMessageSource(template, new LiteralExpression("{}"));
+		messageSource.setStreaming(true);
+		messageSource.setBatchSize(2);
+		messageSource.afterPropertiesSet();
+
+		Message<Object> message = messageSource.receive();
+		assertEquals(2, ((List<DBObject>) message.getPayload()).size());
+		assertEquals("data", message.getHeaders().get(MongoHeaders.COLLECTION_NAME));
+		verify(cursor, never()).close();
+
+		message = messageSource.receive();
+		List<DBObject> results = (List<DBObject>) message.getPayload();
+		assertEquals(1, results.size());
+		assertEquals("Jack", results.get(0).get("name"));
+		verify(cursor).close();
+		verify(cursor).batchSize(2);
+		verify(collection, times(1)).find(any(DBObject.class), any(DBObject.class));
+
+		assertNull(messageSource.receive());
+		verify(collection, times(2)).find(any(DBObject.class), any(DBObject.class));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void streamingWithSingleResult() throws Exception {
+		MongoDbMessageSource messageSource = new MongoDbMessageSource(mock(MongoOperations.class),
+				new LiteralExpression("{}"));
+		messageSource.setStreaming(true);
+		messageSource.setExpectSingleResult(true);
+		messageSource.afterPropertiesSet();
+	}
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.mongodb.inbound;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.integration.Message;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.mongodb.support.MongoHeaders;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.Bytes;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * @since 3.0
+ */
+public class MongoDbTailingMessageProducerTests {
+
+	@Test
+	public void tailAndResumeAfterLastDocument() throws Exception {
+		MongoOperations template = mock(MongoOperations.class);
+		DBCollection collection = mock(DBCollection.class);
+		DBObject manny = new BasicDBObject("_id", 42).append("name", "Manny");
+		DBObject moe = new BasicDBObject("_id", 7).append("name", "Moe");
+		when(template.getCollection("capped")).thenReturn(collection);
+		when(collection.findOne(any(DBObject.class))).thenReturn(manny);
+		DBCursor cursor1 = mock(DBCursor.class);
+		when(cursor1.addOption(anyInt())).thenReturn(cursor1);
+		when(cursor1.hasNext()).thenReturn(true, false);
+		when(cursor1.next()).thenReturn(manny);
+		// the reopened cursor starts at the beginning again; ids are not ordered
+		DBCursor cursor2 = mock(DBCursor.class);
+		when(cursor2.addOption(anyInt())).thenReturn(cursor2);
+		when(cursor2.hasNext()).thenReturn(true, true, false);
+		when(cursor2.next()).thenReturn(manny, moe);
+		DBCursor cursor3 = mock(DBCursor.class);
+		when(cursor3.addOption(anyInt())).thenReturn(cursor3);
+		when(collection.find(any(DBObject.class))).thenReturn(cursor1, cursor2, cursor3);
+
+		QueueChannel outputChannel = new QueueChannel();
+		MongoDbTailingMessageProducer producer = new MongoDbTailingMessageProducer(template, "capped");
+		producer.setQuery("{'name' : 'Manny'}");
+		producer.setReconnectDelay(10);
+		producer.setOutputChannel(outputChannel);
+		producer.afterPropertiesSet();
+		producer.start();
+
+		Message<?> message = outputChannel.receive(10000);
+		assertNotNull(message);
+		assertEquals("Manny", ((DBObject) message.getPayload()).get("name"));
+		assertEquals("capped", message.getHeaders().get(MongoHeaders.COLLECTION_NAME));
+		message = outputChannel.receive(10000);
+		assertNotNull(message);
+		assertEquals("Moe", ((DBObject) message.getPayload()).get("name"));
+		producer.stop();
+		assertNull(outputChannel.receive(100));
+
+		verify(cursor1, atLeastOnce()).addOption(Bytes.QUERYOPTION_TAILABLE);
+		verify(cursor1, atLeastOnce()).addOption(Bytes.QUERYOPTION_AWAITDATA);
+		verify(cursor1, atLeastOnce()).close();
+		verify(cursor2, atLeastOnce()).close();
+		ArgumentCaptor<DBObject> queryCaptor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection, atLeastOnce()).find(queryCaptor.capture());
+		List<DBObject> queries = queryCaptor.getAllValues();
+		assertEquals("Manny", queries.get(0).get("name"));
+		List<?> or = (List<?>) queries.get(1).get("$or");
+		assertEquals("Manny", ((DBObject) or.get(0)).get("name"));
+		assertEquals(42, ((DBObject) or.get(1)).get("_id"));
+	}
+
+	@Test
+	public void restartDoesNotOverlapWithPreviousTask() throws Exception {
+		MongoOperations template = mock(MongoOperations.class);
+		DBCollection collection = mock(DBCollection.class);
+		when(template.getCollection("capped")).thenReturn(collection);
+		final AtomicInteger opened = new AtomicInteger();
+		final CountDownLatch firstTailing = new CountDownLatch(1);
+		final CountDownLatch secondTailing = new CountDownLatch(1);
+		when(collection.find(any(DBObject.class))).thenAnswer(new Answer<DBCursor>() {
+
+			public DBCursor answer(InvocationOnMock invocation) throws Throwable {
+				return blockingCursor(opened.incrementAndGet() == 1 ? firstTailing : secondTailing);
+			}
+
+		});
+
+		MongoDbTailingMessageProducer producer = new MongoDbTailingMessageProducer(template, "capped");
+		producer.setReconnectDelay(10);
+		producer.setOutputChannel(new QueueChannel());
+		producer.afterPropertiesSet();
+		producer.start();
+		assertTrue(firstTailing.await(10, TimeUnit.SECONDS));
+		producer.stop();
+		producer.start();
+		assertTrue(secondTailing.await(10, TimeUnit.SECONDS));
+		// the previous task must not reopen its cursor after the restart
+		Thread.sleep(200);
+		assertEquals(2, opened.get());
+		producer.stop();
+	}
+
+	private DBCursor blockingCursor(final CountDownLatch tailing) {
+		DBCursor cursor = mock(DBCursor.class);
+		final CountDownLatch closed = new CountDownLatch(1);
+		when(cursor.addOption(anyInt())).thenReturn(cursor);
+		when(cursor.hasNext()).thenAnswer(new Answer<Boolean>() {
+
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				tailing.countDown();
+				closed.await(10, TimeUnit.SECONDS);
+				return false;
+			}
+
+		});
+		doAnswer(new Answer<Object>() {
+
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				closed.countDown();
+				return null;
+			}
+
+		}).when(cursor).close();
+		return cursor;
+	}
+
+}
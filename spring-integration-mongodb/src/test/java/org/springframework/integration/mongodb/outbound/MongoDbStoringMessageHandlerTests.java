@@ -16,10 +16,21 @@
 package org.springframework.integration.mongodb.outbound;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.springframework.data.mongodb.MongoDbFactory;
@@ -30,7 +41,10 @@ import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.query.BasicQuery;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.Message;
+import org.springframework.integration.MessagingException;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.mongodb.rules.MongoDbAvailable;
 import org.springframework.integration.mongodb.rules.MongoDbAvailableTests;
 import org.springframework.integration.support.MessageBuilder;
@@ -141,4 +155,66 @@ public class MongoDbStoringMessageHandlerTests extends MongoDbAvailableTests {
 		assertEquals("PA", person.getAddress().getState());
 		verify(converter, times(1)).write(Mockito.any(), Mockito.any(DBObject.class));
 	}
+
+	@Test
+	public void collectionPayloadIsBulkInserted() throws Exception {
+		MongoOperations template = mock(MongoOperations.class);
+		MongoDbStoringMessageHandler handler = new MongoDbStoringMessageHandler(template);
+		handler.afterPropertiesSet();
+		handler.handleMessage(MessageBuilder.withPayload(Arrays.asList("foo", "bar")).build());
+		verify(template).insert(Arrays.asList("foo", "bar"), "data");
+		verify(template, never()).save(any(), anyString());
+	}
+
+	@Test
+	public void writeBehindUsesBulkInsertsPerCollection() throws Exception {
+		MongoOperations template = mock(MongoOperations.class);
+		MongoDbStoringMessageHandler handler = new MongoDbStoringMessageHandler(template);
+		handler.setCollectionNameExpression(new SpelExpressionParser().parseExpression("headers.collection"));
+		handler.setBatchSize(4);
+		handler.setBatchTimeout(60000);
+		handler.afterPropertiesSet();
+
+		handler.handleMessage(MessageBuilder.withPayload("foo").setHeader("collection", "a").build());
+		handler.handleMessage(MessageBuilder.withPayload(Arrays.asList("bar", "baz")).setHeader("collection", "a").build());
+		verify(template, never()).insert(anyCollection(), anyString());
+		handler.handleMessage(MessageBuilder.withPayload("qux").setHeader("collection", "b").build());
+		verify(template).insert(Arrays.asList("foo", "bar", "baz"), "a");
+		verify(template).insert(Arrays.<Object>asList("qux"), "b");
+
+		handler.handleMessage(MessageBuilder.withPayload("fiz").setHeader("collection", "b").build());
+		verify(template, times(2)).insert(anyCollection(), anyString());
+		handler.destroy();
+		verify(template).insert(Arrays.<Object>asList("fiz"), "b");
+		verify(template, never()).save(any(), anyString());
+	}
+
+
+	@Test
+	public void writeBehindFailureGoesToErrorChannel() throws Exception {
+		MongoOperations template = mock(MongoOperations.class);
+		doThrow(new RuntimeException("planned")).when(template).insert(anyCollection(), anyString());
+		QueueChannel errorChannel = new QueueChannel();
+		MongoDbStoringMessageHandler handler = new MongoDbStoringMessageHandler(template);
+		handler.setBatchSize(3);
+		handler.setBatchTimeout(60000);
+		handler.setErrorChannel(errorChannel);
+		handler.afterPropertiesSet();
+
+		Message<?> foo = MessageBuilder.withPayload("foo").build();
+		Message<?> barBaz = MessageBuilder.withPayload(Arrays.asList("bar", "baz")).build();
+		handler.handleMessage(foo);
+		// the sender of the message that fills the batch is not affected
+		handler.handleMessage(barBaz);
+		Message<?> error = errorChannel.receive(0);
+		assertNotNull(error);
+		assertSame(foo, ((MessagingException) error.getPayload()).getFailedMessage());
+		assertEquals("planned", ((MessagingException) error.getPayload()).getCause().getMessage());
+		error = errorChannel.receive(0);
+		assertNotNull(error);
+		assertSame(barBaz, ((MessagingException) error.getPayload()).getFailedMessage());
+		assertNull(errorChannel.receive(0));
+		handler.destroy();
+	}
+
 }
@@ -15,12 +15,19 @@
  */
 package org.springframework.integration.redis.inbound;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundListOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -30,6 +37,7 @@ import org.springframework.integration.MessageChannel;
 import org.springframework.integration.MessagingException;
 import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.endpoint.MessageProducerSupport;
+import org.springframework.integration.message.ErrorMessage;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.util.ErrorHandlingTaskExecutor;
 import org.springframework.jmx.export.annotation.ManagedMetric;
@@ -38,6 +46,22 @@ import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.util.Assert;
 
 /**
+ * Pops elements from a Redis list (queue) and sends them as messages.
+ * <p>
+ * Throughput can be increased with {@link #setConcurrentConsumers(int) concurrent consumers},
+ * each running its own listener loop, and with a {@link #setBatchSize(int) batch size}, in which
+ * case, after a blocking pop returns an element, up to {@code batchSize - 1} further elements are
+ * popped in a single pipelined round trip.
+ * <p>
+ * When a {@link #setProcessingQueueName(String) processing queue} is provided, elements are moved
+ * to that list ({@code RPOPLPUSH}) and only removed from it after the message has been sent
+ * successfully, or after an {@link ErrorMessage} for the failure has been sent to the
+ * {@link #setErrorChannel(MessageChannel) error channel}. Other elements remain in the processing
+ * queue (for example when there is no error channel, or after a crash); they are moved back to the
+ * head of the queue, to be popped next, when the endpoint is started, or with
+ * {@link #recoverProcessingQueue()}. The processing queue must therefore not be shared with other
+ * endpoint instances.
+ *
  * @author Mark Fisher
  * @author Gunnar Hillert
  * @author Artem Bilan
@@ -48,8 +72,16 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 
 	public static final long DEFAULT_RECEIVE_TIMEOUT = 1000;
 
+	private final RedisTemplate<String, byte[]> template;
+
 	private final BoundListOperations<String, byte[]> boundListOperations;
 
+	private final StringRedisSerializer keySerializer = new StringRedisSerializer();
+
+	private final AtomicInteger listenerCount = new AtomicInteger();
+
+	private final MessagePublishingErrorHandler errorHandler = new MessagePublishingErrorHandler();
+
 	private MessageChannel errorChannel;
 
 	private volatile TaskExecutor taskExecutor;
@@ -62,7 +94,11 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 
 	private volatile boolean active;
 
-	private volatile boolean listening;
+	private volatile int concurrentConsumers = 1;
+
+	private volatile int batchSize = 1;
+
+	private volatile String processingQueueName;
 
 	/**
 	 * @param queueName         Must not be an empty String
@@ -74,8 +110,9 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 		RedisTemplate<String, byte[]> template = new RedisTemplate<String, byte[]>();
 		template.setConnectionFactory(connectionFactory);
 		template.setEnableDefaultSerializer(false);
-		template.setKeySerializer(new StringRedisSerializer());
+		template.setKeySerializer(this.keySerializer);
 		template.afterPropertiesSet();
+		this.template = template;
 		this.boundListOperations = template.boundListOps(queueName);
 	}
 
@@ -117,6 +154,44 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * The number of listener loops popping from the queue concurrently; each loop
+	 * runs on its own {@link #setTaskExecutor(TaskExecutor) task executor} thread
+	 * and holds its own Redis connection while blocked. Default 1.
+	 *
+	 * @param concurrentConsumers Must be greater than 0.
+	 */
+	public void setConcurrentConsumers(int concurrentConsumers) {
+		Assert.isTrue(concurrentConsumers > 0, "'concurrentConsumers' must be > 0.");
+		this.concurrentConsumers = concurrentConsumers;
+	}
+
+	/**
+	 * The maximum number of elements popped by each round trip. When greater than 1,
+	 * a blocking pop is followed by up to {@code batchSize - 1} pipelined non-blocking
+	 * pops; the messages are then sent in order. Default 1.
+	 *
+	 * @param batchSize Must be greater than 0.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0.");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * The name of a Redis list to which elements are atomically moved when popped;
+	 * an element is removed from this list when its message has been sent successfully.
+	 * Providing this list enables the reliable mode; by default, elements are
+	 * removed from the queue when popped.
+	 *
+	 * @param processingQueueName The processing queue; must not be the queue itself.
+	 */
+	public void setProcessingQueueName(String processingQueueName) {
+		Assert.isTrue(processingQueueName == null || !processingQueueName.equals(this.boundListOperations.getKey()),
+				"'processingQueueName' must not be the same as the queue name.");
+		this.processingQueueName = processingQueueName;
+	}
+
 	public void setTaskExecutor(TaskExecutor taskExecutor) {
 		this.taskExecutor = taskExecutor;
 	}
@@ -137,10 +212,12 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 			String beanName = this.getComponentName();
 			this.taskExecutor = new SimpleAsyncTaskExecutor((beanName == null ? "" : beanName + "-") + this.getComponentType());
 		}
+		this.errorHandler.setDefaultErrorChannel(this.errorChannel);
+		if (this.getBeanFactory() != null) {
+			this.errorHandler.setBeanFactory(this.getBeanFactory());
+		}
 		if (!(this.taskExecutor instanceof ErrorHandlingTaskExecutor)) {
-			MessagePublishingErrorHandler errorHandler = new MessagePublishingErrorHandler();
-			errorHandler.setDefaultErrorChannel(this.errorChannel);
-			this.taskExecutor = new ErrorHandlingTaskExecutor(this.taskExecutor, errorHandler);
+			this.taskExecutor = new ErrorHandlingTaskExecutor(this.taskExecutor, this.errorHandler);
 		}
 	}
 
@@ -149,40 +226,125 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 		return "int-redis:message-driven-channel-adapter";
 	}
 
-	@SuppressWarnings("unchecked")
-	private void popMessageAndSend() {
-		Message<Object> message = null;
-
-		byte[] value = this.boundListOperations.rightPop(this.receiveTimeout, TimeUnit.MILLISECONDS);
-
-		if (value != null) {
-			if (this.expectMessage) {
-				try {
-					message = (Message<Object>) this.serializer.deserialize(value);
+	private void popMessagesAndSend() {
+		String processingQueueName = this.processingQueueName;
+		List<byte[]> values = this.pop(processingQueueName);
+		for (byte[] value : values) {
+			try {
+				this.sendMessage(this.toMessage(value));
+				if (processingQueueName != null) {
+					this.template.opsForList().remove(processingQueueName, 1, value);
 				}
-				catch (Exception e) {
-					throw new MessagingException("Deserialization of Message failed.", e);
+			}
+			catch (RuntimeException e) {
+				if (this.sendErrorMessage(e)) {
+					if (processingQueueName != null) {
+						this.template.opsForList().remove(processingQueueName, 1, value);
+					}
+				}
+				else if (values.size() == 1) {
+					throw e;
+				}
+				else if (logger.isErrorEnabled()) {
+					// don't lose the remainder of the batch
+					logger.error("Failed to process an element" + (processingQueueName == null ? ""
+							: "; it remains in the processing queue '" + processingQueueName + "'"), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true if an {@link ErrorMessage} for the exception was sent to the error channel.
+	 */
+	private boolean sendErrorMessage(RuntimeException e) {
+		MessageChannel errorChannel = this.errorChannel;
+		if (errorChannel != null) {
+			try {
+				return errorChannel.send(new ErrorMessage(e));
+			}
+			catch (RuntimeException errorDeliveryError) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Error message was not delivered.", errorDeliveryError);
 				}
 			}
-			else {
-				Object payload = value;
-				if (this.serializer != null) {
-					payload = this.serializer.deserialize(value);
+		}
+		return false;
+	}
+
+	private List<byte[]> pop(final String processingQueueName) {
+		byte[] value;
+		if (processingQueueName == null) {
+			value = this.boundListOperations.rightPop(this.receiveTimeout, TimeUnit.MILLISECONDS);
+		}
+		else {
+			value = this.template.opsForList().rightPopAndLeftPush(this.boundListOperations.getKey(),
+					processingQueueName, this.receiveTimeout, TimeUnit.MILLISECONDS);
+		}
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		if (this.batchSize == 1) {
+			return Collections.singletonList(value);
+		}
+		final byte[] key = this.keySerializer.serialize(this.boundListOperations.getKey());
+		final byte[] processingKey = this.keySerializer.serialize(processingQueueName);
+		List<Object> results = this.template.execute(new RedisCallback<List<Object>>() {
+
+			@Override
+			public List<Object> doInRedis(RedisConnection connection) throws DataAccessException {
+				connection.openPipeline();
+				for (int i = 1; i < RedisQueueMessageDrivenEndpoint.this.batchSize; i++) {
+					if (processingKey == null) {
+						connection.rPop(key);
+					}
+					else {
+						connection.rPopLPush(key, processingKey);
+					}
 				}
-				message = MessageBuilder.withPayload(payload).build();
+				return connection.closePipeline();
+			}
+
+		});
+		List<byte[]> values = new ArrayList<byte[]>(this.batchSize);
+		values.add(value);
+		for (Object result : results) {
+			if (result instanceof byte[]) {
+				values.add((byte[]) result);
 			}
 		}
+		return values;
+	}
 
-		if (message != null) {
-			this.sendMessage(message);
+	@SuppressWarnings("unchecked")
+	private Message<Object> toMessage(byte[] value) {
+		if (this.expectMessage) {
+			try {
+				return (Message<Object>) this.serializer.deserialize(value);
+			}
+			catch (Exception e) {
+				throw new MessagingException("Deserialization of Message failed.", e);
+			}
+		}
+		else {
+			Object payload = value;
+			if (this.serializer != null) {
+				payload = this.serializer.deserialize(value);
+			}
+			return MessageBuilder.withPayload(payload).build();
 		}
 	}
 
 	@Override
 	protected void doStart() {
 		if (!this.active) {
+			if (this.processingQueueName != null) {
+				this.recoverProcessingQueue();
+			}
 			this.active = true;
-			this.restart();
+			for (int i = 0; i < this.concurrentConsumers; i++) {
+				this.restart();
+			}
 		}
 	}
 
@@ -196,7 +358,15 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 	}
 
 	public boolean isListening() {
-		return listening;
+		return this.listenerCount.get() > 0;
+	}
+
+	/**
+	 * @return the number of listener loops currently running.
+	 */
+	@ManagedMetric
+	public int getListenerCount() {
+		return this.listenerCount.get();
 	}
 
 	/**
@@ -219,24 +389,49 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport {
 		this.boundListOperations.getOperations().delete(this.boundListOperations.getKey());
 	}
 
+	/**
+	 * Move all elements from the processing queue, if any, back to the head (right end) of
+	 * the queue, in the order they were popped, so they will be popped next. Each element
+	 * is pushed to the queue before it is removed from the processing queue, so a failure
+	 * can cause an element to be delivered twice, but not to be lost. This is invoked when
+	 * the endpoint is started; it should only be invoked manually while the endpoint is stopped.
+	 *
+	 * @return the number of elements recovered.
+	 */
+	@ManagedOperation
+	public int recoverProcessingQueue() {
+		Assert.state(this.processingQueueName != null, "No 'processingQueueName' configured.");
+		BoundListOperations<String, byte[]> processingQueue = this.template.boundListOps(this.processingQueueName);
+		int n = 0;
+		byte[] value;
+		// the most recently popped element is at the left of the processing queue
+		while ((value = processingQueue.index(0)) != null) {
+			this.boundListOperations.rightPush(value);
+			processingQueue.leftPop();
+			n++;
+		}
+		if (n > 0 && logger.isInfoEnabled()) {
+			logger.info("Recovered " + n + " element(s) from processing queue '" + this.processingQueueName + "'");
+		}
+		return n;
+	}
+
 
 	private class ListenerTask implements Runnable {
 
 		@Override
 		public void run() {
-			RedisQueueMessageDrivenEndpoint.this.listening = true;
+			RedisQueueMessageDrivenEndpoint.this.listenerCount.incrementAndGet();
 			try {
 				while (RedisQueueMessageDrivenEndpoint.this.active) {
-					RedisQueueMessageDrivenEndpoint.this.popMessageAndSend();
+					RedisQueueMessageDrivenEndpoint.this.popMessagesAndSend();
 				}
 			}
 			finally {
+				RedisQueueMessageDrivenEndpoint.this.listenerCount.decrementAndGet();
 				if (RedisQueueMessageDrivenEndpoint.this.active) {
 					RedisQueueMessageDrivenEndpoint.this.restart();
 				}
-				else {
-					RedisQueueMessageDrivenEndpoint.this.listening = false;
-				}
 			}
 		}
 
@@ -16,7 +16,14 @@
 
 package org.springframework.integration.redis.outbound;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -25,17 +32,35 @@ import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.integration.Message;
+import org.springframework.integration.MessageChannel;
+import org.springframework.integration.MessageHandlingException;
+import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.expression.IntegrationEvaluationContextAware;
 import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.integration.util.WriteBehindBuffer;
 import org.springframework.util.Assert;
 
 /**
+ * Pushes message payloads (or messages) onto a Redis list (queue).
+ * <p>
+ * When a {@link #setBatchSize(int) batch size} greater than 1 is configured, the adapter
+ * operates in write-behind mode: values are accumulated and pushed with pipelined
+ * {@code LPUSH}es when the batch is full, or when the {@link #setBatchTimeout(long) batch timeout}
+ * elapses. In this mode, a message is considered handled before its value has been written
+ * to Redis, so pending values are lost if the application terminates abnormally. When a batch
+ * cannot be pushed, an {@link org.springframework.integration.message.ErrorMessage} is sent for
+ * each of its messages to the {@link #setErrorChannel(MessageChannel) error channel} (by default,
+ * the message's error channel header or the 'errorChannel' bean).
+ *
  * @author Mark Fisher
  * @author Gunnar Hillert
  * @author Artem Bilan
  * @since 3.0
  */
-public class RedisQueueOutboundChannelAdapter extends AbstractMessageHandler implements IntegrationEvaluationContextAware {
+public class RedisQueueOutboundChannelAdapter extends AbstractMessageHandler
+		implements IntegrationEvaluationContextAware, DisposableBean {
+
+	public static final long DEFAULT_BATCH_TIMEOUT = 1000;
 
 	private final RedisSerializer<String> stringSerializer = new StringRedisSerializer();
 
@@ -51,6 +76,16 @@ public class RedisQueueOutboundChannelAdapter extends AbstractMessageHandler imp
 
 	private volatile boolean serializerExplicitlySet;
 
+	private volatile int batchSize = 1;
+
+	private volatile long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+
+	private volatile WriteBehindBuffer<PendingPush> buffer;
+
+	private final MessagePublishingErrorHandler errorHandler = new MessagePublishingErrorHandler();
+
+	private volatile MessageChannel errorChannel;
+
 	public RedisQueueOutboundChannelAdapter(String queueName, RedisConnectionFactory connectionFactory) {
 		this(new LiteralExpression(queueName), connectionFactory);
 	}
@@ -82,6 +117,36 @@ public class RedisQueueOutboundChannelAdapter extends AbstractMessageHandler imp
 		this.serializerExplicitlySet = true;
 	}
 
+	/**
+	 * The number of values to accumulate before pushing them in one pipelined
+	 * round trip; a value greater than 1 enables the write-behind mode. Default 1.
+	 * @param batchSize the batch size.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * The maximum time (milliseconds) values remain pending in write-behind mode
+	 * before they are pushed, even if the batch is not full. Default 1000.
+	 * @param batchTimeout the batch timeout.
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		Assert.isTrue(batchTimeout > 0, "'batchTimeout' must be > 0");
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * The channel to which an error message is sent for each message of a batch that
+	 * could not be pushed in write-behind mode. By default, the message's error channel
+	 * header or the 'errorChannel' bean is used.
+	 * @param errorChannel the error channel.
+	 */
+	public void setErrorChannel(MessageChannel errorChannel) {
+		this.errorChannel = errorChannel;
+	}
+
 	@Override
 	public String getComponentType() {
 		return "int-redis:outbound-channel-adapter";
@@ -106,7 +171,106 @@ public class RedisQueueOutboundChannelAdapter extends AbstractMessageHandler imp
 		}
 
 		String queueName = this.queueNameExpression.getValue(this.evaluationContext, message, String.class);
-		this.template.boundListOps(queueName).leftPush(value);
+		WriteBehindBuffer<PendingPush> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.add(new PendingPush(message, queueName, (byte[]) value));
+		}
+		else {
+			this.template.boundListOps(queueName).leftPush(value);
+		}
+	}
+
+	@Override
+	protected void onInit() throws Exception {
+		super.onInit();
+		if (this.batchSize > 1) {
+			this.buffer = new WriteBehindBuffer<PendingPush>(this.batchSize, new WriteBehindBuffer.Writer<PendingPush>() {
+
+				public void write(List<PendingPush> items) {
+					push(items);
+				}
+
+			});
+			this.errorHandler.setDefaultErrorChannel(this.errorChannel);
+			if (this.getBeanFactory() != null) {
+				this.errorHandler.setBeanFactory(this.getBeanFactory());
+			}
+			this.buffer.setFailureCallback(new WriteBehindBuffer.FailureCallback<PendingPush>() {
+
+				public void onFailure(List<PendingPush> items, RuntimeException exception) {
+					for (PendingPush item : items) {
+						errorHandler.handleError(new MessageHandlingException(item.message,
+								"Failed to push a batch of " + items.size() + " value(s)", exception));
+					}
+				}
+
+			});
+			this.buffer.start(this.getTaskScheduler(), this.batchTimeout);
+		}
+	}
+
+	/**
+	 * Push any values pending in write-behind mode.
+	 */
+	public void flush() {
+		WriteBehindBuffer<PendingPush> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.flush();
+		}
+	}
+
+	/**
+	 * Stop the write-behind timer and push any pending values.
+	 */
+	public void destroy() {
+		WriteBehindBuffer<PendingPush> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.stop();
+		}
+	}
+
+	private void push(List<PendingPush> items) {
+		// consecutive values for the same queue are pushed with one (variadic) LPUSH
+		final List<byte[]> keys = new ArrayList<byte[]>();
+		final List<List<byte[]>> values = new ArrayList<List<byte[]>>();
+		String lastQueueName = null;
+		for (PendingPush item : items) {
+			if (!item.queueName.equals(lastQueueName)) {
+				keys.add(this.stringSerializer.serialize(item.queueName));
+				values.add(new ArrayList<byte[]>());
+				lastQueueName = item.queueName;
+			}
+			values.get(values.size() - 1).add(item.value);
+		}
+		this.template.execute(new RedisCallback<Object>() {
+
+			public Object doInRedis(RedisConnection connection) throws DataAccessException {
+				connection.openPipeline();
+				for (int i = 0; i < keys.size(); i++) {
+					List<byte[]> queueValues = values.get(i);
+					connection.lPush(keys.get(i), queueValues.toArray(new byte[queueValues.size()][]));
+				}
+				connection.closePipeline();
+				return null;
+			}
+
+		});
+	}
+
+	private static class PendingPush {
+
+		private final Message<?> message;
+
+		private final String queueName;
+
+		private final byte[] value;
+
+		private PendingPush(Message<?> message, String queueName, byte[] value) {
+			this.message = message;
+			this.queueName = queueName;
+			this.value = value;
+		}
+
 	}
 
 }
@@ -16,7 +16,10 @@
 
 package org.springframework.integration.redis.outbound;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -24,6 +27,7 @@ import java.util.Properties;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundSetOperations;
@@ -46,11 +50,14 @@ import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.integration.Message;
+import org.springframework.integration.MessageChannel;
 import org.springframework.integration.MessageHandlingException;
+import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.core.MessageHandler;
 import org.springframework.integration.expression.ExpressionUtils;
 import org.springframework.integration.handler.AbstractMessageHandler;
 import org.springframework.integration.redis.support.RedisHeaders;
+import org.springframework.integration.util.WriteBehindBuffer;
 import org.springframework.util.Assert;
 import org.springframework.util.NumberUtils;
 
@@ -69,12 +76,23 @@ import org.springframework.util.NumberUtils;
  * You can instead choose to persist such a payload as a single item if the
  * {@link #extractPayloadElements} property is set to false (default is true).
  *
+ * When a {@link #setBatchSize(int) batch size} greater than 1 is configured, the handler
+ * operates in write-behind mode: messages are accumulated and written in a single pipeline
+ * when the batch is full, or when the {@link #setBatchTimeout(long) batch timeout} elapses.
+ * In this mode, a message is considered handled before it has been written to Redis, and
+ * pending messages are lost if the application terminates abnormally. An
+ * {@link org.springframework.integration.message.ErrorMessage} is sent for each message that
+ * could not be written to the {@link #setErrorChannel(MessageChannel) error channel} (by default,
+ * the message's error channel header or the 'errorChannel' bean).
+ *
  * @author Oleg Zhurakousky
  * @author Gary Russell
  * @author Mark Fisher
  * @since 2.2
  */
-public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
+public class RedisStoreWritingMessageHandler extends AbstractMessageHandler implements DisposableBean {
+
+	public static final long DEFAULT_BATCH_TIMEOUT = 1000;
 
 	private final Log logger = LogFactory.getLog(this.getClass());
 
@@ -103,6 +121,16 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 
 	private volatile boolean initialized;
 
+	private volatile int batchSize = 1;
+
+	private volatile long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+
+	private volatile WriteBehindBuffer<Message<?>> buffer;
+
+	private final MessagePublishingErrorHandler errorHandler = new MessagePublishingErrorHandler();
+
+	private volatile MessageChannel errorChannel;
+
 
 	/**
 	 * Constructs an instance using the provided {@link RedisTemplate}.
@@ -193,6 +221,36 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 		this.mapKeyExpressionExplicitlySet = true;
 	}
 
+	/**
+	 * The number of messages to accumulate before writing them in one pipeline;
+	 * a value greater than 1 enables the write-behind mode. Default 1.
+	 * @param batchSize the batch size.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * The maximum time (milliseconds) messages remain pending in write-behind mode
+	 * before they are written, even if the batch is not full. Default 1000.
+	 * @param batchTimeout the batch timeout.
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		Assert.isTrue(batchTimeout > 0, "'batchTimeout' must be > 0");
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * The channel to which an error message is sent for each message that could not be
+	 * written in write-behind mode. By default, the message's error channel header or the
+	 * 'errorChannel' bean is used.
+	 * @param errorChannel the error channel.
+	 */
+	public void setErrorChannel(MessageChannel errorChannel) {
+		this.errorChannel = errorChannel;
+	}
+
 	@Override
 	public String getComponentType() {
 		return "redis:store-outbound-channel-adapter";
@@ -216,9 +274,52 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 			this.redisTemplate.setConnectionFactory(this.connectionFactory);
 			this.redisTemplate.afterPropertiesSet();
 		}
+		if (this.batchSize > 1) {
+			this.buffer = new WriteBehindBuffer<Message<?>>(this.batchSize, new WriteBehindBuffer.Writer<Message<?>>() {
+
+				public void write(List<Message<?>> messages) {
+					writeBatch(messages);
+				}
+
+			});
+			this.errorHandler.setDefaultErrorChannel(this.errorChannel);
+			if (this.getBeanFactory() != null) {
+				this.errorHandler.setBeanFactory(this.getBeanFactory());
+			}
+			this.buffer.setFailureCallback(new WriteBehindBuffer.FailureCallback<Message<?>>() {
+
+				public void onFailure(List<Message<?>> messages, RuntimeException exception) {
+					for (Message<?> message : messages) {
+						reportFailure(message, exception);
+					}
+				}
+
+			});
+			this.buffer.start(this.getTaskScheduler(), this.batchTimeout);
+		}
 		this.initialized = true;
 	}
 
+	/**
+	 * Write any messages pending in write-behind mode.
+	 */
+	public void flush() {
+		WriteBehindBuffer<Message<?>> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.flush();
+		}
+	}
+
+	/**
+	 * Stop the write-behind timer and write any pending messages.
+	 */
+	public void destroy() {
+		WriteBehindBuffer<Message<?>> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.stop();
+		}
+	}
+
 	/**
 	 * Will extract the payload from the Message and store it in the collection identified by the
 	 * key (which may be determined by an expression). The type of collection is specified by the
@@ -246,16 +347,31 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 	 * If the payload itself needs to be stored as a value of the map/property then the map key
 	 * must be specified via the mapKeyExpression (default {@link RedisHeaders#MAP_KEY} Message header).
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	protected void handleMessageInternal(Message<?> message) throws Exception {
+		Assert.state(this.initialized, "handler not initialized - afterPropertiesSet() must be called before the first use");
+		WriteBehindBuffer<Message<?>> buffer = this.buffer;
+		if (buffer != null) {
+			buffer.add(message);
+		}
+		else {
+			this.writeMessage(message);
+		}
+	}
+
+	private void writeMessage(Message<?> message) {
+		this.writeMessage(this.createStoreView(this.determineKey(message)), message);
+	}
+
+	private String determineKey(Message<?> message) {
 		String key = this.keyExpression.getValue(this.evaluationContext, message, String.class);
 		Assert.hasText(key, "Failed to determine a key for the Redis store using expression: "
 				+ this.keyExpression.getExpressionString());
+		return key;
+	}
 
-		RedisStore store = this.createStoreView(key);
-
-		Assert.state(this.initialized, "handler not initialized - afterPropertiesSet() must be called before the first use");
+	@SuppressWarnings("unchecked")
+	private void writeMessage(RedisStore store, Message<?> message) {
 		try {
 			if (collectionType == CollectionType.ZSET) {
 				this.writeToZset((RedisZSet<Object>) store, message);
@@ -278,6 +394,60 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 		}
 	}
 
+	private void writeBatch(List<Message<?>> messages) {
+		// the store views must be created outside of the pipeline (it determines the key type)
+		final List<Message<?>> resolvedMessages = new ArrayList<Message<?>>(messages.size());
+		final List<RedisStore> stores = new ArrayList<RedisStore>(messages.size());
+		Map<String, RedisStore> storesByKey = new HashMap<String, RedisStore>();
+		for (Message<?> message : messages) {
+			try {
+				String key = this.determineKey(message);
+				RedisStore store = storesByKey.get(key);
+				if (store == null) {
+					store = this.createStoreView(key);
+					storesByKey.put(key, store);
+				}
+				resolvedMessages.add(message);
+				stores.add(store);
+			}
+			catch (Exception e) {
+				this.reportFailure(message, e);
+			}
+		}
+		final boolean[] reported = new boolean[resolvedMessages.size()];
+		try {
+			this.processInPipeline(new PipelineCallback() {
+				public void process() {
+					for (int i = 0; i < resolvedMessages.size(); i++) {
+						try {
+							writeMessage(stores.get(i), resolvedMessages.get(i));
+						}
+						catch (Exception e) {
+							reported[i] = true;
+							reportFailure(resolvedMessages.get(i), e);
+						}
+					}
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			// the pipeline failed as a whole
+			for (int i = 0; i < resolvedMessages.size(); i++) {
+				if (!reported[i]) {
+					this.reportFailure(resolvedMessages.get(i), e);
+				}
+			}
+		}
+	}
+
+	private void reportFailure(Message<?> message, Exception e) {
+		MessageHandlingException exception = e instanceof MessageHandlingException
+				&& ((MessageHandlingException) e).getFailedMessage() == message
+				? (MessageHandlingException) e
+				: new MessageHandlingException(message, "Failed to store Message data in Redis collection", e);
+		this.errorHandler.handleError(exception);
+	}
+
 	@SuppressWarnings("unchecked")
 	private void writeToZset(RedisZSet<Object> zset, final Message<?> message) throws Exception{
 		final Object payload = message.getPayload();
@@ -325,11 +495,15 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 	}
 
 	@SuppressWarnings("unchecked")
-	private void writeToList(RedisList<Object> list, Message<?> message) {
-		Object payload = message.getPayload();
+	private void writeToList(final RedisList<Object> list, Message<?> message) {
+		final Object payload = message.getPayload();
 		if (this.extractPayloadElements) {
 			if (payload instanceof Collection<?>) {
-				list.addAll((Collection<? extends Object>) payload);
+				this.processInPipeline(new PipelineCallback() {
+					public void process() {
+						list.addAll((Collection<? extends Object>) payload);
+					}
+				});
 			}
 			else {
 				list.add(payload);
@@ -343,10 +517,9 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 	@SuppressWarnings("unchecked")
 	private void writeToSet(final RedisSet<Object> set, Message<?> message) {
 		final Object payload = message.getPayload();
+		final BoundSetOperations<String, Object> ops =
+				(BoundSetOperations<String, Object>) this.redisTemplate.boundSetOps(set.getKey());
 		if (this.extractPayloadElements && payload instanceof Collection<?>) {
-			final BoundSetOperations<String, Object> ops =
-					(BoundSetOperations<String, Object>) this.redisTemplate.boundSetOps(set.getKey());
-
 			this.processInPipeline(new PipelineCallback() {
 				public void process() {
 					for (Object object : ((Collection<?>)payload)) {
@@ -356,7 +529,8 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 			});
 		}
 		else {
-			set.add(payload);
+			// not set.add() - its result can't be determined when pipelined
+			ops.add(payload);
 		}
 	}
 
@@ -395,6 +569,11 @@ public class RedisStoreWritingMessageHandler extends AbstractMessageHandler {
 	private void processInPipeline(PipelineCallback callback) {
 		RedisConnection connection =
 				RedisConnectionUtils.bindConnection(redisTemplate.getConnectionFactory());
+		if (connection.isPipelined()) {
+			// already within a (write-behind) pipeline
+			callback.process();
+			return;
+		}
 		try {
 			connection.openPipeline();
 			callback.process();
@@ -16,23 +16,41 @@
 
 package org.springframework.integration.redis.store;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundValueOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.integration.store.AbstractKeyValueMessageStore;
+import org.springframework.integration.store.MessageGroupMetadata;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.util.Assert;
 
 /**
  * Redis implementation of the key/value style {@link MessageStore} and {@link MessageGroupStore}
+ * <p>
+ * The ids of the messages in a group are kept in a Redis sorted set, scored by their arrival
+ * order in the group, so adding, removing and polling a message only updates that set (in
+ * O(log n)) and the (constant size) group metadata, instead of rewriting the complete membership. Groups stored by earlier versions, which hold the ids in the group
+ * metadata, continue to be maintained there.
+ * <p>
+ * Multi-key operations are performed in a single round trip: the messages of a group are
+ * fetched with {@code MGET}, removed with a single {@code DEL}, and their ids are removed from
+ * the group with a single {@code ZREM}. To reduce the size of the stored messages, consider providing a more compact
+ * serializer than the default {@link JdkSerializationRedisSerializer} via
+ * {@link #setValueSerializer(RedisSerializer)}.
  *
  * @author Oleg Zhurakousky
  * @author Gary Russell
@@ -40,14 +58,21 @@ import org.springframework.util.Assert;
  */
 public class RedisMessageStore extends AbstractKeyValueMessageStore {
 
+	private static final String MESSAGE_GROUP_MEMBERS_KEY_PREFIX = "GROUP_MEMBERS_";
+
+	private static final String MESSAGE_GROUP_ARRIVAL_KEY_PREFIX = "GROUP_ARRIVAL_";
+
 	private final RedisTemplate<Object, Object> redisTemplate;
 
+	private final StringRedisTemplate membersTemplate;
+
 	public RedisMessageStore(RedisConnectionFactory connectionFactory) {
 		this.redisTemplate = new RedisTemplate<Object, Object>();
 		this.redisTemplate.setConnectionFactory(connectionFactory);
 		this.redisTemplate.setKeySerializer(new StringRedisSerializer());
 		this.redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
 		this.redisTemplate.afterPropertiesSet();
+		this.membersTemplate = new StringRedisTemplate(connectionFactory);
 	}
 
 	public void setValueSerializer(RedisSerializer<?> valueSerializer) {
@@ -90,10 +115,128 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore {
 	}
 
 
+	@Override
+	protected List<?> doRetrieveAll(Collection<Object> ids) {
+		Assert.notNull(ids, "'ids' must not be null");
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return this.redisTemplate.opsForValue().multiGet(ids);
+	}
+
+	@Override
+	protected void doRemoveAll(Collection<Object> ids) {
+		Assert.notNull(ids, "'ids' must not be null");
+		if (!ids.isEmpty()) {
+			this.redisTemplate.delete(ids);
+		}
+	}
+
 	@Override
 	protected Collection<?> doListKeys(String keyPattern) {
 		Assert.hasText(keyPattern, "'keyPattern' must not be empty");
 		Set<Object> keys = redisTemplate.keys(keyPattern);
 		return keys;
 	}
+
+	@Override
+	protected void doAddMessageIdToGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+		if (metadata.size() > 0) {
+			super.doAddMessageIdToGroup(groupId, metadata, messageId);
+		}
+		else {
+			// the score is the arrival order of the message in the group
+			long arrival = this.membersTemplate.opsForValue().increment(this.arrivalKey(groupId), 1);
+			this.membersTemplate.opsForZSet().add(this.membersKey(groupId), messageId.toString(), arrival);
+		}
+	}
+
+	@Override
+	protected void doRemoveMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata, UUID messageId) {
+		if (metadata.size() > 0) {
+			super.doRemoveMessageIdFromGroup(groupId, metadata, messageId);
+		}
+		else {
+			this.membersTemplate.opsForZSet().remove(this.membersKey(groupId), messageId.toString());
+		}
+	}
+
+	@Override
+	protected void doRemoveMessageIdsFromGroup(Object groupId, MessageGroupMetadata metadata,
+			Collection<UUID> messageIds) {
+		if (metadata.size() > 0) {
+			super.doRemoveMessageIdsFromGroup(groupId, metadata, messageIds);
+		}
+		else if (!messageIds.isEmpty()) {
+			Object[] ids = new Object[messageIds.size()];
+			int i = 0;
+			for (UUID messageId : messageIds) {
+				ids[i++] = messageId.toString();
+			}
+			this.membersTemplate.opsForZSet().remove(this.membersKey(groupId), ids);
+		}
+	}
+
+	@Override
+	protected UUID doPollMessageIdFromGroup(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doPollMessageIdFromGroup(groupId, metadata);
+		}
+		String membersKey = this.membersKey(groupId);
+		while (true) {
+			Set<String> first = this.membersTemplate.opsForZSet().range(membersKey, 0, 0);
+			if (first.isEmpty()) {
+				return null;
+			}
+			String id = first.iterator().next();
+			// another consumer may have polled the same id in the meantime
+			if (this.membersTemplate.opsForZSet().remove(membersKey, id) > 0) {
+				return UUID.fromString(id);
+			}
+		}
+	}
+
+	@Override
+	protected UUID doGetFirstMessageIdInGroup(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doGetFirstMessageIdInGroup(groupId, metadata);
+		}
+		Set<String> first = this.membersTemplate.opsForZSet().range(this.membersKey(groupId), 0, 0);
+		return first.isEmpty() ? null : UUID.fromString(first.iterator().next());
+	}
+
+	@Override
+	protected List<UUID> doListMessageIdsInGroup(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doListMessageIdsInGroup(groupId, metadata);
+		}
+		Set<String> ids = this.membersTemplate.opsForZSet().range(this.membersKey(groupId), 0, -1);
+		List<UUID> messageIds = new ArrayList<UUID>(ids.size());
+		for (String id : ids) {
+			messageIds.add(UUID.fromString(id));
+		}
+		return messageIds;
+	}
+
+	@Override
+	protected int doGetGroupSize(Object groupId, MessageGroupMetadata metadata) {
+		if (metadata.size() > 0) {
+			return super.doGetGroupSize(groupId, metadata);
+		}
+		return this.membersTemplate.opsForZSet().size(this.membersKey(groupId)).intValue();
+	}
+
+	@Override
+	protected void doRemoveGroupMembership(Object groupId) {
+		this.membersTemplate.delete(Arrays.asList(this.membersKey(groupId), this.arrivalKey(groupId)));
+	}
+
+	private String arrivalKey(Object groupId) {
+		return MESSAGE_GROUP_ARRIVAL_KEY_PREFIX + groupId;
+	}
+
+	private String membersKey(Object groupId) {
+		return MESSAGE_GROUP_MEMBERS_KEY_PREFIX + groupId;
+	}
+
 }
@@ -79,5 +79,7 @@ public class RedisStoreOutboundChannelAdapterParserTests {
 		assertEquals("pepboys", ((LiteralExpression)TestUtils.getPropertyValue(withExternalTemplate, "keyExpression")).getExpressionString());
 		assertEquals("PROPERTIES", ((CollectionType)TestUtils.getPropertyValue(withExternalTemplate, "collectionType")).toString());
 		assertSame(redisTemplate, TestUtils.getPropertyValue(withExternalTemplate, "redisTemplate"));
+		assertEquals(10, TestUtils.getPropertyValue(withExternalTemplate, "batchSize"));
+		assertEquals(500L, TestUtils.getPropertyValue(withExternalTemplate, "batchTimeout"));
 	}
 }
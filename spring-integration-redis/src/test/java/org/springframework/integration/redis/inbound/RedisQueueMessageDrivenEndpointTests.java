@@ -21,16 +21,20 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessagingException;
+import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.core.PollableChannel;
 import org.springframework.integration.message.ErrorMessage;
@@ -142,6 +146,183 @@ public class RedisQueueMessageDrivenEndpointTests extends RedisAvailableTests {
 		this.waitUntilListening(endpoint);
 	}
 
+	@Test
+	@RedisAvailable
+	public void testConcurrentBatchConsumers() throws Exception {
+
+		String queueName = "si.test.redisQueueInboundChannelAdapterTests3";
+
+		RedisConnectionFactory connectionFactory = this.getConnectionFactoryForTest();
+
+		RedisTemplate<String, String> redisTemplate = new StringRedisTemplate(connectionFactory);
+		redisTemplate.delete(queueName);
+		for (int i = 0; i < 100; i++) {
+			redisTemplate.boundListOps(queueName).leftPush("test" + i);
+		}
+
+		QueueChannel channel = new QueueChannel();
+
+		RedisQueueMessageDrivenEndpoint endpoint = new RedisQueueMessageDrivenEndpoint(queueName, connectionFactory);
+		endpoint.setSerializer(new StringRedisSerializer());
+		endpoint.setOutputChannel(channel);
+		endpoint.setReceiveTimeout(1000);
+		endpoint.setConcurrentConsumers(3);
+		endpoint.setBatchSize(10);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+
+		Set<Object> payloads = new HashSet<Object>();
+		for (int i = 0; i < 100; i++) {
+			Message<?> receive = channel.receive(10000);
+			assertNotNull(receive);
+			payloads.add(receive.getPayload());
+		}
+		assertEquals(100, payloads.size());
+		assertEquals(0, endpoint.getQueueSize());
+		int n = 0;
+		while (n++ < 100 && endpoint.getListenerCount() < 3) {
+			Thread.sleep(100);
+		}
+		assertEquals(3, endpoint.getListenerCount());
+
+		endpoint.stop();
+		this.waitUntilListening(endpoint);
+	}
+
+	@Test
+	@RedisAvailable
+	public void testProcessingQueue() throws Exception {
+
+		String queueName = "si.test.redisQueueInboundChannelAdapterTests4";
+		String processingQueueName = queueName + ".processing";
+
+		RedisConnectionFactory connectionFactory = this.getConnectionFactoryForTest();
+
+		RedisTemplate<String, String> redisTemplate = new StringRedisTemplate(connectionFactory);
+		redisTemplate.delete(queueName);
+		redisTemplate.delete(processingQueueName);
+		redisTemplate.boundListOps(queueName).leftPush("foo");
+		redisTemplate.boundListOps(queueName).leftPush("fail");
+		redisTemplate.boundListOps(queueName).leftPush("bar");
+
+		final QueueChannel channel = new QueueChannel();
+
+		RedisQueueMessageDrivenEndpoint endpoint = new RedisQueueMessageDrivenEndpoint(queueName, connectionFactory);
+		endpoint.setSerializer(new StringRedisSerializer());
+		endpoint.setOutputChannel(new DirectChannel() {
+
+			@Override
+			protected boolean doSend(Message<?> message, long timeout) {
+				if ("fail".equals(message.getPayload())) {
+					throw new RuntimeException("planned");
+				}
+				return channel.send(message);
+			}
+
+		});
+		endpoint.setReceiveTimeout(1000);
+		endpoint.setBatchSize(5);
+		endpoint.setProcessingQueueName(processingQueueName);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+
+		assertEquals("foo", channel.receive(10000).getPayload());
+		assertEquals("bar", channel.receive(10000).getPayload());
+
+		endpoint.stop();
+		this.waitUntilListening(endpoint);
+
+		// the failed element is left in the processing queue
+		assertEquals(Long.valueOf(1), redisTemplate.boundListOps(processingQueueName).size());
+		assertEquals(1, endpoint.recoverProcessingQueue());
+		assertEquals(Long.valueOf(0), redisTemplate.boundListOps(processingQueueName).size());
+		assertEquals("fail", redisTemplate.boundListOps(queueName).rightPop());
+	}
+
+
+	@Test
+	@RedisAvailable
+	public void testProcessingQueueWithErrorChannel() throws Exception {
+
+		String queueName = "si.test.redisQueueInboundChannelAdapterTests5";
+		String processingQueueName = queueName + ".processing";
+
+		RedisConnectionFactory connectionFactory = this.getConnectionFactoryForTest();
+
+		RedisTemplate<String, String> redisTemplate = new StringRedisTemplate(connectionFactory);
+		redisTemplate.delete(queueName);
+		redisTemplate.delete(processingQueueName);
+		redisTemplate.boundListOps(queueName).leftPush("foo");
+		redisTemplate.boundListOps(queueName).leftPush("fail");
+		redisTemplate.boundListOps(queueName).leftPush("bar");
+
+		final QueueChannel channel = new QueueChannel();
+		QueueChannel errorChannel = new QueueChannel();
+
+		RedisQueueMessageDrivenEndpoint endpoint = new RedisQueueMessageDrivenEndpoint(queueName, connectionFactory);
+		endpoint.setSerializer(new StringRedisSerializer());
+		endpoint.setOutputChannel(new DirectChannel() {
+
+			@Override
+			protected boolean doSend(Message<?> message, long timeout) {
+				if ("fail".equals(message.getPayload())) {
+					throw new RuntimeException("planned");
+				}
+				return channel.send(message);
+			}
+
+		});
+		endpoint.setErrorChannel(errorChannel);
+		endpoint.setReceiveTimeout(1000);
+		endpoint.setBatchSize(5);
+		endpoint.setProcessingQueueName(processingQueueName);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+
+		assertEquals("foo", channel.receive(10000).getPayload());
+		assertEquals("bar", channel.receive(10000).getPayload());
+		Message<?> errorMessage = errorChannel.receive(10000);
+		assertNotNull(errorMessage);
+		assertEquals("fail", ((MessagingException) errorMessage.getPayload()).getFailedMessage().getPayload());
+
+		endpoint.stop();
+		this.waitUntilListening(endpoint);
+
+		// the failure was handled, so the element is removed from the processing queue
+		assertEquals(Long.valueOf(0), redisTemplate.boundListOps(processingQueueName).size());
+	}
+
+	@Test
+	@RedisAvailable
+	public void testRecoverProcessingQueueOrder() throws Exception {
+
+		String queueName = "si.test.redisQueueInboundChannelAdapterTests6";
+		String processingQueueName = queueName + ".processing";
+
+		RedisConnectionFactory connectionFactory = this.getConnectionFactoryForTest();
+
+		RedisTemplate<String, String> redisTemplate = new StringRedisTemplate(connectionFactory);
+		redisTemplate.delete(queueName);
+		redisTemplate.delete(processingQueueName);
+		redisTemplate.boundListOps(queueName).leftPush("one");
+		redisTemplate.boundListOps(queueName).leftPush("two");
+		redisTemplate.boundListOps(queueName).leftPush("three");
+		// simulate a crash after 'one' and 'two' were popped
+		redisTemplate.opsForList().rightPopAndLeftPush(queueName, processingQueueName);
+		redisTemplate.opsForList().rightPopAndLeftPush(queueName, processingQueueName);
+		redisTemplate.boundListOps(queueName).leftPush("four");
+
+		RedisQueueMessageDrivenEndpoint endpoint = new RedisQueueMessageDrivenEndpoint(queueName, connectionFactory);
+		endpoint.setProcessingQueueName(processingQueueName);
+		assertEquals(2, endpoint.recoverProcessingQueue());
+		assertEquals(Long.valueOf(0), redisTemplate.boundListOps(processingQueueName).size());
+
+		// the recovered elements are popped first, in their original order
+		assertEquals("one", redisTemplate.boundListOps(queueName).rightPop());
+		assertEquals("two", redisTemplate.boundListOps(queueName).rightPop());
+		assertEquals("three", redisTemplate.boundListOps(queueName).rightPop());
+		assertEquals("four", redisTemplate.boundListOps(queueName).rightPop());
+	}
 
 	public void waitUntilListening(RedisQueueMessageDrivenEndpoint endpoint) throws Exception {
 		int n = 0;
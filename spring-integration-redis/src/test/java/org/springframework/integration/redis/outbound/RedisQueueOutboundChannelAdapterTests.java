@@ -18,6 +18,10 @@ package org.springframework.integration.redis.outbound;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Date;
@@ -25,13 +29,18 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.integration.Message;
+import org.springframework.integration.MessagingException;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.message.GenericMessage;
 import org.springframework.integration.redis.rules.RedisAvailable;
 import org.springframework.integration.redis.rules.RedisAvailableTests;
@@ -82,6 +91,43 @@ public class RedisQueueOutboundChannelAdapterTests extends RedisAvailableTests {
 		assertEquals(payload2, result2);
 	}
 
+	@Test
+	@RedisAvailable
+	public void testWriteBehind() throws Exception {
+
+		final String queueName = "si.test.testRedisQueueOutboundChannelAdapter";
+		final String otherQueueName = "si.test.testRedisQueueOutboundChannelAdapter.other";
+
+		RedisConnectionFactory connectionFactory = this.getConnectionFactoryForTest();
+
+		RedisQueueOutboundChannelAdapter handler = new RedisQueueOutboundChannelAdapter(
+				new SpelExpressionParser().parseExpression("headers['queue']"), connectionFactory);
+		handler.setIntegrationEvaluationContext(new StandardEvaluationContext());
+		handler.setBatchSize(4);
+		handler.setBatchTimeout(60000);
+		handler.afterPropertiesSet();
+
+		RedisTemplate<String, String> redisTemplate = new StringRedisTemplate(connectionFactory);
+
+		handler.handleMessage(MessageBuilder.withPayload("one").setHeader("queue", queueName).build());
+		handler.handleMessage(MessageBuilder.withPayload("two").setHeader("queue", queueName).build());
+		handler.handleMessage(MessageBuilder.withPayload("three").setHeader("queue", otherQueueName).build());
+		assertEquals(Long.valueOf(0), redisTemplate.boundListOps(queueName).size());
+		handler.handleMessage(MessageBuilder.withPayload("four").setHeader("queue", queueName).build());
+
+		assertEquals(Long.valueOf(3), redisTemplate.boundListOps(queueName).size());
+		assertEquals("one", redisTemplate.boundListOps(queueName).rightPop());
+		assertEquals("two", redisTemplate.boundListOps(queueName).rightPop());
+		assertEquals("four", redisTemplate.boundListOps(queueName).rightPop());
+		assertEquals("three", redisTemplate.boundListOps(otherQueueName).rightPop());
+
+		handler.handleMessage(MessageBuilder.withPayload("five").setHeader("queue", queueName).build());
+		assertEquals(Long.valueOf(0), redisTemplate.boundListOps(queueName).size());
+		handler.flush();
+		assertEquals("five", redisTemplate.boundListOps(queueName).rightPop());
+		handler.destroy();
+	}
+
 	@Test
 	@RedisAvailable
 	public void testInt3015ExtractPayloadFalse() throws Exception {
@@ -140,4 +186,31 @@ public class RedisQueueOutboundChannelAdapterTests extends RedisAvailableTests {
 		assertEquals("\"test\"", result);
 	}
 
+
+	@Test
+	public void testWriteBehindFailureGoesToErrorChannel() throws Exception {
+		RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+		when(connectionFactory.getConnection()).thenThrow(new RedisConnectionFailureException("planned"));
+		RedisQueueOutboundChannelAdapter handler = new RedisQueueOutboundChannelAdapter("foo", connectionFactory);
+		QueueChannel errorChannel = new QueueChannel();
+		handler.setErrorChannel(errorChannel);
+		handler.setBatchSize(2);
+		handler.setBatchTimeout(60000);
+		handler.afterPropertiesSet();
+
+		Message<?> one = MessageBuilder.withPayload("one").build();
+		Message<?> two = MessageBuilder.withPayload("two").build();
+		handler.handleMessage(one);
+		// the sender of the message that fills the batch is not affected
+		handler.handleMessage(two);
+		Message<?> error = errorChannel.receive(0);
+		assertNotNull(error);
+		assertSame(one, ((MessagingException) error.getPayload()).getFailedMessage());
+		error = errorChannel.receive(0);
+		assertNotNull(error);
+		assertSame(two, ((MessagingException) error.getPayload()).getFailedMessage());
+		assertNull(errorChannel.receive(0));
+		handler.destroy();
+	}
+
 }
@@ -17,8 +17,13 @@
 package org.springframework.integration.redis.outbound;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -29,6 +34,7 @@ import java.util.Set;
 
 import org.junit.Test;
 
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -41,6 +47,8 @@ import org.springframework.data.redis.support.collections.RedisZSet;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.integration.Message;
 import org.springframework.integration.MessageHandlingException;
+import org.springframework.integration.MessagingException;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.message.GenericMessage;
 import org.springframework.integration.redis.rules.RedisAvailable;
 import org.springframework.integration.redis.rules.RedisAvailableTests;
@@ -82,6 +90,68 @@ public class RedisStoreWritingMessageHandlerTests extends RedisAvailableTests{
 		assertEquals("Jack", redisList.get(2));
 	}
 
+	@Test
+	@RedisAvailable
+	public void testListWriteBehind() throws Exception {
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		String key = "foo";
+		RedisList<String> redisList =
+				new DefaultRedisList<String>(key, this.initTemplate(jcf, new StringRedisTemplate()));
+
+		RedisStoreWritingMessageHandler handler =
+				new RedisStoreWritingMessageHandler(jcf);
+		handler.setKey(key);
+		handler.setBatchSize(3);
+		handler.setBatchTimeout(60000);
+		handler.afterPropertiesSet();
+
+		handler.handleMessage(new GenericMessage<String>("Manny"));
+		List<String> list = new ArrayList<String>();
+		list.add("Moe");
+		list.add("Jack");
+		handler.handleMessage(new GenericMessage<List<String>>(list));
+		assertEquals(0, redisList.size());
+		handler.handleMessage(new GenericMessage<String>("Larry"));
+		assertEquals(4, redisList.size());
+		assertEquals("Manny", redisList.get(0));
+		assertEquals("Moe", redisList.get(1));
+		assertEquals("Jack", redisList.get(2));
+		assertEquals("Larry", redisList.get(3));
+
+		handler.handleMessage(new GenericMessage<String>("Curly"));
+		assertEquals(4, redisList.size());
+		handler.destroy();
+		assertEquals(5, redisList.size());
+		assertEquals("Curly", redisList.get(4));
+	}
+
+	@Test
+	@RedisAvailable
+	public void testSetWriteBehindTimeout() throws Exception {
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		RedisTemplate<String, String> template = this.initTemplate(jcf, new StringRedisTemplate());
+
+		RedisStoreWritingMessageHandler handler =
+				new RedisStoreWritingMessageHandler(jcf);
+		handler.setKey("foo");
+		handler.setCollectionType(CollectionType.SET);
+		handler.setBatchSize(100);
+		handler.setBatchTimeout(100);
+		handler.afterPropertiesSet();
+
+		handler.handleMessage(new GenericMessage<String>("Manny"));
+		handler.handleMessage(new GenericMessage<String>("Moe"));
+		int n = 0;
+		while (n++ < 100 && template.boundSetOps("foo").size() < 2) {
+			Thread.sleep(100);
+		}
+		Set<String> members = template.boundSetOps("foo").members();
+		assertEquals(2, members.size());
+		assertTrue(members.contains("Manny"));
+		assertTrue(members.contains("Moe"));
+		handler.destroy();
+	}
+
 	@Test
 	@RedisAvailable
 	public void testListWithListPayloadParsedAndProvidedKeyAsHeader() {
@@ -529,4 +599,31 @@ public class RedisStoreWritingMessageHandlerTests extends RedisAvailableTests{
 			this.name = name;
 		}
 	}
+
+	@Test
+	public void testWriteBehindFailureGoesToErrorChannel() throws Exception {
+		RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+		when(connectionFactory.getConnection()).thenThrow(new RedisConnectionFailureException("planned"));
+		RedisStoreWritingMessageHandler handler = new RedisStoreWritingMessageHandler(connectionFactory);
+		handler.setKey("foo");
+		QueueChannel errorChannel = new QueueChannel();
+		handler.setErrorChannel(errorChannel);
+		handler.setBatchSize(2);
+		handler.setBatchTimeout(60000);
+		handler.afterPropertiesSet();
+
+		Message<?> one = MessageBuilder.withPayload("one").build();
+		Message<?> two = MessageBuilder.withPayload("two").build();
+		handler.handleMessage(one);
+		handler.handleMessage(two);
+		Message<?> error = errorChannel.receive(0);
+		assertNotNull(error);
+		assertSame(one, ((MessagingException) error.getPayload()).getFailedMessage());
+		error = errorChannel.receive(0);
+		assertNotNull(error);
+		assertSame(two, ((MessagingException) error.getPayload()).getFailedMessage());
+		assertNull(errorChannel.receive(0));
+		handler.destroy();
+	}
+
 }
@@ -138,6 +138,31 @@ public class RedisMessageGroupStoreTests extends RedisAvailableTests {
 		assertEquals(0, messageGroup.size());
 	}
 
+	@Test
+	@RedisAvailable
+	public void testRemoveMessagesFromGroup() throws Exception{
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		RedisMessageStore store = new RedisMessageStore(jcf);
+		store.removeMessageGroup(1);
+
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 5; i++) {
+			Message<?> message = new GenericMessage<String>("Hello" + i);
+			messages.add(message);
+			store.addMessageToGroup(1, message);
+		}
+		MessageGroup messageGroup = store.removeMessagesFromGroup(1, messages.subList(1, 4));
+		assertEquals(2, messageGroup.size());
+		Iterator<Message<?>> iterator = messageGroup.getMessages().iterator();
+		assertEquals("Hello0", iterator.next().getPayload());
+		assertEquals("Hello4", iterator.next().getPayload());
+		assertNull(store.getMessage(messages.get(2).getHeaders().getId()));
+
+		store.removeMessageGroup(1);
+		assertNull(store.getMessage(messages.get(0).getHeaders().getId()));
+		assertEquals(0, store.messageGroupSize(1));
+	}
+
 	@Test
 	@RedisAvailable
 	public void testCompleteMessageGroup() throws Exception{